@@ -1,4 +1,4 @@
-import { useEffect, useMemo, useState } from 'react';
+import { useEffect, useState } from 'react';
 import AdminLayout from '@components/layout/AdminLayout/AdminLayout';
 import { adminService } from '@services/admin.service';
 import LoadingSpinner from '@components/common/LoadingSpinner';
@@ -32,18 +32,33 @@ const statusBadge = (status) => {
   }
 };
 
+const PAGE_SIZE = 50;
+
 const CustomerManagementPage = () => {
   const [customers, setCustomers] = useState([]);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
   const [success, setSuccess] = useState(null);
   const [updatingStatus, setUpdatingStatus] = useState({});
+  const [page, setPage] = useState(0);
+  const [size] = useState(PAGE_SIZE);
+  const [totalPages, setTotalPages] = useState(0);
+  const [totalCount, setTotalCount] = useState(0);
 
   useEffect(() => {
     const fetchCustomers = async () => {
+      setLoading(true);
       try {
-        const data = await adminService.getCustomers();
-        setCustomers(Array.isArray(data) ? data : []);
+        const data = await adminService.getCustomers(page, size);
+        if (Array.isArray(data)) {
+          setCustomers(data);
+          setTotalPages(1);
+          setTotalCount(data.length);
+        } else {
+          setCustomers(data?.customers || []);
+          setTotalPages(data?.totalPages || 0);
+          setTotalCount(data?.totalCount || 0);
+        }
       } catch (err) {
         setError(err.response?.data?.message || 'Không thể tải danh sách khách hàng.');
       } finally {
@@ -52,12 +67,7 @@ const CustomerManagementPage = () => {
     };
 
     fetchCustomers();
-  }, []);
-
-  const riskCustomers = useMemo(
-    () => customers.filter((customer) => Array.isArray(customer.riskFlags) ? customer.riskFlags.length > 0 : !!customer.riskFlag),
-    [customers]
-  );
+  }, [page, size]);
 
   const handleStatusChange = async (customerId, newStatus) => {
     setUpdatingStatus((prev) => ({ ...prev, [customerId]: true }));
@@ -103,12 +113,12 @@ const CustomerManagementPage = () => {
           <>
             <section className="customer-summary">
               <article className="customer-summary-card">
-                <span>Tổng khách hàng</span>
+                <span>Trên trang này</span>
                 <strong>{customers.length}</strong>
               </article>
               <article className="customer-summary-card customer-summary-card--warning">
                 <span>Đang bị gắn cờ</span>
-                <strong>{riskCustomers.length}</strong>
+                <strong>{totalCount}</strong>
               </article>
             </section>
 
@@ -177,6 +187,27 @@ const CustomerManagementPage = () => {
                   </table>
                 )}
               </div>
+              {totalPages > 1 && (
+                <div className="customer-pagination">
+                  <button
+                    className="btn btn-outline-primary"
+                    onClick={() => setPage((p) => Math.max(0, p - 1))}
+                    disabled={page === 0}
+                  >
+                    ← Trước
+                  </button>
+                  <span className="customer-pagination__info">
+                    Trang {page + 1} / {totalPages} ({totalCount} khách hàng)
+                  </span>
+                  <button
+                    className="btn btn-outline-primary"
+                    onClick={() => setPage((p) => Math.min(totalPages - 1, p + 1))}
+                    disabled={page >= totalPages - 1}
+                  >
+                    Sau →
+                  </button>
+                </div>
+              )}
             </section>
           </>
         )}
@@ -13,8 +13,10 @@ export const adminService = {
     });
   },
 
-  getCustomers: async () => {
-    return apiClient.get(ENDPOINTS.GET_CUSTOMERS);
+  getCustomers: async (page = 0, size = 50, minScore = null) => {
+    const params = { page, size };
+    if (minScore !== null) params.minScore = minScore;
+    return apiClient.get(ENDPOINTS.GET_CUSTOMERS, { params });
   },
 
   flagCustomer: async (id, adminId, reason, riskScore) => {
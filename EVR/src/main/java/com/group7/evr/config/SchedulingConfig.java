@@ -0,0 +1,34 @@
+package com.group7.evr.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Two schedulers: the default one ({@code spring.task.scheduling.*}) for the frequent flush and poll jobs,
+ * and {@link #BATCH_SCHEDULER} for the long nightly and hourly rebuilds, which name it in
+ * {@code @Scheduled(scheduler = ...)} so they cannot hold up the second-level jobs.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    public static final String BATCH_SCHEDULER = "batchJobScheduler";
+
+    // Declared explicitly because defining any TaskScheduler bean turns off Boot's default one
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(BATCH_SCHEDULER)
+    public ThreadPoolTaskScheduler batchJobScheduler(@Value("${app.scheduling.batch.pool-size:2}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("evr-batch-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(false);
+        return scheduler;
+    }
+}
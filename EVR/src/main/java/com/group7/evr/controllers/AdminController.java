@@ -5,9 +5,19 @@ import com.group7.evr.enums.ComplaintStatus;
 import com.group7.evr.service.AdminService;
 import com.group7.evr.service.ComplaintService;
 import com.group7.evr.service.UserService;
+import com.group7.evr.service.impl.DashboardStreamHub;
+import com.group7.evr.service.impl.EmailOutboxDispatcher;
+import com.group7.evr.service.impl.ReportCache;
+import com.group7.evr.service.impl.ReportExecutor;
+import com.group7.evr.service.impl.RevenueExporter;
+import com.group7.evr.util.RequestDates;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,17 +30,25 @@ public class AdminController {
     private final AdminService adminService;
     private final ComplaintService complaintService;
     private final UserService userService;
+    private final EmailOutboxDispatcher emailOutboxDispatcher;
+    private final DashboardStreamHub dashboardStreamHub;
+    private final ReportCache reportCache;
+    private final RevenueExporter revenueExporter;
+    private final ReportExecutor reportExecutor;
 
     // Fleet monitoring
     @GetMapping("/fleet/summary")
     public ResponseEntity<Map<String, Object>> getFleetSummary(@RequestParam(required = false) Integer stationId) {
-        if (stationId == null) {
-            // Return overall fleet summary
-            return ResponseEntity.ok(adminService.getFleetSummary(1)); // Mock for overall
-        }
+        // Without a stationId this is the fleet-wide summary with a per-station breakdown
         return ResponseEntity.ok(adminService.getFleetSummary(stationId));
     }
 
+    @GetMapping(value = "/dashboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDashboard() {
+        // Starts with the fleet summary plus fleet/booking/complaint counters, then pushes coalesced deltas to them
+        return dashboardStreamHub.subscribe(adminService::getDashboardSnapshot);
+    }
+
     @PostMapping("/fleet/dispatch")
     public ResponseEntity<Vehicle> dispatchVehicle(
             @RequestParam Integer fromStationId,
@@ -41,8 +59,11 @@ public class AdminController {
 
     // Customer management
     @GetMapping("/customers")
-    public ResponseEntity<List<User>> getCustomers() {
-        return ResponseEntity.ok(adminService.getCustomersWithRiskFlags());
+    public ResponseEntity<Map<String, Object>> getCustomers(
+            @RequestParam(required = false) Integer minScore,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(adminService.getCustomersWithRiskFlags(minScore, page, size));
     }
 
     @PostMapping("/customers/{id}/flag")
@@ -89,9 +110,7 @@ public class AdminController {
     // Staff management
     @GetMapping("/staff")
     public ResponseEntity<List<User>> getStaff(@RequestParam(required = false) Integer stationId) {
-        if (stationId == null) {
-            return ResponseEntity.ok(adminService.getStaffByStation(1)); // Mock for all
-        }
+        // Without a stationId this lists staff of every station
         return ResponseEntity.ok(adminService.getStaffByStation(stationId));
     }
 
@@ -100,6 +119,11 @@ public class AdminController {
         return ResponseEntity.ok(adminService.getStaffPerformance(id));
     }
 
+    @PostMapping("/staff/performance/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildStaffPerformance() {
+        return ResponseEntity.ok(adminService.rebuildStaffPerformance());
+    }
+
     @PostMapping("/staff/schedule")
     public ResponseEntity<StaffSchedule> createStaffSchedule(
             @RequestParam Integer staffId,
@@ -203,29 +227,74 @@ public class AdminController {
         }
     }
 
+    @GetMapping("/reports/revenue/export")
+    public ResponseEntity<StreamingResponseBody> exportRevenueReport(
+            @RequestParam(required = false) Integer stationId,
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam(defaultValue = RevenueExporter.FORMAT_CSV) String format) {
+        LocalDateTime fromDate = RequestDates.parse(from);
+        LocalDateTime toDate = RequestDates.parse(to);
+        String normalizedFormat = format.trim().toLowerCase();
+        StreamingResponseBody body = revenueExporter.exportRevenue(stationId, fromDate, toDate, normalizedFormat);
+        MediaType contentType = RevenueExporter.FORMAT_XLSX.equals(normalizedFormat)
+                ? MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+                : MediaType.parseMediaType("text/csv; charset=UTF-8");
+        String fileName = "revenue-" + fromDate.toLocalDate() + "-" + toDate.toLocalDate() + "." + normalizedFormat;
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    @PostMapping("/reports/revenue/rollup/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRevenueRollup() {
+        return ResponseEntity.ok(adminService.rebuildRevenueRollup());
+    }
+
     @GetMapping("/reports/utilization")
-    public ResponseEntity<Map<String, Object>> getUtilizationReport(@RequestParam(required = false) Integer stationId) {
-        if (stationId == null) {
-            stationId = 1; // Default station
-        }
-        return ResponseEntity.ok(adminService.getUtilizationReport(stationId));
+    public ResponseEntity<Map<String, Object>> getUtilizationReport(
+            @RequestParam(required = false) Integer stationId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        // Defaults to the last 7 days; without a stationId the report covers all stations
+        LocalDateTime toDate = to != null && !to.isBlank() ? RequestDates.parse(to)
+                : LocalDateTime.now().truncatedTo(java.time.temporal.ChronoUnit.MINUTES);
+        LocalDateTime fromDate = from != null && !from.isBlank() ? RequestDates.parse(from) : toDate.minusDays(7);
+        return ResponseEntity.ok(adminService.getUtilizationReport(stationId, fromDate, toDate));
     }
 
     @GetMapping("/reports/peaks")
     public ResponseEntity<Map<String, Object>> getPeakHoursAnalysis(@RequestParam(required = false) Integer stationId) {
-        if (stationId == null) {
-            stationId = 1; // Default station
-        }
+        // Without a stationId the report covers all stations
         return ResponseEntity.ok(adminService.getPeakHoursAnalysis(stationId));
     }
 
-    // AI demand forecasting (placeholder)
+    @PostMapping("/reports/peaks/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildPeakHoursHeatmap() {
+        return ResponseEntity.ok(adminService.rebuildPeakHoursHeatmap());
+    }
+
+    // Demand forecasting (in-process seasonal models, precomputed by DemandForecastEngine)
     @GetMapping("/reports/forecast")
     public ResponseEntity<Map<String, Object>> getDemandForecast(@RequestParam(required = false) Integer stationId) {
-        Map<String, Object> forecast = new java.util.HashMap<>();
-        forecast.put("predictedDemand", 85); // Mock AI prediction
-        forecast.put("confidence", 0.78);
-        forecast.put("recommendedActions", List.of("Increase fleet by 2 vehicles", "Schedule additional staff"));
-        return ResponseEntity.ok(forecast);
+        return ResponseEntity.ok(adminService.getDemandForecast(stationId));
+    }
+
+    // Report cache monitoring
+    @GetMapping("/reports/cache/stats")
+    public ResponseEntity<Map<String, Object>> getReportCacheStats() {
+        return ResponseEntity.ok(reportCache.getStats());
+    }
+
+    @GetMapping("/reports/executor/stats")
+    public ResponseEntity<Map<String, Object>> getReportExecutorStats() {
+        return ResponseEntity.ok(reportExecutor.getStats());
+    }
+
+    // Email outbox monitoring
+    @GetMapping("/mail/outbox/stats")
+    public ResponseEntity<Map<String, Object>> getEmailOutboxStats() {
+        return ResponseEntity.ok(emailOutboxDispatcher.getStats());
     }
 }
@@ -1,5 +1,6 @@
 package com.group7.evr.controllers;
 
+import com.group7.evr.dto.BookingSummary;
 import com.group7.evr.entity.Booking;
 import com.group7.evr.entity.User;
 import com.group7.evr.service.BookingService;
@@ -64,13 +65,13 @@ public class BookingController {
     }
 
     @GetMapping("/staff/bookings/checkin-queue")
-    public ResponseEntity<List<Booking>> getCheckInQueue(@RequestParam Integer staffId) {
-        return ResponseEntity.ok(bookingService.getCheckInQueue(staffId));
+    public ResponseEntity<List<BookingSummary>> getCheckInQueue(@RequestParam Integer staffId) {
+        return ResponseEntity.ok(bookingService.getCheckInQueue(staffId).stream().map(BookingSummary::from).toList());
     }
 
     @GetMapping("/staff/bookings/return-queue")
-    public ResponseEntity<List<Booking>> getReturnQueue(@RequestParam Integer staffId) {
-        return ResponseEntity.ok(bookingService.getReturnQueue(staffId));
+    public ResponseEntity<List<BookingSummary>> getReturnQueue(@RequestParam Integer staffId) {
+        return ResponseEntity.ok(bookingService.getReturnQueue(staffId).stream().map(BookingSummary::from).toList());
     }
 
     @GetMapping("/staff/bookings/contracts")
@@ -101,8 +102,8 @@ public class BookingController {
 
     // 5a. History
     @GetMapping("/bookings/user")
-    public ResponseEntity<List<Booking>> getHistory(@RequestParam Integer userId) {
-        return ResponseEntity.ok(bookingService.getUserHistory(userId));
+    public ResponseEntity<List<BookingSummary>> getHistory(@RequestParam Integer userId) {
+        return ResponseEntity.ok(bookingService.getUserHistory(userId).stream().map(BookingSummary::from).toList());
     }
 
     // Enhanced user booking history with pagination and filtering
@@ -113,8 +114,10 @@ public class BookingController {
             @RequestParam(required = false) String fromDate,
             @RequestParam(required = false) String toDate,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        return ResponseEntity.ok(bookingService.getUserBookingsWithFilters(userId, status, fromDate, toDate, page, size));
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        // Pass the previous response's nextCursor to page deep into the history without offsets
+        return ResponseEntity.ok(bookingService.getUserBookingsWithFilters(userId, status, fromDate, toDate, page, size, cursor));
     }
 
     // 5b. Analytics
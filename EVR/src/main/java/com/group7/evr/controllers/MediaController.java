@@ -0,0 +1,42 @@
+package com.group7.evr.controllers;
+
+import com.group7.evr.repository.UserRepository;
+import com.group7.evr.service.impl.MediaStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class MediaController {
+    private final MediaStore mediaStore;
+    private final UserRepository userRepository;
+
+    // Media is addressed by content hash, so a response never changes. Uploads are personal data, so only
+    // the requesting browser may cache them, and identity documents are not stored anywhere at all.
+    @GetMapping("/media/{mediaId}")
+    public ResponseEntity<Resource> getMedia(@PathVariable String mediaId) {
+        String contentType = mediaStore.contentType(mediaId);
+        CacheControl cacheControl = userRepository.existsByPersonalIdImageOrLicenseImage(mediaId, mediaId)
+                ? CacheControl.noStore()
+                : CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(contentType))
+                .cacheControl(cacheControl)
+                .eTag(mediaId)
+                .body(new FileSystemResource(mediaStore.resolve(mediaId)));
+    }
+
+    @GetMapping("/media/stats")
+    public ResponseEntity<Map<String, Object>> getMediaStats() {
+        return ResponseEntity.ok(mediaStore.getStats());
+    }
+}
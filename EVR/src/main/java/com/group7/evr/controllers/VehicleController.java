@@ -1,13 +1,20 @@
 package com.group7.evr.controllers;
 
+import com.group7.evr.dto.TelemetryReading;
+import com.group7.evr.dto.VehicleSearchCriteria;
 import com.group7.evr.entity.Vehicle;
 import com.group7.evr.service.VehicleService;
+import com.group7.evr.service.impl.TelemetrySeriesStore;
+import com.group7.evr.service.impl.VehicleTelemetryBuffer;
+import com.group7.evr.util.RequestDates;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -16,31 +23,81 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class VehicleController {
     private final VehicleService vehicleService;
+    private final VehicleTelemetryBuffer vehicleTelemetryBuffer;
+    private final TelemetrySeriesStore telemetrySeriesStore;
 
     @GetMapping("/vehicles/available")
     public ResponseEntity<List<Vehicle>> getAvailableVehicles(@RequestParam Integer stationId) {
         return ResponseEntity.ok(vehicleService.getAvailableVehicles(stationId));
     }
 
+    // Vehicles that are free for the whole [from, to) window, across one station or the whole fleet
+    @GetMapping("/vehicles/availability")
+    public ResponseEntity<List<Vehicle>> getVehicleAvailability(
+            @RequestParam(required = false) Integer stationId,
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam(required = false) Integer modelId) {
+        return ResponseEntity.ok(vehicleService.findAvailableVehicles(
+                stationId, modelId, RequestDates.parse(from), RequestDates.parse(to)));
+    }
+
     @GetMapping("/vehicles/{id}")
     public ResponseEntity<Vehicle> getVehicle(@PathVariable Integer id) {
         return ResponseEntity.ok(vehicleService.getVehicleById(id));
     }
 
+    // Combined vehicle search with facet counts. Pass page/size for numbered pages, or the previous
+    // response's nextCursor to walk the results without offsets; with neither, every match is returned.
     @GetMapping("/vehicles")
-    public ResponseEntity<?> findVehicles(
+    public ResponseEntity<Map<String, Object>> searchVehicles(
+            @RequestParam(required = false) Integer stationId,
             @RequestParam(required = false) Integer modelId,
+            @RequestParam(required = false) String status,
             @RequestParam(required = false) BigDecimal minBattery,
+            @RequestParam(required = false) BigDecimal maxBattery,
+            @RequestParam(required = false) Boolean maintenanceDue,
             @RequestParam(required = false) Integer page,
             @RequestParam(required = false) Integer size,
-            @RequestParam(required = false) String status
-    ) {
-        // If pagination params are provided, use getAllVehicles
-        if (page != null && size != null) {
-            return ResponseEntity.ok(vehicleService.getAllVehicles(page, size, status));
-        }
-        // Otherwise, use the old findVehicles method
-        return ResponseEntity.ok(vehicleService.findVehicles(modelId, minBattery));
+            @RequestParam(required = false) String cursor) {
+        VehicleSearchCriteria criteria = new VehicleSearchCriteria(
+                stationId, modelId, status, minBattery, maxBattery, maintenanceDue);
+        return ResponseEntity.ok(vehicleService.searchVehicles(criteria, page, size, cursor));
+    }
+
+    // Vehicle telemetry: readings are buffered and written in batches every few seconds
+    @PostMapping("/vehicles/telemetry/batch")
+    public ResponseEntity<Map<String, Object>> ingestTelemetry(@RequestBody List<TelemetryReading> readings) {
+        return ResponseEntity.ok(vehicleTelemetryBuffer.ingest(readings));
+    }
+
+    @GetMapping("/vehicles/telemetry/stats")
+    public ResponseEntity<Map<String, Object>> getTelemetryStats() {
+        Map<String, Object> stats = vehicleTelemetryBuffer.getStats();
+        stats.put("store", telemetrySeriesStore.getStats());
+        return ResponseEntity.ok(stats);
+    }
+
+    // Battery and mileage history, downsampled; defaults to the last 24 hours
+    @GetMapping("/vehicles/{id}/telemetry")
+    public ResponseEntity<Map<String, Object>> getTelemetryHistory(
+            @PathVariable Integer id,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Integer resolution) {
+        LocalDateTime end = to != null ? RequestDates.parse(to) : LocalDateTime.now();
+        LocalDateTime start = from != null ? RequestDates.parse(from) : end.minusHours(24);
+        return ResponseEntity.ok(telemetrySeriesStore.query(id, start, end, resolution));
+    }
+
+    @GetMapping("/vehicles/{id}/telemetry/drain")
+    public ResponseEntity<TelemetrySeriesStore.DrainRate> getBatteryDrain(
+            @PathVariable Integer id,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        LocalDateTime end = to != null ? RequestDates.parse(to) : LocalDateTime.now();
+        LocalDateTime start = from != null ? RequestDates.parse(from) : end.minusHours(24);
+        return ResponseEntity.ok(telemetrySeriesStore.getDrainRate(id, start, end));
     }
 
     // Vehicle issue reporting
@@ -61,6 +118,21 @@ public class VehicleController {
         return ResponseEntity.ok(vehicleService.createVehicle(vehicle));
     }
 
+    // All-or-nothing: any invalid or duplicate plate rejects the whole import with per-row errors
+    @PostMapping("/vehicles/import")
+    public ResponseEntity<Map<String, Object>> importVehicles(@RequestBody List<Vehicle> vehicles) {
+        Map<String, Object> result = vehicleService.importVehicles(vehicles);
+        List<?> errors = (List<?>) result.get("errors");
+        if (errors.isEmpty()) {
+            return ResponseEntity.ok(result);
+        }
+        boolean duplicates = errors.stream().anyMatch(error -> {
+            Object code = ((Map<?, ?>) error).get("code");
+            return "ALREADY_EXISTS".equals(code) || "DUPLICATE_IN_IMPORT".equals(code);
+        });
+        return ResponseEntity.status(duplicates ? HttpStatus.CONFLICT : HttpStatus.BAD_REQUEST).body(result);
+    }
+
     @PutMapping("/vehicles/{id}")
     public ResponseEntity<Vehicle> updateVehicle(@PathVariable Integer id, @RequestBody Vehicle vehicleUpdates) {
         return ResponseEntity.ok(vehicleService.updateVehicle(id, vehicleUpdates));
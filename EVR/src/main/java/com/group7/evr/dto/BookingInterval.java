@@ -0,0 +1,9 @@
+package com.group7.evr.dto;
+
+import java.sql.Date;
+
+/**
+ * A booked vehicle interval with the vehicle's current station and model, streamed for utilization sweeps.
+ */
+public record BookingInterval(Integer vehicleId, Integer stationId, Integer modelId, Date startTime, Date endTime) {
+}
@@ -0,0 +1,75 @@
+package com.group7.evr.dto;
+
+import com.group7.evr.entity.Booking;
+import com.group7.evr.entity.Model;
+import com.group7.evr.entity.Station;
+import com.group7.evr.entity.User;
+import com.group7.evr.entity.Vehicle;
+import com.group7.evr.enums.BookingStatus;
+import com.group7.evr.enums.VehicleStatus;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+
+/**
+ * Read-only view of a booking for list endpoints. Keeps the nested booking.user / booking.vehicle.model /
+ * booking.station shape the frontend reads, but only with display fields, so credentials and
+ * verification tokens on {@link User} never reach the response.
+ */
+public record BookingSummary(
+        Integer bookingId,
+        Date startTime,
+        Date endTime,
+        BigDecimal totalPrice,
+        BookingStatus bookingStatus,
+        UserSummary user,
+        VehicleSummary vehicle,
+        StationSummary station,
+        UserSummary staff) {
+
+    public static BookingSummary from(Booking booking) {
+        return new BookingSummary(
+                booking.getBookingId(),
+                booking.getStartTime(),
+                booking.getEndTime(),
+                booking.getTotalPrice(),
+                booking.getBookingStatus(),
+                UserSummary.from(booking.getUser()),
+                VehicleSummary.from(booking.getVehicle()),
+                StationSummary.from(booking.getStation()),
+                UserSummary.from(booking.getStaff()));
+    }
+
+    public record UserSummary(Integer userId, String name, String email, String phone) {
+        static UserSummary from(User user) {
+            return user == null ? null
+                    : new UserSummary(user.getUserId(), user.getName(), user.getEmail(), user.getPhone());
+        }
+    }
+
+    public record VehicleSummary(Integer vehicleId, String plateNumber, BigDecimal batteryLevel, BigDecimal mileage,
+                                 VehicleStatus status, ModelSummary model) {
+        static VehicleSummary from(Vehicle vehicle) {
+            return vehicle == null ? null
+                    : new VehicleSummary(vehicle.getVehicleId(), vehicle.getPlateNumber(), vehicle.getBatteryLevel(),
+                    vehicle.getMileage(), vehicle.getStatus(), ModelSummary.from(vehicle.getModel()));
+        }
+    }
+
+    public record ModelSummary(Integer modelId, String brand, String modelName, String vehicleType,
+                               BigDecimal basePrice, String imageUrl) {
+        static ModelSummary from(Model model) {
+            return model == null ? null
+                    : new ModelSummary(model.getModelId(), model.getBrand(), model.getModelName(),
+                    model.getVehicleType(), model.getBasePrice(), model.getImageUrl());
+        }
+    }
+
+    public record StationSummary(Integer stationId, String name, String address, String contactNumber) {
+        static StationSummary from(Station station) {
+            return station == null ? null
+                    : new StationSummary(station.getStationId(), station.getName(), station.getAddress(),
+                    station.getContactNumber());
+        }
+    }
+}
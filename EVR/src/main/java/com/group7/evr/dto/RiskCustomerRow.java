@@ -0,0 +1,21 @@
+package com.group7.evr.dto;
+
+import com.group7.evr.enums.UserStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * One customer with active risk flags, aggregated over those flags in a single grouped query.
+ */
+public record RiskCustomerRow(
+        Integer userId,
+        String name,
+        String email,
+        String phone,
+        UserStatus status,
+        String stationName,
+        Long activeFlags,
+        Integer maxRiskScore,
+        Long totalRiskScore,
+        LocalDateTime lastFlaggedAt) {
+}
@@ -0,0 +1,36 @@
+package com.group7.evr.dto;
+
+import com.group7.evr.enums.BookingStatus;
+import com.group7.evr.enums.ContractStatus;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDateTime;
+
+/**
+ * One flat row of the staff contract listing: a booking, the few customer/vehicle/station columns the
+ * listing shows, and its contract if one exists. Loaded with a single constructor-expression query.
+ */
+public record StaffContractRow(
+        Integer bookingId,
+        Date startTime,
+        Date endTime,
+        BigDecimal totalPrice,
+        BookingStatus bookingStatus,
+        Integer userId,
+        String userName,
+        String userEmail,
+        String userPhone,
+        Integer vehicleId,
+        String plateNumber,
+        Integer modelId,
+        String modelName,
+        String brand,
+        Integer stationId,
+        String stationName,
+        Integer contractId,
+        String renterSignature,
+        String staffSignature,
+        LocalDateTime signedAt,
+        ContractStatus contractStatus) {
+}
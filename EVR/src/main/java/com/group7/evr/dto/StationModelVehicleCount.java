@@ -0,0 +1,7 @@
+package com.group7.evr.dto;
+
+/**
+ * Number of vehicles of one model at one station (either id is null when unassigned).
+ */
+public record StationModelVehicleCount(Integer stationId, Integer modelId, String modelName, Long vehicles) {
+}
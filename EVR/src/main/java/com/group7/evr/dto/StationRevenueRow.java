@@ -0,0 +1,9 @@
+package com.group7.evr.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Revenue aggregate for one station (stationId is null for bookings without a station).
+ */
+public record StationRevenueRow(Integer stationId, String stationName, Long bookings, BigDecimal revenue, BigDecimal fees) {
+}
@@ -0,0 +1,9 @@
+package com.group7.evr.dto;
+
+import com.group7.evr.enums.VehicleStatus;
+
+/**
+ * Number of vehicles in one status at one station (stationId is null for unassigned vehicles).
+ */
+public record StationVehicleStatusCount(Integer stationId, String stationName, VehicleStatus status, Long vehicles) {
+}
@@ -0,0 +1,10 @@
+package com.group7.evr.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One state-of-charge/odometer report from a vehicle. Either value may be missing; a missing
+ * {@code recordedAt} means "now".
+ */
+public record TelemetryReading(Integer vehicleId, Double batteryLevel, Double mileage, LocalDateTime recordedAt) {
+}
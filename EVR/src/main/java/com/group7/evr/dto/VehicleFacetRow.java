@@ -0,0 +1,13 @@
+package com.group7.evr.dto;
+
+import com.group7.evr.enums.VehicleStatus;
+
+/**
+ * Vehicle counts for one (station, model, status) combination; ids are null when unassigned. {@code vehicles}
+ * counts matches for every filter. Each {@code *Facet} count leaves out its own dimension's filter, so a
+ * facet still shows the alternatives to the value the caller picked.
+ */
+public record VehicleFacetRow(Integer stationId, String stationName, Integer modelId, String modelName,
+                              VehicleStatus status, Long vehicles,
+                              Long stationFacet, Long modelFacet, Long statusFacet) {
+}
@@ -0,0 +1,10 @@
+package com.group7.evr.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Filters of the vehicle search; null fields are not filtered on.
+ */
+public record VehicleSearchCriteria(Integer stationId, Integer modelId, String status,
+                                    BigDecimal minBattery, BigDecimal maxBattery, Boolean maintenanceDue) {
+}
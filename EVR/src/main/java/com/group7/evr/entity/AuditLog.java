@@ -6,13 +6,13 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "AuditLog")
+@Table(name = "AuditLog", indexes = @Index(name = "IX_AuditLog_User_Timestamp", columnList = "UserID, timestamp"))
 @Data
 public class AuditLog {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer logId;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "UserID")
     private User user;
     @Column(columnDefinition = "NVARCHAR(255)")
@@ -1,5 +1,6 @@
 package com.group7.evr.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.group7.evr.enums.BookingStatus;
 import com.group7.evr.enums.converter.BookingStatusConverter;
 import jakarta.persistence.*;
@@ -7,31 +8,49 @@ import lombok.Data;
 
 import java.math.BigDecimal;
 import java.sql.Date;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "Booking")
+@Table(name = "Booking", indexes = {
+        @Index(name = "IX_Booking_User_StartTime", columnList = "UserID, startTime, bookingId"),
+        @Index(name = "IX_Booking_Status_StartTime", columnList = "BookingStatus, startTime, StationID"),
+        @Index(name = "IX_Booking_Station_Status_Staff", columnList = "StationID, BookingStatus, StaffID"),
+        // Utilization sweep: one range seek per vehicle id range, already in (vehicle, start) order
+        @Index(name = "IX_Booking_Vehicle_StartTime", columnList = "VehicleID, startTime, endTime, BookingStatus")
+})
 @Data
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Booking {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer bookingId;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "UserID")
     private User user;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "VehicleID")
     private Vehicle vehicle;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "StationID")
     private Station station;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "StaffID")
     private User staff;
     private Date startTime;
     private Date endTime;
     private BigDecimal totalPrice;
+    // Late/damage/energy fees applied at settlement, on top of totalPrice
+    @Column(columnDefinition = "DECIMAL(38,2) NOT NULL DEFAULT 0")
+    private BigDecimal extraFees = BigDecimal.ZERO;
+    private LocalDateTime createdAt = LocalDateTime.now();
+    private LocalDateTime checkedInAt;
+    private LocalDateTime returnedAt;
 
     @Column(name = "BookingStatus")
     @Convert(converter = BookingStatusConverter.class)
     private BookingStatus bookingStatus = BookingStatus.PENDING;
+
+    @Version
+    @Column(name = "Version", columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
 }
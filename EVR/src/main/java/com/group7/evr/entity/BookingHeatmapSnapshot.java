@@ -0,0 +1,23 @@
+package com.group7.evr.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted copy of one station's hour-of-week booking counters (168 big-endian longs, Monday 00:00 first).
+ * lastBookingId is the highest booking already counted, so startup only has to catch up on newer rows.
+ */
+@Entity
+@Table(name = "BookingHeatmapSnapshot")
+@Data
+public class BookingHeatmapSnapshot {
+    @Id
+    @Column(name = "StationID")
+    private Integer stationId;
+    @Column(columnDefinition = "VARBINARY(1344)")
+    private byte[] counts;
+    private Integer lastBookingId;
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
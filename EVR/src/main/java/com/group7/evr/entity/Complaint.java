@@ -14,13 +14,13 @@ public class Complaint {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer complaintId;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ContractID")
     private Contract contract;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "UserID")
     private User user;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "StaffID")
     private User staff;
     @Column(columnDefinition = "NVARCHAR(255)")
@@ -35,7 +35,7 @@ public class Complaint {
     
     private LocalDateTime respondedAt;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "RespondedByAdminID")
     private User respondedByAdmin;
 }
\ No newline at end of file
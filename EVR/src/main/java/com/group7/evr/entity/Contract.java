@@ -1,5 +1,6 @@
 package com.group7.evr.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.group7.evr.enums.ContractStatus;
 import com.group7.evr.enums.converter.ContractStatusConverter;
 import jakarta.persistence.*;
@@ -10,11 +11,12 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "Contract")
 @Data
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Contract {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer contractId;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "BookingID")
     private Booking booking;
     @Column(columnDefinition = "NVARCHAR(255)")
@@ -0,0 +1,30 @@
+package com.group7.evr.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated revenue of COMPLETED bookings per station and booking day. Maintained incrementally
+ * on booking completion/settlement and rebuilt from Booking by {@code DailyRevenueRollup}.
+ */
+@Entity
+@Table(name = "DailyStationRevenue",
+        uniqueConstraints = @UniqueConstraint(name = "UX_DailyStationRevenue_Station_Day", columnNames = {"StationID", "revenueDate"}),
+        indexes = @Index(name = "IX_DailyStationRevenue_Day", columnList = "revenueDate, StationID"))
+@Data
+public class DailyStationRevenue {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer rollupId;
+    @Column(name = "StationID")
+    private Integer stationId;
+    private Date revenueDate;
+    private Long bookings = 0L;
+    private BigDecimal revenue = BigDecimal.ZERO;
+    private BigDecimal fees = BigDecimal.ZERO;
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
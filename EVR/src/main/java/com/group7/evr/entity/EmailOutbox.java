@@ -0,0 +1,42 @@
+package com.group7.evr.entity;
+
+import com.group7.evr.enums.EmailOutboxStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "EmailOutbox", indexes = {
+        @Index(name = "IX_EmailOutbox_Status_NextAttemptAt", columnList = "status, nextAttemptAt"),
+        @Index(name = "IX_EmailOutbox_ClaimToken", columnList = "claimToken")
+})
+@Data
+public class EmailOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer outboxId;
+
+    @Column(columnDefinition = "NVARCHAR(255)", nullable = false)
+    private String recipient;
+    @Column(columnDefinition = "NVARCHAR(255)")
+    private String subject;
+    @Column(columnDefinition = "NVARCHAR(MAX)")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private EmailOutboxStatus status = EmailOutboxStatus.PENDING;
+    private Integer attempts = 0;
+    @Column(columnDefinition = "NVARCHAR(1000)")
+    private String lastError;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+    private LocalDateTime nextAttemptAt = LocalDateTime.now();
+    // Set while a dispatcher holds the row as SENDING; past this time another dispatcher may reclaim it
+    private LocalDateTime lockedUntil;
+    // Identifies the dispatcher run that claimed the row, so it can read back exactly what it claimed
+    @Column(length = 36)
+    private String claimToken;
+    private LocalDateTime sentAt;
+}
@@ -16,15 +16,15 @@ public class IssueReport {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer issueReportId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "VehicleID")
     private Vehicle vehicle;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "UserID")
     private User reportedBy;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "StationID")
     private Station station;
 
@@ -15,15 +15,15 @@ public class Maintenance {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer maintenanceId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "VehicleID")
     private Vehicle vehicle;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "StationID")
     private Station station;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "StaffID")
     private User staff;
 
@@ -1,5 +1,6 @@
 package com.group7.evr.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -8,6 +9,7 @@ import java.math.BigDecimal;
 @Entity
 @Table(name = "Model")
 @Data
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Model {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
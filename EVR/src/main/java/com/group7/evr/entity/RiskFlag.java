@@ -6,18 +6,18 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "RiskFlag")
+@Table(name = "RiskFlag", indexes = @Index(name = "IX_RiskFlag_User_Status", columnList = "UserID, status, riskScore"))
 @Data
 public class RiskFlag {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer riskFlagId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "UserID")
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "FlaggedBy")
     private User flaggedBy;
 
@@ -0,0 +1,30 @@
+package com.group7.evr.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed performance metrics of one staff member, refreshed nightly by {@code StaffPerformanceRollup}.
+ * Handovers are bookings the staff member checked in (CONFIRMED or COMPLETED); ratings and complaints
+ * are those filed against contracts of these bookings.
+ */
+@Entity
+@Table(name = "StaffPerformanceSnapshot")
+@Data
+public class StaffPerformanceSnapshot {
+    @Id
+    @Column(name = "StaffID")
+    private Integer staffId;
+    private Long totalHandovers = 0L;
+    private Long handoversLast7Days = 0L;
+    private Long handoversLast30Days = 0L;
+    private Double averageTurnaroundMinutes;
+    private Double averageRating;
+    private Long ratingCount = 0L;
+    private Long complaintCount = 0L;
+    private Double complaintRate;
+    private LocalDateTime lastActivity;
+    private LocalDateTime computedAt = LocalDateTime.now();
+}
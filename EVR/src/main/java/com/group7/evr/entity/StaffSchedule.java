@@ -6,18 +6,18 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "StaffSchedule")
+@Table(name = "StaffSchedule", indexes = @Index(name = "IX_StaffSchedule_Station_Shift", columnList = "StationID, shiftStart, shiftEnd"))
 @Data
 public class StaffSchedule {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer scheduleId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "StaffID")
     private User staff;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "StationID")
     private Station station;
 
@@ -1,11 +1,13 @@
 package com.group7.evr.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Data;
 
 @Entity
 @Table(name = "Station")
 @Data
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Station {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,4 +28,8 @@ public class Station {
     // Geo location for map/nearby queries
     private Double latitude;
     private Double longitude;
+
+    @Version
+    @Column(name = "Version", columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
 }
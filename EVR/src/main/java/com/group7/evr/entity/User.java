@@ -1,5 +1,6 @@
 package com.group7.evr.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.group7.evr.enums.UserRole;
 import com.group7.evr.enums.UserRoleDeserializer;
@@ -14,8 +15,9 @@ import java.sql.Date;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "Users")
+@Table(name = "Users", indexes = @Index(name = "IX_Users_Role_Station", columnList = "Role, StationID"))
 @Data
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -72,7 +74,7 @@ public class User {
     private LocalDateTime verificationTokenExpiry;
 
     // ⚠️ Đây là phần gây lỗi — phải map đúng tên foreign key trong bảng Users
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "StationID") // CHÍNH XÁC tên cột trong bảng Users
     private Station station;
 }
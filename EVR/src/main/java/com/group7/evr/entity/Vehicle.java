@@ -1,33 +1,54 @@
 package com.group7.evr.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.group7.evr.enums.VehicleStatus;
 import com.group7.evr.enums.converter.VehicleStatusConverter;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.sql.Date;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "Vehicle")
+// Only changed columns are written, so entity saves do not put back battery/mileage that telemetry updated meanwhile
+@DynamicUpdate
+@Table(name = "Vehicle", indexes = {
+        @Index(name = "IX_Vehicle_Station_Status_Model", columnList = "StationID, status, ModelID"),
+        @Index(name = "UX_Vehicle_PlateNumberNormalized", columnList = "plateNumberNormalized", unique = true)
+})
 @Data
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Vehicle {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer vehicleId;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ModelID")
     private Model model;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "StationID")
     private Station station;
     @Column(columnDefinition = "NVARCHAR(255)")
     private String plateNumber;
+    // Computed by the database from plateNumber (see PlateNumbers.normalize); backs the unique plate index.
+    // Read-only here and not refreshed after a write, so use PlateNumbers.normalize in code instead.
+    @JsonIgnore
+    @Column(insertable = false, updatable = false, columnDefinition =
+            "AS CAST(UPPER(REPLACE(REPLACE(REPLACE(plateNumber, ' ', ''), '-', ''), '.', '')) AS NVARCHAR(64)) PERSISTED")
+    private String plateNumberNormalized;
     private BigDecimal batteryLevel;
     private BigDecimal mileage;
     @Convert(converter = VehicleStatusConverter.class)
     private VehicleStatus status = VehicleStatus.AVAILABLE;
     
     private Date lastMaintenanceDate;
-}
+    // Time of the latest telemetry reading applied to batteryLevel/mileage
+    private LocalDateTime lastTelemetryAt;
 
+    @Version
+    @Column(name = "Version", columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+}
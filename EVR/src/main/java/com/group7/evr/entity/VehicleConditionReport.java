@@ -14,13 +14,13 @@ public class VehicleConditionReport {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer reportId;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ContractID")
     private Contract contract;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "VehicleID")
     private Vehicle vehicle;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "StaffID")
     private User staff;
     private LocalDateTime reportTime = LocalDateTime.now();
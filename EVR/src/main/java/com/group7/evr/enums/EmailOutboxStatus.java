@@ -0,0 +1,23 @@
+package com.group7.evr.enums;
+
+public enum EmailOutboxStatus {
+    PENDING("Pending"),
+    SENDING("Sending"),
+    SENT("Sent"),
+    DEAD("Dead");
+
+    private final String value;
+
+    EmailOutboxStatus(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
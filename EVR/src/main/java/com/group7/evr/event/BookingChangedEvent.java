@@ -0,0 +1,20 @@
+package com.group7.evr.event;
+
+import com.group7.evr.entity.Booking;
+import com.group7.evr.enums.BookingStatus;
+
+/**
+ * A booking was created, changed status, or had its charges adjusted (then both statuses are equal).
+ * {@code fromStatus} is null for a new booking.
+ */
+public record BookingChangedEvent(
+        Integer bookingId,
+        Integer stationId,
+        BookingStatus fromStatus,
+        BookingStatus toStatus) {
+
+    public static BookingChangedEvent of(Booking booking, BookingStatus previousStatus) {
+        Integer stationId = booking.getStation() != null ? booking.getStation().getStationId() : null;
+        return new BookingChangedEvent(booking.getBookingId(), stationId, previousStatus, booking.getBookingStatus());
+    }
+}
@@ -0,0 +1,17 @@
+package com.group7.evr.event;
+
+import com.group7.evr.entity.Complaint;
+import com.group7.evr.enums.ComplaintStatus;
+
+/**
+ * A complaint was filed or changed status. {@code fromStatus} is null for a new complaint.
+ */
+public record ComplaintChangedEvent(
+        Integer complaintId,
+        ComplaintStatus fromStatus,
+        ComplaintStatus toStatus) {
+
+    public static ComplaintChangedEvent of(Complaint complaint, ComplaintStatus previousStatus) {
+        return new ComplaintChangedEvent(complaint.getComplaintId(), previousStatus, complaint.getStatus());
+    }
+}
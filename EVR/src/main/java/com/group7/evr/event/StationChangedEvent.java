@@ -0,0 +1,7 @@
+package com.group7.evr.event;
+
+/**
+ * A station was created, updated or deleted.
+ */
+public record StationChangedEvent(Integer stationId) {
+}
@@ -0,0 +1,21 @@
+package com.group7.evr.event;
+
+import com.group7.evr.entity.Vehicle;
+import com.group7.evr.enums.VehicleStatus;
+
+/**
+ * A vehicle was created, changed status or moved between stations. {@code from*} fields are null for a new vehicle.
+ */
+public record VehicleChangedEvent(
+        Integer vehicleId,
+        Integer fromStationId,
+        Integer toStationId,
+        VehicleStatus fromStatus,
+        VehicleStatus toStatus) {
+
+    public static VehicleChangedEvent of(Vehicle vehicle, Integer previousStationId, VehicleStatus previousStatus) {
+        Integer stationId = vehicle.getStation() != null ? vehicle.getStation().getStationId() : null;
+        return new VehicleChangedEvent(vehicle.getVehicleId(), previousStationId, stationId, previousStatus,
+                vehicle.getStatus());
+    }
+}
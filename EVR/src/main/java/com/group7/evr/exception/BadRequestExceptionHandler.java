@@ -0,0 +1,19 @@
+package com.group7.evr.exception;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+@RestControllerAdvice
+public class BadRequestExceptionHandler {
+
+    @ExceptionHandler(InvalidDateException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidDate(InvalidDateException e) {
+        return ResponseEntity.badRequest().body(Map.of(
+                "error", "Invalid date",
+                "message", e.getMessage()
+        ));
+    }
+}
@@ -0,0 +1,21 @@
+package com.group7.evr.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+@RestControllerAdvice
+public class ConflictExceptionHandler {
+
+    @ExceptionHandler(DuplicatePlateNumberException.class)
+    public ResponseEntity<Map<String, Object>> handleDuplicatePlateNumber(DuplicatePlateNumberException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "error", "Duplicate plate number",
+                "message", e.getMessage(),
+                "plateNumber", e.getPlateNumber()
+        ));
+    }
+}
@@ -0,0 +1,17 @@
+package com.group7.evr.exception;
+
+/**
+ * A vehicle with the same normalized plate number already exists. Answered with 409 Conflict.
+ */
+public class DuplicatePlateNumberException extends RuntimeException {
+    private final String plateNumber;
+
+    public DuplicatePlateNumberException(String plateNumber) {
+        super("Vehicle with plate number " + plateNumber + " already exists");
+        this.plateNumber = plateNumber;
+    }
+
+    public String getPlateNumber() {
+        return plateNumber;
+    }
+}
@@ -0,0 +1,11 @@
+package com.group7.evr.exception;
+
+/**
+ * A date or date range in a request that cannot be parsed or is out of order. Answered with 400 Bad Request.
+ */
+public class InvalidDateException extends RuntimeException {
+
+    public InvalidDateException(String message) {
+        super(message);
+    }
+}
@@ -1,9 +1,16 @@
 package com.group7.evr.repository;
 
 import com.group7.evr.entity.AuditLog;
+import com.group7.evr.enums.UserRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog,Integer> {
+    @Query("SELECT a.user.userId, MAX(a.timestamp) FROM AuditLog a WHERE a.user.role = :role GROUP BY a.user.userId")
+    List<Object[]> findLastActivityByRole(@Param("role") UserRole role);
 }
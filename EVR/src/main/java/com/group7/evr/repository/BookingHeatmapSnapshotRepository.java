@@ -0,0 +1,9 @@
+package com.group7.evr.repository;
+
+import com.group7.evr.entity.BookingHeatmapSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BookingHeatmapSnapshotRepository extends JpaRepository<BookingHeatmapSnapshot, Integer> {
+}
@@ -1,17 +1,146 @@
 package com.group7.evr.repository;
 
+import com.group7.evr.dto.BookingInterval;
+import com.group7.evr.dto.StaffContractRow;
+import com.group7.evr.dto.StationRevenueRow;
 import com.group7.evr.entity.Booking;
 import com.group7.evr.enums.BookingStatus;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 @Repository
-public interface BookingRepository extends JpaRepository<Booking,Integer> {
+public interface BookingRepository extends JpaRepository<Booking,Integer>, JpaSpecificationExecutor<Booking> {
     List<Booking> findByUserUserId(Integer userId);
     List<Booking> findByStationStationIdAndBookingStatusIn(Integer stationId, List<BookingStatus> statuses);
     List<Booking> findByStationStationId(Integer stationId);
     List<Booking> findByBookingStatus(BookingStatus status);
     List<Booking> findByVehicleVehicleId(Integer vehicleId);
     List<Booking> findByStaffUserId(Integer staffId);
+    List<Booking> findByBookingStatusNotIn(Collection<BookingStatus> statuses);
+
+    // Conflict checks while the in-memory BookingConflictIndex is still warming up
+    @Query("SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM Booking b " +
+            "WHERE b.vehicle.vehicleId = :vehicleId AND b.bookingStatus NOT IN :inactiveStatuses " +
+            "AND b.startTime < :endTime AND b.endTime > :startTime " +
+            "AND (:excludeBookingId IS NULL OR b.bookingId <> :excludeBookingId)")
+    boolean existsOverlapping(@Param("vehicleId") Integer vehicleId,
+                              @Param("inactiveStatuses") Collection<BookingStatus> inactiveStatuses,
+                              @Param("startTime") java.sql.Date startTime,
+                              @Param("endTime") java.sql.Date endTime,
+                              @Param("excludeBookingId") Integer excludeBookingId);
+
+    @Query("SELECT DISTINCT b.vehicle.vehicleId FROM Booking b WHERE b.bookingStatus NOT IN :inactiveStatuses " +
+            "AND b.startTime < :endTime AND b.endTime > :startTime")
+    List<Integer> findBookedVehicleIds(@Param("inactiveStatuses") Collection<BookingStatus> inactiveStatuses,
+                                       @Param("startTime") java.sql.Date startTime,
+                                       @Param("endTime") java.sql.Date endTime);
+
+    @Query("SELECT b.bookingStatus, COUNT(b) FROM Booking b GROUP BY b.bookingStatus")
+    List<Object[]> countByStatus();
+
+    @Query("SELECT new com.group7.evr.dto.StationRevenueRow(s.stationId, s.name, COUNT(b), SUM(b.totalPrice), SUM(b.extraFees)) " +
+            "FROM Booking b LEFT JOIN b.station s " +
+            "WHERE b.bookingStatus = :status AND b.startTime >= :fromDate AND b.startTime <= :toDate " +
+            "AND (:stationId IS NULL OR s.stationId = :stationId) " +
+            "GROUP BY s.stationId, s.name")
+    List<StationRevenueRow> sumRevenueByStation(@Param("status") BookingStatus status,
+                                                @Param("fromDate") java.sql.Date fromDate,
+                                                @Param("toDate") java.sql.Date toDate,
+                                                @Param("stationId") Integer stationId);
+
+    @Query("SELECT b.staff.userId, COUNT(b) FROM Booking b " +
+            "WHERE b.station.stationId = :stationId AND b.bookingStatus IN :statuses AND b.staff IS NOT NULL " +
+            "GROUP BY b.staff.userId")
+    List<Object[]> countOpenBookingsByStaff(@Param("stationId") Integer stationId,
+                                            @Param("statuses") Collection<BookingStatus> statuses);
+
+    // Per staff: handovers in total and since each window start, and the average check-in-to-return minutes
+    @Query(value = "SELECT b.StaffID, COUNT(*), " +
+            "SUM(CASE WHEN COALESCE(b.checkedInAt, b.createdAt) >= :since7 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN COALESCE(b.checkedInAt, b.createdAt) >= :since30 THEN 1 ELSE 0 END), " +
+            "AVG(CASE WHEN b.checkedInAt IS NOT NULL AND b.returnedAt IS NOT NULL " +
+            "THEN CAST(DATEDIFF(minute, b.checkedInAt, b.returnedAt) AS FLOAT) END) " +
+            "FROM Booking b WHERE b.StaffID IS NOT NULL AND b.BookingStatus IN ('CONFIRMED', 'COMPLETED') " +
+            "GROUP BY b.StaffID", nativeQuery = true)
+    List<Object[]> summarizeHandoversByStaff(@Param("since7") LocalDateTime since7,
+                                             @Param("since30") LocalDateTime since30);
+
+    @Query("SELECT COALESCE(MAX(b.bookingId), 0) FROM Booking b")
+    Integer findMaxBookingId();
+
+    // Hour-of-week buckets (0 = Monday 00:00) of booking creation times; 1900-01-01 was a Monday
+    @Query(value = "SELECT b.StationID, (DATEDIFF(day, '19000101', b.createdAt) % 7) * 24 + DATEPART(hour, b.createdAt), COUNT(*) " +
+            "FROM Booking b WHERE b.StationID IS NOT NULL AND b.createdAt IS NOT NULL " +
+            "AND b.bookingId > :afterId AND b.bookingId <= :upToId " +
+            "GROUP BY b.StationID, (DATEDIFF(day, '19000101', b.createdAt) % 7) * 24 + DATEPART(hour, b.createdAt)",
+            nativeQuery = true)
+    List<Object[]> countCreatedByStationAndHourOfWeek(@Param("afterId") int afterId, @Param("upToId") int upToId);
+
+    // Bookings created per station and hour, as hour offsets from :origin
+    @Query(value = "SELECT t.StationID, t.HourIndex, COUNT(*) FROM (" +
+            "SELECT b.StationID, DATEDIFF(hour, :origin, b.createdAt) AS HourIndex FROM Booking b " +
+            "WHERE b.StationID IS NOT NULL AND b.createdAt >= :origin AND b.createdAt < :until) t " +
+            "GROUP BY t.StationID, t.HourIndex", nativeQuery = true)
+    List<Object[]> countCreatedByStationAndHour(@Param("origin") LocalDateTime origin,
+                                               @Param("until") LocalDateTime until);
+
+    // Booked intervals of one vehicle id range, streamed in (vehicle, start) order for the utilization sweep;
+    // needs an open transaction. Native so the range and the ORDER BY are on Booking.VehicleID itself (JPQL
+    // puts them on the joined Vehicle): a seek on IX_Booking_Vehicle_StartTime, in key order, with no sort.
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query(value = "SELECT b.VehicleID, v.StationID, v.ModelID, b.startTime, b.endTime " +
+            "FROM Booking b JOIN Vehicle v ON v.vehicleId = b.VehicleID " +
+            "WHERE b.VehicleID BETWEEN :fromVehicleId AND :toVehicleId " +
+            "AND b.BookingStatus IN ('CONFIRMED', 'COMPLETED') " +
+            "AND b.startTime IS NOT NULL AND b.endTime IS NOT NULL " +
+            "AND b.startTime < :toDate AND b.endTime >= :fromDate " +
+            "AND (:stationId IS NULL OR v.StationID = :stationId) " +
+            "ORDER BY b.VehicleID, b.startTime", nativeQuery = true)
+    Stream<Object[]> streamBookedIntervalRows(@Param("fromVehicleId") int fromVehicleId,
+                                              @Param("toVehicleId") int toVehicleId,
+                                              @Param("fromDate") java.sql.Date fromDate,
+                                              @Param("toDate") java.sql.Date toDate,
+                                              @Param("stationId") Integer stationId);
+
+    // Confirmed and completed bookings only; closing the returned stream closes the cursor
+    default Stream<BookingInterval> streamBookedIntervals(int fromVehicleId, int toVehicleId,
+                                                          java.sql.Date fromDate, java.sql.Date toDate,
+                                                          Integer stationId) {
+        return streamBookedIntervalRows(fromVehicleId, toVehicleId, fromDate, toDate, stationId)
+                .map(row -> new BookingInterval(((Number) row[0]).intValue(),
+                        row[1] != null ? ((Number) row[1]).intValue() : null,
+                        row[2] != null ? ((Number) row[2]).intValue() : null,
+                        (java.sql.Date) row[3], (java.sql.Date) row[4]));
+    }
+
+    // Read paths that render bookings with their customer, vehicle/model, station and staff
+    @EntityGraph(attributePaths = {"user", "vehicle", "vehicle.model", "station", "staff"})
+    Optional<Booking> findWithDetailsByBookingId(Integer bookingId);
+
+    @EntityGraph(attributePaths = {"user", "vehicle", "vehicle.model", "station", "staff"})
+    List<Booking> findWithDetailsByUserUserId(Integer userId);
+
+    @EntityGraph(attributePaths = {"user", "vehicle", "vehicle.model", "station", "staff"})
+    List<Booking> findWithDetailsByStationStationIdAndBookingStatusIn(Integer stationId, List<BookingStatus> statuses);
+
+    @Query("SELECT new com.group7.evr.dto.StaffContractRow(b.bookingId, b.startTime, b.endTime, b.totalPrice, b.bookingStatus, " +
+            "u.userId, u.name, u.email, u.phone, v.vehicleId, v.plateNumber, m.modelId, m.modelName, m.brand, " +
+            "s.stationId, s.name, c.contractId, c.renterSignature, c.staffSignature, c.signedAt, c.status) " +
+            "FROM Booking b JOIN b.station s LEFT JOIN b.user u LEFT JOIN b.vehicle v LEFT JOIN v.model m " +
+            "LEFT JOIN Contract c ON c.booking = b " +
+            "WHERE s.stationId = :stationId AND b.bookingStatus <> :excludedStatus " +
+            "ORDER BY b.bookingId, c.contractId")
+    List<StaffContractRow> findStaffContractRows(@Param("stationId") Integer stationId,
+                                                 @Param("excludedStatus") BookingStatus excludedStatus);
 }
@@ -0,0 +1,61 @@
+package com.group7.evr.repository;
+
+import com.group7.evr.entity.Booking;
+import com.group7.evr.enums.BookingStatus;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.sql.Date;
+
+/**
+ * Reusable predicates for booking queries. Booking history is always read newest first by
+ * (startTime, bookingId), which matches the IX_Booking_User_StartTime index. SQL Server sorts NULL
+ * lowest, so legacy bookings without a startTime come last in that order.
+ */
+public final class BookingSpecifications {
+
+    public static final Sort HISTORY_ORDER = Sort.by(Sort.Order.desc("startTime"), Sort.Order.desc("bookingId"));
+
+    /**
+     * Associations fetched together with a booking when it is rendered as a {@code BookingSummary}.
+     */
+    public static final String[] SUMMARY_GRAPH = {"user", "vehicle", "vehicle.model", "station", "staff"};
+
+    private BookingSpecifications() {
+    }
+
+    public static Specification<Booking> forUser(Integer userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("userId"), userId);
+    }
+
+    public static Specification<Booking> hasStatus(BookingStatus status) {
+        return (root, query, cb) -> status == null ? null : cb.equal(root.get("bookingStatus"), status);
+    }
+
+    public static Specification<Booking> startsOnOrAfter(Date from) {
+        return (root, query, cb) -> from == null ? null : cb.greaterThanOrEqualTo(root.<Date>get("startTime"), from);
+    }
+
+    public static Specification<Booking> startsOnOrBefore(Date to) {
+        return (root, query, cb) -> to == null ? null : cb.lessThanOrEqualTo(root.<Date>get("startTime"), to);
+    }
+
+    /**
+     * Keyset predicate for {@link #HISTORY_ORDER}: rows strictly after the (startTime, bookingId) of the
+     * last row already returned. A null startTime means the previous page ended among the bookings
+     * without one, which sort after every dated booking.
+     */
+    public static Specification<Booking> after(Date startTime, Integer bookingId) {
+        return (root, query, cb) -> {
+            if (startTime == null) {
+                return cb.and(cb.isNull(root.get("startTime")),
+                        cb.lessThan(root.<Integer>get("bookingId"), bookingId));
+            }
+            return cb.or(
+                    cb.lessThan(root.<Date>get("startTime"), startTime),
+                    cb.and(cb.equal(root.get("startTime"), startTime),
+                            cb.lessThan(root.<Integer>get("bookingId"), bookingId)),
+                    cb.isNull(root.get("startTime")));
+        };
+    }
+}
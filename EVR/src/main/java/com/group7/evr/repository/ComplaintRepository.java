@@ -3,6 +3,7 @@ package com.group7.evr.repository;
 import com.group7.evr.entity.Complaint;
 import com.group7.evr.enums.ComplaintStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,4 +12,11 @@ import java.util.List;
 public interface ComplaintRepository extends JpaRepository<Complaint,Integer> {
     List<Complaint> findByStatus(ComplaintStatus status);
     List<Complaint> findByUserUserId(Integer userId);
+
+    @Query("SELECT b.staff.userId, COUNT(c) FROM Complaint c JOIN c.contract ct JOIN ct.booking b " +
+            "WHERE b.staff IS NOT NULL GROUP BY b.staff.userId")
+    List<Object[]> countByHandlingStaff();
+
+    @Query("SELECT c.status, COUNT(c) FROM Complaint c GROUP BY c.status")
+    List<Object[]> countByStatus();
 }
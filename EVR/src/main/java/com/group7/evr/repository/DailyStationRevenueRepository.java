@@ -0,0 +1,65 @@
+package com.group7.evr.repository;
+
+import com.group7.evr.dto.StationRevenueRow;
+import com.group7.evr.entity.DailyStationRevenue;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.util.List;
+
+@Repository
+public interface DailyStationRevenueRepository extends JpaRepository<DailyStationRevenue, Integer> {
+
+    @Query("SELECT new com.group7.evr.dto.StationRevenueRow(r.stationId, s.name, SUM(r.bookings), SUM(r.revenue), SUM(r.fees)) " +
+            "FROM DailyStationRevenue r LEFT JOIN Station s ON s.stationId = r.stationId " +
+            "WHERE r.revenueDate >= :fromDate AND r.revenueDate <= :toDate " +
+            "AND (:stationId IS NULL OR r.stationId = :stationId) " +
+            "GROUP BY r.stationId, s.name")
+    List<StationRevenueRow> sumRevenueByStation(@Param("fromDate") Date fromDate,
+                                                @Param("toDate") Date toDate,
+                                                @Param("stationId") Integer stationId);
+
+    // HOLDLOCK makes the match-or-insert atomic, so concurrent completions on the same station/day both count
+    @Modifying
+    @Query(value = "MERGE DailyStationRevenue WITH (HOLDLOCK) AS t " +
+            "USING (SELECT :stationId AS StationID, :revenueDate AS revenueDate) AS s " +
+            "ON (t.StationID = s.StationID OR (t.StationID IS NULL AND s.StationID IS NULL)) AND t.revenueDate = s.revenueDate " +
+            "WHEN MATCHED THEN UPDATE SET bookings = t.bookings + :bookings, revenue = t.revenue + :revenue, " +
+            "fees = t.fees + :fees, updatedAt = SYSDATETIME() " +
+            "WHEN NOT MATCHED THEN INSERT (StationID, revenueDate, bookings, revenue, fees, updatedAt) " +
+            "VALUES (:stationId, :revenueDate, :bookings, :revenue, :fees, SYSDATETIME());", nativeQuery = true)
+    void increment(@Param("stationId") Integer stationId,
+                   @Param("revenueDate") Date revenueDate,
+                   @Param("bookings") long bookings,
+                   @Param("revenue") BigDecimal revenue,
+                   @Param("fees") BigDecimal fees);
+
+    @Query(value = "SELECT DISTINCT b.startTime FROM Booking b WHERE b.BookingStatus = 'COMPLETED' AND b.startTime IS NOT NULL " +
+            "UNION SELECT DISTINCT r.revenueDate FROM DailyStationRevenue r", nativeQuery = true)
+    List<Date> findRollupDays();
+
+    /**
+     * Recompute one day of the rollup from Booking. The source is read WITH (HOLDLOCK) before any rollup
+     * row is written, so this takes locks in the same order as a completing booking (Booking, then
+     * rollup) and a completion on that day waits for the statement instead of slipping past it.
+     */
+    @Modifying
+    @Query(value = "WITH day AS (SELECT * FROM DailyStationRevenue WHERE revenueDate = :revenueDate) " +
+            "MERGE day WITH (HOLDLOCK) AS t " +
+            "USING (SELECT b.StationID, b.startTime AS revenueDate, COUNT(*) AS bookings, " +
+            "COALESCE(SUM(b.totalPrice), 0) AS revenue, COALESCE(SUM(b.extraFees), 0) AS fees " +
+            "FROM Booking b WITH (HOLDLOCK) WHERE b.BookingStatus = 'COMPLETED' AND b.startTime = :revenueDate " +
+            "GROUP BY b.StationID, b.startTime) AS s " +
+            "ON (t.StationID = s.StationID OR (t.StationID IS NULL AND s.StationID IS NULL)) " +
+            "WHEN MATCHED AND (t.bookings <> s.bookings OR t.revenue <> s.revenue OR t.fees <> s.fees) THEN " +
+            "UPDATE SET bookings = s.bookings, revenue = s.revenue, fees = s.fees, updatedAt = SYSDATETIME() " +
+            "WHEN NOT MATCHED BY TARGET THEN INSERT (StationID, revenueDate, bookings, revenue, fees, updatedAt) " +
+            "VALUES (s.StationID, s.revenueDate, s.bookings, s.revenue, s.fees, SYSDATETIME()) " +
+            "WHEN NOT MATCHED BY SOURCE THEN DELETE;", nativeQuery = true)
+    int rebuildDay(@Param("revenueDate") Date revenueDate);
+}
@@ -0,0 +1,40 @@
+package com.group7.evr.repository;
+
+import com.group7.evr.entity.EmailOutbox;
+import com.group7.evr.enums.EmailOutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Integer> {
+    /**
+     * Atomically claim up to {@code batchSize} due messages for this dispatcher: PENDING rows whose next
+     * attempt is due, plus SENDING rows whose claim expired (the dispatcher holding them died). READPAST
+     * skips rows another dispatcher is claiming right now, so concurrent instances never get the same row.
+     * Claimed rows are stamped with {@code claimToken} for {@link #findByClaimTokenOrderByOutboxId} to read
+     * back, as a modifying query can only return the row count.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "WITH due AS (" +
+            "SELECT TOP (:batchSize) * FROM EmailOutbox WITH (UPDLOCK, READPAST, ROWLOCK) " +
+            "WHERE (status = 'PENDING' AND nextAttemptAt <= :now) OR (status = 'SENDING' AND lockedUntil < :now) " +
+            "ORDER BY outboxId) " +
+            "UPDATE due SET status = 'SENDING', lockedUntil = :lockedUntil, claimToken = :claimToken",
+            nativeQuery = true)
+    int claimDue(@Param("now") LocalDateTime now,
+                 @Param("lockedUntil") LocalDateTime lockedUntil,
+                 @Param("claimToken") String claimToken,
+                 @Param("batchSize") int batchSize);
+
+    List<EmailOutbox> findByClaimTokenOrderByOutboxId(String claimToken);
+
+    long countByStatus(EmailOutboxStatus status);
+}
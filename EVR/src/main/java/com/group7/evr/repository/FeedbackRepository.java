@@ -2,6 +2,7 @@ package com.group7.evr.repository;
 
 import com.group7.evr.entity.Feedback;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,4 +11,8 @@ import java.util.List;
 public interface FeedbackRepository extends JpaRepository<Feedback,Integer> {
     List<Feedback> findByUserUserId(Integer userId);
     List<Feedback> findByContractContractId(Integer contractId);
+
+    @Query("SELECT b.staff.userId, AVG(f.stars), COUNT(f) FROM Feedback f JOIN f.contract c JOIN c.booking b " +
+            "WHERE f.stars IS NOT NULL AND b.staff IS NOT NULL GROUP BY b.staff.userId")
+    List<Object[]> averageStarsByStaff();
 }
@@ -1,9 +1,16 @@
 package com.group7.evr.repository;
 
+import com.group7.evr.dto.RiskCustomerRow;
 import com.group7.evr.entity.RiskFlag;
+import com.group7.evr.enums.UserRole;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -11,4 +18,19 @@ public interface RiskFlagRepository extends JpaRepository<RiskFlag, Integer> {
     List<RiskFlag> findByUserUserId(Integer userId);
     List<RiskFlag> findByStatus(String status);
     List<RiskFlag> findByRiskScoreGreaterThanEqual(Integer minScore);
+    List<RiskFlag> findByUserUserIdInAndStatusOrderByFlaggedAtDesc(Collection<Integer> userIds, String status);
+
+    // Users whose highest flag reaches minScore are exactly the users with at least one flag >= minScore,
+    // so the count query can skip the grouping
+    @Query(value = "SELECT new com.group7.evr.dto.RiskCustomerRow(u.userId, u.name, u.email, u.phone, u.status, " +
+            "s.name, COUNT(f), MAX(f.riskScore), SUM(f.riskScore), MAX(f.flaggedAt)) " +
+            "FROM RiskFlag f JOIN f.user u LEFT JOIN u.station s " +
+            "WHERE u.role = :role AND f.status = :status " +
+            "GROUP BY u.userId, u.name, u.email, u.phone, u.status, s.name " +
+            "HAVING MAX(f.riskScore) >= :minScore " +
+            "ORDER BY MAX(f.riskScore) DESC, u.userId",
+            countQuery = "SELECT COUNT(DISTINCT f.user.userId) FROM RiskFlag f " +
+                    "WHERE f.user.role = :role AND f.status = :status AND f.riskScore >= :minScore")
+    Page<RiskCustomerRow> findRiskCustomers(@Param("role") UserRole role, @Param("status") String status,
+                                            @Param("minScore") Integer minScore, Pageable pageable);
 }
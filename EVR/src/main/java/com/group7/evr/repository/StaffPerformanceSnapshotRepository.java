@@ -0,0 +1,14 @@
+package com.group7.evr.repository;
+
+import com.group7.evr.entity.StaffPerformanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StaffPerformanceSnapshotRepository extends JpaRepository<StaffPerformanceSnapshot, Integer> {
+    @Modifying
+    @Query(value = "DELETE FROM StaffPerformanceSnapshot", nativeQuery = true)
+    void deleteAllRows();
+}
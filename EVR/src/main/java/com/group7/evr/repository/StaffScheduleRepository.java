@@ -2,6 +2,8 @@ package com.group7.evr.repository;
 
 import com.group7.evr.entity.StaffSchedule;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -13,4 +15,9 @@ public interface StaffScheduleRepository extends JpaRepository<StaffSchedule, In
     List<StaffSchedule> findByStationStationId(Integer stationId);
     List<StaffSchedule> findByShiftStartBetween(LocalDateTime start, LocalDateTime end);
     List<StaffSchedule> findByStatus(String status);
+
+    @Query("SELECT DISTINCT s.staff.userId FROM StaffSchedule s WHERE s.station.stationId = :stationId " +
+            "AND s.shiftStart <= :at AND s.shiftEnd > :at AND s.status IN :statuses")
+    List<Integer> findStaffIdsOnShift(@Param("stationId") Integer stationId, @Param("at") LocalDateTime at,
+                                      @Param("statuses") List<String> statuses);
 }
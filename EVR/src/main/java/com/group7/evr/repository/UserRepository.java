@@ -1,11 +1,24 @@
 package com.group7.evr.repository;
 
 import com.group7.evr.entity.User;
+import com.group7.evr.enums.UserRole;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface UserRepository extends JpaRepository<User,Integer> {
+    @Override
+    @EntityGraph(attributePaths = "station")
+    List<User> findAll();
+
+    @EntityGraph(attributePaths = "station")
+    List<User> findByRole(UserRole role);
+
     User findByEmail(String email);
     User findByVerificationToken(String verificationToken);
+
+    boolean existsByPersonalIdImageOrLicenseImage(String personalIdImage, String licenseImage);
 }
@@ -1,15 +1,59 @@
 package com.group7.evr.repository;
 
+import com.group7.evr.dto.StationModelVehicleCount;
+import com.group7.evr.dto.StationVehicleStatusCount;
 import com.group7.evr.entity.Vehicle;
 import com.group7.evr.enums.VehicleStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-import java.math.BigDecimal;
 import java.util.List;
 
-public interface VehicleRepository extends JpaRepository<Vehicle,Integer> {
+public interface VehicleRepository extends JpaRepository<Vehicle,Integer>, JpaSpecificationExecutor<Vehicle>,
+        VehicleRepositoryCustom {
+    // Vehicle listings always render the model and station, so fetch them in the same query
+    @Override
+    @EntityGraph(attributePaths = {"model", "station"})
+    List<Vehicle> findAll();
+
+    @EntityGraph(attributePaths = {"model", "station"})
     List<Vehicle> findByStationStationIdAndStatus(Integer stationId, VehicleStatus status);
+    @EntityGraph(attributePaths = {"model", "station"})
     List<Vehicle> findByStationStationId(Integer stationId);
-    List<Vehicle> findByModelModelId(Integer modelId);
-    List<Vehicle> findByBatteryLevelGreaterThanEqual(BigDecimal minBattery);
+    @EntityGraph(attributePaths = {"model", "station"})
+    List<Vehicle> findByStatus(VehicleStatus status);
+    @EntityGraph(attributePaths = {"model", "station"})
+    List<Vehicle> findByModelModelIdAndStatus(Integer modelId, VehicleStatus status);
+    @EntityGraph(attributePaths = {"model", "station"})
+    List<Vehicle> findByStationStationIdAndModelModelIdAndStatus(Integer stationId, Integer modelId, VehicleStatus status);
+
+    // Plate lookups go through the unique index on the normalized plate (see PlateNumbers)
+    boolean existsByPlateNumberNormalized(String plateNumberNormalized);
+    boolean existsByPlateNumberNormalizedAndVehicleIdNot(String plateNumberNormalized, Integer vehicleId);
+
+    // Which of the comma-separated normalized plates already exist, in one query regardless of the count
+    // (an IN list would hit SQL Server's 2100 parameter limit on large imports)
+    @Query(value = "SELECT v.plateNumberNormalized FROM Vehicle v " +
+            "JOIN STRING_SPLIT(:plates, ',') p ON p.value = v.plateNumberNormalized", nativeQuery = true)
+    List<String> findExistingNormalizedPlates(@Param("plates") String plates);
+
+    // Every vehicle id; vehicles are only ever soft-deleted, so the set only grows
+    @Query("SELECT v.vehicleId FROM Vehicle v")
+    List<Integer> findAllVehicleIds();
+
+    // One row; both ids are null when no vehicle is in scope
+    @Query("SELECT MIN(v.vehicleId), MAX(v.vehicleId) FROM Vehicle v " +
+            "WHERE (:stationId IS NULL OR v.station.stationId = :stationId)")
+    List<Object[]> findVehicleIdRange(@Param("stationId") Integer stationId);
+
+    @Query("SELECT new com.group7.evr.dto.StationVehicleStatusCount(s.stationId, s.name, v.status, COUNT(v)) " +
+            "FROM Vehicle v LEFT JOIN v.station s GROUP BY s.stationId, s.name, v.status")
+    List<StationVehicleStatusCount> countByStationAndStatus();
+
+    @Query("SELECT new com.group7.evr.dto.StationModelVehicleCount(s.stationId, m.modelId, m.modelName, COUNT(v)) " +
+            "FROM Vehicle v LEFT JOIN v.station s LEFT JOIN v.model m GROUP BY s.stationId, m.modelId, m.modelName")
+    List<StationModelVehicleCount> countByStationAndModel();
 }
@@ -0,0 +1,16 @@
+package com.group7.evr.repository;
+
+import com.group7.evr.dto.VehicleFacetRow;
+import com.group7.evr.entity.Vehicle;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface VehicleRepositoryCustom {
+    /**
+     * Vehicles grouped by station, model and status in one query. {@code common} applies to every count;
+     * the station, model and status filters apply to every count except their own facet's.
+     */
+    List<VehicleFacetRow> countFacets(Specification<Vehicle> common, Specification<Vehicle> station,
+                                      Specification<Vehicle> model, Specification<Vehicle> status);
+}
@@ -0,0 +1,96 @@
+package com.group7.evr.repository;
+
+import com.group7.evr.dto.VehicleFacetRow;
+import com.group7.evr.entity.Model;
+import com.group7.evr.entity.Station;
+import com.group7.evr.entity.Vehicle;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class VehicleRepositoryCustomImpl implements VehicleRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<VehicleFacetRow> countFacets(Specification<Vehicle> common, Specification<Vehicle> station,
+                                             Specification<Vehicle> model, Specification<Vehicle> status) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<VehicleFacetRow> query = cb.createQuery(VehicleFacetRow.class);
+        Root<Vehicle> vehicle = query.from(Vehicle.class);
+        Join<Vehicle, Station> stationJoin = vehicle.join("station", JoinType.LEFT);
+        Join<Vehicle, Model> modelJoin = vehicle.join("model", JoinType.LEFT);
+
+        // Conditional counts over the rows the common filters leave: each facet skips its own dimension
+        List<Specification<Vehicle>> dimensions = new ArrayList<>();
+        for (Specification<Vehicle> dimension : List.of(station, model, status)) {
+            if (dimension.toPredicate(vehicle, query, cb) != null) {
+                dimensions.add(dimension);
+            }
+        }
+        query.select(cb.construct(VehicleFacetRow.class,
+                stationJoin.get("stationId"), stationJoin.get("name"),
+                modelJoin.get("modelId"), modelJoin.get("modelName"), vehicle.get("status"),
+                countWhere(cb, vehicle, query, dimensions, null),
+                countWhere(cb, vehicle, query, dimensions, station),
+                countWhere(cb, vehicle, query, dimensions, model),
+                countWhere(cb, vehicle, query, dimensions, status)));
+
+        // Skip rows no count can use: those failing a common filter or more than one dimension
+        List<Predicate> where = new ArrayList<>();
+        Predicate commonPredicate = common.toPredicate(vehicle, query, cb);
+        if (commonPredicate != null) {
+            where.add(commonPredicate);
+        }
+        if (dimensions.size() > 1) {
+            List<Predicate> allButOne = new ArrayList<>();
+            for (Specification<Vehicle> skipped : dimensions) {
+                allButOne.add(cb.and(predicates(cb, vehicle, query, dimensions, skipped).toArray(Predicate[]::new)));
+            }
+            where.add(cb.or(allButOne.toArray(Predicate[]::new)));
+        }
+        if (!where.isEmpty()) {
+            query.where(where.toArray(Predicate[]::new));
+        }
+        query.groupBy(stationJoin.get("stationId"), stationJoin.get("name"),
+                modelJoin.get("modelId"), modelJoin.get("modelName"), vehicle.get("status"));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private static Expression<Long> countWhere(CriteriaBuilder cb, Root<Vehicle> vehicle, CriteriaQuery<?> query,
+                                               List<Specification<Vehicle>> dimensions,
+                                               Specification<Vehicle> skipped) {
+        List<Predicate> predicates = predicates(cb, vehicle, query, dimensions, skipped);
+        if (predicates.isEmpty()) {
+            return cb.count(vehicle);
+        }
+        return cb.sum(cb.<Long>selectCase()
+                .when(cb.and(predicates.toArray(Predicate[]::new)), cb.literal(1L))
+                .otherwise(cb.literal(0L)));
+    }
+
+    private static List<Predicate> predicates(CriteriaBuilder cb, Root<Vehicle> vehicle, CriteriaQuery<?> query,
+                                              List<Specification<Vehicle>> dimensions,
+                                              Specification<Vehicle> skipped) {
+        List<Predicate> predicates = new ArrayList<>();
+        for (Specification<Vehicle> dimension : dimensions) {
+            if (dimension != skipped) {
+                predicates.add(dimension.toPredicate(vehicle, query, cb));
+            }
+        }
+        return predicates;
+    }
+}
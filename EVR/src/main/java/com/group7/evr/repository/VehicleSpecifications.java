@@ -0,0 +1,70 @@
+package com.group7.evr.repository;
+
+import com.group7.evr.entity.Vehicle;
+import com.group7.evr.enums.VehicleStatus;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+
+/**
+ * Reusable predicates for the vehicle search. Results are listed newest first by vehicleId, which
+ * doubles as the keyset for cursor paging.
+ */
+public final class VehicleSpecifications {
+
+    public static final Sort LIST_ORDER = Sort.by(Sort.Order.desc("vehicleId"));
+
+    /**
+     * Associations rendered with every vehicle in a listing.
+     */
+    public static final String[] LIST_GRAPH = {"model", "station"};
+
+    private VehicleSpecifications() {
+    }
+
+    public static Specification<Vehicle> atStation(Integer stationId) {
+        return (root, query, cb) -> stationId == null ? null : cb.equal(root.get("station").get("stationId"), stationId);
+    }
+
+    public static Specification<Vehicle> ofModel(Integer modelId) {
+        return (root, query, cb) -> modelId == null ? null : cb.equal(root.get("model").get("modelId"), modelId);
+    }
+
+    public static Specification<Vehicle> hasStatus(VehicleStatus status) {
+        return (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Vehicle> batteryAtLeast(BigDecimal minBattery) {
+        return (root, query, cb) -> minBattery == null ? null
+                : cb.greaterThanOrEqualTo(root.<BigDecimal>get("batteryLevel"), minBattery);
+    }
+
+    public static Specification<Vehicle> batteryAtMost(BigDecimal maxBattery) {
+        return (root, query, cb) -> maxBattery == null ? null
+                : cb.lessThanOrEqualTo(root.<BigDecimal>get("batteryLevel"), maxBattery);
+    }
+
+    /**
+     * Vehicles never maintained or last maintained before {@code cutoff} (due = true), or the opposite.
+     */
+    public static Specification<Vehicle> maintenanceDue(Boolean due, Date cutoff) {
+        return (root, query, cb) -> {
+            if (due == null) {
+                return null;
+            }
+            var lastMaintenance = root.<Date>get("lastMaintenanceDate");
+            return due
+                    ? cb.or(cb.isNull(lastMaintenance), cb.lessThan(lastMaintenance, cutoff))
+                    : cb.greaterThanOrEqualTo(lastMaintenance, cutoff);
+        };
+    }
+
+    /**
+     * Keyset predicate for {@link #LIST_ORDER}: vehicles after the last one already returned.
+     */
+    public static Specification<Vehicle> after(Integer vehicleId) {
+        return (root, query, cb) -> cb.lessThan(root.<Integer>get("vehicleId"), vehicleId);
+    }
+}
@@ -9,9 +9,11 @@ public interface AdminService {
 
     public Map<String, Object> getFleetSummary(Integer stationId);
 
+    public Map<String, Object> getDashboardSnapshot();
+
     public Vehicle dispatchVehicle(Integer fromStationId, Integer toStationId, Integer vehicleId);
 
-    public List<User> getCustomersWithRiskFlags();
+    public Map<String, Object> getCustomersWithRiskFlags(Integer minScore, int page, int size);
 
     public RiskFlag flagCustomer(Integer customerId, Integer adminId, String reason, Integer riskScore);
 
@@ -21,12 +23,20 @@ public interface AdminService {
 
     public Map<String, Object> getStaffPerformance(Integer staffId);
 
+    public Map<String, Object> rebuildStaffPerformance();
+
     public StaffSchedule createStaffSchedule(Integer staffId, Integer stationId, LocalDateTime shiftStart,
                                              LocalDateTime shiftEnd, String shiftType);
 
     public Map<String, Object> getRevenueReport(Integer stationId, LocalDateTime from, LocalDateTime to);
 
-    public Map<String, Object> getUtilizationReport(Integer stationId);
+    public Map<String, Object> rebuildRevenueRollup();
+
+    public Map<String, Object> getUtilizationReport(Integer stationId, LocalDateTime from, LocalDateTime to);
 
     public Map<String, Object> getPeakHoursAnalysis(Integer stationId);
+
+    public Map<String, Object> rebuildPeakHoursHeatmap();
+
+    public Map<String, Object> getDemandForecast(Integer stationId);
 }
\ No newline at end of file
@@ -12,7 +12,8 @@ public interface BookingService {
 
     Booking getBookingById(Integer bookingId);
 
-    Map<String, Object> getUserBookingsWithFilters(Integer userId, String status, String fromDate, String toDate, int page, int size);
+    Map<String, Object> getUserBookingsWithFilters(Integer userId, String status, String fromDate, String toDate,
+                                                   int page, int size, String cursor);
         
     Booking checkIn(Integer bookingId, User user, User staff);
 
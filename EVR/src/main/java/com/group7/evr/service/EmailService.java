@@ -14,14 +14,15 @@ public interface EmailService {
     void sendRegistrationConfirmation(User user, String verificationLink);
 
     /**
-     * Send booking confirmation email after a booking is created.
+     * Queue booking confirmation email after a booking is created. The message is written to the
+     * email outbox in the caller's transaction and delivered later by the outbox dispatcher.
      *
      * @param booking the booking to include in the email
      */
     void sendBookingConfirmation(Booking booking);
 
     /**
-     * Send booking denial notification email to the customer.
+     * Queue booking denial notification email to the customer via the email outbox.
      *
      * @param booking the denied booking
      * @param reason the reason for denial (optional)
@@ -1,19 +1,20 @@
 package com.group7.evr.service;
 
+import com.group7.evr.dto.VehicleSearchCriteria;
 import com.group7.evr.entity.Vehicle;
 import com.group7.evr.enums.VehicleStatus;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
 public interface VehicleService {
     List<Vehicle> getAvailableVehicles(Integer stationId);
 
-    Vehicle getVehicleById(Integer id);
+    List<Vehicle> findAvailableVehicles(Integer stationId, Integer modelId, LocalDateTime from, LocalDateTime to);
 
-    List<Vehicle> findVehicles(Integer modelId, BigDecimal minBattery);
+    Vehicle getVehicleById(Integer id);
 
     Map<String, Object> reportVehicleIssue(Integer vehicleId, Integer userId, String issueCategory,
                                            String priority, String description, MultipartFile[] photos);
@@ -22,7 +23,9 @@ public interface VehicleService {
 
     Vehicle updateVehicle(Integer vehicleId, Vehicle vehicleUpdates);
 
+    Map<String, Object> importVehicles(List<Vehicle> vehicles);
+
     Map<String, Object> deleteVehicle(Integer vehicleId);
     
-    Map<String, Object> getAllVehicles(int page, int size, String status);
+    Map<String, Object> searchVehicles(VehicleSearchCriteria criteria, Integer page, Integer size, String cursor);
 }
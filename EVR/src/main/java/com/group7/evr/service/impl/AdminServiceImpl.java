@@ -1,14 +1,29 @@
 package com.group7.evr.service.impl;
 
+import com.group7.evr.dto.BookingInterval;
+import com.group7.evr.dto.RiskCustomerRow;
+import com.group7.evr.dto.StationModelVehicleCount;
+import com.group7.evr.dto.StationRevenueRow;
+import com.group7.evr.dto.StationVehicleStatusCount;
 import com.group7.evr.entity.*;
 import com.group7.evr.enums.BookingStatus;
 import com.group7.evr.enums.ComplaintStatus;
+import com.group7.evr.enums.UserRole;
 import com.group7.evr.enums.VehicleStatus;
+import com.group7.evr.event.VehicleChangedEvent;
 import com.group7.evr.repository.*;
 import com.group7.evr.service.AdminService;
 import com.group7.evr.service.UserService;
+import com.group7.evr.util.ReportDateRange;
+import com.group7.evr.util.UtilizationSweep;
+import com.group7.evr.util.VehicleIdRange;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -18,6 +33,10 @@ import java.util.Map;
 
 @Service
 public class AdminServiceImpl implements AdminService {
+    private static final int MAX_UTILIZATION_DAYS = 366;
+    private static final int MAX_CUSTOMER_PAGE_SIZE = 200;
+    private static final String ACTIVE_FLAG = "Active";
+
     @Autowired
     private VehicleRepository vehicleRepository;
     @Autowired
@@ -34,23 +53,99 @@ public class AdminServiceImpl implements AdminService {
     private ComplaintRepository complaintRepository;
     @Autowired
     private UserService userService;
+    @Autowired
+    private DailyStationRevenueRepository dailyStationRevenueRepository;
+    @Autowired
+    private DailyRevenueRollup dailyRevenueRollup;
+    @Autowired
+    private BookingHeatmapIndex bookingHeatmapIndex;
+    @Autowired
+    private DemandForecastEngine demandForecastEngine;
+    @Autowired
+    private StaffPerformanceSnapshotRepository staffPerformanceSnapshotRepository;
+    @Autowired
+    private StaffPerformanceRollup staffPerformanceRollup;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private ReportCache reportCache;
+    @Autowired
+    private ReportExecutor reportExecutor;
+
+    @Value("${app.reports.revenue.use-rollup:true}")
+    private boolean useRevenueRollup;
+
+    @Value("${app.reports.utilization.vehicle-ranges:0}")
+    private int utilizationVehicleRanges;
 
     @Override
     public Map<String, Object> getFleetSummary(Integer stationId) {
-        List<Vehicle> vehicles = vehicleRepository.findByStationStationIdAndStatus(stationId, VehicleStatus.AVAILABLE);
-        List<Vehicle> rentedVehicles = vehicleRepository.findByStationStationIdAndStatus(stationId, VehicleStatus.RENTED);
-        List<Vehicle> maintenanceVehicles = vehicleRepository.findByStationStationIdAndStatus(stationId, VehicleStatus.MAINTENANCE);
+        List<StationVehicleStatusCount> counts = fleetStatusCounts();
+        if (stationId != null) {
+            return summarizeFleet(counts.stream().filter(row -> stationId.equals(row.stationId())).toList());
+        }
 
-        Map<String, Object> summary = new HashMap<>();
-        summary.put("totalVehicles", vehicles.size() + rentedVehicles.size() + maintenanceVehicles.size());
-        summary.put("availableVehicles", vehicles.size());
-        summary.put("rentedVehicles", rentedVehicles.size());
-        summary.put("maintenanceVehicles", maintenanceVehicles.size());
-        summary.put("occupancyRate", calculateOccupancyRate(vehicles.size(), rentedVehicles.size()));
+        // Fleet-wide totals plus one entry per station, all from the same grouped counts
+        Map<Integer, List<StationVehicleStatusCount>> byStation = new java.util.LinkedHashMap<>();
+        for (StationVehicleStatusCount row : counts) {
+            if (row.stationId() != null) {
+                byStation.computeIfAbsent(row.stationId(), id -> new java.util.ArrayList<>()).add(row);
+            }
+        }
+        List<Map<String, Object>> stations = byStation.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> {
+                    Map<String, Object> stationSummary = summarizeFleet(entry.getValue());
+                    stationSummary.put("stationId", entry.getKey());
+                    stationSummary.put("name", entry.getValue().get(0).stationName());
+                    return stationSummary;
+                })
+                .toList();
 
+        Map<String, Object> summary = summarizeFleet(counts);
+        summary.put("stations", stations);
         return summary;
     }
 
+    @Override
+    public Map<String, Object> getDashboardSnapshot() {
+        List<StationVehicleStatusCount> fleetCounts = fleetStatusCounts();
+        // Keyed exactly like the dashboard stream's delta counters, so a client adds each delta onto these
+        Map<String, Long> counters = new HashMap<>();
+        long totalVehicles = 0;
+        for (StationVehicleStatusCount row : fleetCounts) {
+            if (row.status() == null) {
+                continue;
+            }
+            counters.merge("fleet." + row.status().name(), row.vehicles(), Long::sum);
+            if (row.stationId() != null) {
+                counters.put("stations." + row.stationId() + "." + row.status().name(), row.vehicles());
+            }
+            totalVehicles += row.vehicles();
+        }
+        counters.put("fleet.total", totalVehicles);
+        for (BookingStatus status : BookingStatus.values()) {
+            counters.put("bookings." + status.name(), 0L);
+        }
+        for (Object[] row : bookingRepository.countByStatus()) {
+            if (row[0] != null) {
+                counters.put("bookings." + ((BookingStatus) row[0]).name(), (Long) row[1]);
+            }
+        }
+        for (ComplaintStatus status : ComplaintStatus.values()) {
+            counters.put("complaints." + status.name(), 0L);
+        }
+        for (Object[] row : complaintRepository.countByStatus()) {
+            if (row[0] != null) {
+                counters.put("complaints." + ((ComplaintStatus) row[0]).name(), (Long) row[1]);
+            }
+        }
+
+        Map<String, Object> snapshot = getFleetSummary(null);
+        snapshot.put("counters", counters);
+        return snapshot;
+    }
+
     @Override
     public Vehicle dispatchVehicle(Integer fromStationId, Integer toStationId, Integer vehicleId) {
         Vehicle vehicle = vehicleRepository.findById(vehicleId).orElseThrow();
@@ -62,6 +157,7 @@ public class AdminServiceImpl implements AdminService {
 
         vehicle.setStation(targetStation);
         Vehicle updatedVehicle = vehicleRepository.save(vehicle);
+        eventPublisher.publishEvent(VehicleChangedEvent.of(updatedVehicle, fromStationId, updatedVehicle.getStatus()));
         targetStation.setAvailableSlots(targetStation.getAvailableSlots() + 1);
         oldStation.setAvailableSlots(oldStation.getAvailableSlots() - 1);
         userService.logAudit(null, "Dispatched vehicle " + vehicleId + " from station " + fromStationId + " to " + toStationId);
@@ -69,11 +165,57 @@ public class AdminServiceImpl implements AdminService {
     }
 
     @Override
-    public List<User> getCustomersWithRiskFlags() {
-        return userRepository.findAll().stream()
-                .filter(user -> "Customer".equals(user.getRole()))
-                .filter(user -> riskFlagRepository.findByUserUserId(user.getUserId()).size() > 0)
-                .toList();
+    @Transactional(readOnly = true)
+    public Map<String, Object> getCustomersWithRiskFlags(Integer minScore, int page, int size) {
+        if (page < 0) {
+            throw new RuntimeException("Page must not be negative");
+        }
+        if (size < 1 || size > MAX_CUSTOMER_PAGE_SIZE) {
+            throw new RuntimeException("Page size must be between 1 and " + MAX_CUSTOMER_PAGE_SIZE);
+        }
+        int threshold = minScore != null ? minScore : 0;
+        Page<RiskCustomerRow> result = riskFlagRepository.findRiskCustomers(
+                UserRole.CUSTOMER, ACTIVE_FLAG, threshold, PageRequest.of(page, size));
+
+        // Latest active flag per customer on this page only, for the reason shown next to the score
+        Map<Integer, RiskFlag> latestFlags = new HashMap<>();
+        if (result.hasContent()) {
+            List<Integer> userIds = result.getContent().stream().map(RiskCustomerRow::userId).toList();
+            for (RiskFlag flag : riskFlagRepository.findByUserUserIdInAndStatusOrderByFlaggedAtDesc(userIds, ACTIVE_FLAG)) {
+                latestFlags.putIfAbsent(flag.getUser().getUserId(), flag);
+            }
+        }
+
+        List<Map<String, Object>> customers = new java.util.ArrayList<>(result.getNumberOfElements());
+        for (RiskCustomerRow row : result.getContent()) {
+            Map<String, Object> customer = new HashMap<>();
+            customer.put("userId", row.userId());
+            customer.put("name", row.name());
+            customer.put("email", row.email());
+            customer.put("phone", row.phone());
+            customer.put("status", row.status());
+            customer.put("station", row.stationName() != null ? Map.of("name", row.stationName()) : null);
+            customer.put("activeFlags", row.activeFlags());
+            customer.put("maxRiskScore", row.maxRiskScore());
+            customer.put("totalRiskScore", row.totalRiskScore());
+            customer.put("lastFlaggedAt", row.lastFlaggedAt());
+
+            Map<String, Object> riskFlag = new HashMap<>();
+            riskFlag.put("riskScore", row.maxRiskScore());
+            RiskFlag latest = latestFlags.get(row.userId());
+            riskFlag.put("reason", latest != null ? latest.getReason() : null);
+            customer.put("riskFlag", riskFlag);
+            customers.add(customer);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("customers", customers);
+        response.put("page", page);
+        response.put("size", size);
+        response.put("totalCount", result.getTotalElements());
+        response.put("totalPages", result.getTotalPages());
+        response.put("hasMore", result.hasNext());
+        return response;
     }
 
     @Override
@@ -103,26 +245,42 @@ public class AdminServiceImpl implements AdminService {
 
     @Override
     public List<User> getStaffByStation(Integer stationId) {
-        return userRepository.findAll().stream()
-                .filter(user -> "Staff".equals(user.getRole()))
-                .filter(user -> user.getStation() != null && user.getStation().getStationId().equals(stationId))
-                .toList();
+        return userService.getStaff(stationId);
     }
 
     @Override
     public Map<String, Object> getStaffPerformance(Integer staffId) {
         User staff = userRepository.findById(staffId).orElseThrow();
-        List<Booking> handovers = bookingRepository.findByStaffUserId(staffId);
+        // Metrics come from the nightly snapshot; staff created since then report zeros until the next run
+        StaffPerformanceSnapshot snapshot = staffPerformanceSnapshotRepository.findById(staffId)
+                .orElseGet(StaffPerformanceSnapshot::new);
 
         Map<String, Object> performance = new HashMap<>();
-        performance.put("totalHandovers", handovers.size());
-        performance.put("station", staff.getStation().getName());
-        performance.put("averageRating", calculateAverageRating(staffId)); // Mock calculation
-        performance.put("lastActivity", getLastActivity(staffId));
+        performance.put("totalHandovers", snapshot.getTotalHandovers());
+        performance.put("handoversLast7Days", snapshot.getHandoversLast7Days());
+        performance.put("handoversLast30Days", snapshot.getHandoversLast30Days());
+        performance.put("averageTurnaroundMinutes", snapshot.getAverageTurnaroundMinutes());
+        performance.put("station", staff.getStation() != null ? staff.getStation().getName() : null);
+        performance.put("averageRating", snapshot.getAverageRating());
+        performance.put("ratingCount", snapshot.getRatingCount());
+        performance.put("complaintCount", snapshot.getComplaintCount());
+        performance.put("complaintRate", snapshot.getComplaintRate());
+        performance.put("lastActivity", snapshot.getLastActivity());
+        performance.put("computedAt", snapshot.getStaffId() != null ? snapshot.getComputedAt() : null);
 
         return performance;
     }
 
+    @Override
+    public Map<String, Object> rebuildStaffPerformance() {
+        long started = System.currentTimeMillis();
+        int staff = staffPerformanceRollup.rebuild();
+        Map<String, Object> result = new HashMap<>();
+        result.put("staff", staff);
+        result.put("elapsedMs", System.currentTimeMillis() - started);
+        return result;
+    }
+
     @Override
     public StaffSchedule createStaffSchedule(Integer staffId, Integer stationId, LocalDateTime shiftStart,
                                              LocalDateTime shiftEnd, String shiftType) {
@@ -143,111 +301,49 @@ public class AdminServiceImpl implements AdminService {
 
     @Override
     public Map<String, Object> getRevenueReport(Integer stationId, LocalDateTime from, LocalDateTime to) {
-        // Validate parameters are LocalDateTime objects
-        if (from == null || to == null) {
-            throw new RuntimeException("From date and to date are required");
-        }
+        // Validates the window; bookings are stored with day resolution, so it becomes a date range
+        ReportDateRange range = ReportDateRange.of(from, to);
+        return reportCache.get("revenue", stationId, List.of(range.fromDate(), range.toDate()),
+                () -> computeRevenueReport(stationId, range.fromDate(), range.toDate()));
+    }
 
-        // Validate date range
-        if (from.isAfter(to)) {
-            throw new RuntimeException("From date must be before or equal to to date");
-        }
-        if (from.isAfter(LocalDateTime.now())) {
-            throw new RuntimeException("From date cannot be in the future");
+    private Map<String, Object> computeRevenueReport(Integer stationId, java.sql.Date fromDate, java.sql.Date toDate) {
+        // Only count COMPLETED bookings for revenue; one grouped query covers totals and top stations.
+        // Every day in the range is a whole day, so the rollup answers it without touching raw bookings.
+        List<StationRevenueRow> rows = useRevenueRollup
+                ? dailyStationRevenueRepository.sumRevenueByStation(fromDate, toDate, stationId)
+                : bookingRepository.sumRevenueByStation(BookingStatus.COMPLETED, fromDate, toDate, stationId);
+
+        long totalBookings = 0;
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        BigDecimal totalFees = BigDecimal.ZERO;
+        for (StationRevenueRow row : rows) {
+            totalBookings += row.bookings();
+            totalRevenue = totalRevenue.add(revenueOf(row));
+            totalFees = totalFees.add(row.fees() != null ? row.fees() : BigDecimal.ZERO);
         }
 
-        // Only count COMPLETED bookings for revenue
-        List<BookingStatus> completedStatuses = List.of(
-                com.group7.evr.enums.BookingStatus.COMPLETED
-        );
-
-        // Get all COMPLETED bookings (with optional station filter), then filter by date in Java
-        List<Booking> allBookings;
-        if (stationId != null) {
-            // Get bookings for specific station
-            allBookings = bookingRepository.findByStationStationIdAndBookingStatusIn(
-                    stationId,
-                    completedStatuses
-            );
-        } else {
-            // Get all COMPLETED bookings
-            allBookings = bookingRepository.findByBookingStatus(BookingStatus.COMPLETED);
-        }
-
-        // Filter by date range in Java code to avoid JPA parameter binding issues
-        // Convert java.sql.Date to LocalDateTime for comparison
-        List<Booking> bookings = allBookings.stream()
-                .filter(b -> {
-                    java.sql.Date startTimeDate = b.getStartTime();
-                    if (startTimeDate == null) return false;
-                    // Convert java.sql.Date to LocalDateTime via java.util.Date
-                    java.util.Date utilDate = new java.util.Date(startTimeDate.getTime());
-                    LocalDateTime startTime = utilDate.toInstant()
-                            .atZone(java.time.ZoneId.systemDefault())
-                            .toLocalDateTime();
-                    return !startTime.isBefore(from) && !startTime.isAfter(to);
-                })
-                .collect(java.util.stream.Collectors.toList());
-
-        BigDecimal totalRevenue = bookings.stream()
-                .filter(b -> b.getTotalPrice() != null)
-                .map(Booking::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal averageRevenue = bookings.isEmpty()
-                ? BigDecimal.ZERO
-                : totalRevenue.divide(BigDecimal.valueOf(bookings.size()), 2, java.math.RoundingMode.HALF_UP);
-
         Map<String, Object> report = new HashMap<>();
         report.put("totalRevenue", totalRevenue);
-        report.put("totalBookings", bookings.size());
-        report.put("averageRevenue", averageRevenue);
+        report.put("totalBookings", totalBookings);
+        report.put("averageRevenue", averageOf(totalRevenue, totalBookings));
+        report.put("totalFees", totalFees);
 
         // Calculate top stations by revenue
         if (stationId == null) {
-            List<Station> allStations = stationRepository.findAll();
-            List<Map<String, Object>> topStations = allStations.stream()
-                    .map(station -> {
-                        // Get all COMPLETED bookings for this station
-                        List<Booking> allStationBookings = bookingRepository.findByStationStationIdAndBookingStatusIn(
-                                station.getStationId(),
-                                completedStatuses
-                        );
-
-                        // Filter by date range in Java code
-                        // Convert java.sql.Date to LocalDateTime for comparison
-                        List<Booking> stationBookings = allStationBookings.stream()
-                                .filter(b -> {
-                                    java.sql.Date startTimeDate = b.getStartTime();
-                                    if (startTimeDate == null) return false;
-                                    // Convert java.sql.Date to LocalDateTime via java.util.Date
-                                    java.util.Date utilDate = new java.util.Date(startTimeDate.getTime());
-                                    LocalDateTime startTime = utilDate.toInstant()
-                                            .atZone(java.time.ZoneId.systemDefault())
-                                            .toLocalDateTime();
-                                    return !startTime.isBefore(from) && !startTime.isAfter(to);
-                                })
-                                .collect(java.util.stream.Collectors.toList());
-
-                        BigDecimal stationRevenue = stationBookings.stream()
-                                .filter(b -> b.getTotalPrice() != null)
-                                .map(Booking::getTotalPrice)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add);
-                        BigDecimal stationAvg = stationBookings.isEmpty()
-                                ? BigDecimal.ZERO
-                                : stationRevenue.divide(BigDecimal.valueOf(stationBookings.size()), 2, java.math.RoundingMode.HALF_UP);
-
+            List<Map<String, Object>> topStations = rows.stream()
+                    .filter(row -> row.stationId() != null && revenueOf(row).compareTo(BigDecimal.ZERO) > 0)
+                    .sorted((a, b) -> revenueOf(b).compareTo(revenueOf(a)))
+                    .limit(5)
+                    .map(row -> {
                         Map<String, Object> stationData = new HashMap<>();
-                        stationData.put("stationId", station.getStationId());
-                        stationData.put("name", station.getName());
-                        stationData.put("revenue", stationRevenue);
-                        stationData.put("bookings", stationBookings.size());
-                        stationData.put("averageRevenue", stationAvg);
+                        stationData.put("stationId", row.stationId());
+                        stationData.put("name", row.stationName());
+                        stationData.put("revenue", revenueOf(row));
+                        stationData.put("bookings", row.bookings());
+                        stationData.put("averageRevenue", averageOf(revenueOf(row), row.bookings()));
                         return stationData;
                     })
-                    .filter(s -> ((BigDecimal) s.get("revenue")).compareTo(BigDecimal.ZERO) > 0)
-                    .sorted((a, b) -> ((BigDecimal) b.get("revenue")).compareTo((BigDecimal) a.get("revenue")))
-                    .limit(5)
                     .toList();
             report.put("topStations", topStations);
         }
@@ -256,56 +352,370 @@ public class AdminServiceImpl implements AdminService {
     }
 
     @Override
-    public Map<String, Object> getUtilizationReport(Integer stationId) {
-        List<Vehicle> vehicles = vehicleRepository.findByStationStationIdAndStatus(stationId, VehicleStatus.AVAILABLE);
-        List<Vehicle> rentedVehicles = vehicleRepository.findByStationStationIdAndStatus(stationId, VehicleStatus.RENTED);
+    public Map<String, Object> rebuildRevenueRollup() {
+        long started = System.currentTimeMillis();
+        int rows = dailyRevenueRollup.rebuild();
+        reportCache.invalidateType("revenue");
+        Map<String, Object> result = new HashMap<>();
+        result.put("rows", rows);
+        result.put("elapsedMs", System.currentTimeMillis() - started);
+        return result;
+    }
 
-        Map<String, Object> utilization = new HashMap<>();
-        utilization.put("totalVehicles", vehicles.size() + rentedVehicles.size());
-        utilization.put("utilizedVehicles", rentedVehicles.size());
-        utilization.put("utilizationRate", calculateUtilizationRate(vehicles.size(), rentedVehicles.size()));
+    @Override
+    public Map<String, Object> getUtilizationReport(Integer stationId, LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new RuntimeException("From date must be before to date");
+        }
+        if (from.plusDays(MAX_UTILIZATION_DAYS).isBefore(to)) {
+            throw new RuntimeException("Utilization range cannot exceed " + MAX_UTILIZATION_DAYS + " days");
+        }
+        return reportCache.get("utilization", stationId, List.of(from, to),
+                () -> computeUtilizationReport(stationId, from, to));
+    }
+
+    private Map<String, Object> computeUtilizationReport(Integer stationId, LocalDateTime from, LocalDateTime to) {
+        java.time.ZoneId zone = java.time.ZoneId.systemDefault();
+        long windowStart = from.atZone(zone).toInstant().toEpochMilli();
+        long windowEnd = to.atZone(zone).toInstant().toEpochMilli();
+        double windowHours = (windowEnd - windowStart) / 3_600_000.0;
+
+        // One sweep per vehicle id range, in parallel. Each part seeks its own slice of the booking index, so
+        // together they read what one sweep would; their vehicles are disjoint, so the sweeps add up exactly.
+        UtilizationSweep sweep = new UtilizationSweep(windowStart, windowEnd, 3_600_000L);
+        Object[] idRange = vehicleRepository.findVehicleIdRange(stationId).get(0);
+        if (idRange[0] != null) {
+            int parts = utilizationVehicleRanges > 0 ? utilizationVehicleRanges : reportExecutor.getMaxConcurrency();
+            List<VehicleIdRange> ranges = VehicleIdRange.split((Integer) idRange[0], (Integer) idRange[1], parts);
+            reportExecutor.fanOut("utilization", ranges,
+                            range -> sweepVehicleRange(range, stationId, from, to, windowStart, windowEnd))
+                    .values()
+                    .forEach(sweep::merge);
+        }
+
+        // Capacity: every vehicle currently assigned in scope, for the whole window
+        List<StationModelVehicleCount> fleet = vehicleRepository.countByStationAndModel().stream()
+                .filter(row -> stationId == null ? row.stationId() != null : stationId.equals(row.stationId()))
+                .toList();
+        Map<Integer, Long> vehiclesByStation = new java.util.TreeMap<>();
+        Map<Integer, Long> vehiclesByModel = new java.util.TreeMap<>();
+        Map<Integer, String> modelNames = new HashMap<>();
+        long fleetSize = 0;
+        for (StationModelVehicleCount row : fleet) {
+            fleetSize += row.vehicles();
+            vehiclesByStation.merge(row.stationId(), row.vehicles(), Long::sum);
+            if (row.modelId() != null) {
+                vehiclesByModel.merge(row.modelId(), row.vehicles(), Long::sum);
+                modelNames.put(row.modelId(), row.modelName());
+            }
+        }
+
+        Map<String, Object> current = summarizeFleet(stationId == null ? fleetStatusCounts()
+                : fleetStatusCounts().stream().filter(row -> stationId.equals(row.stationId())).toList());
+        double bookedHours = sweep.getBookedMillis() / 3_600_000.0;
 
+        Map<String, Object> utilization = new HashMap<>();
+        utilization.put("from", from);
+        utilization.put("to", to);
+        utilization.put("totalVehicles", fleetSize);
+        utilization.put("utilizedVehicles", current.get("rentedVehicles"));
+        utilization.put("vehiclesInUse", current.get("rentedVehicles"));
+        utilization.put("availableVehicles", current.get("availableVehicles"));
+        utilization.put("maintenanceVehicles", current.get("maintenanceVehicles"));
+        utilization.put("bookedVehicleHours", round2(bookedHours));
+        utilization.put("availableVehicleHours", round2(fleetSize * windowHours));
+        utilization.put("utilizationRate", utilizationPercent(bookedHours, fleetSize * windowHours));
+
+        Map<Integer, String> stationNames = new HashMap<>();
+        for (StationVehicleStatusCount row : fleetStatusCounts()) {
+            stationNames.putIfAbsent(row.stationId(), row.stationName());
+        }
+        List<Map<String, Object>> byStation = new java.util.ArrayList<>();
+        vehiclesByStation.forEach((id, vehicles) -> {
+            double stationBooked = sweep.getBookedByStation().getOrDefault(id, 0L) / 3_600_000.0;
+            Map<String, Object> row = new HashMap<>();
+            row.put("stationId", id);
+            row.put("name", stationNames.get(id));
+            row.put("vehicles", vehicles);
+            row.put("bookedVehicleHours", round2(stationBooked));
+            row.put("utilizationRate", utilizationPercent(stationBooked, vehicles * windowHours));
+            byStation.add(row);
+        });
+        utilization.put("byStation", byStation);
+
+        List<Map<String, Object>> byModel = new java.util.ArrayList<>();
+        vehiclesByModel.forEach((id, vehicles) -> {
+            double modelBooked = sweep.getBookedByModel().getOrDefault(id, 0L) / 3_600_000.0;
+            Map<String, Object> row = new HashMap<>();
+            row.put("modelId", id);
+            row.put("modelName", modelNames.get(id));
+            row.put("vehicles", vehicles);
+            row.put("bookedVehicleHours", round2(modelBooked));
+            row.put("utilizationRate", utilizationPercent(modelBooked, vehicles * windowHours));
+            byModel.add(row);
+        });
+        utilization.put("byModel", byModel);
+
+        // Hourly buckets for charting: vehicles booked during each hour and the matching rate
+        long[] bookedPerHour = sweep.bookedVehiclesPerBucket();
+        double[] ratePerHour = new double[bookedPerHour.length];
+        for (int i = 0; i < bookedPerHour.length; i++) {
+            ratePerHour[i] = utilizationPercent(bookedPerHour[i], fleetSize);
+        }
+        Map<String, Object> buckets = new HashMap<>();
+        buckets.put("start", from);
+        buckets.put("bucketMinutes", 60);
+        buckets.put("bookedVehicles", bookedPerHour);
+        buckets.put("utilizationRate", ratePerHour);
+        utilization.put("hourly", buckets);
         return utilization;
     }
 
+    // Stream the range's booked intervals in (vehicle, start) order and sweep them without materializing a list.
+    // Bookings are stored by day: a booking occupies [startTime, endTime), and at least its start day.
+    private UtilizationSweep sweepVehicleRange(VehicleIdRange range, Integer stationId, LocalDateTime from,
+                                               LocalDateTime to, long windowStart, long windowEnd) {
+        UtilizationSweep sweep = new UtilizationSweep(windowStart, windowEnd, 3_600_000L);
+        try (java.util.stream.Stream<BookingInterval> intervals = bookingRepository.streamBookedIntervals(
+                range.fromId(), range.toId(),
+                java.sql.Date.valueOf(from.toLocalDate().minusDays(1)),
+                java.sql.Date.valueOf(to.toLocalDate().plusDays(1)),
+                stationId)) {
+            intervals.forEach(interval -> {
+                // A cancelled report stops reading instead of draining the rest of its range
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new java.util.concurrent.CancellationException("Utilization report cancelled");
+                }
+                long start = interval.startTime().getTime();
+                long end = Math.max(interval.endTime().getTime(), start + 86_400_000L);
+                sweep.accept(interval.vehicleId(), interval.stationId(), interval.modelId(), start, end);
+            });
+        }
+        sweep.finish();
+        return sweep;
+    }
+
     @Override
     public Map<String, Object> getPeakHoursAnalysis(Integer stationId) {
-        List<Booking> bookings = bookingRepository.findByStationStationId(stationId);
-
-        Map<String, Long> hourlyDistribution = bookings.stream()
-                .collect(java.util.stream.Collectors.groupingBy(
-                        booking -> String.valueOf(booking.getStartTime().getHours()),
-                        java.util.stream.Collectors.counting()
-                ));
+        // Keyed by the last counted booking, so an entry never outlives a newly recorded booking
+        return reportCache.get("peaks", stationId, bookingHeatmapIndex.getLastBookingId(),
+                () -> computePeakHoursAnalysis(stationId));
+    }
 
-        Map<String, Object> analysis = new HashMap<>();
-        analysis.put("hourlyDistribution", hourlyDistribution);
-        analysis.put("peakHour", findPeakHour(hourlyDistribution));
-        analysis.put("totalBookings", bookings.size());
+    private Map<String, Object> computePeakHoursAnalysis(Integer stationId) {
+        if (stationId != null) {
+            Map<String, Object> analysis = analyzeHeatmap(bookingHeatmapIndex.snapshot(stationId));
+            analysis.put("stationId", stationId);
+            return analysis;
+        }
 
+        // All stations: overall analysis of the summed counters plus each station's own heatmap
+        long[] overall = new long[BookingHeatmapIndex.HOURS_PER_WEEK];
+        List<Map<String, Object>> stations = new java.util.ArrayList<>();
+        for (Map.Entry<Integer, long[]> entry : bookingHeatmapIndex.snapshotAll().entrySet()) {
+            long[] counts = entry.getValue();
+            for (int i = 0; i < counts.length; i++) {
+                overall[i] += counts[i];
+            }
+            Map<String, Object> stationAnalysis = analyzeHeatmap(counts);
+            stationAnalysis.put("stationId", entry.getKey());
+            stations.add(stationAnalysis);
+        }
+        Map<String, Object> analysis = analyzeHeatmap(overall);
+        analysis.put("stations", stations);
         return analysis;
     }
 
+    @Override
+    public Map<String, Object> rebuildPeakHoursHeatmap() {
+        long started = System.currentTimeMillis();
+        int stations = bookingHeatmapIndex.rebuild();
+        reportCache.invalidateType("peaks");
+        Map<String, Object> result = new HashMap<>();
+        result.put("stations", stations);
+        result.put("elapsedMs", System.currentTimeMillis() - started);
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> getDemandForecast(Integer stationId) {
+        Map<String, Object> forecast = new HashMap<>();
+        DemandForecastEngine.StationForecast stationForecast = null;
+        double[] hourly = new double[DemandForecastEngine.HOURS_PER_WEEK];
+        double confidence = 0.0;
+        if (stationId != null) {
+            stationForecast = demandForecastEngine.getForecast(stationId);
+            if (stationForecast != null) {
+                hourly = stationForecast.hourly();
+                confidence = stationForecast.confidence();
+                forecast.put("mape", Double.isNaN(stationForecast.mape()) ? null : round2(stationForecast.mape()));
+                forecast.put("trainingTimeMs", stationForecast.trainingMillis());
+                forecast.put("trainedAt", stationForecast.trainedAt());
+            }
+            forecast.put("stationId", stationId);
+        } else {
+            // Fleet-wide: sum station forecasts, confidence weighted by each station's expected demand
+            double weightedConfidence = 0;
+            double weight = 0;
+            for (DemandForecastEngine.StationForecast each : demandForecastEngine.getAllForecasts().values()) {
+                double demand = 0;
+                for (int i = 0; i < hourly.length; i++) {
+                    hourly[i] += each.hourly()[i];
+                    demand += each.hourly()[i];
+                }
+                weightedConfidence += each.confidence() * demand;
+                weight += demand;
+                stationForecast = each;
+            }
+            confidence = weight == 0 ? 0.0 : weightedConfidence / weight;
+        }
+
+        double nextDay = 0;
+        List<Double> hourlyForecast = new java.util.ArrayList<>();
+        for (int hour = 0; hour < DemandForecastEngine.HOURS_PER_DAY; hour++) {
+            nextDay += hourly[hour];
+            hourlyForecast.add(round2(hourly[hour]));
+        }
+        List<Double> dailyForecast = new java.util.ArrayList<>();
+        for (int day = 0; day < 7; day++) {
+            double total = 0;
+            for (int hour = day * 24; hour < (day + 1) * 24; hour++) {
+                total += hourly[hour];
+            }
+            dailyForecast.add(round2(total));
+        }
+
+        int predictedDemand = (int) Math.round(nextDay);
+        forecast.put("predictedDemand", predictedDemand);
+        forecast.put("confidence", round2(confidence));
+        forecast.put("hourlyForecast", hourlyForecast);
+        forecast.put("dailyForecast", dailyForecast);
+        forecast.put("startsAt", stationForecast != null ? stationForecast.startsAt() : null);
+        forecast.put("recommendedActions", stationForecast == null
+                ? List.of("Not enough booking history to forecast demand yet")
+                : recommendActions(stationId, predictedDemand, hourly, stationForecast.startsAt()));
+        return forecast;
+    }
+
     // ============ PRIVATE HELPER METHODS ============
 
+    private List<String> recommendActions(Integer stationId, int predictedDemand, double[] hourly, LocalDateTime startsAt) {
+        Map<String, Object> fleet = summarizeFleet(stationId == null ? fleetStatusCounts()
+                : fleetStatusCounts().stream().filter(row -> stationId.equals(row.stationId())).toList());
+        long available = (Long) fleet.get("availableVehicles");
+
+        List<String> actions = new java.util.ArrayList<>();
+        if (predictedDemand > available) {
+            actions.add("Increase fleet by " + (predictedDemand - available) + " vehicles");
+        } else if (predictedDemand * 2L < available) {
+            actions.add("Rebalance " + (available - predictedDemand) + " idle vehicles to busier stations");
+        }
+        int peakHour = 0;
+        for (int hour = 1; hour < DemandForecastEngine.HOURS_PER_DAY; hour++) {
+            if (hourly[hour] > hourly[peakHour]) {
+                peakHour = hour;
+            }
+        }
+        int peakClock = (startsAt.getHour() + peakHour) % 24;
+        actions.add("Schedule additional staff around " + formatHourRange(peakClock));
+        return actions;
+    }
+
+    private static double round2(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    // Dashboard polling reads the grouped counts from the report cache; any vehicle change drops them
+    private List<StationVehicleStatusCount> fleetStatusCounts() {
+        return reportCache.get("fleet-counts", null, null,
+                () -> List.copyOf(vehicleRepository.countByStationAndStatus()));
+    }
+
+    private Map<String, Object> summarizeFleet(List<StationVehicleStatusCount> counts) {
+        long available = 0;
+        long rented = 0;
+        long maintenance = 0;
+        for (StationVehicleStatusCount row : counts) {
+            if (row.status() == null) {
+                continue;
+            }
+            switch (row.status()) {
+                case AVAILABLE -> available += row.vehicles();
+                case RENTED -> rented += row.vehicles();
+                case MAINTENANCE -> maintenance += row.vehicles();
+            }
+        }
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("totalVehicles", available + rented + maintenance);
+        summary.put("availableVehicles", available);
+        summary.put("rentedVehicles", rented);
+        summary.put("maintenanceVehicles", maintenance);
+        summary.put("occupancyRate", calculateOccupancyRate((int) available, (int) rented));
+        return summary;
+    }
+
     private Double calculateOccupancyRate(int available, int rented) {
         int total = available + rented;
         return total == 0 ? 0.0 : (double) rented / total * 100;
     }
 
-    private Double calculateUtilizationRate(int available, int rented) {
-        int total = available + rented;
-        return total == 0 ? 0.0 : (double) rented / total * 100;
+    private static double utilizationPercent(double booked, double capacity) {
+        return capacity <= 0 ? 0.0 : round2(booked / capacity * 100);
     }
 
-    private Double calculateAverageRating(Integer staffId) {
-        // Mock calculation - would use actual rating system
-        return 4.5;
+    private Map<String, Object> analyzeHeatmap(long[] counts) {
+        long[][] heatmap = new long[7][24];
+        long[] byHour = new long[24];
+        long[] byDay = new long[7];
+        long total = 0;
+        for (int slot = 0; slot < counts.length; slot++) {
+            heatmap[slot / 24][slot % 24] = counts[slot];
+            byHour[slot % 24] += counts[slot];
+            byDay[slot / 24] += counts[slot];
+            total += counts[slot];
+        }
+
+        Map<String, Long> hourlyDistribution = new java.util.LinkedHashMap<>();
+        List<Map<String, Object>> hourlyBreakdown = new java.util.ArrayList<>();
+        for (int hour = 0; hour < 24; hour++) {
+            hourlyDistribution.put(String.valueOf(hour), byHour[hour]);
+            Map<String, Object> row = new HashMap<>();
+            row.put("timeRange", formatHourRange(hour));
+            row.put("bookings", byHour[hour]);
+            row.put("percentage", total == 0 ? 0.0 : Math.round(byHour[hour] * 1000.0 / total) / 10.0);
+            hourlyBreakdown.add(row);
+        }
+
+        Map<String, Object> analysis = new HashMap<>();
+        analysis.put("heatmap", heatmap);
+        analysis.put("hourlyDistribution", hourlyDistribution);
+        analysis.put("hourlyBreakdown", hourlyBreakdown);
+        analysis.put("totalBookings", total);
+        if (total == 0) {
+            analysis.put("peakHour", "N/A");
+            return analysis;
+        }
+        int peakHour = indexOfMax(byHour);
+        int peakDay = indexOfMax(byDay);
+        analysis.put("peakHour", findPeakHour(hourlyDistribution));
+        analysis.put("peakHours", formatHourRange(peakHour));
+        analysis.put("peakDays", java.time.DayOfWeek.of(peakDay + 1)
+                .getDisplayName(java.time.format.TextStyle.FULL, java.util.Locale.forLanguageTag("vi-VN")));
+        return analysis;
     }
 
-    private LocalDateTime getLastActivity(Integer staffId) {
-        // Mock calculation - would get from audit logs
-        return LocalDateTime.now().minusHours(2);
+    private static int indexOfMax(long[] values) {
+        int best = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] > values[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private static String formatHourRange(int hour) {
+        return String.format("%02d:00 - %02d:00", hour, (hour + 1) % 24);
     }
 
     private String findPeakHour(Map<String, Long> hourlyDistribution) {
@@ -314,4 +724,14 @@ public class AdminServiceImpl implements AdminService {
                 .map(Map.Entry::getKey)
                 .orElse("N/A");
     }
-}
\ No newline at end of file
+
+    private static BigDecimal revenueOf(StationRevenueRow row) {
+        return row.revenue() != null ? row.revenue() : BigDecimal.ZERO;
+    }
+
+    private static BigDecimal averageOf(BigDecimal revenue, long bookings) {
+        return bookings == 0
+                ? BigDecimal.ZERO
+                : revenue.divide(BigDecimal.valueOf(bookings), 2, java.math.RoundingMode.HALF_UP);
+    }
+}
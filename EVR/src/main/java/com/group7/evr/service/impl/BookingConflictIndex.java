@@ -0,0 +1,216 @@
+package com.group7.evr.service.impl;
+
+import com.group7.evr.entity.Booking;
+import com.group7.evr.enums.BookingStatus;
+import com.group7.evr.repository.BookingRepository;
+import com.group7.evr.util.SlotBitmapCalendar;
+import com.group7.evr.util.VehicleIntervalTree;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of active reservations (anything not CANCELLED/COMPLETED/DENIED), one interval tree per
+ * vehicle. Warmed once from the database at startup and kept in sync by the booking service after every write,
+ * so conflict checks on the booking path never have to load a vehicle's booking history. Requests served
+ * before the warm-up finishes are answered from the database instead.
+ * <p>
+ * The trees also feed a slot-bitmap calendar over a rolling horizon, used to answer fleet-wide
+ * "which vehicles are free in this window" queries with word-wide bit tests.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingConflictIndex {
+    private static final Set<BookingStatus> INACTIVE_STATUSES =
+            EnumSet.of(BookingStatus.CANCELLED, BookingStatus.COMPLETED, BookingStatus.DENIED);
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Integer, VehicleIntervalTree> treesByVehicle = new ConcurrentHashMap<>();
+    private final Map<Integer, IndexedBooking> indexedBookings = new ConcurrentHashMap<>();
+
+    @Value("${app.availability.slot-minutes:15}")
+    private int slotMinutes;
+
+    @Value("${app.availability.horizon-days:90}")
+    private int horizonDays;
+
+    private volatile SlotBitmapCalendar calendar;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void warmUp() {
+        // A booking synced before the warm-up is re-read here, so drop its entry instead of indexing it twice
+        bookingRepository.findByBookingStatusNotIn(INACTIVE_STATUSES).forEach(booking -> {
+            untrack(booking.getBookingId());
+            track(booking);
+        });
+        rollCalendar();
+        ready = true;
+        log.info("Booking conflict index warmed with {} active bookings across {} vehicles",
+                indexedBookings.size(), treesByVehicle.size());
+    }
+
+    /**
+     * Start the calendar horizon at today's midnight. Runs daily so the horizon keeps rolling.
+     */
+    @Scheduled(cron = "${app.availability.roll-cron:0 0 0 * * *}")
+    public synchronized void rollCalendar() {
+        long origin = LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long slotMillis = slotMinutes * 60_000L;
+        int slotCount = (int) (horizonDays * 24L * 60 / slotMinutes);
+        SlotBitmapCalendar next = new SlotBitmapCalendar(slotMillis, slotCount, origin);
+        treesByVehicle.forEach((vehicleId, tree) -> {
+            synchronized (tree) {
+                next.rebuild(vehicleId, tree);
+            }
+        });
+        calendar = next;
+    }
+
+    /**
+     * Return the subset of vehicles with no active reservation overlapping {@code [start, end)}.
+     * Windows inside the calendar horizon are answered from the bitmaps; anything else falls back
+     * to the per-vehicle interval trees.
+     */
+    public List<Integer> filterAvailable(Collection<Integer> vehicleIds, long start, long end) {
+        if (!ready) {
+            Set<Integer> booked = new HashSet<>(bookingRepository.findBookedVehicleIds(INACTIVE_STATUSES,
+                    floorDay(start), ceilDay(end)));
+            return vehicleIds.stream().filter(vehicleId -> !booked.contains(vehicleId)).toList();
+        }
+        SlotBitmapCalendar current = calendar;
+        if (current != null && current.covers(start, end)) {
+            return current.filterFree(vehicleIds, start, end);
+        }
+        List<Integer> free = new ArrayList<>(vehicleIds.size());
+        for (Integer vehicleId : vehicleIds) {
+            VehicleIntervalTree tree = treesByVehicle.get(vehicleId);
+            if (tree == null) {
+                free.add(vehicleId);
+                continue;
+            }
+            synchronized (tree) {
+                if (!tree.overlaps(start, end)) {
+                    free.add(vehicleId);
+                }
+            }
+        }
+        return free;
+    }
+
+    public boolean hasConflict(Integer vehicleId, Date startTime, Date endTime) {
+        return hasConflict(vehicleId, startTime, endTime, null);
+    }
+
+    public boolean hasConflict(Integer vehicleId, Date startTime, Date endTime, Integer excludeBookingId) {
+        if (vehicleId == null || startTime == null || endTime == null) {
+            return false;
+        }
+        if (!ready) {
+            return bookingRepository.existsOverlapping(vehicleId, INACTIVE_STATUSES,
+                    floorDay(startTime.getTime()), ceilDay(endTime.getTime()), excludeBookingId);
+        }
+        VehicleIntervalTree tree = treesByVehicle.get(vehicleId);
+        if (tree == null) {
+            return false;
+        }
+        synchronized (tree) {
+            return tree.overlaps(startTime.getTime(), endTime.getTime(), excludeBookingId);
+        }
+    }
+
+    /**
+     * Re-index a booking after it was saved: drops its previous interval and re-inserts it
+     * only while it is still active and fully dated.
+     */
+    public synchronized void sync(Booking booking) {
+        if (booking == null || booking.getBookingId() == null) {
+            return;
+        }
+        Integer previousVehicleId = untrack(booking.getBookingId());
+        Integer currentVehicleId = track(booking);
+        refreshCalendar(previousVehicleId);
+        if (currentVehicleId != null && !currentVehicleId.equals(previousVehicleId)) {
+            refreshCalendar(currentVehicleId);
+        }
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private Integer track(Booking booking) {
+        if (INACTIVE_STATUSES.contains(booking.getBookingStatus())
+                || booking.getVehicle() == null || booking.getVehicle().getVehicleId() == null
+                || booking.getStartTime() == null || booking.getEndTime() == null) {
+            return null;
+        }
+        IndexedBooking entry = new IndexedBooking(booking.getVehicle().getVehicleId(),
+                booking.getStartTime().getTime(), booking.getEndTime().getTime());
+        VehicleIntervalTree tree = treesByVehicle.computeIfAbsent(entry.vehicleId(), id -> new VehicleIntervalTree());
+        synchronized (tree) {
+            tree.insert(booking.getBookingId(), entry.start(), entry.end());
+        }
+        indexedBookings.put(booking.getBookingId(), entry);
+        return entry.vehicleId();
+    }
+
+    private Integer untrack(Integer bookingId) {
+        IndexedBooking previous = indexedBookings.remove(bookingId);
+        if (previous == null) {
+            return null;
+        }
+        VehicleIntervalTree tree = treesByVehicle.get(previous.vehicleId());
+        if (tree != null) {
+            synchronized (tree) {
+                tree.remove(bookingId, previous.start());
+            }
+        }
+        return previous.vehicleId();
+    }
+
+    private void refreshCalendar(Integer vehicleId) {
+        SlotBitmapCalendar current = calendar;
+        if (vehicleId == null || current == null) {
+            return;
+        }
+        VehicleIntervalTree tree = treesByVehicle.get(vehicleId);
+        if (tree != null) {
+            synchronized (tree) {
+                current.rebuild(vehicleId, tree);
+            }
+        }
+    }
+
+    // Booking dates are local midnights, so a booking overlaps [start, end) exactly when it starts before
+    // the day boundary at or after end and ends after the day boundary at or before start
+    private static java.sql.Date floorDay(long millis) {
+        return java.sql.Date.valueOf(Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()).toLocalDate());
+    }
+
+    private static java.sql.Date ceilDay(long millis) {
+        LocalDate day = Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()).toLocalDate();
+        return java.sql.Date.valueOf(day.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli() < millis
+                ? day.plusDays(1) : day);
+    }
+
+    private record IndexedBooking(Integer vehicleId, long start, long end) {
+    }
+}
@@ -0,0 +1,235 @@
+package com.group7.evr.service.impl;
+
+import com.group7.evr.entity.Booking;
+import com.group7.evr.entity.BookingHeatmapSnapshot;
+import com.group7.evr.repository.BookingHeatmapSnapshotRepository;
+import com.group7.evr.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-station 7x24 hour-of-week counters of booking creation times. Increments on booking creation are
+ * a single atomic add, and reads copy 168 longs, so the peaks report never touches the Booking table.
+ * <p>
+ * Counters are persisted periodically to BookingHeatmapSnapshot together with the highest booking id
+ * they cover. Startup loads the snapshots and counts only newer bookings; {@link #rebuild()} recounts
+ * everything from Booking.
+ * <p>
+ * While a warm-up or rebuild is counting from the database, recorded bookings are buffered instead of
+ * counted and replayed afterwards if their id is above what the count covered, so a booking is neither
+ * lost nor counted twice. Counters and {@code lastBookingId} only change together under the monitor.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingHeatmapIndex {
+    public static final int HOURS_PER_WEEK = 7 * 24;
+
+    private final BookingRepository bookingRepository;
+    private final BookingHeatmapSnapshotRepository snapshotRepository;
+
+    // Serializes warm-up and rebuild; the monitor on this only guards the counters themselves
+    private final Object countingLock = new Object();
+
+    private volatile Map<Integer, AtomicLongArray> countersByStation = new ConcurrentHashMap<>();
+    private volatile int lastBookingId;
+    // Bookings recorded while counting from the database; null once the counters are live
+    private List<Booking> buffered = new ArrayList<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        synchronized (countingLock) {
+            Map<Integer, AtomicLongArray> loaded = new ConcurrentHashMap<>();
+            int watermark = Integer.MAX_VALUE;
+            for (BookingHeatmapSnapshot snapshot : snapshotRepository.findAll()) {
+                loaded.put(snapshot.getStationId(), decode(snapshot.getCounts()));
+                watermark = Math.min(watermark, snapshot.getLastBookingId() != null ? snapshot.getLastBookingId() : 0);
+            }
+            if (watermark == Integer.MAX_VALUE) {
+                watermark = 0;
+            }
+            int caughtUp = countBookings(loaded, watermark);
+            int replayed = goLive(loaded, caughtUp);
+            log.info("Booking heatmap loaded for {} stations (caught up on bookings after #{}, now at #{}, {} replayed)",
+                    loaded.size(), watermark, caughtUp, replayed);
+        }
+    }
+
+    /**
+     * Count a newly created booking. Call after its transaction committed.
+     */
+    public void record(Booking booking) {
+        if (booking == null || booking.getBookingId() == null
+                || booking.getStation() == null || booking.getCreatedAt() == null) {
+            return;
+        }
+        synchronized (this) {
+            if (buffered != null) {
+                buffered.add(booking);
+                return;
+            }
+            count(countersByStation, booking);
+        }
+    }
+
+    /**
+     * Copy of one station's counters, indexed by {@link #hourOfWeek(LocalDateTime)}.
+     */
+    public long[] snapshot(Integer stationId) {
+        return copy(countersByStation.get(stationId));
+    }
+
+    /**
+     * Copies of every station's counters, ordered by station id.
+     */
+    public Map<Integer, long[]> snapshotAll() {
+        Map<Integer, long[]> result = new TreeMap<>();
+        countersByStation.forEach((stationId, counters) -> result.put(stationId, copy(counters)));
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${app.reports.peaks.persist-interval-ms:300000}",
+            initialDelayString = "${app.reports.peaks.persist-interval-ms:300000}")
+    public void persist() {
+        Map<Integer, long[]> counts;
+        int coveredId;
+        // Copy counters and watermark together, so a stored increment always comes with its booking id
+        synchronized (this) {
+            if (buffered != null) {
+                return;
+            }
+            counts = snapshotAll();
+            coveredId = lastBookingId;
+        }
+        List<BookingHeatmapSnapshot> snapshots = new ArrayList<>(counts.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<Integer, long[]> entry : counts.entrySet()) {
+            BookingHeatmapSnapshot snapshot = new BookingHeatmapSnapshot();
+            snapshot.setStationId(entry.getKey());
+            snapshot.setCounts(encode(entry.getValue()));
+            snapshot.setLastBookingId(coveredId);
+            snapshot.setUpdatedAt(now);
+            snapshots.add(snapshot);
+        }
+        snapshotRepository.saveAll(snapshots);
+    }
+
+    /**
+     * Recount everything from Booking. Reports keep serving the old counters until the new ones are done.
+     */
+    public int rebuild() {
+        synchronized (countingLock) {
+            synchronized (this) {
+                if (buffered == null) {
+                    buffered = new ArrayList<>();
+                }
+            }
+            Map<Integer, AtomicLongArray> recounted = new ConcurrentHashMap<>();
+            int upToId = countBookings(recounted, 0);
+            int replayed = goLive(recounted, upToId);
+            persist();
+            log.info("Rebuilt booking heatmap for {} stations up to booking #{} ({} replayed)",
+                    recounted.size(), upToId, replayed);
+            return recounted.size();
+        }
+    }
+
+    /**
+     * Highest booking id counted so far; changes whenever the counters do.
+     */
+    public int getLastBookingId() {
+        return lastBookingId;
+    }
+
+    public static int hourOfWeek(LocalDateTime time) {
+        return (time.getDayOfWeek().getValue() - 1) * 24 + time.getHour();
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    /**
+     * Add bookings in (afterId, max id] to {@code target}; returns the highest id covered.
+     */
+    private int countBookings(Map<Integer, AtomicLongArray> target, int afterId) {
+        int upToId = bookingRepository.findMaxBookingId();
+        if (upToId > afterId) {
+            for (Object[] row : bookingRepository.countCreatedByStationAndHourOfWeek(afterId, upToId)) {
+                int slot = ((Number) row[1]).intValue();
+                if (slot >= 0 && slot < HOURS_PER_WEEK) {
+                    counters(target, ((Number) row[0]).intValue()).addAndGet(slot, ((Number) row[2]).longValue());
+                }
+            }
+        }
+        return Math.max(afterId, upToId);
+    }
+
+    /**
+     * Swap in freshly counted counters and replay the bookings buffered meanwhile that the count did not
+     * cover. Returns how many were replayed.
+     */
+    private synchronized int goLive(Map<Integer, AtomicLongArray> counted, int coveredId) {
+        lastBookingId = coveredId;
+        int replayed = 0;
+        for (Booking booking : buffered) {
+            if (booking.getBookingId() > coveredId) {
+                count(counted, booking);
+                replayed++;
+            }
+        }
+        countersByStation = counted;
+        buffered = null;
+        return replayed;
+    }
+
+    // Caller holds the monitor
+    private void count(Map<Integer, AtomicLongArray> target, Booking booking) {
+        counters(target, booking.getStation().getStationId()).incrementAndGet(hourOfWeek(booking.getCreatedAt()));
+        lastBookingId = Math.max(lastBookingId, booking.getBookingId());
+    }
+
+    private static AtomicLongArray counters(Map<Integer, AtomicLongArray> target, Integer stationId) {
+        return target.computeIfAbsent(stationId, id -> new AtomicLongArray(HOURS_PER_WEEK));
+    }
+
+    private static long[] copy(AtomicLongArray counters) {
+        long[] copy = new long[HOURS_PER_WEEK];
+        if (counters != null) {
+            for (int i = 0; i < HOURS_PER_WEEK; i++) {
+                copy[i] = counters.get(i);
+            }
+        }
+        return copy;
+    }
+
+    private static byte[] encode(long[] counts) {
+        ByteBuffer buffer = ByteBuffer.allocate(HOURS_PER_WEEK * Long.BYTES);
+        for (long count : counts) {
+            buffer.putLong(count);
+        }
+        return buffer.array();
+    }
+
+    private static AtomicLongArray decode(byte[] bytes) {
+        AtomicLongArray counters = new AtomicLongArray(HOURS_PER_WEEK);
+        if (bytes != null) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            for (int i = 0; i < HOURS_PER_WEEK && buffer.remaining() >= Long.BYTES; i++) {
+                counters.set(i, buffer.getLong());
+            }
+        }
+        return counters;
+    }
+}
@@ -1,11 +1,15 @@
 package com.group7.evr.service.impl;
 
+import com.group7.evr.dto.BookingSummary;
+import com.group7.evr.dto.StaffContractRow;
 import com.group7.evr.entity.*;
 import com.group7.evr.enums.BookingStatus;
 import com.group7.evr.enums.UserRole;
 import com.group7.evr.enums.VehicleStatus;
+import com.group7.evr.event.BookingChangedEvent;
+import com.group7.evr.event.VehicleChangedEvent;
 import com.group7.evr.repository.BookingRepository;
-import com.group7.evr.repository.ContractRepository;
+import com.group7.evr.repository.BookingSpecifications;
 import com.group7.evr.repository.VehicleRepository;
 import com.group7.evr.repository.StationRepository;
 import com.group7.evr.service.BookingService;
@@ -13,10 +17,20 @@ import com.group7.evr.service.EmailService;
 import com.group7.evr.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -24,15 +38,36 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 public class BookingServiceImpl implements BookingService {
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     private final BookingRepository bookingRepository;
     private final VehicleRepository vehicleRepository;
     private final UserService userService;
     private final StationRepository stationRepository;
     private final EmailService emailService;
-    private final ContractRepository contractRepository;
+    private final BookingConflictIndex bookingConflictIndex;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final DailyRevenueRollup dailyRevenueRollup;
+    private final BookingHeatmapIndex bookingHeatmapIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
-    public Booking createBooking(Booking booking, User user) {
+    public Booking createBooking(Booking request, User user) {
+        Booking savedBooking = optimisticLockRetry.execute("create booking", () -> doCreateBooking(request, user));
+        bookingConflictIndex.sync(savedBooking);
+        bookingHeatmapIndex.record(savedBooking);
+        return savedBooking;
+    }
+
+    private Booking doCreateBooking(Booking request, User user) {
+        // Copy the request so a retried attempt never reuses the id/version a rolled-back attempt assigned
+        Booking booking = new Booking();
+        booking.setVehicle(request.getVehicle());
+        booking.setStation(request.getStation());
+        booking.setStartTime(request.getStartTime());
+        booking.setEndTime(request.getEndTime());
+        booking.setTotalPrice(request.getTotalPrice());
+
         Vehicle vehicle = vehicleRepository.findById(booking.getVehicle().getVehicleId()).orElseThrow();
         Station vehicleStation = vehicle.getStation();
         Station requestStation = booking.getStation();
@@ -64,68 +99,106 @@ public class BookingServiceImpl implements BookingService {
             }
         }
         
-        vehicle.setStatus(VehicleStatus.RENTED);
-        vehicleRepository.save(vehicle);
+        changeVehicleStatus(vehicle, VehicleStatus.RENTED);
         booking.setUser(user);
         Integer stationId = booking.getStation() != null ? booking.getStation().getStationId() : null;
         if (stationId != null) {
             booking.setStaff(userService.getPrimaryStaffForStation(stationId));
         }
         booking.setBookingStatus(BookingStatus.PENDING);
+        booking.setVehicle(vehicle);
         Booking savedBooking = bookingRepository.save(booking);
+        eventPublisher.publishEvent(BookingChangedEvent.of(savedBooking, null));
         userService.logAudit(user, "Created booking " + savedBooking.getBookingId());
+        // Queued in the same transaction; the outbox dispatcher delivers it after commit
         emailService.sendBookingConfirmation(savedBooking);
         return savedBooking;
     }
 
     @Override
     public Booking getBookingById(Integer bookingId) {
-        return bookingRepository.findById(bookingId)
+        return bookingRepository.findWithDetailsByBookingId(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
     }
 
     @Override
-    public Map<String, Object> getUserBookingsWithFilters(Integer userId, String status, String fromDate, String toDate, int page, int size) {
-        List<Booking> allBookings = bookingRepository.findByUserUserId(userId);
-        
-        // Apply filters
+    public Map<String, Object> getUserBookingsWithFilters(Integer userId, String status, String fromDate, String toDate,
+                                                          int page, int size, String cursor) {
+        if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+            throw new RuntimeException("Page size must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+        }
         BookingStatus statusEnum = status != null ? BookingStatus.fromString(status) : null;
+        Specification<Booking> filters = BookingSpecifications.forUser(userId)
+                .and(BookingSpecifications.hasStatus(statusEnum))
+                .and(BookingSpecifications.startsOnOrAfter(parseFilterDate(fromDate)))
+                .and(BookingSpecifications.startsOnOrBefore(parseFilterDate(toDate)));
 
-        List<Booking> filteredBookings = allBookings.stream()
-                .filter(booking -> statusEnum == null || booking.getBookingStatus() == statusEnum)
-                .filter(booking -> fromDate == null || booking.getStartTime().toString().compareTo(fromDate) >= 0)
-                .filter(booking -> toDate == null || booking.getStartTime().toString().compareTo(toDate) <= 0)
-                .toList();
-        
-        // Apply pagination
-        int start = page * size;
-        int end = Math.min(start + size, filteredBookings.size());
-        List<Booking> paginatedBookings = filteredBookings.subList(start, end);
-        
         Map<String, Object> response = new HashMap<>();
-        response.put("bookings", paginatedBookings);
-        response.put("totalCount", filteredBookings.size());
-        response.put("page", page);
+        List<Booking> bookings;
+        boolean hasMore;
+        if (cursor != null) {
+            // Keyset mode: seek past the last row of the previous page, no offset and no count query
+            HistoryCursor after = HistoryCursor.decode(cursor);
+            List<Booking> window = bookingRepository.findBy(
+                    filters.and(BookingSpecifications.after(after.startTime(), after.bookingId())),
+                    query -> query.sortBy(BookingSpecifications.HISTORY_ORDER)
+                            .project(BookingSpecifications.SUMMARY_GRAPH)
+                            .limit(size + 1)
+                            .all());
+            hasMore = window.size() > size;
+            bookings = hasMore ? window.subList(0, size) : window;
+        } else {
+            if (page < 0) {
+                throw new RuntimeException("Page must not be negative");
+            }
+            Page<Booking> result = bookingRepository.findBy(filters,
+                    query -> query.project(BookingSpecifications.SUMMARY_GRAPH)
+                            .page(PageRequest.of(page, size, BookingSpecifications.HISTORY_ORDER)));
+            bookings = result.getContent();
+            hasMore = result.hasNext();
+            response.put("totalCount", result.getTotalElements());
+            response.put("page", page);
+            response.put("totalPages", result.getTotalPages());
+        }
+
+        response.put("bookings", bookings.stream().map(BookingSummary::from).toList());
         response.put("size", size);
-        response.put("totalPages", (int) Math.ceil((double) filteredBookings.size() / size));
-        
+        response.put("hasMore", hasMore);
+        response.put("nextCursor", hasMore && !bookings.isEmpty()
+                ? HistoryCursor.of(bookings.get(bookings.size() - 1)).encode() : null);
         return response;
     }
 
+    // Status changes publish events that listeners (e.g. the dashboard stream) receive after commit
+    private void changeBookingStatus(Booking booking, BookingStatus status) {
+        BookingStatus previous = booking.getBookingStatus();
+        booking.setBookingStatus(status);
+        eventPublisher.publishEvent(BookingChangedEvent.of(booking, previous));
+    }
+
+    private void changeVehicleStatus(Vehicle vehicle, VehicleStatus status) {
+        VehicleStatus previous = vehicle.getStatus();
+        vehicle.setStatus(status);
+        vehicleRepository.save(vehicle);
+        Integer stationId = vehicle.getStation() != null ? vehicle.getStation().getStationId() : null;
+        eventPublisher.publishEvent(VehicleChangedEvent.of(vehicle, stationId, previous));
+    }
+
     private boolean hasTimeConflict(Booking newBooking) {
-        List<Booking> existingBookings = bookingRepository.findByVehicleVehicleId(newBooking.getVehicle().getVehicleId());
-        
-        return existingBookings.stream()
-                .filter(booking -> !BookingStatus.CANCELLED.equals(booking.getBookingStatus()) && !BookingStatus.COMPLETED.equals(booking.getBookingStatus()))
-                .anyMatch(booking -> {
-                    // Simple time overlap check
-                    return (newBooking.getStartTime().before(booking.getEndTime()) && 
-                           newBooking.getEndTime().after(booking.getStartTime()));
-                });
+        return bookingConflictIndex.hasConflict(newBooking.getVehicle().getVehicleId(),
+                newBooking.getStartTime(), newBooking.getEndTime());
     }
 
     @Override
     public Booking checkIn(Integer bookingId, User user, User staff) {
+        Booking savedBooking = optimisticLockRetry.execute("check in booking " + bookingId,
+                () -> doCheckIn(bookingId, user, staff));
+        // A DENIED booking can still be checked in, which makes its window active again
+        bookingConflictIndex.sync(savedBooking);
+        return savedBooking;
+    }
+
+    private Booking doCheckIn(Integer bookingId, User user, User staff) {
         Booking booking = bookingRepository.findById(bookingId).orElseThrow();
         BookingStatus currentStatus = booking.getBookingStatus();
         if (BookingStatus.CONFIRMED.equals(currentStatus)) {
@@ -134,8 +207,9 @@ public class BookingServiceImpl implements BookingService {
         if (BookingStatus.COMPLETED.equals(currentStatus) || BookingStatus.CANCELLED.equals(currentStatus)) {
             throw new RuntimeException("Booking cannot be checked in with status " + currentStatus);
         }
-        booking.setBookingStatus(BookingStatus.CONFIRMED);
+        changeBookingStatus(booking, BookingStatus.CONFIRMED);
         booking.setStaff(staff);
+        booking.setCheckedInAt(LocalDateTime.now());
         Station station = booking.getStation();
         if (station != null) {
             Integer availableSlots = station.getAvailableSlots();
@@ -153,6 +227,13 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public Booking returnVehicle(Integer bookingId, User user, User staff, Double batteryLevel) {
+        Booking savedBooking = optimisticLockRetry.execute("return booking " + bookingId,
+                () -> doReturnVehicle(bookingId, user, batteryLevel));
+        bookingConflictIndex.sync(savedBooking);
+        return savedBooking;
+    }
+
+    private Booking doReturnVehicle(Integer bookingId, User user, Double batteryLevel) {
         Booking booking = bookingRepository.findById(bookingId).orElseThrow();
         BookingStatus currentStatus = booking.getBookingStatus();
         if (BookingStatus.COMPLETED.equals(currentStatus)) {
@@ -161,9 +242,9 @@ public class BookingServiceImpl implements BookingService {
         if (!BookingStatus.CONFIRMED.equals(currentStatus)) {
             throw new RuntimeException("Only confirmed bookings can be returned");
         }
-        booking.setBookingStatus(BookingStatus.COMPLETED);
+        changeBookingStatus(booking, BookingStatus.COMPLETED);
+        booking.setReturnedAt(LocalDateTime.now());
         Vehicle vehicle = booking.getVehicle();
-        vehicle.setStatus(VehicleStatus.AVAILABLE);
         
         // Update battery level if provided
         if (batteryLevel != null) {
@@ -173,7 +254,7 @@ public class BookingServiceImpl implements BookingService {
             vehicle.setBatteryLevel(java.math.BigDecimal.valueOf(batteryLevel));
         }
         
-        vehicleRepository.save(vehicle);
+        changeVehicleStatus(vehicle, VehicleStatus.AVAILABLE);
         Station station = booking.getStation();
         if (station != null) {
             Integer availableSlots = station.getAvailableSlots();
@@ -187,12 +268,14 @@ public class BookingServiceImpl implements BookingService {
             stationRepository.save(station);
         }
         userService.logAudit(user, "Returned vehicle for booking " + bookingId + (batteryLevel != null ? " with battery level " + batteryLevel + "%" : ""));
-        return bookingRepository.save(booking);
+        Booking savedBooking = bookingRepository.save(booking);
+        dailyRevenueRollup.recordCompletion(savedBooking);
+        return savedBooking;
     }
 
     @Override
     public List<Booking> getUserHistory(Integer userId) {
-        return bookingRepository.findByUserUserId(userId);
+        return bookingRepository.findWithDetailsByUserUserId(userId);
     }
 
     @Override
@@ -233,7 +316,7 @@ public class BookingServiceImpl implements BookingService {
         if (statuses == null || statuses.isEmpty()) {
             statuses = Arrays.asList(BookingStatus.values());
         }
-        return bookingRepository.findByStationStationIdAndBookingStatusIn(
+        return bookingRepository.findWithDetailsByStationStationIdAndBookingStatusIn(
                 staff.getStation().getStationId(),
                 statuses
         );
@@ -288,6 +371,13 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public Booking modifyBooking(Integer bookingId, Booking updates, User actor) {
+        Booking savedBooking = optimisticLockRetry.execute("modify booking " + bookingId,
+                () -> doModifyBooking(bookingId, updates, actor));
+        bookingConflictIndex.sync(savedBooking);
+        return savedBooking;
+    }
+
+    private Booking doModifyBooking(Integer bookingId, Booking updates, User actor) {
         Booking booking = bookingRepository.findById(bookingId).orElseThrow();
         if (BookingStatus.COMPLETED.equals(booking.getBookingStatus()) || BookingStatus.CANCELLED.equals(booking.getBookingStatus())) {
             throw new RuntimeException("Booking cannot be modified in current status");
@@ -297,14 +387,12 @@ public class BookingServiceImpl implements BookingService {
         if (updates.getVehicle() != null && updates.getVehicle().getVehicleId() != null
         && !updates.getVehicle().getVehicleId().equals(booking.getVehicle().getVehicleId())) {
             Vehicle current = booking.getVehicle();
-            current.setStatus(VehicleStatus.AVAILABLE);
-            vehicleRepository.save(current);
+            changeVehicleStatus(current, VehicleStatus.AVAILABLE);
             Vehicle next = vehicleRepository.findById(updates.getVehicle().getVehicleId()).orElseThrow();
             if (!VehicleStatus.AVAILABLE.equals(next.getStatus())) {
                 throw new RuntimeException("New vehicle is not available");
             }
-            next.setStatus(VehicleStatus.RENTED);
-            vehicleRepository.save(next);
+            changeVehicleStatus(next, VehicleStatus.RENTED);
             booking.setVehicle(next);
         }
         userService.logAudit(actor, "Modified booking " + bookingId);
@@ -313,20 +401,32 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public Booking cancelBooking(Integer bookingId, User actor) {
+        Booking savedBooking = optimisticLockRetry.execute("cancel booking " + bookingId,
+                () -> doCancelBooking(bookingId, actor));
+        bookingConflictIndex.sync(savedBooking);
+        return savedBooking;
+    }
+
+    private Booking doCancelBooking(Integer bookingId, User actor) {
         Booking booking = bookingRepository.findById(bookingId).orElseThrow();
         if (BookingStatus.COMPLETED.equals(booking.getBookingStatus()) || BookingStatus.CANCELLED.equals(booking.getBookingStatus())) {
             return booking; // idempotent
         }
-        booking.setBookingStatus(BookingStatus.CANCELLED);
-        Vehicle vehicle = booking.getVehicle();
-        vehicle.setStatus(VehicleStatus.AVAILABLE);
-        vehicleRepository.save(vehicle);
+        changeBookingStatus(booking, BookingStatus.CANCELLED);
+        changeVehicleStatus(booking.getVehicle(), VehicleStatus.AVAILABLE);
         userService.logAudit(actor, "Cancelled booking " + bookingId);
         return bookingRepository.save(booking);
     }
 
     @Override
     public Booking denyBooking(Integer bookingId, User staff, String reason) {
+        Booking savedBooking = optimisticLockRetry.execute("deny booking " + bookingId,
+                () -> doDenyBooking(bookingId, staff, reason));
+        bookingConflictIndex.sync(savedBooking);
+        return savedBooking;
+    }
+
+    private Booking doDenyBooking(Integer bookingId, User staff, String reason) {
         Booking booking = bookingRepository.findById(bookingId).orElseThrow();
         BookingStatus currentStatus = booking.getBookingStatus();
         
@@ -341,57 +441,54 @@ public class BookingServiceImpl implements BookingService {
             throw new RuntimeException("Staff is not authorized to deny this booking");
         }
         
-        booking.setBookingStatus(BookingStatus.DENIED);
+        changeBookingStatus(booking, BookingStatus.DENIED);
         booking.setStaff(staff);
         
         // Release the vehicle back to available
         Vehicle vehicle = booking.getVehicle();
         if (vehicle != null) {
-            vehicle.setStatus(VehicleStatus.AVAILABLE);
-            vehicleRepository.save(vehicle);
+            changeVehicleStatus(vehicle, VehicleStatus.AVAILABLE);
         }
         
         userService.logAudit(staff, "Denied booking " + bookingId + (reason != null ? ": " + reason : ""));
         Booking savedBooking = bookingRepository.save(booking);
-        
-        // Send denial notification email
+
+        // Queue denial notification email with the status change
         emailService.sendBookingDenial(savedBooking, reason);
-        
+
         return savedBooking;
     }
 
     @Override
     public Map<String, Object> getStaffContractsWithDetails(Integer staffId) {
-        List<Booking> bookings = getStaffContracts(staffId);
-
-        // Load contracts for each booking
-        List<Map<String, Object>> contractsData = new ArrayList<>();
-        for (Booking booking : bookings) {
-            Map<String, Object> bookingData = new HashMap<>();
-            bookingData.put("booking", booking);
-
-            // Find contract for this booking
-            contractRepository.findByBookingBookingId(booking.getBookingId())
-                    .ifPresent(contract -> {
-                        Map<String, Object> contractData = new HashMap<>();
-                        contractData.put("contractId", contract.getContractId());
-                        contractData.put("renterSignature", contract.getRenterSignature());
-                        contractData.put("staffSignature", contract.getStaffSignature());
-                        contractData.put("signedAt", contract.getSignedAt());
-                        contractData.put("status", contract.getStatus() != null ? contract.getStatus().toString() : null);
-                        bookingData.put("contract", contractData);
-                    });
+        User staff = userService.getUserById(staffId);
+        if (!UserRole.STAFF.equals(staff.getRole())) {
+            throw new RuntimeException("User is not a staff member");
+        }
+        if (staff.getStation() == null || staff.getStation().getStationId() == null) {
+            throw new RuntimeException("Staff is not assigned to a station");
+        }
 
-            contractsData.add(bookingData);
+        // One projection query for bookings and their contracts instead of a contract lookup per booking
+        List<StaffContractRow> rows = bookingRepository.findStaffContractRows(
+                staff.getStation().getStationId(), BookingStatus.CANCELLED);
+        Map<Integer, Map<String, Object>> contractsByBooking = new LinkedHashMap<>();
+        for (StaffContractRow row : rows) {
+            // Keep the first contract when a booking has several, like the previous single-contract lookup
+            contractsByBooking.computeIfAbsent(row.bookingId(), id -> toContractListingEntry(row));
         }
 
         Map<String, Object> response = new HashMap<>();
-        response.put("contracts", contractsData);
+        response.put("contracts", new ArrayList<>(contractsByBooking.values()));
         return response;
     }
 
     @Override
     public Map<String, Object> settleBooking(Integer bookingId, User actor) {
+        return optimisticLockRetry.execute("settle booking " + bookingId, () -> doSettleBooking(bookingId, actor));
+    }
+
+    private Map<String, Object> doSettleBooking(Integer bookingId, User actor) {
         Booking booking = bookingRepository.findById(bookingId).orElseThrow();
         
         BigDecimal basePrice = booking.getTotalPrice() != null ? booking.getTotalPrice() : BigDecimal.ZERO;
@@ -401,6 +498,17 @@ public class BookingServiceImpl implements BookingService {
         
         BigDecimal extraFees = lateFee.add(damageFee).add(energyFee);
         BigDecimal total = basePrice.add(extraFees);
+
+        // Store the fees so re-settling only moves the revenue rollup by the difference
+        BigDecimal previousFees = booking.getExtraFees() != null ? booking.getExtraFees() : BigDecimal.ZERO;
+        booking.setExtraFees(extraFees);
+        bookingRepository.save(booking);
+        if (BookingStatus.COMPLETED.equals(booking.getBookingStatus())) {
+            dailyRevenueRollup.recordFeeAdjustment(booking, extraFees.subtract(previousFees));
+        }
+        if (extraFees.compareTo(previousFees) != 0) {
+            eventPublisher.publishEvent(BookingChangedEvent.of(booking, booking.getBookingStatus()));
+        }
         
         Map<String, Object> settlement = new HashMap<>();
         settlement.put("basePrice", basePrice);
@@ -428,5 +536,90 @@ public class BookingServiceImpl implements BookingService {
         // Mock calculation - would check battery usage
         return BigDecimal.ZERO;
     }
-}
 
+    private static Date parseFilterDate(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            // Accept both plain dates and ISO date-times; bookings are stored with day resolution
+            String datePart = value.length() > 10 ? value.substring(0, 10) : value;
+            return Date.valueOf(LocalDate.parse(datePart));
+        } catch (DateTimeParseException ex) {
+            throw new RuntimeException("Invalid date: " + value);
+        }
+    }
+
+    /**
+     * Opaque keyset position in the booking history: the (startTime, bookingId) of the last row returned.
+     * Legacy bookings may have no startTime; that is encoded as an empty day.
+     */
+    private record HistoryCursor(Date startTime, Integer bookingId) {
+
+        static HistoryCursor of(Booking booking) {
+            return new HistoryCursor(booking.getStartTime(), booking.getBookingId());
+        }
+
+        static HistoryCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf(':');
+                String day = raw.substring(0, separator);
+                return new HistoryCursor(day.isEmpty() ? null : Date.valueOf(LocalDate.ofEpochDay(Long.parseLong(day))),
+                        Integer.valueOf(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeException ex) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
+
+        String encode() {
+            String raw = (startTime != null ? String.valueOf(startTime.toLocalDate().toEpochDay()) : "") + ":" + bookingId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static Map<String, Object> toContractListingEntry(StaffContractRow row) {
+        Map<String, Object> user = new HashMap<>();
+        user.put("userId", row.userId());
+        user.put("name", row.userName());
+        user.put("email", row.userEmail());
+        user.put("phone", row.userPhone());
+
+        Map<String, Object> model = new HashMap<>();
+        model.put("modelId", row.modelId());
+        model.put("modelName", row.modelName());
+        model.put("brand", row.brand());
+
+        Map<String, Object> vehicle = new HashMap<>();
+        vehicle.put("vehicleId", row.vehicleId());
+        vehicle.put("plateNumber", row.plateNumber());
+        vehicle.put("model", model);
+
+        Map<String, Object> station = new HashMap<>();
+        station.put("stationId", row.stationId());
+        station.put("name", row.stationName());
+
+        Map<String, Object> booking = new HashMap<>();
+        booking.put("bookingId", row.bookingId());
+        booking.put("startTime", row.startTime());
+        booking.put("endTime", row.endTime());
+        booking.put("totalPrice", row.totalPrice());
+        booking.put("bookingStatus", row.bookingStatus());
+        booking.put("user", user);
+        booking.put("vehicle", vehicle);
+        booking.put("station", station);
+
+        Map<String, Object> bookingData = new HashMap<>();
+        bookingData.put("booking", booking);
+        if (row.contractId() != null) {
+            Map<String, Object> contractData = new HashMap<>();
+            contractData.put("contractId", row.contractId());
+            contractData.put("renterSignature", row.renterSignature());
+            contractData.put("staffSignature", row.staffSignature());
+            contractData.put("signedAt", row.signedAt());
+            contractData.put("status", row.contractStatus() != null ? row.contractStatus().toString() : null);
+            bookingData.put("contract", contractData);
+        }
+        return bookingData;
+    }
+}
@@ -4,6 +4,7 @@ import com.group7.evr.entity.Complaint;
 import com.group7.evr.entity.Contract;
 import com.group7.evr.entity.User;
 import com.group7.evr.enums.ComplaintStatus;
+import com.group7.evr.event.ComplaintChangedEvent;
 import com.group7.evr.repository.ComplaintRepository;
 import com.group7.evr.repository.ContractRepository;
 import com.group7.evr.service.ComplaintService;
@@ -11,6 +12,7 @@ import com.group7.evr.service.EmailService;
 import com.group7.evr.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,6 +27,7 @@ public class ComplaintServiceImpl implements ComplaintService {
     private final ContractRepository contractRepository;
     private final UserService userService;
     private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -63,6 +66,7 @@ public class ComplaintServiceImpl implements ComplaintService {
         complaint.setStatus(ComplaintStatus.PENDING);
         
         Complaint savedComplaint = complaintRepository.save(complaint);
+        eventPublisher.publishEvent(ComplaintChangedEvent.of(savedComplaint, null));
         log.info("Complaint created successfully with ID: {}", savedComplaint.getComplaintId());
         return savedComplaint;
     }
@@ -100,12 +104,14 @@ public class ComplaintServiceImpl implements ComplaintService {
             throw new RuntimeException("Cannot set status to PENDING when responding");
         }
         
+        ComplaintStatus previousStatus = complaint.getStatus();
         complaint.setAdminResponse(response);
         complaint.setStatus(status);
         complaint.setRespondedAt(LocalDateTime.now());
         complaint.setRespondedByAdmin(admin);
         
         Complaint savedComplaint = complaintRepository.save(complaint);
+        eventPublisher.publishEvent(ComplaintChangedEvent.of(savedComplaint, previousStatus));
         
         // Log audit
         userService.logAudit(admin, "Responded to complaint " + complaintId + " with status: " + status);
@@ -0,0 +1,94 @@
+package com.group7.evr.service.impl;
+
+import com.group7.evr.config.SchedulingConfig;
+import com.group7.evr.entity.Booking;
+import com.group7.evr.repository.DailyStationRevenueRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.util.List;
+
+/**
+ * Keeps the DailyStationRevenue rollup in step with COMPLETED bookings. Increments run inside the
+ * booking transaction that completes or settles a booking; the nightly rebuild recomputes the whole
+ * table from Booking to backfill history and heal any drift.
+ * <p>
+ * The rebuild works one day at a time, each in its own short transaction, so it never holds locks on
+ * the whole rollup while customers are returning vehicles.
+ */
+@Component
+@Slf4j
+public class DailyRevenueRollup {
+    private final DailyStationRevenueRepository dailyStationRevenueRepository;
+    private final TransactionTemplate dayTransaction;
+
+    public DailyRevenueRollup(DailyStationRevenueRepository dailyStationRevenueRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.dailyStationRevenueRepository = dailyStationRevenueRepository;
+        this.dayTransaction = new TransactionTemplate(transactionManager);
+        // Never join a caller's transaction, or the whole rebuild would be one long transaction again
+        this.dayTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCompletion(Booking booking) {
+        if (booking.getStartTime() == null) {
+            return;
+        }
+        dailyStationRevenueRepository.increment(stationIdOf(booking), booking.getStartTime(), 1,
+                orZero(booking.getTotalPrice()), orZero(booking.getExtraFees()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordFeeAdjustment(Booking booking, BigDecimal feeDelta) {
+        if (booking.getStartTime() == null || feeDelta.signum() == 0) {
+            return;
+        }
+        dailyStationRevenueRepository.increment(stationIdOf(booking), booking.getStartTime(), 0,
+                BigDecimal.ZERO, feeDelta);
+    }
+
+    /**
+     * Recompute every day that has completed bookings or rollup rows. Returns the number of rollup rows
+     * inserted, corrected or deleted.
+     */
+    @Scheduled(cron = "${app.reports.revenue.rollup-rebuild-cron:0 30 2 * * *}",
+            scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    public int rebuild() {
+        List<Date> days = dailyStationRevenueRepository.findRollupDays();
+        int rows = 0;
+        for (Date day : days) {
+            Integer changed = dayTransaction.execute(status -> dailyStationRevenueRepository.rebuildDay(day));
+            rows += changed != null ? changed : 0;
+        }
+        log.info("Rebuilt daily station revenue rollup over {} days, {} rows changed", days.size(), rows);
+        return rows;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (dailyStationRevenueRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private static Integer stationIdOf(Booking booking) {
+        return booking.getStation() != null ? booking.getStation().getStationId() : null;
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
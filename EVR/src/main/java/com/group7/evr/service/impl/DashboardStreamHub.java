@@ -0,0 +1,243 @@
+package com.group7.evr.service.impl;
+
+import com.group7.evr.event.BookingChangedEvent;
+import com.group7.evr.event.ComplaintChangedEvent;
+import com.group7.evr.event.VehicleChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Pushes live fleet, booking and complaint counter deltas to admin dashboards over Server-Sent Events.
+ * Committed state changes are folded into each subscriber's pending counters; a flush every
+ * {@code app.dashboard.stream.flush-interval-ms} sends at most one coalesced "delta" event per client.
+ * <p>
+ * A subscriber has at most one send in flight, each on its own virtual thread, so a slow client just keeps
+ * coalescing. Its pending map is capped at {@code app.dashboard.stream.max-pending-keys}; past that it is
+ * cleared and the client gets a "resync" event telling it to reload the full summaries.
+ */
+@Component
+@Slf4j
+public class DashboardStreamHub {
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Virtual threads: a client stuck on a full socket only parks its own sender, never the other dashboards
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${app.dashboard.stream.max-subscribers:500}")
+    private int maxSubscribers;
+
+    @Value("${app.dashboard.stream.max-pending-keys:256}")
+    private int maxPendingKeys;
+
+    @Value("${app.dashboard.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${app.dashboard.stream.heartbeat-seconds:15}")
+    private long heartbeatSeconds;
+
+    /**
+     * Register a dashboard, then build its {@code snapshot} and send it first so deltas have a baseline to
+     * apply to. Changes committed while the snapshot is being built are queued rather than lost.
+     */
+    public SseEmitter subscribe(Supplier<Map<String, Object>> snapshot) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new RuntimeException("Too many dashboard streams open, try again later");
+        }
+        SseEmitter emitter = createEmitter();
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        // Flushes skip this subscriber until the snapshot has gone out, so deltas never arrive before it
+        subscriber.sending.set(true);
+        subscribers.add(subscriber);
+        Map<String, Object> baseline;
+        try {
+            baseline = snapshot.get();
+        } catch (RuntimeException e) {
+            subscribers.remove(subscriber);
+            throw e;
+        }
+        send(subscriber, SseEmitter.event().name("snapshot").data(baseline));
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        boolean moved = !Objects.equals(event.fromStationId(), event.toStationId());
+        if (!moved && event.fromStatus() == event.toStatus()) {
+            return;
+        }
+        Map<String, Long> delta = new HashMap<>();
+        if (event.fromStatus() == null) {
+            delta.put("fleet.total", 1L);
+        } else {
+            add(delta, "fleet." + event.fromStatus().name(), -1);
+            if (event.fromStationId() != null) {
+                add(delta, "stations." + event.fromStationId() + "." + event.fromStatus().name(), -1);
+            }
+        }
+        if (event.toStatus() != null) {
+            add(delta, "fleet." + event.toStatus().name(), 1);
+            if (event.toStationId() != null) {
+                add(delta, "stations." + event.toStationId() + "." + event.toStatus().name(), 1);
+            }
+        }
+        broadcast(delta);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (event.fromStatus() == event.toStatus()) {
+            return;
+        }
+        Map<String, Long> delta = new HashMap<>();
+        if (event.fromStatus() == null) {
+            delta.put("bookings.created", 1L);
+        } else {
+            delta.put("bookings." + event.fromStatus().name(), -1L);
+        }
+        add(delta, "bookings." + event.toStatus().name(), 1);
+        broadcast(delta);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onComplaintChanged(ComplaintChangedEvent event) {
+        if (event.fromStatus() == event.toStatus()) {
+            return;
+        }
+        Map<String, Long> delta = new HashMap<>();
+        if (event.fromStatus() == null) {
+            delta.put("complaints.created", 1L);
+        } else {
+            delta.put("complaints." + event.fromStatus().name(), -1L);
+        }
+        add(delta, "complaints." + event.toStatus().name(), 1);
+        broadcast(delta);
+    }
+
+    @Scheduled(fixedDelayString = "${app.dashboard.stream.flush-interval-ms:1000}")
+    public void flush() {
+        flush(System.currentTimeMillis());
+    }
+
+    void flush(long now) {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.sending.compareAndSet(false, true)) {
+                continue;
+            }
+            SseEmitter.SseEventBuilder event = subscriber.drain(now, heartbeatSeconds * 1000);
+            if (event == null) {
+                subscriber.sending.set(false);
+                continue;
+            }
+            sender.execute(() -> send(subscriber, event));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    // Overridden by tests to record what a client would receive
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private void broadcast(Map<String, Long> delta) {
+        delta.values().removeIf(value -> value == 0);
+        if (delta.isEmpty()) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.merge(delta, maxPendingKeys);
+        }
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter.send(event);
+            subscriber.lastSentAt = System.currentTimeMillis();
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; completing the emitter triggers the removal callback
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            log.debug("Dropped dashboard stream: {}", e.getMessage());
+        } finally {
+            subscriber.sending.set(false);
+        }
+    }
+
+    private static void add(Map<String, Long> delta, String key, long amount) {
+        delta.merge(key, amount, Long::sum);
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private Map<String, Long> pending = new HashMap<>();
+        private boolean overflowed;
+        private volatile long lastSentAt;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private synchronized void merge(Map<String, Long> delta, int maxKeys) {
+            if (overflowed) {
+                return;
+            }
+            delta.forEach((key, amount) -> pending.merge(key, amount, Long::sum));
+            if (pending.size() > maxKeys) {
+                pending = new HashMap<>();
+                overflowed = true;
+            }
+        }
+
+        // Next event to send: resync after an overflow, coalesced counters, or a heartbeat when idle
+        private synchronized SseEmitter.SseEventBuilder drain(long now, long heartbeatMillis) {
+            if (overflowed) {
+                overflowed = false;
+                return SseEmitter.event().name("resync").data(Map.of("at", LocalDateTime.now().toString()));
+            }
+            pending.values().removeIf(value -> value == 0);
+            if (!pending.isEmpty()) {
+                Map<String, Object> payload = new HashMap<>();
+                payload.put("at", LocalDateTime.now().toString());
+                payload.put("counters", pending);
+                pending = new HashMap<>();
+                return SseEmitter.event().name("delta").data(payload);
+            }
+            if (now - lastSentAt >= heartbeatMillis) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.group7.evr.service.impl;
+
+import com.group7.evr.config.SchedulingConfig;
+import com.group7.evr.repository.BookingRepository;
+import com.group7.evr.util.DoubleSeasonalHoltWinters;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hourly booking demand forecasts per station, fully in-process. Each station gets a double-seasonal
+ * Holt-Winters model (daily and weekly cycles) trained on booking creation counts. A nightly job
+ * refits every model, with a small parameter search and a holdout backtest for MAPE; an hourly job
+ * feeds the newly completed hours into the existing models. Requests only read the published forecasts.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DemandForecastEngine {
+    public static final int HOURS_PER_DAY = 24;
+    public static final int HOURS_PER_WEEK = 7 * HOURS_PER_DAY;
+
+    private static final double[] LEVEL_GRID = {0.05, 0.15, 0.3};
+    private static final double[] SEASON_GRID = {0.05, 0.15, 0.3};
+    private static final double TREND_SMOOTHING = 0.01;
+
+    private final BookingRepository bookingRepository;
+
+    @Value("${app.forecast.training-weeks:8}")
+    private int trainingWeeks;
+
+    @Value("${app.forecast.holdout-days:7}")
+    private int holdoutDays;
+
+    private final Map<Integer, TrainedModel> models = new HashMap<>();
+    private LocalDateTime trainedUntil;
+    private volatile Map<Integer, StationForecast> forecasts = Map.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.forecast.retrain-cron:0 15 3 * * *}", scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    public synchronized void retrainAll() {
+        // The model initialises from two full weekly cycles; with less history fit() cannot run
+        if (trainingWeeks < 2) {
+            log.warn("app.forecast.training-weeks is {} but at least 2 are needed; demand forecasts are disabled",
+                    trainingWeeks);
+            return;
+        }
+        LocalDateTime until = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime origin = until.minusWeeks(trainingWeeks);
+        int hours = trainingWeeks * HOURS_PER_WEEK;
+        Map<Integer, double[]> series = loadHourlyCounts(origin, until, hours);
+
+        models.clear();
+        series.forEach((stationId, history) -> models.put(stationId, train(history)));
+        trainedUntil = until;
+        publish();
+        log.info("Trained demand forecasts for {} stations on {} hours of history", models.size(), hours);
+    }
+
+    /**
+     * Feed the hours completed since the last run into the existing models and refresh the forecasts.
+     * Stations first seen since the nightly retrain are picked up by the next retrain.
+     */
+    @Scheduled(cron = "${app.forecast.update-cron:0 5 * * * *}", scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    public synchronized void updateIncrementally() {
+        if (trainedUntil == null) {
+            return;
+        }
+        LocalDateTime until = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        int hours = (int) ChronoUnit.HOURS.between(trainedUntil, until);
+        if (hours <= 0) {
+            return;
+        }
+        Map<Integer, double[]> fresh = loadHourlyCounts(trainedUntil, until, hours);
+        double[] empty = new double[hours];
+        models.forEach((stationId, trained) -> {
+            for (double observation : fresh.getOrDefault(stationId, empty)) {
+                trained.model().update(observation);
+            }
+        });
+        trainedUntil = until;
+        publish();
+    }
+
+    public StationForecast getForecast(Integer stationId) {
+        return forecasts.get(stationId);
+    }
+
+    public Map<Integer, StationForecast> getAllForecasts() {
+        return forecasts;
+    }
+
+    /**
+     * Published forecast for one station. {@code hourly} covers the next week starting at {@code startsAt}.
+     */
+    public record StationForecast(Integer stationId, LocalDateTime startsAt, double[] hourly, double mape,
+                                  double confidence, long trainingMillis, LocalDateTime trainedAt) {
+    }
+
+    /**
+     * Pick smoothing parameters, backtest them on the last {@code app.forecast.holdout-days} of
+     * {@code history} and fit the final model on all of it. Package-private for the backtest harness.
+     */
+    TrainedModel train(double[] history) {
+        long started = System.nanoTime();
+        int holdout = Math.min(holdoutDays * HOURS_PER_DAY, history.length - 2 * HOURS_PER_WEEK);
+        double[] trainingPart = Arrays.copyOf(history, history.length - Math.max(holdout, 0));
+
+        // Pick the smoothing parameters with the lowest one-step error on the training part
+        DoubleSeasonalHoltWinters best = null;
+        for (double alpha : LEVEL_GRID) {
+            for (double gamma : SEASON_GRID) {
+                DoubleSeasonalHoltWinters candidate = newModel(alpha, gamma);
+                candidate.fit(trainingPart);
+                if (best == null || candidate.oneStepRmse() < best.oneStepRmse()) {
+                    best = candidate;
+                }
+            }
+        }
+
+        // Backtest on the held-out days, then refit the chosen parameters on the full history
+        double mape = holdout > 0
+                ? dailyMape(best.forecast(holdout), Arrays.copyOfRange(history, trainingPart.length, history.length))
+                : Double.NaN;
+        DoubleSeasonalHoltWinters model = newModel(best.getAlpha(), best.getGammaShort());
+        model.fit(history);
+        long trainingMillis = (System.nanoTime() - started) / 1_000_000;
+        return new TrainedModel(model, mape, trainingMillis, LocalDateTime.now());
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private static DoubleSeasonalHoltWinters newModel(double alpha, double gamma) {
+        return new DoubleSeasonalHoltWinters(HOURS_PER_DAY, HOURS_PER_WEEK, alpha, TREND_SMOOTHING, gamma, gamma);
+    }
+
+    // Hourly counts are mostly zeros, so accuracy is measured on daily totals
+    private static double dailyMape(double[] predicted, double[] actual) {
+        double errorSum = 0;
+        int days = 0;
+        for (int day = 0; day + HOURS_PER_DAY <= actual.length; day += HOURS_PER_DAY) {
+            double actualTotal = 0;
+            double predictedTotal = 0;
+            for (int hour = day; hour < day + HOURS_PER_DAY; hour++) {
+                actualTotal += actual[hour];
+                predictedTotal += predicted[hour];
+            }
+            if (actualTotal > 0) {
+                errorSum += Math.abs(actualTotal - predictedTotal) / actualTotal;
+                days++;
+            }
+        }
+        return days == 0 ? Double.NaN : errorSum / days;
+    }
+
+    private void publish() {
+        Map<Integer, StationForecast> next = new HashMap<>();
+        models.forEach((stationId, trained) -> {
+            double confidence = Double.isNaN(trained.mape()) ? 0.0 : Math.max(0.0, Math.min(1.0, 1.0 - trained.mape()));
+            next.put(stationId, new StationForecast(stationId, trainedUntil, trained.model().forecast(HOURS_PER_WEEK),
+                    trained.mape(), confidence, trained.trainingMillis(), trained.trainedAt()));
+        });
+        forecasts = Map.copyOf(next);
+    }
+
+    private Map<Integer, double[]> loadHourlyCounts(LocalDateTime origin, LocalDateTime until, int hours) {
+        Map<Integer, double[]> series = new HashMap<>();
+        for (Object[] row : bookingRepository.countCreatedByStationAndHour(origin, until)) {
+            int hour = ((Number) row[1]).intValue();
+            if (hour >= 0 && hour < hours) {
+                series.computeIfAbsent(((Number) row[0]).intValue(), id -> new double[hours])[hour]
+                        += ((Number) row[2]).doubleValue();
+            }
+        }
+        return series;
+    }
+
+    record TrainedModel(DoubleSeasonalHoltWinters model, double mape, long trainingMillis,
+                                LocalDateTime trainedAt) {
+    }
+}
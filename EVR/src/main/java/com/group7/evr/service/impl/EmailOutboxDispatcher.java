@@ -0,0 +1,185 @@
+package com.group7.evr.service.impl;
+
+import com.group7.evr.entity.EmailOutbox;
+import com.group7.evr.enums.EmailOutboxStatus;
+import com.group7.evr.repository.EmailOutboxRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the email outbox in the background. Each run claims a batch of due messages (marking them
+ * SENDING, so other app instances skip them) and hands them to {@link JavaMailSender#send(MimeMessage...)},
+ * which delivers the whole batch over a single SMTP connection. Failed messages are rescheduled with
+ * exponential backoff and moved to DEAD once they run out of attempts. A claim that is never settled,
+ * because the instance died mid-send, expires after {@code app.mail.outbox.claim-seconds} and the
+ * messages are sent again.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxDispatcher {
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender mailSender;
+
+    @Value("${app.mail.from:no-reply@evr.vn}")
+    private String defaultSender;
+
+    @Value("${app.mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.mail.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${app.mail.outbox.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+
+    @Value("${app.mail.outbox.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    @Value("${app.mail.outbox.claim-seconds:300}")
+    private long claimSeconds;
+
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong failedAttemptCount = new AtomicLong();
+    private final AtomicLong deadLetterCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong totalSendNanos = new AtomicLong();
+    private volatile long lastBatchMillis;
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:5000}")
+    public void dispatch() {
+        LocalDateTime now = LocalDateTime.now();
+        String claimToken = UUID.randomUUID().toString();
+        if (emailOutboxRepository.claimDue(now, now.plusSeconds(claimSeconds), claimToken, batchSize) == 0) {
+            return;
+        }
+        List<EmailOutbox> batch = emailOutboxRepository.findByClaimTokenOrderByOutboxId(claimToken);
+
+        // MimeMessage has identity equality, so failures reported by the sender map straight back to their rows;
+        // insertion order keeps the batch going out in outboxId order
+        Map<MimeMessage, EmailOutbox> messages = new LinkedHashMap<>();
+        for (EmailOutbox entry : batch) {
+            try {
+                messages.put(toMimeMessage(entry), entry);
+            } catch (MessagingException ex) {
+                markFailed(entry, ex);
+            }
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        Exception batchFailure = null;
+        long started = System.nanoTime();
+        if (!messages.isEmpty()) {
+            try {
+                mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException ex) {
+                failures = ex.getFailedMessages();
+                if (failures.isEmpty()) {
+                    batchFailure = ex;
+                }
+            } catch (MailException ex) {
+                // Connection or authentication problem: nothing in the batch went out
+                batchFailure = ex;
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+        totalSendNanos.addAndGet(elapsed);
+        batchCount.incrementAndGet();
+        lastBatchMillis = elapsed / 1_000_000;
+
+        for (Map.Entry<MimeMessage, EmailOutbox> sent : messages.entrySet()) {
+            Exception failure = batchFailure != null ? batchFailure : failures.get(sent.getKey());
+            if (failure != null) {
+                markFailed(sent.getValue(), failure);
+            } else {
+                markSent(sent.getValue());
+            }
+        }
+        emailOutboxRepository.saveAll(batch);
+        log.debug("Email outbox batch of {} processed in {} ms", batch.size(), lastBatchMillis);
+    }
+
+    public Map<String, Object> getStats() {
+        long batches = batchCount.get();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("queueDepth", emailOutboxRepository.countByStatus(EmailOutboxStatus.PENDING));
+        stats.put("inFlight", emailOutboxRepository.countByStatus(EmailOutboxStatus.SENDING));
+        stats.put("deadLetters", emailOutboxRepository.countByStatus(EmailOutboxStatus.DEAD));
+        stats.put("sentSinceStartup", sentCount.get());
+        stats.put("failedAttemptsSinceStartup", failedAttemptCount.get());
+        stats.put("deadLetteredSinceStartup", deadLetterCount.get());
+        stats.put("batches", batches);
+        stats.put("averageBatchSendMs", batches == 0 ? 0 : totalSendNanos.get() / batches / 1_000_000);
+        stats.put("lastBatchSendMs", lastBatchMillis);
+        return stats;
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private MimeMessage toMimeMessage(EmailOutbox entry) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setTo(entry.getRecipient());
+        helper.setFrom(defaultSender);
+        helper.setSubject(entry.getSubject());
+        helper.setText(entry.getBody(), false);
+        return message;
+    }
+
+    private void markSent(EmailOutbox entry) {
+        entry.setStatus(EmailOutboxStatus.SENT);
+        entry.setAttempts(entry.getAttempts() + 1);
+        entry.setSentAt(LocalDateTime.now());
+        entry.setLockedUntil(null);
+        entry.setClaimToken(null);
+        entry.setLastError(null);
+        sentCount.incrementAndGet();
+    }
+
+    private void markFailed(EmailOutbox entry, Exception ex) {
+        int attempts = entry.getAttempts() + 1;
+        entry.setAttempts(attempts);
+        entry.setLastError(truncate(ex.getMessage()));
+        entry.setLockedUntil(null);
+        entry.setClaimToken(null);
+        failedAttemptCount.incrementAndGet();
+        if (attempts >= maxAttempts) {
+            entry.setStatus(EmailOutboxStatus.DEAD);
+            deadLetterCount.incrementAndGet();
+            log.error("Email outbox entry {} to {} moved to dead letter after {} attempts",
+                    entry.getOutboxId(), entry.getRecipient(), attempts, ex);
+            return;
+        }
+        long delay = Math.min(maxBackoffSeconds, initialBackoffSeconds << Math.min(attempts - 1, 20));
+        entry.setStatus(EmailOutboxStatus.PENDING);
+        entry.setNextAttemptAt(LocalDateTime.now().plusSeconds(delay));
+        log.warn("Failed to send email outbox entry {} to {} (attempt {}), retrying in {}s: {}",
+                entry.getOutboxId(), entry.getRecipient(), attempts, delay, ex.getMessage());
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
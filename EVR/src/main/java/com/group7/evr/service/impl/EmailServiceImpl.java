@@ -2,7 +2,9 @@ package com.group7.evr.service.impl;
 
 import com.group7.evr.entity.Booking;
 import com.group7.evr.entity.Complaint;
+import com.group7.evr.entity.EmailOutbox;
 import com.group7.evr.entity.User;
+import com.group7.evr.repository.EmailOutboxRepository;
 import com.group7.evr.service.EmailService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,6 +24,7 @@ public class EmailServiceImpl implements EmailService {
 
     private final JavaMailSender mailSender;
     private final EmailTemplateProvider templateProvider;
+    private final EmailOutboxRepository emailOutboxRepository;
 
     @Value("${app.mail.from:no-reply@evr.vn}")
     private String defaultSender;
@@ -61,23 +64,12 @@ public class EmailServiceImpl implements EmailService {
             return;
         }
 
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            helper.setTo(booking.getUser().getEmail());
-            helper.setFrom(defaultSender);
-            // Customize subject with booking ID
-            String subject = booking.getBookingId() != null 
-                ? String.format("Xác nhận đặt xe EVR - Booking #%d", booking.getBookingId())
-                : bookingSubject;
-            helper.setSubject(subject);
-            helper.setText(templateProvider.buildBookingConfirmationContent(booking), false);
-
-            mailSender.send(message);
-            log.info("Sent booking confirmation email to {} for booking {}", booking.getUser().getEmail(), booking.getBookingId());
-        } catch (MailException | MessagingException ex) {
-            log.error("Failed to send booking confirmation email to {}", booking.getUser().getEmail(), ex);
-        }
+        // Customize subject with booking ID
+        String subject = booking.getBookingId() != null
+            ? String.format("Xác nhận đặt xe EVR - Booking #%d", booking.getBookingId())
+            : bookingSubject;
+        enqueue(booking.getUser().getEmail(), subject, templateProvider.buildBookingConfirmationContent(booking));
+        log.info("Queued booking confirmation email to {} for booking {}", booking.getUser().getEmail(), booking.getBookingId());
     }
 
     @Value("${app.mail.booking-denial-subject:Thông báo từ chối đặt xe EVR}")
@@ -90,19 +82,8 @@ public class EmailServiceImpl implements EmailService {
             return;
         }
 
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            helper.setTo(booking.getUser().getEmail());
-            helper.setFrom(defaultSender);
-            helper.setSubject(bookingDenialSubject);
-            helper.setText(templateProvider.buildBookingDenialContent(booking, reason), false);
-
-            mailSender.send(message);
-            log.info("Sent booking denial email to {} for booking {}", booking.getUser().getEmail(), booking.getBookingId());
-        } catch (MailException | MessagingException ex) {
-            log.error("Failed to send booking denial email to {}", booking.getUser().getEmail(), ex);
-        }
+        enqueue(booking.getUser().getEmail(), bookingDenialSubject, templateProvider.buildBookingDenialContent(booking, reason));
+        log.info("Queued booking denial email to {} for booking {}", booking.getUser().getEmail(), booking.getBookingId());
     }
 
     @Value("${app.mail.complaint-response-subject:Phản hồi khiếu nại từ EVR}")
@@ -130,5 +111,14 @@ public class EmailServiceImpl implements EmailService {
         }
     }
 
-}
+    // ============ PRIVATE HELPER METHODS ============
 
+    // Joins the caller's transaction, so the row only becomes visible to the dispatcher once the booking commits
+    private void enqueue(String recipient, String subject, String body) {
+        EmailOutbox entry = new EmailOutbox();
+        entry.setRecipient(recipient);
+        entry.setSubject(subject);
+        entry.setBody(body);
+        emailOutboxRepository.save(entry);
+    }
+}
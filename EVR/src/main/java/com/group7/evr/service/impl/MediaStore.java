@@ -0,0 +1,179 @@
+package com.group7.evr.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed store for uploaded photos and ID documents. An upload is streamed through a fixed
+ * buffer into a temp file while its SHA-256 is computed, then moved atomically to
+ * {@code <app.media.dir>/<first two hex digits>/<hash>}. The hex hash is the media ID, so uploading the
+ * same content twice stores it once, and a reader never sees a half-written file.
+ */
+@Component
+@Slf4j
+public class MediaStore {
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final Pattern MEDIA_ID = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+    private final Path tempDir;
+
+    private final AtomicLong stored = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong bytesStored = new AtomicLong();
+
+    public MediaStore(@Value("${app.media.dir:uploads/media}") String directory) {
+        this.root = Paths.get(directory);
+        this.tempDir = root.resolve("tmp");
+    }
+
+    /**
+     * Store an upload and return its media ID.
+     */
+    public String store(MultipartFile file) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new RuntimeException("File is empty");
+        }
+        Files.createDirectories(tempDir);
+        Path temp = Files.createTempFile(tempDir, "upload-", ".part");
+        try {
+            MessageDigest digest = newDigest();
+            long size = 0;
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+            try (InputStream in = file.getInputStream();
+                 ReadableByteChannel source = Channels.newChannel(in);
+                 FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (source.read(buffer) != -1) {
+                    buffer.flip();
+                    digest.update(buffer.array(), 0, buffer.limit());
+                    size += buffer.limit();
+                    while (buffer.hasRemaining()) {
+                        target.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                target.force(true);
+            }
+
+            String mediaId = HexFormat.of().formatHex(digest.digest());
+            Path destination = pathOf(mediaId);
+            if (Files.exists(destination)) {
+                deduplicated.incrementAndGet();
+                return mediaId;
+            }
+            Files.createDirectories(destination.getParent());
+            moveAtomically(temp, destination);
+            stored.incrementAndGet();
+            bytesStored.addAndGet(size);
+            return mediaId;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Path of a stored media file. Throws if the ID is malformed or nothing is stored under it.
+     */
+    public Path resolve(String mediaId) {
+        if (mediaId == null || !MEDIA_ID.matcher(mediaId).matches()) {
+            throw new RuntimeException("Invalid media id");
+        }
+        Path path = pathOf(mediaId);
+        if (!Files.isRegularFile(path)) {
+            throw new RuntimeException("Media not found");
+        }
+        return path;
+    }
+
+    /**
+     * Content type sniffed from the first bytes of the file; uploads are stored without their original
+     * name, so the extension is not available.
+     */
+    public String contentType(String mediaId) {
+        byte[] head = new byte[12];
+        int read;
+        try (InputStream in = Files.newInputStream(resolve(mediaId))) {
+            read = in.readNBytes(head, 0, head.length);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read media: " + e.getMessage());
+        }
+        if (read >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF) {
+            return "image/jpeg";
+        }
+        if (read >= 8 && (head[0] & 0xFF) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G') {
+            return "image/png";
+        }
+        if (read >= 4 && head[0] == 'G' && head[1] == 'I' && head[2] == 'F' && head[3] == '8') {
+            return "image/gif";
+        }
+        if (read >= 12 && head[0] == 'R' && head[1] == 'I' && head[2] == 'F' && head[3] == 'F'
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+            return "image/webp";
+        }
+        if (read >= 4 && head[0] == '%' && head[1] == 'P' && head[2] == 'D' && head[3] == 'F') {
+            return "application/pdf";
+        }
+        return "application/octet-stream";
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("stored", stored.get());
+        stats.put("deduplicated", deduplicated.get());
+        stats.put("bytesStored", bytesStored.get());
+        return stats;
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private Path pathOf(String mediaId) {
+        return root.resolve(mediaId.substring(0, 2)).resolve(mediaId);
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Same content was stored concurrently; the existing file is identical
+        } catch (AtomicMoveNotSupportedException e) {
+            // Temp dir sits under the store root, so this only happens on unusual mounts
+            log.warn("Atomic move not supported for {}, falling back to a plain move", target);
+            try {
+                Files.move(source, target);
+            } catch (FileAlreadyExistsException ignored) {
+                // Stored concurrently
+            }
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.group7.evr.service.impl;
+
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a unit of work in its own transaction and replays it when the commit loses an
+ * optimistic-lock race on a versioned row (Vehicle, Station, Booking). Each attempt must
+ * re-read the state it changes, so the work is always a fresh read-modify-write.
+ */
+@Component
+@Slf4j
+public class OptimisticLockRetry {
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.booking.lock-retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.booking.lock-retry.backoff-ms:20}")
+    private long backoffMillis;
+
+    public OptimisticLockRetry(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public <T> T execute(String operation, Supplier<T> work) {
+        int attempt = 1;
+        while (true) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException | OptimisticLockException ex) {
+                if (attempt >= maxAttempts) {
+                    log.warn("Giving up on {} after {} optimistic lock conflicts", operation, attempt);
+                    throw new RuntimeException("Concurrent update detected, please try again", ex);
+                }
+                log.debug("Optimistic lock conflict on {} (attempt {}), retrying", operation, attempt);
+                backoff(attempt);
+                attempt++;
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long delay = backoffMillis * attempt + ThreadLocalRandom.current().nextLong(backoffMillis + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while retrying booking update", ex);
+        }
+    }
+}
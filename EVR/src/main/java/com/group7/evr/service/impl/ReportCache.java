@@ -0,0 +1,184 @@
+package com.group7.evr.service.impl;
+
+import com.group7.evr.event.BookingChangedEvent;
+import com.group7.evr.event.StationChangedEvent;
+import com.group7.evr.event.VehicleChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * LRU + TTL cache of computed admin reports, keyed by report type, station and parameters. Committed
+ * booking, vehicle and station changes drop the entries of the stations they touch, plus every
+ * fleet-wide (null station) entry, since those include all stations.
+ * <p>
+ * Reports are computed outside the lock. A result is only stored if no invalidation that could affect it
+ * happened while it was being computed, so a slow read racing a write never puts a stale report back.
+ * Cached values are shared between callers and must not be modified.
+ */
+@Component
+public class ReportCache {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    // Invalidation generations: per station, for everything, and "any" (bumped by every invalidation)
+    private final Map<Integer, Long> stationGenerations = new HashMap<>();
+    private long allGeneration;
+    private long anyGeneration;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong discardedStale = new AtomicLong();
+
+    @Autowired
+    public ReportCache(@Value("${app.reports.cache.max-entries:500}") int maxEntries,
+                       @Value("${app.reports.cache.ttl-seconds:300}") long ttlSeconds) {
+        this(maxEntries, Duration.ofSeconds(ttlSeconds), System::currentTimeMillis);
+    }
+
+    ReportCache(int maxEntries, Duration ttl, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Cached report for (type, stationId, params), computing it with {@code loader} on a miss.
+     * A null stationId means the report covers every station.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String type, Integer stationId, Object params, Supplier<T> loader) {
+        Key key = new Key(type, stationId, params);
+        long generation;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (clock.getAsLong() - entry.storedAt() < ttlMillis) {
+                    hits.incrementAndGet();
+                    return (T) entry.value();
+                }
+                entries.remove(key);
+                expirations.incrementAndGet();
+            }
+            generation = generationOf(stationId);
+        }
+        misses.incrementAndGet();
+
+        T value = loader.get();
+        synchronized (this) {
+            if (generation != generationOf(stationId)) {
+                discardedStale.incrementAndGet();
+                return value;
+            }
+            entries.put(key, new Entry(value, clock.getAsLong()));
+            Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drop every report of {@code stationId} and every fleet-wide report. A null station drops everything.
+     */
+    public synchronized void invalidateStation(Integer stationId) {
+        if (stationId == null) {
+            invalidateAll();
+            return;
+        }
+        stationGenerations.merge(stationId, 1L, Long::sum);
+        anyGeneration++;
+        entries.keySet().removeIf(key -> key.stationId() == null || stationId.equals(key.stationId()));
+        invalidations.incrementAndGet();
+    }
+
+    public synchronized void invalidateType(String type) {
+        allGeneration++;
+        anyGeneration++;
+        entries.keySet().removeIf(key -> key.type().equals(type));
+        invalidations.incrementAndGet();
+    }
+
+    public synchronized void invalidateAll() {
+        allGeneration++;
+        anyGeneration++;
+        entries.clear();
+        invalidations.incrementAndGet();
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get();
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (this) {
+            stats.put("entries", entries.size());
+        }
+        stats.put("maxEntries", maxEntries);
+        stats.put("ttlSeconds", ttlMillis / 1000);
+        stats.put("hits", hitCount);
+        stats.put("misses", misses.get());
+        stats.put("hitRate", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        stats.put("evictions", evictions.get());
+        stats.put("expirations", expirations.get());
+        stats.put("invalidations", invalidations.get());
+        stats.put("discardedStale", discardedStale.get());
+        return stats;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        invalidateStation(event.stationId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        if (event.fromStationId() == null && event.toStationId() == null) {
+            invalidateAll();
+            return;
+        }
+        if (event.fromStationId() != null) {
+            invalidateStation(event.fromStationId());
+        }
+        if (event.toStationId() != null && !Objects.equals(event.fromStationId(), event.toStationId())) {
+            invalidateStation(event.toStationId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStationChanged(StationChangedEvent event) {
+        invalidateStation(event.stationId());
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    // Fleet-wide entries are affected by any invalidation, station entries by their own station or a full flush
+    private long generationOf(Integer stationId) {
+        return stationId == null ? anyGeneration : allGeneration + stationGenerations.getOrDefault(stationId, 0L);
+    }
+
+    private record Key(String type, Integer stationId, Object params) {
+    }
+
+    private record Entry(Object value, long storedAt) {
+    }
+}
@@ -0,0 +1,148 @@
+package com.group7.evr.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Runs the parts of a report (e.g. one utilization sweep per vehicle id range) in parallel on virtual
+ * threads. Each part gets its own read-only transaction, so concurrency is capped by a semaphore sized
+ * below the Hikari pool, leaving connections for regular requests. A report has one deadline shared by all
+ * its parts; when it passes, or a part fails, the remaining parts are interrupted and their statements
+ * time out with the transaction.
+ */
+@Component
+@Slf4j
+public class ReportExecutor {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final Duration timeout;
+    private final PlatformTransactionManager transactionManager;
+
+    private final AtomicLong tasks = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public ReportExecutor(PlatformTransactionManager transactionManager,
+                          @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                          @Value("${app.reports.executor.max-concurrency:0}") int maxConcurrency,
+                          @Value("${app.reports.executor.timeout-seconds:60}") long timeoutSeconds) {
+        this.transactionManager = transactionManager;
+        // Default to half the pool so a big report never starves the rest of the application, and never
+        // allow more than the pool minus one connection, whatever is configured
+        int requested = maxConcurrency > 0 ? maxConcurrency : poolSize / 2;
+        this.maxConcurrency = Math.max(1, Math.min(requested, poolSize - 1));
+        this.permits = new Semaphore(this.maxConcurrency, true);
+        this.timeout = Duration.ofSeconds(timeoutSeconds);
+    }
+
+    /**
+     * Run {@code task} for every key in parallel and return the results in the iteration order of
+     * {@code keys}, whatever order the parts finished in. Throws a RuntimeException if any part fails
+     * or the report runs past its timeout; no partial results are returned.
+     */
+    public <K, V> Map<K, V> fanOut(String report, Collection<K> keys, Function<K, V> task) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        List<K> order = List.copyOf(keys);
+        AtomicBoolean abandoned = new AtomicBoolean();
+        List<Future<V>> futures = new ArrayList<>(order.size());
+        for (K key : order) {
+            futures.add(executor.submit(() -> runPart(task, key, deadline, abandoned)));
+        }
+        tasks.addAndGet(order.size());
+
+        Map<K, V> results = new LinkedHashMap<>();
+        try {
+            for (int i = 0; i < order.size(); i++) {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                results.put(order.get(i), futures.get(i).get(remaining, TimeUnit.NANOSECONDS));
+            }
+            return results;
+        } catch (TimeoutException e) {
+            cancel(abandoned, futures);
+            timeouts.incrementAndGet();
+            throw new RuntimeException("The " + report + " report took longer than " + timeout.toSeconds() + "s");
+        } catch (ExecutionException e) {
+            cancel(abandoned, futures);
+            failures.incrementAndGet();
+            log.warn("Part of the {} report failed: {}", report, e.getCause().getMessage());
+            throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            cancel(abandoned, futures);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("The " + report + " report was interrupted");
+        }
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("maxConcurrency", maxConcurrency);
+        stats.put("running", maxConcurrency - permits.availablePermits());
+        stats.put("queued", permits.getQueueLength());
+        stats.put("timeoutSeconds", timeout.toSeconds());
+        stats.put("tasks", tasks.get());
+        stats.put("timeouts", timeouts.get());
+        stats.put("failures", failures.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private <K, V> V runPart(Function<K, V> task, K key, long deadline, AtomicBoolean abandoned) throws Exception {
+        if (!permits.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+            throw new TimeoutException("No report slot became free before the deadline");
+        }
+        try {
+            // A cancelled part frees its slot before the parts queued behind it are cancelled; they must not start
+            if (abandoned.get()) {
+                throw new CancellationException("The report was abandoned");
+            }
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            // The transaction timeout becomes the JDBC query timeout, so a cancelled part stops on the database too
+            long remainingSeconds = TimeUnit.NANOSECONDS.toSeconds(deadline - System.nanoTime());
+            transaction.setTimeout((int) Math.max(1, remainingSeconds));
+            return transaction.execute(status -> task.apply(key));
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static void cancel(AtomicBoolean abandoned, List<? extends Future<?>> futures) {
+        abandoned.set(true);
+        futures.forEach(future -> future.cancel(true));
+    }
+}
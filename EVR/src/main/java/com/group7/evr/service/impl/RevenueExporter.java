@@ -0,0 +1,174 @@
+package com.group7.evr.service.impl;
+
+import com.group7.evr.util.ReportDateRange;
+import com.group7.evr.util.XlsxStreamWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Row-level export of the bookings behind the revenue report, as CSV or XLSX. Rows are read through a
+ * forward-only JDBC cursor and written to the response as they arrive, so memory use does not depend
+ * on the size of the export. Filters match {@code /reports/revenue}: completed bookings by start day.
+ */
+@Component
+@RequiredArgsConstructor
+public class RevenueExporter {
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_XLSX = "xlsx";
+
+    private static final String[] COLUMNS = {
+            "Booking ID", "Station ID", "Station", "User ID", "Vehicle ID", "Plate Number", "Start Date", "End Date",
+            "Status", "Total Price", "Extra Fees", "Revenue", "Created At", "Checked In At", "Returned At"
+    };
+
+    private static final String EXPORT_SQL =
+            "SELECT b.bookingId, b.StationID, s.name, b.UserID, b.VehicleID, v.plateNumber, b.startTime, b.endTime, " +
+            "b.BookingStatus, b.totalPrice, b.extraFees, b.createdAt, b.checkedInAt, b.returnedAt " +
+            "FROM Booking b " +
+            "LEFT JOIN Station s ON s.StationID = b.StationID " +
+            "LEFT JOIN Vehicle v ON v.vehicleId = b.VehicleID " +
+            "WHERE b.BookingStatus = 'COMPLETED' AND b.startTime >= ? AND b.startTime <= ? ";
+    private static final String STATION_FILTER = "AND b.StationID = ? ";
+    private static final String ORDER_BY = "ORDER BY b.startTime, b.bookingId";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.reports.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Validate the request and return the body that streams the export. Validation happens here, before
+     * the response is committed, so a bad range still gets a normal error response.
+     */
+    public StreamingResponseBody exportRevenue(Integer stationId, LocalDateTime from, LocalDateTime to, String format) {
+        ReportDateRange range = ReportDateRange.of(from, to);
+        if (FORMAT_CSV.equals(format)) {
+            return output -> {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+                // BOM so Excel opens the UTF-8 station names correctly
+                writer.write('\uFEFF');
+                writeCsvRow(writer, COLUMNS);
+                streamRows(stationId, range, row -> writeCsvRow(writer, row));
+                writer.flush();
+            };
+        }
+        if (FORMAT_XLSX.equals(format)) {
+            return output -> {
+                XlsxStreamWriter xlsx = new XlsxStreamWriter(output, "Revenue", COLUMNS);
+                streamRows(stationId, range, row -> {
+                    xlsx.startRow();
+                    for (Object value : row) {
+                        if (value instanceof Number number) {
+                            xlsx.writeNumber(number);
+                        } else {
+                            xlsx.writeString(value != null ? value.toString() : null);
+                        }
+                    }
+                });
+                xlsx.close();
+            };
+        }
+        throw new RuntimeException("Unsupported export format: " + format + " (expected csv or xlsx)");
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private void streamRows(Integer stationId, ReportDateRange range, RowWriter rowWriter) throws IOException {
+        JdbcTemplate cursor = new JdbcTemplate(jdbcTemplate.getDataSource());
+        cursor.setFetchSize(fetchSize);
+        String sql = EXPORT_SQL + (stationId != null ? STATION_FILTER : "") + ORDER_BY;
+        Object[] args = stationId != null
+                ? new Object[]{range.fromDate(), range.toDate(), stationId}
+                : new Object[]{range.fromDate(), range.toDate()};
+        Object[] row = new Object[COLUMNS.length];
+        try {
+            cursor.query(sql, (RowCallbackHandler) rs -> {
+                readRow(rs, row);
+                try {
+                    rowWriter.write(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, args);
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; surface it as the I/O failure it is
+            throw e.getCause();
+        }
+    }
+
+    private static void readRow(ResultSet rs, Object[] row) throws SQLException {
+        BigDecimal totalPrice = rs.getBigDecimal(10);
+        BigDecimal extraFees = rs.getBigDecimal(11);
+        row[0] = rs.getInt(1);
+        row[1] = rs.getObject(2, Integer.class);
+        row[2] = rs.getString(3);
+        row[3] = rs.getObject(4, Integer.class);
+        row[4] = rs.getObject(5, Integer.class);
+        row[5] = rs.getString(6);
+        row[6] = toText(rs.getDate(7));
+        row[7] = toText(rs.getDate(8));
+        row[8] = rs.getString(9);
+        row[9] = totalPrice;
+        row[10] = extraFees;
+        row[11] = (totalPrice != null ? totalPrice : BigDecimal.ZERO).add(extraFees != null ? extraFees : BigDecimal.ZERO);
+        row[12] = toText(rs.getTimestamp(12));
+        row[13] = toText(rs.getTimestamp(13));
+        row[14] = toText(rs.getTimestamp(14));
+    }
+
+    private static String toText(java.sql.Date date) {
+        return date != null ? date.toLocalDate().toString() : null;
+    }
+
+    private static String toText(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime().toString() : null;
+    }
+
+    private static void writeCsvRow(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values[i];
+            if (value instanceof BigDecimal decimal) {
+                writer.write(decimal.toPlainString());
+            } else if (value != null) {
+                writeCsvField(writer, value.toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(Object[] row) throws IOException;
+    }
+}
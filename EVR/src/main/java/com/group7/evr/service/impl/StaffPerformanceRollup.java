@@ -0,0 +1,111 @@
+package com.group7.evr.service.impl;
+
+import com.group7.evr.config.SchedulingConfig;
+import com.group7.evr.entity.StaffPerformanceSnapshot;
+import com.group7.evr.entity.User;
+import com.group7.evr.enums.UserRole;
+import com.group7.evr.repository.AuditLogRepository;
+import com.group7.evr.repository.BookingRepository;
+import com.group7.evr.repository.ComplaintRepository;
+import com.group7.evr.repository.FeedbackRepository;
+import com.group7.evr.repository.StaffPerformanceSnapshotRepository;
+import com.group7.evr.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recomputes StaffPerformanceSnapshot for every staff member with one grouped query per metric source
+ * (bookings, feedback, complaints, audit log), so the staff performance endpoint only reads a single row.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StaffPerformanceRollup {
+    private final UserRepository userRepository;
+    private final BookingRepository bookingRepository;
+    private final FeedbackRepository feedbackRepository;
+    private final ComplaintRepository complaintRepository;
+    private final AuditLogRepository auditLogRepository;
+    private final StaffPerformanceSnapshotRepository snapshotRepository;
+
+    @Transactional
+    @Scheduled(cron = "${app.reports.staff-performance.rebuild-cron:0 45 2 * * *}",
+            scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    public int rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Integer, StaffPerformanceSnapshot> snapshots = new HashMap<>();
+        for (User staff : userRepository.findByRole(UserRole.STAFF)) {
+            StaffPerformanceSnapshot snapshot = new StaffPerformanceSnapshot();
+            snapshot.setStaffId(staff.getUserId());
+            snapshot.setComputedAt(now);
+            snapshots.put(staff.getUserId(), snapshot);
+        }
+
+        for (Object[] row : bookingRepository.summarizeHandoversByStaff(now.minusDays(7), now.minusDays(30))) {
+            StaffPerformanceSnapshot snapshot = snapshots.get(((Number) row[0]).intValue());
+            if (snapshot != null) {
+                snapshot.setTotalHandovers(asLong(row[1]));
+                snapshot.setHandoversLast7Days(asLong(row[2]));
+                snapshot.setHandoversLast30Days(asLong(row[3]));
+                snapshot.setAverageTurnaroundMinutes(asDouble(row[4]));
+            }
+        }
+        for (Object[] row : feedbackRepository.averageStarsByStaff()) {
+            StaffPerformanceSnapshot snapshot = snapshots.get(((Number) row[0]).intValue());
+            if (snapshot != null) {
+                snapshot.setAverageRating(asDouble(row[1]));
+                snapshot.setRatingCount(asLong(row[2]));
+            }
+        }
+        for (Object[] row : complaintRepository.countByHandlingStaff()) {
+            StaffPerformanceSnapshot snapshot = snapshots.get(((Number) row[0]).intValue());
+            if (snapshot != null) {
+                snapshot.setComplaintCount(asLong(row[1]));
+            }
+        }
+        for (Object[] row : auditLogRepository.findLastActivityByRole(UserRole.STAFF)) {
+            StaffPerformanceSnapshot snapshot = snapshots.get(((Number) row[0]).intValue());
+            if (snapshot != null) {
+                snapshot.setLastActivity((LocalDateTime) row[1]);
+            }
+        }
+        for (StaffPerformanceSnapshot snapshot : snapshots.values()) {
+            if (snapshot.getTotalHandovers() > 0) {
+                snapshot.setComplaintRate((double) snapshot.getComplaintCount() / snapshot.getTotalHandovers());
+            }
+        }
+
+        snapshotRepository.deleteAllRows();
+        snapshotRepository.saveAll(snapshots.values());
+        log.info("Rebuilt staff performance snapshots for {} staff", snapshots.size());
+        return snapshots.size();
+    }
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (snapshotRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private static long asLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    private static Double asDouble(Object value) {
+        return value != null ? ((Number) value).doubleValue() : null;
+    }
+}
@@ -3,12 +3,14 @@ package com.group7.evr.service.impl;
 import com.group7.evr.entity.Station;
 import com.group7.evr.entity.Vehicle;
 import com.group7.evr.enums.VehicleStatus;
+import com.group7.evr.event.StationChangedEvent;
 import com.group7.evr.repository.StationRepository;
 import com.group7.evr.repository.VehicleRepository;
 import com.group7.evr.service.StationService;
 import com.group7.evr.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,6 +25,7 @@ public class StationServiceImpl implements StationService {
     private final StationRepository stationRepository;
     private final VehicleRepository vehicleRepository;
     private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<Station> getAllStations() {
@@ -62,6 +65,7 @@ public class StationServiceImpl implements StationService {
         // Recalculate slots after saving (in case vehicles are assigned later)
         recalculateStationSlots(savedStation.getStationId());
         
+        eventPublisher.publishEvent(new StationChangedEvent(savedStation.getStationId()));
         userService.logAudit(null, "Created station " + savedStation.getStationId());
         return stationRepository.findById(savedStation.getStationId()).orElse(savedStation);
     }
@@ -103,6 +107,7 @@ public class StationServiceImpl implements StationService {
         // Recalculate slots after update
         recalculateStationSlots(stationId);
         
+        eventPublisher.publishEvent(new StationChangedEvent(stationId));
         userService.logAudit(null, "Updated station " + stationId);
         return stationRepository.findById(stationId).orElse(updatedStation);
     }
@@ -149,6 +154,7 @@ public class StationServiceImpl implements StationService {
         // For now, we'll allow deletion but log a warning
         
         stationRepository.delete(station);
+        eventPublisher.publishEvent(new StationChangedEvent(stationId));
         userService.logAudit(null, "Deleted station " + stationId);
         
         Map<String, Object> response = new HashMap<>();
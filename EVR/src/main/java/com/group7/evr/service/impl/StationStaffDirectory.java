@@ -0,0 +1,112 @@
+package com.group7.evr.service.impl;
+
+import com.group7.evr.entity.User;
+import com.group7.evr.enums.BookingStatus;
+import com.group7.evr.enums.UserRole;
+import com.group7.evr.enums.UserStatus;
+import com.group7.evr.repository.BookingRepository;
+import com.group7.evr.repository.StaffScheduleRepository;
+import com.group7.evr.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory station-to-staff directory. Loaded with one query over staff users the first time it is
+ * needed and dropped whenever a staff member is created, updated or deleted, so the booking path never
+ * scans the Users table to find who handles a station.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StationStaffDirectory {
+    private static final List<String> ON_SHIFT_STATUSES = List.of("Scheduled", "Active");
+    // Bookings still waiting on the assigned staff member for a handover
+    private static final List<BookingStatus> OPEN_STATUSES = List.of(BookingStatus.PENDING, BookingStatus.CONFIRMED);
+
+    private final UserRepository userRepository;
+    private final StaffScheduleRepository staffScheduleRepository;
+    private final BookingRepository bookingRepository;
+
+    private volatile Directory directory;
+
+    /**
+     * All staff users, or only those assigned to {@code stationId} when it is not null.
+     */
+    public List<User> getStaff(Integer stationId) {
+        Directory current = load();
+        return stationId == null ? current.all() : current.byStation().getOrDefault(stationId, List.of());
+    }
+
+    /**
+     * Active staff member of the station with the fewest open bookings, preferring whoever is on shift
+     * at {@code at}. Ties go to the lowest user id.
+     */
+    public User pickLeastLoaded(Integer stationId, LocalDateTime at) {
+        List<User> active = getStaff(stationId).stream()
+                .filter(staff -> UserStatus.ACTIVE.equals(staff.getStatus()))
+                .toList();
+        if (active.isEmpty()) {
+            throw new RuntimeException("No staff assigned to station " + stationId);
+        }
+
+        Set<Integer> onShift = new HashSet<>(
+                staffScheduleRepository.findStaffIdsOnShift(stationId, at, ON_SHIFT_STATUSES));
+        List<User> candidates = active.stream().filter(staff -> onShift.contains(staff.getUserId())).toList();
+        if (candidates.isEmpty()) {
+            candidates = active;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+
+        Map<Integer, Long> openBookings = new HashMap<>();
+        for (Object[] row : bookingRepository.countOpenBookingsByStaff(stationId, OPEN_STATUSES)) {
+            openBookings.put(((Number) row[0]).intValue(), ((Number) row[1]).longValue());
+        }
+        return candidates.stream()
+                .min(Comparator.<User>comparingLong(staff -> openBookings.getOrDefault(staff.getUserId(), 0L))
+                        .thenComparing(User::getUserId))
+                .orElseThrow();
+    }
+
+    public void invalidate() {
+        directory = null;
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private Directory load() {
+        Directory current = directory;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (directory == null) {
+                List<User> staff = userRepository.findByRole(UserRole.STAFF);
+                Map<Integer, List<User>> byStation = new HashMap<>();
+                for (User member : staff) {
+                    if (member.getStation() != null) {
+                        byStation.computeIfAbsent(member.getStation().getStationId(), id -> new ArrayList<>()).add(member);
+                    }
+                }
+                byStation.replaceAll((stationId, members) -> List.copyOf(members));
+                directory = new Directory(List.copyOf(staff), Map.copyOf(byStation));
+                log.debug("Loaded staff directory: {} staff across {} stations", staff.size(), byStation.size());
+            }
+            return directory;
+        }
+    }
+
+    private record Directory(List<User> all, Map<Integer, List<User>> byStation) {
+    }
+}
@@ -2,17 +2,17 @@ package com.group7.evr.service.impl;
 
 import com.group7.evr.entity.*;
 import com.group7.evr.enums.*;
+import com.group7.evr.event.ComplaintChangedEvent;
+import com.group7.evr.event.VehicleChangedEvent;
 import com.group7.evr.repository.*;
 import com.group7.evr.service.StationStaffService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -38,8 +38,11 @@ public class StationStaffServiceImpl implements StationStaffService {
     private AuditLogRepository auditLogRepository;
     @Autowired
     private MaintenanceRepository maintenanceRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
-    private final String uploadDir = "uploads/reports/"; // Configure properly (e.g., use S3 in production)
+    @Autowired
+    private MediaStore mediaStore;
 
     @Override
     public List<Vehicle> getVehiclesByStatus(Integer staffId, String status) {
@@ -89,7 +92,7 @@ public class StationStaffServiceImpl implements StationStaffService {
             StringBuilder photoUrls = new StringBuilder();
             for (int i = 0; i < photos.length; i++) {
                 if (photos[i] != null && !photos[i].isEmpty()) {
-                    String fileName = saveFile(photos[i]);
+                    String fileName = mediaStore.store(photos[i]);
                     if (i > 0) photoUrls.append(",");
                     photoUrls.append(fileName);
                 }
@@ -212,10 +215,12 @@ public class StationStaffServiceImpl implements StationStaffService {
             throw new RuntimeException("Unauthorized station");
         }
 
+        VehicleStatus oldStatus = vehicle.getStatus();
         vehicle.setBatteryLevel(batteryLevel);
         vehicle.setMileage(mileage);
         vehicle.setStatus(VehicleStatus.valueOf(status.toUpperCase())); // Convert string to enum
         Vehicle updatedVehicle = vehicleRepository.save(vehicle);
+        eventPublisher.publishEvent(VehicleChangedEvent.of(updatedVehicle, staff.getStation().getStationId(), oldStatus));
         logAudit(staff, "Updated vehicle " + vehicleId + " status to " + status);
         return updatedVehicle;
     }
@@ -239,6 +244,7 @@ public class StationStaffServiceImpl implements StationStaffService {
         complaint.setIssueDescription(issueDescription + " for vehicle " + vehicleId);
         complaint.setStatus(ComplaintStatus.PENDING);
         Complaint savedComplaint = complaintRepository.save(complaint);
+        eventPublisher.publishEvent(ComplaintChangedEvent.of(savedComplaint, null));
         logAudit(staff, "Reported issue for vehicle " + vehicleId);
         return savedComplaint;
     }
@@ -290,12 +296,6 @@ public class StationStaffServiceImpl implements StationStaffService {
 
     // ============ PRIVATE HELPER METHODS ============
 
-    private String saveFile(MultipartFile file) throws IOException {
-        Path path = Paths.get(uploadDir + file.getOriginalFilename());
-        Files.write(path, file.getBytes());
-        return path.toString();
-    }
-
     private void logAudit(User user, String action) {
         AuditLog log = new AuditLog();
         log.setUser(user);
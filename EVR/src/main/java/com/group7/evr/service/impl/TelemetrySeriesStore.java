@@ -0,0 +1,429 @@
+package com.group7.evr.service.impl;
+
+import com.group7.evr.config.SchedulingConfig;
+import com.group7.evr.dto.TelemetryReading;
+import com.group7.evr.exception.InvalidDateException;
+import com.group7.evr.util.TelemetryCodec;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Battery and odometer history per vehicle, stored as delta + varint encoded series files
+ * ({@link TelemetryCodec}) on local disk, one append-only file per vehicle and month:
+ * {@code <app.telemetry.store.dir>/<yyyy-MM>/<vehicleId>.evts}.
+ * <p>
+ * Samples handed over by {@code VehicleTelemetryBuffer} are kept in memory per series and appended to
+ * the file every {@code app.telemetry.store.persist-interval-ms}, so each append carries many samples.
+ * Reads memory-map the files and also see the samples not yet persisted. Samples not newer than the
+ * last one of their series are dropped.
+ */
+@Component
+@Slf4j
+public class TelemetrySeriesStore {
+    private static final String FILE_SUFFIX = ".evts";
+    // Gaps longer than this (vehicle offline) are not counted as driving or discharging time
+    private static final long MAX_DRAIN_GAP_SECONDS = 15 * 60;
+
+    private final Path root;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final ConcurrentHashMap<SeriesKey, Series> series = new ConcurrentHashMap<>();
+
+    @Value("${app.telemetry.store.max-points:2000}")
+    private int maxPoints;
+
+    @Value("${app.telemetry.store.retention-months:24}")
+    private int retentionMonths;
+
+    private final AtomicLong samplesWritten = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong droppedOutOfOrder = new AtomicLong();
+
+    public TelemetrySeriesStore(@Value("${app.telemetry.store.dir:data/telemetry}") String directory) {
+        this.root = Paths.get(directory);
+    }
+
+    public void append(List<TelemetryReading> readings) {
+        for (TelemetryReading reading : readings) {
+            SeriesKey key = new SeriesKey(reading.vehicleId(), YearMonth.from(reading.recordedAt()));
+            long epochSecond = reading.recordedAt().atZone(zone).toEpochSecond();
+            if (!series.computeIfAbsent(key, Series::new)
+                    .add(epochSecond, toHundredths(reading.batteryLevel()), toHundredths(reading.mileage()))) {
+                droppedOutOfOrder.incrementAndGet();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.telemetry.store.persist-interval-ms:60000}")
+    public void persist() {
+        YearMonth currentMonth = YearMonth.now(zone);
+        for (Series each : series.values()) {
+            try {
+                each.persist();
+            } catch (IOException e) {
+                log.warn("Could not persist telemetry series {}: {}", each.key, e.getMessage());
+                continue;
+            }
+            // Past months no longer receive samples; their state is recovered from the file if one does
+            if (each.key.month().isBefore(currentMonth.minusMonths(1)) && each.isIdle()) {
+                series.remove(each.key, each);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        persist();
+    }
+
+    /**
+     * Samples of one vehicle in [from, to), downsampled into buckets of {@code resolutionSeconds}
+     * (chosen automatically when null). Each bucket reports the average, minimum and maximum battery
+     * level and the last mileage.
+     */
+    public Map<String, Object> query(Integer vehicleId, LocalDateTime from, LocalDateTime to, Integer resolutionSeconds) {
+        long fromSecond = from.atZone(zone).toEpochSecond();
+        long toSecond = to.atZone(zone).toEpochSecond();
+        if (toSecond <= fromSecond) {
+            throw new InvalidDateException("From must be before to");
+        }
+        long range = toSecond - fromSecond;
+        long resolution = resolutionSeconds != null ? resolutionSeconds : Math.max(5, (range + maxPoints - 1) / maxPoints);
+        if (resolution < 1) {
+            throw new RuntimeException("Resolution must be at least 1 second");
+        }
+        long bucketCount = (range + resolution - 1) / resolution;
+        if (bucketCount > maxPoints) {
+            throw new RuntimeException("Too many points requested; use a resolution of at least "
+                    + (range + maxPoints - 1) / maxPoints + " seconds");
+        }
+
+        int buckets = (int) bucketCount;
+        long[] samples = new long[buckets];
+        long[] batterySamples = new long[buckets];
+        long[] batterySum = new long[buckets];
+        long[] batteryMin = new long[buckets];
+        long[] batteryMax = new long[buckets];
+        long[] lastMileage = new long[buckets];
+        Arrays.fill(batteryMin, Long.MAX_VALUE);
+        Arrays.fill(batteryMax, Long.MIN_VALUE);
+        Arrays.fill(lastMileage, TelemetryCodec.UNKNOWN);
+        long total = forEachSample(vehicleId, fromSecond, toSecond, (epochSecond, battery, mileage) -> {
+            int bucket = (int) ((epochSecond - fromSecond) / resolution);
+            samples[bucket]++;
+            if (battery != TelemetryCodec.UNKNOWN) {
+                batterySamples[bucket]++;
+                batterySum[bucket] += battery;
+                batteryMin[bucket] = Math.min(batteryMin[bucket], battery);
+                batteryMax[bucket] = Math.max(batteryMax[bucket], battery);
+            }
+            if (mileage != TelemetryCodec.UNKNOWN) {
+                lastMileage[bucket] = mileage;
+            }
+        });
+
+        List<Map<String, Object>> points = new ArrayList<>();
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            if (samples[bucket] == 0) {
+                continue;
+            }
+            Map<String, Object> point = new HashMap<>();
+            point.put("at", LocalDateTime.ofInstant(Instant.ofEpochSecond(fromSecond + bucket * resolution), zone));
+            point.put("samples", samples[bucket]);
+            if (batterySamples[bucket] > 0) {
+                point.put("batteryAvg", Math.round((double) batterySum[bucket] / batterySamples[bucket]) / 100.0);
+                point.put("batteryMin", batteryMin[bucket] / 100.0);
+                point.put("batteryMax", batteryMax[bucket] / 100.0);
+            }
+            if (lastMileage[bucket] != TelemetryCodec.UNKNOWN) {
+                point.put("mileage", lastMileage[bucket] / 100.0);
+            }
+            points.add(point);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("vehicleId", vehicleId);
+        response.put("from", from);
+        response.put("to", to);
+        response.put("resolutionSeconds", resolution);
+        response.put("samples", total);
+        response.put("points", points);
+        return response;
+    }
+
+    /**
+     * Battery drain of one vehicle in [from, to), counted over the intervals between consecutive samples
+     * where the battery did not charge and the vehicle was not offline.
+     */
+    public DrainRate getDrainRate(Integer vehicleId, LocalDateTime from, LocalDateTime to) {
+        long fromSecond = from.atZone(zone).toEpochSecond();
+        long toSecond = to.atZone(zone).toEpochSecond();
+        if (toSecond <= fromSecond) {
+            throw new InvalidDateException("From must be before to");
+        }
+        long[] previous = {Long.MIN_VALUE, TelemetryCodec.UNKNOWN, TelemetryCodec.UNKNOWN};
+        long[] totals = new long[3]; // drained hundredths of a percent, discharging seconds, hundredths of a km
+        long samples = forEachSample(vehicleId, fromSecond, toSecond, (epochSecond, battery, mileage) -> {
+            long gap = epochSecond - previous[0];
+            if (previous[0] != Long.MIN_VALUE && gap <= MAX_DRAIN_GAP_SECONDS
+                    && battery != TelemetryCodec.UNKNOWN && previous[1] != TelemetryCodec.UNKNOWN
+                    && battery <= previous[1]) {
+                totals[0] += previous[1] - battery;
+                totals[1] += gap;
+                if (mileage != TelemetryCodec.UNKNOWN && previous[2] != TelemetryCodec.UNKNOWN && mileage >= previous[2]) {
+                    totals[2] += mileage - previous[2];
+                }
+            }
+            previous[0] = epochSecond;
+            previous[1] = battery;
+            previous[2] = mileage;
+        });
+        double drainedPercent = totals[0] / 100.0;
+        double dischargingHours = totals[1] / 3600.0;
+        double distanceKm = totals[2] / 100.0;
+        return new DrainRate(vehicleId, from, to, samples, drainedPercent, dischargingHours, distanceKm,
+                dischargingHours > 0 ? drainedPercent / dischargingHours : null,
+                distanceKm > 0 ? drainedPercent / distanceKm * 100 : null);
+    }
+
+    /**
+     * Drop whole months older than {@code app.telemetry.store.retention-months}.
+     */
+    @Scheduled(cron = "${app.telemetry.store.purge-cron:0 0 4 * * *}", scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    public void purgeExpiredMonths() {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        YearMonth oldestKept = YearMonth.now(zone).minusMonths(retentionMonths);
+        try (DirectoryStream<Path> months = Files.newDirectoryStream(root)) {
+            for (Path monthDirectory : months) {
+                YearMonth month;
+                try {
+                    month = YearMonth.parse(monthDirectory.getFileName().toString());
+                } catch (DateTimeParseException e) {
+                    continue;
+                }
+                if (month.isBefore(oldestKept)) {
+                    series.keySet().removeIf(key -> key.month().equals(month));
+                    deleteRecursively(monthDirectory);
+                    log.info("Purged telemetry of {}", month);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Telemetry purge failed: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long samples = samplesWritten.get();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("openSeries", series.size());
+        stats.put("samplesWritten", samples);
+        stats.put("bytesWritten", bytesWritten.get());
+        stats.put("bytesPerSample", samples == 0 ? 0.0 : (double) bytesWritten.get() / samples);
+        stats.put("droppedOutOfOrder", droppedOutOfOrder.get());
+        return stats;
+    }
+
+    public record DrainRate(Integer vehicleId, LocalDateTime from, LocalDateTime to, long samples,
+                            double drainedPercent, double dischargingHours, double distanceKm,
+                            Double percentPerHour, Double percentPer100Km) {
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    // Visits samples in time order, month by month: persisted samples first, then the in-memory tail
+    private long forEachSample(Integer vehicleId, long fromSecond, long toSecond, TelemetryCodec.SampleVisitor visitor) {
+        long[] count = new long[1];
+        TelemetryCodec.SampleVisitor inRange = (epochSecond, battery, mileage) -> {
+            if (epochSecond >= fromSecond && epochSecond < toSecond) {
+                count[0]++;
+                visitor.accept(epochSecond, battery, mileage);
+            }
+        };
+        YearMonth first = YearMonth.from(LocalDateTime.ofInstant(Instant.ofEpochSecond(fromSecond), zone));
+        YearMonth last = YearMonth.from(LocalDateTime.ofInstant(Instant.ofEpochSecond(toSecond - 1), zone));
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            SeriesKey key = new SeriesKey(vehicleId, month);
+            Series live = series.get(key);
+            Snapshot snapshot = live != null ? live.snapshot() : new Snapshot(fileLength(key.path(root)), List.of());
+            readFile(key.path(root), snapshot.fileLength(), inRange);
+            for (long[] sample : snapshot.pending()) {
+                inRange.accept(sample[0], sample[1], sample[2]);
+            }
+        }
+        return count[0];
+    }
+
+    private static void readFile(Path path, long length, TelemetryCodec.SampleVisitor visitor) {
+        if (length <= TelemetryCodec.HEADER_BYTES) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (TelemetryCodec.hasValidHeader(buffer)) {
+                TelemetryCodec.decode(buffer, new TelemetryCodec.State(), visitor);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read telemetry series " + path, e);
+        }
+    }
+
+    private static long fileLength(Path path) {
+        try {
+            return Files.exists(path) ? Files.size(path) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long toHundredths(Double value) {
+        return value == null ? TelemetryCodec.UNKNOWN : Math.round(value * 100);
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private record SeriesKey(Integer vehicleId, YearMonth month) {
+        private Path path(Path root) {
+            return root.resolve(month.toString()).resolve(vehicleId + FILE_SUFFIX);
+        }
+    }
+
+    private record Snapshot(long fileLength, List<long[]> pending) {
+    }
+
+    /**
+     * One vehicle-month: the encoder state after the last persisted sample and the samples not yet written.
+     */
+    private final class Series {
+        private final SeriesKey key;
+        private final List<long[]> pending = new ArrayList<>();
+        // Null until the existing file (if any) has been scanned
+        private TelemetryCodec.State state;
+        private long fileLength;
+
+        private Series(SeriesKey key) {
+            this.key = key;
+        }
+
+        private synchronized boolean add(long epochSecond, long battery, long mileage) {
+            long[] previous = !pending.isEmpty() ? pending.get(pending.size() - 1) : null;
+            long lastSecond = previous != null ? previous[0] : state != null ? state.getEpochSecond() : Long.MIN_VALUE;
+            if (epochSecond <= lastSecond) {
+                return false;
+            }
+            // A reading without one of the values carries the previous value forward
+            long lastBattery = previous != null ? previous[1] : state != null ? state.getBattery() : TelemetryCodec.UNKNOWN;
+            long lastMileage = previous != null ? previous[2] : state != null ? state.getMileage() : TelemetryCodec.UNKNOWN;
+            pending.add(new long[]{
+                    epochSecond,
+                    battery != TelemetryCodec.UNKNOWN ? battery : lastBattery,
+                    mileage != TelemetryCodec.UNKNOWN ? mileage : lastMileage});
+            return true;
+        }
+
+        private synchronized Snapshot snapshot() {
+            return new Snapshot(state != null ? fileLength : fileLength(key.path(root)), List.copyOf(pending));
+        }
+
+        private synchronized boolean isIdle() {
+            return pending.isEmpty();
+        }
+
+        private synchronized void persist() throws IOException {
+            if (pending.isEmpty()) {
+                return;
+            }
+            Path path = key.path(root);
+            if (state == null) {
+                recover(path);
+            }
+            // Encode against a copy so a failed write leaves the state matching the file
+            TelemetryCodec.State next = state.copy();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(pending.size() * 4 + TelemetryCodec.HEADER_BYTES);
+            if (fileLength == 0) {
+                TelemetryCodec.writeHeader(out);
+            }
+            int written = 0;
+            for (long[] sample : pending) {
+                // Samples buffered before recovery may predate what the file already holds
+                if (sample[0] > next.getEpochSecond()) {
+                    TelemetryCodec.encode(next, sample[0], sample[1], sample[2], out);
+                    written++;
+                }
+            }
+            Files.createDirectories(path.getParent());
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                ByteBuffer bytes = ByteBuffer.wrap(out.toByteArray());
+                long position = fileLength;
+                while (bytes.hasRemaining()) {
+                    position += channel.write(bytes, position);
+                }
+            }
+            fileLength += out.size();
+            state = next;
+            pending.clear();
+            samplesWritten.addAndGet(written);
+            bytesWritten.addAndGet(out.size());
+        }
+
+        // Rebuild the encoder state from the file and cut off a torn tail left by a crash
+        private void recover(Path path) throws IOException {
+            state = new TelemetryCodec.State();
+            fileLength = 0;
+            if (!Files.exists(path)) {
+                return;
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long size = channel.size();
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                if (!TelemetryCodec.hasValidHeader(buffer)) {
+                    channel.truncate(0);
+                    log.warn("Discarded telemetry series {} with an invalid header", path);
+                    return;
+                }
+                int validEnd = TelemetryCodec.decode(buffer, state, (epochSecond, battery, mileage) -> {
+                });
+                if (validEnd < size) {
+                    channel.truncate(validEnd);
+                    log.warn("Truncated torn tail of telemetry series {} at byte {}", path, validEnd);
+                }
+                fileLength = validEnd;
+            }
+        }
+    }
+}
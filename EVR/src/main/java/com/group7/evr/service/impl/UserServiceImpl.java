@@ -20,9 +20,6 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.sql.Date;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -30,7 +27,6 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.UUID;
 
 @Service
@@ -41,8 +37,8 @@ public class UserServiceImpl implements UserService {
     private final AuditLogRepository auditLogRepository;
     private final EmailService emailService;
     private final PasswordEncoder passwordEncoder;
-
-    private final Path uploadDir = Paths.get("uploads");
+    private final StationStaffDirectory stationStaffDirectory;
+    private final MediaStore mediaStore;
 
     @Value("${app.auth.verification-url:http://localhost:8080/api/users/verify-email}")
     private String verificationEndpoint;
@@ -72,11 +68,11 @@ public class UserServiceImpl implements UserService {
         }
 
         if (personalIdImage != null && !personalIdImage.isEmpty()) {
-            String personalIdPath = saveFile(personalIdImage);
+            String personalIdPath = mediaStore.store(personalIdImage);
             user.setPersonalIdImage(personalIdPath);
         }
         if (licenseImage != null && !licenseImage.isEmpty()) {
-            String licensePath = saveFile(licenseImage);
+            String licensePath = mediaStore.store(licenseImage);
             user.setLicenseImage(licensePath);
         }
 
@@ -128,15 +124,6 @@ public class UserServiceImpl implements UserService {
         return userRepository.save(user);
     }
 
-    private String saveFile(MultipartFile file) throws IOException {
-        Files.createDirectories(uploadDir);
-        String originalName = StringUtils.cleanPath(Objects.requireNonNullElse(file.getOriginalFilename(), "document"));
-        String fileName = UUID.randomUUID() + "_" + originalName;
-        Path path = uploadDir.resolve(fileName);
-        Files.write(path, file.getBytes());
-        return path.toString();
-    }
-
     @Override
     public void logAudit(User user, String action) {
         AuditLog log = new AuditLog();
@@ -306,6 +293,9 @@ public class UserServiceImpl implements UserService {
         String oldStatus = user.getStatus().toString();
         user.setStatus(UserStatus.valueOf(status.toUpperCase()));
         User updatedUser = userRepository.save(user);
+        if (UserRole.STAFF.equals(updatedUser.getRole())) {
+            stationStaffDirectory.invalidate();
+        }
         
         logAudit(updatedUser, "Updated user status from " + oldStatus + " to " + status + 
                 (reason != null ? " - Reason: " + reason : ""));
@@ -344,18 +334,14 @@ public class UserServiceImpl implements UserService {
         staff.setVerifiedAt(LocalDateTime.now());
         
         User savedStaff = userRepository.save(staff);
+        stationStaffDirectory.invalidate();
         logAudit(savedStaff, "Created staff " + savedStaff.getUserId());
         return savedStaff;
     }
 
     @Override
     public List<User> getStaff(Integer stationId) {
-        List<User> allUsers = userRepository.findAll();
-        
-        return allUsers.stream()
-                .filter(user -> UserRole.STAFF.equals(user.getRole()))
-                .filter(user -> stationId == null || (user.getStation() != null && user.getStation().getStationId().equals(stationId)))
-                .toList();
+        return stationStaffDirectory.getStaff(stationId);
     }
 
     @Override
@@ -363,9 +349,7 @@ public class UserServiceImpl implements UserService {
         if (stationId == null) {
             throw new RuntimeException("Station ID is required to resolve staff");
         }
-        return getStaff(stationId).stream()
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("No staff assigned to station " + stationId));
+        return stationStaffDirectory.pickLeastLoaded(stationId, LocalDateTime.now());
     }
 
     @Override
@@ -404,6 +388,7 @@ public class UserServiceImpl implements UserService {
         // If station is not in the update, keep the existing one
         
         User updatedStaff = userRepository.save(existingStaff);
+        stationStaffDirectory.invalidate();
         logAudit(updatedStaff, "Updated staff " + staffId);
         return updatedStaff;
     }
@@ -423,6 +408,7 @@ public class UserServiceImpl implements UserService {
         // Soft delete by setting status to 'Inactive'
         staff.setStatus(UserStatus.DELETED);
         userRepository.save(staff);
+        stationStaffDirectory.invalidate();
         
         logAudit(staff, "Deleted staff " + staffId);
         
@@ -1,28 +1,43 @@
 package com.group7.evr.service.impl;
 
+import com.group7.evr.dto.VehicleFacetRow;
+import com.group7.evr.dto.VehicleSearchCriteria;
 import com.group7.evr.entity.*;
 import com.group7.evr.enums.*;
+import com.group7.evr.event.VehicleChangedEvent;
+import com.group7.evr.exception.DuplicatePlateNumberException;
+import com.group7.evr.exception.InvalidDateException;
 import com.group7.evr.repository.*;
 import com.group7.evr.service.StationService;
 import com.group7.evr.service.UserService;
 import com.group7.evr.service.VehicleService;
+import com.group7.evr.util.PlateNumbers;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 @Service
 @RequiredArgsConstructor
@@ -33,8 +48,18 @@ public class VehicleServiceImpl implements VehicleService {
     private final IssueReportRepository issueReportRepository;
     private final UserService userService;
     private final StationService stationService;
+    private final BookingConflictIndex bookingConflictIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MediaStore mediaStore;
     
-    private final String uploadDir = "uploads/issues/";
+    private static final int MAX_IMPORT_SIZE = 10_000;
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+    private static final int MAX_SEARCH_PAGE_SIZE = 200;
+    private static final String PLATE_INDEX = "UX_Vehicle_PlateNumberNormalized";
+
+
+    @Value("${app.vehicles.maintenance-interval-days:90}")
+    private int maintenanceIntervalDays;
 
     @Override
     public List<Vehicle> getAvailableVehicles(Integer stationId) {
@@ -42,20 +67,39 @@ public class VehicleServiceImpl implements VehicleService {
     }
 
     @Override
-    public Vehicle getVehicleById(Integer id) {
-        return vehicleRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Vehicle not found"));
+    public List<Vehicle> findAvailableVehicles(Integer stationId, Integer modelId, LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) {
+            throw new InvalidDateException("From and to are required");
+        }
+        if (!from.isBefore(to)) {
+            throw new InvalidDateException("From must be before to");
+        }
+
+        // Same precondition as createBooking: only vehicles currently marked AVAILABLE can be booked
+        List<Vehicle> candidates;
+        if (stationId != null && modelId != null) {
+            candidates = vehicleRepository.findByStationStationIdAndModelModelIdAndStatus(stationId, modelId, VehicleStatus.AVAILABLE);
+        } else if (stationId != null) {
+            candidates = vehicleRepository.findByStationStationIdAndStatus(stationId, VehicleStatus.AVAILABLE);
+        } else if (modelId != null) {
+            candidates = vehicleRepository.findByModelModelIdAndStatus(modelId, VehicleStatus.AVAILABLE);
+        } else {
+            candidates = vehicleRepository.findByStatus(VehicleStatus.AVAILABLE);
+        }
+
+        long start = from.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long end = to.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        Set<Integer> freeIds = new HashSet<>(bookingConflictIndex.filterAvailable(
+                candidates.stream().map(Vehicle::getVehicleId).toList(), start, end));
+        return candidates.stream()
+                .filter(vehicle -> freeIds.contains(vehicle.getVehicleId()))
+                .toList();
     }
 
     @Override
-    public List<Vehicle> findVehicles(Integer modelId, BigDecimal minBattery) {
-        if (modelId != null) {
-            return vehicleRepository.findByModelModelId(modelId);
-        }
-        if (minBattery != null) {
-            return vehicleRepository.findByBatteryLevelGreaterThanEqual(minBattery);
-        }
-        return vehicleRepository.findAll();
+    public Vehicle getVehicleById(Integer id) {
+        return vehicleRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Vehicle not found"));
     }
 
     @Override
@@ -101,7 +145,7 @@ public class VehicleServiceImpl implements VehicleService {
             for (int i = 0; i < photos.length; i++) {
                 if (photos[i] != null && !photos[i].isEmpty()) {
                     try {
-                        String fileName = saveFile(photos[i]);
+                        String fileName = mediaStore.store(photos[i]);
                         if (i > 0) photoUrls.append(",");
                         photoUrls.append(fileName);
                     } catch (IOException e) {
@@ -133,12 +177,6 @@ public class VehicleServiceImpl implements VehicleService {
         return response;
     }
     
-    private String saveFile(MultipartFile file) throws IOException {
-        Path path = Paths.get(uploadDir + file.getOriginalFilename());
-        Files.write(path, file.getBytes());
-        return path.toString();
-    }
-    
     private void notifyStationStaff(Station station, IssueReport issueReport) {
         // Mock notification - in production, this would send email/SMS to station staff
         System.out.println("NOTIFICATION: New issue reported for vehicle " + issueReport.getVehicle().getVehicleId() + 
@@ -157,24 +195,15 @@ public class VehicleServiceImpl implements VehicleService {
             throw new RuntimeException("Plate number is required");
         }
         
-        // Check for duplicate plate number
-        if (vehicleRepository.findAll().stream()
-                .anyMatch(v -> v.getPlateNumber().equals(vehicle.getPlateNumber()))) {
-            throw new RuntimeException("Vehicle with this plate number already exists");
+        // Check for duplicate plate number; the unique index still catches concurrent creates
+        if (vehicleRepository.existsByPlateNumberNormalized(PlateNumbers.normalize(vehicle.getPlateNumber()))) {
+            throw new DuplicatePlateNumberException(vehicle.getPlateNumber());
         }
         
-        // Set default values
-        if (vehicle.getStatus() == null) {
-            vehicle.setStatus(VehicleStatus.AVAILABLE);
-        }
-        if (vehicle.getBatteryLevel() == null) {
-            vehicle.setBatteryLevel(BigDecimal.valueOf(100));
-        }
-        if (vehicle.getMileage() == null) {
-            vehicle.setMileage(BigDecimal.ZERO);
-        }
+        applyDefaults(vehicle);
         
-        Vehicle savedVehicle = vehicleRepository.save(vehicle);
+        Vehicle savedVehicle = savePlateChecked(vehicle);
+        eventPublisher.publishEvent(VehicleChangedEvent.of(savedVehicle, null, null));
         
         // Recalculate slots for the station if vehicle has a station
         if (savedVehicle.getStation() != null && savedVehicle.getStation().getStationId() != null) {
@@ -189,13 +218,14 @@ public class VehicleServiceImpl implements VehicleService {
     public Vehicle updateVehicle(Integer vehicleId, Vehicle vehicleUpdates) {
         Vehicle existingVehicle = vehicleRepository.findById(vehicleId)
                 .orElseThrow(() -> new RuntimeException("Vehicle not found"));
+        VehicleStatus oldStatus = existingVehicle.getStatus();
         
         // Update allowed fields
         if (vehicleUpdates.getPlateNumber() != null) {
             // Check for duplicate plate number (excluding current vehicle)
-            if (vehicleRepository.findAll().stream()
-                    .anyMatch(v -> !v.getVehicleId().equals(vehicleId) && v.getPlateNumber().equals(vehicleUpdates.getPlateNumber()))) {
-                throw new RuntimeException("Vehicle with this plate number already exists");
+            if (vehicleRepository.existsByPlateNumberNormalizedAndVehicleIdNot(
+                    PlateNumbers.normalize(vehicleUpdates.getPlateNumber()), vehicleId)) {
+                throw new DuplicatePlateNumberException(vehicleUpdates.getPlateNumber());
             }
             existingVehicle.setPlateNumber(vehicleUpdates.getPlateNumber());
         }
@@ -214,7 +244,8 @@ public class VehicleServiceImpl implements VehicleService {
         
         Integer oldStationId = existingVehicle.getStation() != null ? existingVehicle.getStation().getStationId() : null;
         
-        Vehicle updatedVehicle = vehicleRepository.save(existingVehicle);
+        Vehicle updatedVehicle = savePlateChecked(existingVehicle);
+        eventPublisher.publishEvent(VehicleChangedEvent.of(updatedVehicle, oldStationId, oldStatus));
         
         // Recalculate slots for both old and new stations if station changed
         Integer newStationId = updatedVehicle.getStation() != null ? updatedVehicle.getStation().getStationId() : null;
@@ -229,6 +260,80 @@ public class VehicleServiceImpl implements VehicleService {
         return updatedVehicle;
     }
 
+    @Override
+    @Transactional
+    public Map<String, Object> importVehicles(List<Vehicle> vehicles) {
+        if (vehicles == null || vehicles.isEmpty()) {
+            throw new RuntimeException("No vehicles to import");
+        }
+        if (vehicles.size() > MAX_IMPORT_SIZE) {
+            throw new RuntimeException("Cannot import more than " + MAX_IMPORT_SIZE + " vehicles at once");
+        }
+
+        // Validate every row first; the import is all-or-nothing
+        List<Map<String, Object>> errors = new ArrayList<>();
+        Map<String, Integer> rowByPlate = new HashMap<>();
+        for (int row = 0; row < vehicles.size(); row++) {
+            String plateNumber = vehicles.get(row).getPlateNumber();
+            String normalized = PlateNumbers.normalize(plateNumber);
+            if (normalized == null || normalized.isEmpty()) {
+                errors.add(importError(row, plateNumber, "REQUIRED", "Plate number is required"));
+            } else if (!normalized.matches("[A-Z0-9]+")) {
+                errors.add(importError(row, plateNumber, "INVALID",
+                        "Plate number may only contain letters, digits, spaces, dashes and dots"));
+            } else {
+                Integer firstRow = rowByPlate.putIfAbsent(normalized, row);
+                if (firstRow != null) {
+                    errors.add(importError(row, plateNumber, "DUPLICATE_IN_IMPORT",
+                            "Same plate number as row " + firstRow));
+                }
+            }
+        }
+        // One set-based lookup for every plate in the import
+        if (!rowByPlate.isEmpty()) {
+            for (String existing : vehicleRepository.findExistingNormalizedPlates(String.join(",", rowByPlate.keySet()))) {
+                int row = rowByPlate.get(existing);
+                errors.add(importError(row, vehicles.get(row).getPlateNumber(), "ALREADY_EXISTS",
+                        "Vehicle with this plate number already exists"));
+            }
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("received", vehicles.size());
+        if (!errors.isEmpty()) {
+            errors.sort(Comparator.comparingInt(error -> (Integer) error.get("row")));
+            response.put("imported", 0);
+            response.put("errors", errors);
+            return response;
+        }
+
+        List<Integer> vehicleIds = new ArrayList<>(vehicles.size());
+        Set<Integer> stationIds = new HashSet<>();
+        for (Vehicle vehicle : vehicles) {
+            vehicle.setVehicleId(null);
+            applyDefaults(vehicle);
+            // Identity inserts run immediately, so a racing duplicate fails here without a flush per row
+            Vehicle savedVehicle;
+            try {
+                savedVehicle = vehicleRepository.save(vehicle);
+            } catch (DataIntegrityViolationException e) {
+                throw translatePlateConflict(e, vehicle.getPlateNumber());
+            }
+            eventPublisher.publishEvent(VehicleChangedEvent.of(savedVehicle, null, null));
+            vehicleIds.add(savedVehicle.getVehicleId());
+            if (savedVehicle.getStation() != null && savedVehicle.getStation().getStationId() != null) {
+                stationIds.add(savedVehicle.getStation().getStationId());
+            }
+        }
+        stationIds.forEach(stationService::recalculateStationSlots);
+
+        userService.logAudit(null, "Imported " + vehicleIds.size() + " vehicles");
+        response.put("imported", vehicleIds.size());
+        response.put("vehicleIds", vehicleIds);
+        response.put("errors", List.of());
+        return response;
+    }
+
     @Override
     public Map<String, Object> deleteVehicle(Integer vehicleId) {
         Vehicle vehicle = vehicleRepository.findById(vehicleId)
@@ -243,8 +348,10 @@ public class VehicleServiceImpl implements VehicleService {
         Integer stationId = vehicle.getStation() != null ? vehicle.getStation().getStationId() : null;
         
         // Soft delete by setting status to 'Maintenance' (since we don't have a DELETED status)
+        VehicleStatus oldStatus = vehicle.getStatus();
         vehicle.setStatus(VehicleStatus.MAINTENANCE);
         vehicleRepository.save(vehicle);
+        eventPublisher.publishEvent(VehicleChangedEvent.of(vehicle, stationId, oldStatus));
         
         // Recalculate slots for the station
         if (stationId != null) {
@@ -260,43 +367,165 @@ public class VehicleServiceImpl implements VehicleService {
     }
 
     @Override
-    public Map<String, Object> getAllVehicles(int page, int size, String status) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("vehicleId").descending());
-        Page<Vehicle> vehiclePage;
-
-        if (status != null && !status.isEmpty()) {
+    public Map<String, Object> searchVehicles(VehicleSearchCriteria criteria, Integer page, Integer size, String cursor) {
+        if (size != null && (size < 1 || size > MAX_SEARCH_PAGE_SIZE)) {
+            throw new RuntimeException("Page size must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+        if (criteria.minBattery() != null && criteria.maxBattery() != null
+                && criteria.minBattery().compareTo(criteria.maxBattery()) > 0) {
+            throw new RuntimeException("Minimum battery must not be above maximum battery");
+        }
+        VehicleStatus status = null;
+        if (criteria.status() != null && !criteria.status().isBlank()) {
             try {
-                VehicleStatus vehicleStatus = VehicleStatus.valueOf(status.toUpperCase());
-                // Get all vehicles and filter by status, then paginate manually
-                List<Vehicle> allVehicles = vehicleRepository.findAll();
-                List<Vehicle> filtered = allVehicles.stream()
-                    .filter(v -> v.getStatus() == vehicleStatus)
-                    .toList();
-                int start = page * size;
-                int end = Math.min(start + size, filtered.size());
-                List<Vehicle> pagedVehicles = start < filtered.size() 
-                    ? filtered.subList(start, end) 
-                    : List.of();
-                
-                Map<String, Object> response = new HashMap<>();
-                response.put("vehicles", pagedVehicles);
-                response.put("currentPage", page);
-                response.put("totalItems", filtered.size());
-                response.put("totalPages", (int) Math.ceil((double) filtered.size() / size));
-                return response;
+                status = VehicleStatus.valueOf(criteria.status().trim().toUpperCase());
             } catch (IllegalArgumentException e) {
-                // Invalid status, return all
+                throw new RuntimeException("Invalid status. Must be: available, rented, maintenance");
             }
         }
-        
-        vehiclePage = vehicleRepository.findAll(pageable);
-        
+        java.sql.Date maintenanceCutoff = java.sql.Date.valueOf(LocalDate.now().minusDays(maintenanceIntervalDays));
+        Specification<Vehicle> atStation = VehicleSpecifications.atStation(criteria.stationId());
+        Specification<Vehicle> ofModel = VehicleSpecifications.ofModel(criteria.modelId());
+        Specification<Vehicle> hasStatus = VehicleSpecifications.hasStatus(status);
+        Specification<Vehicle> common = VehicleSpecifications.batteryAtLeast(criteria.minBattery())
+                .and(VehicleSpecifications.batteryAtMost(criteria.maxBattery()))
+                .and(VehicleSpecifications.maintenanceDue(criteria.maintenanceDue(), maintenanceCutoff));
+        Specification<Vehicle> filters = atStation.and(ofModel).and(hasStatus).and(common);
+
+        // Facets double as the total count; no mode below may run its own count query
+        Map<String, Object> facets = buildFacets(vehicleRepository.countFacets(common, atStation, ofModel, hasStatus));
+        long totalItems = (Long) facets.remove("total");
+
         Map<String, Object> response = new HashMap<>();
-        response.put("vehicles", vehiclePage.getContent());
-        response.put("currentPage", vehiclePage.getNumber());
-        response.put("totalItems", vehiclePage.getTotalElements());
-        response.put("totalPages", vehiclePage.getTotalPages());
+        List<Vehicle> vehicles;
+        boolean hasMore;
+        if (cursor != null) {
+            // Keyset mode: seek past the last vehicle of the previous page, no offset
+            int pageSize = size != null ? size : DEFAULT_SEARCH_PAGE_SIZE;
+            List<Vehicle> window = vehicleRepository.findBy(
+                    filters.and(VehicleSpecifications.after(parseCursor(cursor))),
+                    query -> query.sortBy(VehicleSpecifications.LIST_ORDER)
+                            .project(VehicleSpecifications.LIST_GRAPH)
+                            .limit(pageSize + 1)
+                            .all());
+            hasMore = window.size() > pageSize;
+            vehicles = hasMore ? window.subList(0, pageSize) : window;
+            response.put("size", pageSize);
+        } else if (page != null || size != null) {
+            int pageNumber = page != null ? page : 0;
+            int pageSize = size != null ? size : DEFAULT_SEARCH_PAGE_SIZE;
+            if (pageNumber < 0) {
+                throw new RuntimeException("Page must not be negative");
+            }
+            // Numbered pages for the admin table. slice() fetches one row past the page at the computed
+            // offset instead of page(), which would repeat the count the facets already gave us.
+            Slice<Vehicle> slice = vehicleRepository.findBy(filters,
+                    query -> query.project(VehicleSpecifications.LIST_GRAPH)
+                            .slice(PageRequest.of(pageNumber, pageSize, VehicleSpecifications.LIST_ORDER)));
+            vehicles = slice.getContent();
+            hasMore = slice.hasNext();
+            response.put("size", pageSize);
+            response.put("currentPage", pageNumber);
+            response.put("totalPages", (int) Math.ceil((double) totalItems / pageSize));
+        } else {
+            // Unpaged callers (pickers that need every match) keep getting the full list
+            vehicles = vehicleRepository.findBy(filters,
+                    query -> query.sortBy(VehicleSpecifications.LIST_ORDER)
+                            .project(VehicleSpecifications.LIST_GRAPH)
+                            .all());
+            hasMore = false;
+        }
+
+        response.put("vehicles", vehicles);
+        response.put("totalItems", totalItems);
+        response.put("hasMore", hasMore);
+        response.put("nextCursor", hasMore && !vehicles.isEmpty()
+                ? String.valueOf(vehicles.get(vehicles.size() - 1).getVehicleId()) : null);
+        response.put("facets", facets);
         return response;
     }
-}
 
+    private void applyDefaults(Vehicle vehicle) {
+        if (vehicle.getStatus() == null) {
+            vehicle.setStatus(VehicleStatus.AVAILABLE);
+        }
+        if (vehicle.getBatteryLevel() == null) {
+            vehicle.setBatteryLevel(BigDecimal.valueOf(100));
+        }
+        if (vehicle.getMileage() == null) {
+            vehicle.setMileage(BigDecimal.ZERO);
+        }
+    }
+
+    // The exists checks can race; a concurrent write with the same plate is caught by the unique index
+    private Vehicle savePlateChecked(Vehicle vehicle) {
+        try {
+            return vehicleRepository.saveAndFlush(vehicle);
+        } catch (DataIntegrityViolationException e) {
+            throw translatePlateConflict(e, vehicle.getPlateNumber());
+        }
+    }
+
+    private static RuntimeException translatePlateConflict(DataIntegrityViolationException e, String plateNumber) {
+        String cause = e.getMostSpecificCause().getMessage();
+        return cause != null && cause.contains(PLATE_INDEX) ? new DuplicatePlateNumberException(plateNumber) : e;
+    }
+
+    private static Map<String, Object> importError(int row, String plateNumber, String code, String message) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("row", row);
+        error.put("plateNumber", plateNumber);
+        error.put("code", code);
+        error.put("message", message);
+        return error;
+    }
+
+    private static Integer parseCursor(String cursor) {
+        try {
+            return Integer.valueOf(cursor);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    // Per-status, per-model and per-station counts folded from the grouped rows, in a stable order. Each facet
+    // uses the count without its own filter, so picking a station still lists the other stations' counts.
+    private static Map<String, Object> buildFacets(List<VehicleFacetRow> rows) {
+        Map<VehicleStatus, Long> byStatus = new EnumMap<>(VehicleStatus.class);
+        Map<Integer, Map<String, Object>> byModel = new TreeMap<>();
+        Map<Integer, Map<String, Object>> byStation = new TreeMap<>();
+        long total = 0;
+        for (VehicleFacetRow row : rows) {
+            total += row.vehicles();
+            if (row.status() != null && row.statusFacet() > 0) {
+                byStatus.merge(row.status(), row.statusFacet(), Long::sum);
+            }
+            if (row.modelId() != null && row.modelFacet() > 0) {
+                addFacetCount(byModel.computeIfAbsent(row.modelId(), id -> facetEntry("modelId", id, "modelName", row.modelName())),
+                        row.modelFacet());
+            }
+            if (row.stationId() != null && row.stationFacet() > 0) {
+                addFacetCount(byStation.computeIfAbsent(row.stationId(), id -> facetEntry("stationId", id, "name", row.stationName())),
+                        row.stationFacet());
+            }
+        }
+        Map<String, Object> facets = new HashMap<>();
+        facets.put("total", total);
+        facets.put("status", byStatus);
+        facets.put("model", List.copyOf(byModel.values()));
+        facets.put("station", List.copyOf(byStation.values()));
+        return facets;
+    }
+
+    private static Map<String, Object> facetEntry(String idKey, Integer id, String nameKey, String name) {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put(idKey, id);
+        entry.put(nameKey, name);
+        entry.put("count", 0L);
+        return entry;
+    }
+
+    private static void addFacetCount(Map<String, Object> entry, long vehicles) {
+        entry.merge("count", vehicles, (current, added) -> (Long) current + (Long) added);
+    }
+}
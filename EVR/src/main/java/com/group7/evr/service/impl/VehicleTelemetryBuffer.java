@@ -0,0 +1,239 @@
+package com.group7.evr.service.impl;
+
+import com.group7.evr.dto.TelemetryReading;
+import com.group7.evr.event.VehicleChangedEvent;
+import com.group7.evr.repository.VehicleRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind buffer for vehicle telemetry. Readings are coalesced per vehicle (latest recordedAt wins)
+ * in a concurrent map, so ingest never touches the database. Every
+ * {@code app.telemetry.flush-interval-ms} the buffer is drained: the vehicles' battery level and mileage
+ * are updated with a JDBC batch, and the readings go to the {@link TelemetrySeriesStore} history.
+ * <p>
+ * Draining removes entries key by key, so a reading that arrives mid-flush simply lands in the next
+ * flush. Readings buffered when the node dies are lost; telemetry is resent every few seconds anyway.
+ * <p>
+ * Readings for vehicle ids that do not exist are rejected against an in-memory id set, so they never
+ * take a buffer slot or get a series file. The set is loaded on first use, extended by
+ * {@link VehicleChangedEvent} for new vehicles and reloaded every {@code app.telemetry.known-vehicles-refresh-ms}.
+ */
+@Component
+@Slf4j
+public class VehicleTelemetryBuffer {
+
+    private static final String UPDATE_VEHICLE_SQL =
+            "UPDATE Vehicle SET batteryLevel = COALESCE(?, batteryLevel), mileage = COALESCE(?, mileage), " +
+            "lastTelemetryAt = ? WHERE vehicleId = ? AND (lastTelemetryAt IS NULL OR lastTelemetryAt < ?)";
+
+    private final ConcurrentHashMap<Integer, TelemetryReading> pending = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final TelemetrySeriesStore telemetrySeriesStore;
+    private final VehicleRepository vehicleRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxPendingVehicles;
+    private final int batchSize;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong unknownVehicles = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong flushedVehicles = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private volatile long lastFlushMillis;
+    private volatile Set<Integer> knownVehicleIds;
+
+    public VehicleTelemetryBuffer(JdbcTemplate jdbcTemplate, TelemetrySeriesStore telemetrySeriesStore,
+                                  VehicleRepository vehicleRepository, PlatformTransactionManager transactionManager,
+                                  @Value("${app.telemetry.max-pending-vehicles:100000}") int maxPendingVehicles,
+                                  @Value("${app.telemetry.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.telemetrySeriesStore = telemetrySeriesStore;
+        this.vehicleRepository = vehicleRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxPendingVehicles = maxPendingVehicles;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Buffer a batch of readings. Invalid readings, unknown vehicles, and new vehicles once the buffer is
+     * full, are rejected individually; the rest are accepted.
+     */
+    public Map<String, Object> ingest(List<TelemetryReading> readings) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime latestAllowed = now.plusMinutes(5);
+        Set<Integer> known = knownVehicleIds();
+        int accepted = 0;
+        for (TelemetryReading reading : readings) {
+            if (!isValid(reading, latestAllowed)) {
+                continue;
+            }
+            if (!known.contains(reading.vehicleId())) {
+                unknownVehicles.incrementAndGet();
+                continue;
+            }
+            if (pending.size() >= maxPendingVehicles && !pending.containsKey(reading.vehicleId())) {
+                continue;
+            }
+            TelemetryReading stamped = reading.recordedAt() != null ? reading
+                    : new TelemetryReading(reading.vehicleId(), reading.batteryLevel(), reading.mileage(), now);
+            TelemetryReading previous = pending.putIfAbsent(stamped.vehicleId(), stamped);
+            if (previous != null) {
+                pending.merge(stamped.vehicleId(), stamped, VehicleTelemetryBuffer::latest);
+                coalesced.incrementAndGet();
+            }
+            accepted++;
+        }
+        received.addAndGet(accepted);
+        rejected.addAndGet(readings.size() - accepted);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("accepted", accepted);
+        response.put("rejected", readings.size() - accepted);
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${app.telemetry.flush-interval-ms:2000}")
+    public void flush() {
+        List<TelemetryReading> batch = drain();
+        if (batch.isEmpty()) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(UPDATE_VEHICLE_SQL, batch, batchSize, (ps, reading) -> {
+                        Timestamp recordedAt = Timestamp.valueOf(reading.recordedAt());
+                        ps.setBigDecimal(1, toDecimal(reading.batteryLevel()));
+                        ps.setBigDecimal(2, toDecimal(reading.mileage()));
+                        ps.setTimestamp(3, recordedAt);
+                        ps.setInt(4, reading.vehicleId());
+                        ps.setTimestamp(5, recordedAt);
+                    }));
+            flushedVehicles.addAndGet(batch.size());
+            lastFlushMillis = (System.nanoTime() - started) / 1_000_000;
+            telemetrySeriesStore.append(batch);
+        } catch (RuntimeException e) {
+            // Put the readings back unless newer ones arrived meanwhile, and try again on the next flush
+            batch.forEach(reading -> pending.merge(reading.vehicleId(), reading, VehicleTelemetryBuffer::latest));
+            failedFlushes.incrementAndGet();
+            log.warn("Telemetry flush of {} vehicles failed, will retry: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        Set<Integer> known = knownVehicleIds;
+        // Not loaded yet: the first load will include the vehicle
+        if (known != null && event.fromStatus() == null && event.vehicleId() != null) {
+            known.add(event.vehicleId());
+        }
+    }
+
+    // Backstop for a vehicle created while the set was being loaded. Vehicles are never hard-deleted,
+    // so ids added by events in the meantime are kept.
+    @Scheduled(fixedDelayString = "${app.telemetry.known-vehicles-refresh-ms:600000}")
+    public void refreshKnownVehicles() {
+        Set<Integer> previous = knownVehicleIds;
+        if (previous != null) {
+            Set<Integer> fresh = loadKnownVehicleIds();
+            fresh.addAll(previous);
+            knownVehicleIds = fresh;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("pendingVehicles", pending.size());
+        stats.put("received", received.get());
+        stats.put("rejected", rejected.get());
+        stats.put("unknownVehicles", unknownVehicles.get());
+        stats.put("coalesced", coalesced.get());
+        stats.put("flushedVehicles", flushedVehicles.get());
+        stats.put("failedFlushes", failedFlushes.get());
+        stats.put("lastFlushMillis", lastFlushMillis);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private Set<Integer> knownVehicleIds() {
+        Set<Integer> known = knownVehicleIds;
+        if (known != null) {
+            return known;
+        }
+        synchronized (this) {
+            if (knownVehicleIds == null) {
+                knownVehicleIds = loadKnownVehicleIds();
+            }
+            return knownVehicleIds;
+        }
+    }
+
+    private Set<Integer> loadKnownVehicleIds() {
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        ids.addAll(vehicleRepository.findAllVehicleIds());
+        log.debug("Loaded {} known vehicle ids for telemetry", ids.size());
+        return ids;
+    }
+
+    private List<TelemetryReading> drain() {
+        List<TelemetryReading> batch = new ArrayList<>(pending.size());
+        for (Integer vehicleId : pending.keySet()) {
+            TelemetryReading reading = pending.remove(vehicleId);
+            if (reading != null) {
+                batch.add(reading);
+            }
+        }
+        return batch;
+    }
+
+    private static TelemetryReading latest(TelemetryReading current, TelemetryReading candidate) {
+        return candidate.recordedAt().isBefore(current.recordedAt()) ? current : candidate;
+    }
+
+    private static boolean isValid(TelemetryReading reading, LocalDateTime latestAllowed) {
+        if (reading == null || reading.vehicleId() == null) {
+            return false;
+        }
+        if (reading.batteryLevel() == null && reading.mileage() == null) {
+            return false;
+        }
+        if (reading.batteryLevel() != null && (reading.batteryLevel() < 0 || reading.batteryLevel() > 100)) {
+            return false;
+        }
+        if (reading.mileage() != null && reading.mileage() < 0) {
+            return false;
+        }
+        return reading.recordedAt() == null || !reading.recordedAt().isAfter(latestAllowed);
+    }
+
+    private static BigDecimal toDecimal(Double value) {
+        return value == null ? null : BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,151 @@
+package com.group7.evr.util;
+
+import java.util.Arrays;
+
+/**
+ * Additive Holt-Winters with two seasonal cycles (Taylor's double-seasonal model), used for hourly
+ * demand with a daily (24) and a weekly (168) pattern. The model is trained by feeding observations
+ * one step at a time, so it can keep learning incrementally from new hours after the initial fit.
+ * <p>
+ * Not thread-safe.
+ */
+public class DoubleSeasonalHoltWinters {
+
+    private final int shortPeriod;
+    private final int longPeriod;
+    private final double alpha;
+    private final double beta;
+    private final double gammaShort;
+    private final double gammaLong;
+
+    private final double[] shortSeason;
+    private final double[] longSeason;
+    private double level;
+    private double trend;
+    private long step;
+    private double squaredErrorSum;
+    private long errorCount;
+
+    public DoubleSeasonalHoltWinters(int shortPeriod, int longPeriod,
+                                     double alpha, double beta, double gammaShort, double gammaLong) {
+        if (shortPeriod < 1 || longPeriod < shortPeriod) {
+            throw new IllegalArgumentException("Seasonal periods must satisfy 1 <= short <= long");
+        }
+        this.shortPeriod = shortPeriod;
+        this.longPeriod = longPeriod;
+        this.alpha = alpha;
+        this.beta = beta;
+        this.gammaShort = gammaShort;
+        this.gammaLong = gammaLong;
+        this.shortSeason = new double[shortPeriod];
+        this.longSeason = new double[longPeriod];
+    }
+
+    /**
+     * Minimum number of observations {@link #fit(double[])} needs: two full long cycles.
+     */
+    public int minimumHistory() {
+        return 2 * longPeriod;
+    }
+
+    /**
+     * Initialise level, trend and both seasonal components from the first two long cycles, then
+     * learn from every observation.
+     */
+    public void fit(double[] history) {
+        if (history.length < minimumHistory()) {
+            throw new IllegalArgumentException("Need at least " + minimumHistory() + " observations");
+        }
+        double firstMean = mean(history, 0, longPeriod);
+        double secondMean = mean(history, longPeriod, longPeriod);
+        level = firstMean;
+        trend = (secondMean - firstMean) / longPeriod;
+        Arrays.fill(shortSeason, 0);
+
+        // Short season: average deviation of each position within the short cycle over the first long cycle
+        int[] samples = new int[shortPeriod];
+        for (int i = 0; i < longPeriod; i++) {
+            shortSeason[i % shortPeriod] += history[i] - firstMean;
+            samples[i % shortPeriod]++;
+        }
+        for (int i = 0; i < shortPeriod; i++) {
+            shortSeason[i] /= samples[i];
+        }
+        // Long season: whatever the short season does not explain
+        for (int i = 0; i < longPeriod; i++) {
+            longSeason[i] = history[i] - firstMean - shortSeason[i % shortPeriod];
+        }
+
+        step = 0;
+        squaredErrorSum = 0;
+        errorCount = 0;
+        for (double observation : history) {
+            update(observation);
+        }
+    }
+
+    /**
+     * Learn from the next observation.
+     */
+    public void update(double observation) {
+        int shortIndex = (int) (step % shortPeriod);
+        int longIndex = (int) (step % longPeriod);
+        double shortComponent = shortSeason[shortIndex];
+        double longComponent = longSeason[longIndex];
+
+        double error = observation - (level + trend + shortComponent + longComponent);
+        squaredErrorSum += error * error;
+        errorCount++;
+
+        double previousLevel = level;
+        level = alpha * (observation - shortComponent - longComponent) + (1 - alpha) * (level + trend);
+        trend = beta * (level - previousLevel) + (1 - beta) * trend;
+        shortSeason[shortIndex] = gammaShort * (observation - level - longComponent) + (1 - gammaShort) * shortComponent;
+        longSeason[longIndex] = gammaLong * (observation - level - shortComponent) + (1 - gammaLong) * longComponent;
+        step++;
+    }
+
+    /**
+     * Forecast the next {@code horizon} steps. Negative values are clipped to zero since the series are counts.
+     */
+    public double[] forecast(int horizon) {
+        double[] result = new double[horizon];
+        for (int h = 1; h <= horizon; h++) {
+            long target = step + h - 1;
+            double value = level + h * trend
+                    + shortSeason[(int) (target % shortPeriod)]
+                    + longSeason[(int) (target % longPeriod)];
+            result[h - 1] = Math.max(0, value);
+        }
+        return result;
+    }
+
+    /**
+     * Root mean squared one-step-ahead error over everything seen so far.
+     */
+    public double oneStepRmse() {
+        return errorCount == 0 ? 0 : Math.sqrt(squaredErrorSum / errorCount);
+    }
+
+    public double getAlpha() {
+        return alpha;
+    }
+
+    public double getGammaShort() {
+        return gammaShort;
+    }
+
+    public double getGammaLong() {
+        return gammaLong;
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private static double mean(double[] values, int from, int length) {
+        double sum = 0;
+        for (int i = from; i < from + length; i++) {
+            sum += values[i];
+        }
+        return sum / length;
+    }
+}
@@ -0,0 +1,21 @@
+package com.group7.evr.util;
+
+import java.util.Locale;
+
+/**
+ * Canonical form of a plate number for duplicate checks: spaces, dashes and dots removed, upper case,
+ * so "51a-123.45" and "51A 12345" are the same plate. Must stay in sync with the computed
+ * {@code Vehicle.plateNumberNormalized} column.
+ */
+public final class PlateNumbers {
+
+    private PlateNumbers() {
+    }
+
+    public static String normalize(String plateNumber) {
+        if (plateNumber == null) {
+            return null;
+        }
+        return plateNumber.replace(" ", "").replace("-", "").replace(".", "").toUpperCase(Locale.ROOT);
+    }
+}
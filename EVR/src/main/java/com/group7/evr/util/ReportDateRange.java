@@ -0,0 +1,27 @@
+package com.group7.evr.util;
+
+import java.sql.Date;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Booking-day range for a [from, to] report window. Bookings are stored with day resolution, so a
+ * window starting mid-day begins on the next whole day, and the end day is included.
+ */
+public record ReportDateRange(Date fromDate, Date toDate) {
+
+    public static ReportDateRange of(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) {
+            throw new RuntimeException("From date and to date are required");
+        }
+        if (from.isAfter(to)) {
+            throw new RuntimeException("From date must be before or equal to to date");
+        }
+        if (from.isAfter(LocalDateTime.now())) {
+            throw new RuntimeException("From date cannot be in the future");
+        }
+        Date fromDate = Date.valueOf(from.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? from.toLocalDate() : from.toLocalDate().plusDays(1));
+        return new ReportDateRange(fromDate, Date.valueOf(to.toLocalDate()));
+    }
+}
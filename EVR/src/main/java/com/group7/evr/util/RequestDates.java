@@ -0,0 +1,25 @@
+package com.group7.evr.util;
+
+import com.group7.evr.exception.InvalidDateException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Date-time request parameters. Accepts yyyy-MM-dd (start of that day), yyyy-MM-ddTHH:mm and full ISO
+ * date-times; anything else is an {@link InvalidDateException}, so the caller gets a 400 instead of a 500.
+ */
+public final class RequestDates {
+
+    private RequestDates() {
+    }
+
+    public static LocalDateTime parse(String value) {
+        try {
+            return value.length() == 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidDateException("Invalid date: " + value);
+        }
+    }
+}
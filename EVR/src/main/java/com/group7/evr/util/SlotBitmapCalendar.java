@@ -0,0 +1,118 @@
+package com.group7.evr.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fixed-size occupancy bitmaps over a rolling horizon, one per vehicle. Each bit is a time slot
+ * (15 minutes by default); a set bit means some active reservation touches that slot.
+ * <p>
+ * Bitmaps are replaced wholesale on rebuild, so readers never need a lock. The horizon is fixed
+ * per instance; rolling it forward means building a fresh calendar and swapping it in. Slot
+ * rounding is conservative: a window that shares a partial slot with a reservation is busy.
+ */
+public class SlotBitmapCalendar {
+
+    private final long slotMillis;
+    private final int slotCount;
+    private final int wordCount;
+    private final Map<Integer, long[]> bitmaps = new ConcurrentHashMap<>();
+    private final long originSlot;
+
+    public SlotBitmapCalendar(long slotMillis, int slotCount, long originMillis) {
+        this.slotMillis = slotMillis;
+        this.slotCount = slotCount;
+        this.wordCount = (slotCount + 63) >>> 6;
+        this.originSlot = Math.floorDiv(originMillis, slotMillis);
+    }
+
+    public boolean covers(long start, long end) {
+        int first = firstSlot(start);
+        int last = lastSlot(end);
+        return first >= 0 && last < slotCount && first <= last;
+    }
+
+    public void rebuild(Integer vehicleId, VehicleIntervalTree tree) {
+        if (tree.isEmpty()) {
+            bitmaps.remove(vehicleId);
+            return;
+        }
+        long[] bits = new long[wordCount];
+        tree.forEach((id, start, end) -> {
+            int first = Math.max(0, firstSlot(start));
+            int last = Math.min(slotCount - 1, lastSlot(end));
+            if (first <= last) {
+                setRange(bits, first, last);
+            }
+        });
+        bitmaps.put(vehicleId, bits);
+    }
+
+    /**
+     * Return the vehicles whose slots in {@code [start, end)} are all free. The window must be
+     * inside the horizon (see {@link #covers(long, long)}).
+     */
+    public List<Integer> filterFree(Collection<Integer> vehicleIds, long start, long end) {
+        int first = firstSlot(start);
+        int last = lastSlot(end);
+        int firstWord = first >>> 6;
+        int lastWord = last >>> 6;
+        long[] mask = new long[lastWord - firstWord + 1];
+        for (int word = firstWord; word <= lastWord; word++) {
+            int from = word == firstWord ? first & 63 : 0;
+            int to = word == lastWord ? last & 63 : 63;
+            mask[word - firstWord] = rangeMask(from, to);
+        }
+
+        List<Integer> free = new ArrayList<>(vehicleIds.size());
+        for (Integer vehicleId : vehicleIds) {
+            long[] bits = bitmaps.get(vehicleId);
+            if (bits == null || isClear(bits, mask, firstWord)) {
+                free.add(vehicleId);
+            }
+        }
+        return free;
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private int firstSlot(long start) {
+        return clamp(Math.floorDiv(start, slotMillis) - originSlot);
+    }
+
+    private int lastSlot(long end) {
+        // End is exclusive: a reservation ending exactly on a slot boundary does not touch the next slot
+        return clamp(-Math.floorDiv(-end, slotMillis) - 1 - originSlot);
+    }
+
+    private static int clamp(long slot) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(Integer.MIN_VALUE, slot));
+    }
+
+    private static boolean isClear(long[] bits, long[] mask, int firstWord) {
+        for (int i = 0; i < mask.length; i++) {
+            if ((bits[firstWord + i] & mask[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void setRange(long[] bits, int first, int last) {
+        int firstWord = first >>> 6;
+        int lastWord = last >>> 6;
+        for (int word = firstWord; word <= lastWord; word++) {
+            int from = word == firstWord ? first & 63 : 0;
+            int to = word == lastWord ? last & 63 : 63;
+            bits[word] |= rangeMask(from, to);
+        }
+    }
+
+    private static long rangeMask(int fromBit, int toBit) {
+        long upper = toBit == 63 ? -1L : (1L << (toBit + 1)) - 1;
+        return upper & (-1L << fromBit);
+    }
+}
@@ -0,0 +1,138 @@
+package com.group7.evr.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Binary format of a telemetry series file: a 5-byte header ("EVTS" + version) followed by samples.
+ * Each sample is three zigzag varints holding the difference to the previous sample: epoch seconds,
+ * battery level in hundredths of a percent and mileage in hundredths of a km. The first sample is
+ * relative to zero. At a steady 5-second cadence most samples take about 3 bytes.
+ * <p>
+ * {@link #UNKNOWN} (-1) marks a value the vehicle has never reported. A torn write leaves an incomplete
+ * sample at the end of the file; {@link #decode} stops before it and reports where the valid data ends.
+ */
+public final class TelemetryCodec {
+    public static final int HEADER_BYTES = 5;
+    public static final long UNKNOWN = -1;
+
+    private static final byte[] MAGIC = {'E', 'V', 'T', 'S'};
+    private static final byte VERSION = 1;
+
+    private TelemetryCodec() {
+    }
+
+    /**
+     * The previous sample; both the encoder and the decoder carry it from sample to sample.
+     */
+    public static final class State {
+        private long epochSecond;
+        private long battery;
+        private long mileage;
+
+        public State copy() {
+            State copy = new State();
+            copy.epochSecond = epochSecond;
+            copy.battery = battery;
+            copy.mileage = mileage;
+            return copy;
+        }
+
+        public long getEpochSecond() {
+            return epochSecond;
+        }
+
+        public long getBattery() {
+            return battery;
+        }
+
+        public long getMileage() {
+            return mileage;
+        }
+    }
+
+    @FunctionalInterface
+    public interface SampleVisitor {
+        void accept(long epochSecond, long battery, long mileage);
+    }
+
+    public static void writeHeader(ByteArrayOutputStream out) {
+        out.write(MAGIC, 0, MAGIC.length);
+        out.write(VERSION);
+    }
+
+    public static boolean hasValidHeader(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_BYTES) {
+            return false;
+        }
+        for (byte b : MAGIC) {
+            if (buffer.get() != b) {
+                return false;
+            }
+        }
+        return buffer.get() == VERSION;
+    }
+
+    public static void encode(State state, long epochSecond, long battery, long mileage, ByteArrayOutputStream out) {
+        writeVarLong(out, zigzag(epochSecond - state.epochSecond));
+        writeVarLong(out, zigzag(battery - state.battery));
+        writeVarLong(out, zigzag(mileage - state.mileage));
+        state.epochSecond = epochSecond;
+        state.battery = battery;
+        state.mileage = mileage;
+    }
+
+    /**
+     * Decode every complete sample from the buffer's position to its limit, advancing {@code state}.
+     * Returns the buffer position just after the last complete sample.
+     */
+    public static int decode(ByteBuffer buffer, State state, SampleVisitor visitor) {
+        int validEnd = buffer.position();
+        try {
+            while (buffer.hasRemaining()) {
+                long epochSecond = state.epochSecond + unzigzag(readVarLong(buffer));
+                long battery = state.battery + unzigzag(readVarLong(buffer));
+                long mileage = state.mileage + unzigzag(readVarLong(buffer));
+                state.epochSecond = epochSecond;
+                state.battery = battery;
+                state.mileage = mileage;
+                validEnd = buffer.position();
+                visitor.accept(epochSecond, battery, mileage);
+            }
+        } catch (BufferUnderflowException | IllegalStateException e) {
+            // Torn or corrupt tail: everything before validEnd is intact
+        }
+        return validEnd;
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+}
@@ -0,0 +1,143 @@
+package com.group7.evr.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Single-pass sweep over booking intervals that accumulates booked vehicle time inside a report window.
+ * Intervals must arrive sorted by (vehicle, start); overlapping or touching intervals of the same vehicle
+ * are merged first so a vehicle is never counted twice for the same moment. Per-bucket occupancy is
+ * collected in a difference array, so each merged interval costs O(1) regardless of its length.
+ */
+public class UtilizationSweep {
+
+    private final long windowStart;
+    private final long windowEnd;
+    private final long bucketMillis;
+    private final long[] bucketDiff;
+
+    private long bookedMillis;
+    private final Map<Integer, Long> bookedByStation = new HashMap<>();
+    private final Map<Integer, Long> bookedByModel = new HashMap<>();
+
+    private Integer currentVehicle;
+    private Integer currentStation;
+    private Integer currentModel;
+    private long currentStart;
+    private long currentEnd;
+    // Last bucket the current vehicle was already counted in, so two bookings in one hour count it once
+    private int lastCountedBucket = -1;
+
+    public UtilizationSweep(long windowStart, long windowEnd, long bucketMillis) {
+        if (windowEnd <= windowStart) {
+            throw new IllegalArgumentException("Window end must be after window start");
+        }
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.bucketMillis = bucketMillis;
+        this.bucketDiff = new long[bucketCount() + 1];
+    }
+
+    public int bucketCount() {
+        return (int) ((windowEnd - windowStart + bucketMillis - 1) / bucketMillis);
+    }
+
+    public void accept(int vehicleId, Integer stationId, Integer modelId, long start, long end) {
+        if (end <= start) {
+            return;
+        }
+        if (currentVehicle != null && currentVehicle == vehicleId && start <= currentEnd) {
+            currentEnd = Math.max(currentEnd, end);
+            return;
+        }
+        flush();
+        if (currentVehicle == null || currentVehicle != vehicleId) {
+            lastCountedBucket = -1;
+        }
+        currentVehicle = vehicleId;
+        currentStation = stationId;
+        currentModel = modelId;
+        currentStart = start;
+        currentEnd = end;
+    }
+
+    /**
+     * Flush the last pending interval. Call once after the final {@link #accept}.
+     */
+    public void finish() {
+        flush();
+        currentVehicle = null;
+    }
+
+    /**
+     * Add a finished sweep over the same window. Only exact when the two sweeps saw disjoint sets of
+     * vehicles, e.g. one sweep per vehicle id range.
+     */
+    public void merge(UtilizationSweep other) {
+        if (other.windowStart != windowStart || other.windowEnd != windowEnd || other.bucketMillis != bucketMillis) {
+            throw new IllegalArgumentException("Cannot merge sweeps over different windows");
+        }
+        if (other.currentVehicle != null) {
+            throw new IllegalStateException("Finish the sweep before merging it");
+        }
+        bookedMillis += other.bookedMillis;
+        other.bookedByStation.forEach((id, millis) -> bookedByStation.merge(id, millis, Long::sum));
+        other.bookedByModel.forEach((id, millis) -> bookedByModel.merge(id, millis, Long::sum));
+        for (int i = 0; i < bucketDiff.length; i++) {
+            bucketDiff[i] += other.bucketDiff[i];
+        }
+    }
+
+    public long getBookedMillis() {
+        return bookedMillis;
+    }
+
+    public Map<Integer, Long> getBookedByStation() {
+        return bookedByStation;
+    }
+
+    public Map<Integer, Long> getBookedByModel() {
+        return bookedByModel;
+    }
+
+    /**
+     * Number of distinct vehicles booked at some point in each bucket.
+     */
+    public long[] bookedVehiclesPerBucket() {
+        long[] counts = new long[bucketCount()];
+        long running = 0;
+        for (int i = 0; i < counts.length; i++) {
+            running += bucketDiff[i];
+            counts[i] = running;
+        }
+        return counts;
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private void flush() {
+        if (currentVehicle == null) {
+            return;
+        }
+        long start = Math.max(currentStart, windowStart);
+        long end = Math.min(currentEnd, windowEnd);
+        if (end <= start) {
+            return;
+        }
+        long length = end - start;
+        bookedMillis += length;
+        if (currentStation != null) {
+            bookedByStation.merge(currentStation, length, Long::sum);
+        }
+        if (currentModel != null) {
+            bookedByModel.merge(currentModel, length, Long::sum);
+        }
+        int firstBucket = Math.max((int) ((start - windowStart) / bucketMillis), lastCountedBucket + 1);
+        int lastBucket = (int) ((end - 1 - windowStart) / bucketMillis);
+        if (firstBucket <= lastBucket) {
+            bucketDiff[firstBucket]++;
+            bucketDiff[lastBucket + 1]--;
+            lastCountedBucket = lastBucket;
+        }
+    }
+}
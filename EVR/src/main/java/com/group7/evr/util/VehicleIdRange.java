@@ -0,0 +1,32 @@
+package com.group7.evr.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inclusive range of vehicle ids, one part of a report that is split by vehicle. Ranges are equal in width,
+ * not in bookings; ids are identity values, so each range holds about the same number of vehicles.
+ */
+public record VehicleIdRange(int fromId, int toId) {
+
+    /**
+     * Split [minId, maxId] into at most {@code parts} contiguous, non-overlapping ranges that cover it
+     * exactly. Never more ranges than ids.
+     */
+    public static List<VehicleIdRange> split(int minId, int maxId, int parts) {
+        if (maxId < minId) {
+            throw new IllegalArgumentException("Max id must not be below min id");
+        }
+        long span = (long) maxId - minId + 1;
+        int count = (int) Math.max(1, Math.min(parts, span));
+        List<VehicleIdRange> ranges = new ArrayList<>(count);
+        long from = minId;
+        for (int i = 0; i < count; i++) {
+            // The first span % count ranges take one id more, so widths differ by at most one
+            long to = from + span / count - 1 + (i < span % count ? 1 : 0);
+            ranges.add(new VehicleIdRange((int) from, (int) to));
+            from = to + 1;
+        }
+        return ranges;
+    }
+}
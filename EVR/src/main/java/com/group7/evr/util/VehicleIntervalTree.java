@@ -0,0 +1,205 @@
+package com.group7.evr.util;
+
+/**
+ * Augmented AVL tree of half-open {@code [start, end)} intervals ordered by (start, id).
+ * Every node also keeps the largest end of its subtree, so overlap probes can skip
+ * whole branches and run in O(log n) instead of scanning every interval.
+ * <p>
+ * Not thread-safe; callers are expected to guard each tree themselves.
+ */
+public class VehicleIntervalTree {
+
+    private Node root;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Visible for tests: lets them check the tree stays balanced
+    int height() {
+        return height(root);
+    }
+
+    public void insert(int id, long start, long end) {
+        root = insert(root, new Node(id, start, end));
+    }
+
+    public boolean remove(int id, long start) {
+        int before = size;
+        root = remove(root, start, id);
+        return size < before;
+    }
+
+    public boolean overlaps(long start, long end) {
+        return overlaps(root, start, end, null);
+    }
+
+    public boolean overlaps(long start, long end, Integer excludeId) {
+        return overlaps(root, start, end, excludeId);
+    }
+
+    /**
+     * Visit every interval in (start, id) order.
+     */
+    public void forEach(IntervalVisitor visitor) {
+        forEach(root, visitor);
+    }
+
+    @FunctionalInterface
+    public interface IntervalVisitor {
+        void visit(int id, long start, long end);
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private static void forEach(Node node, IntervalVisitor visitor) {
+        if (node == null) {
+            return;
+        }
+        forEach(node.left, visitor);
+        visitor.visit(node.id, node.start, node.end);
+        forEach(node.right, visitor);
+    }
+
+    private Node insert(Node node, Node fresh) {
+        if (node == null) {
+            size++;
+            return fresh;
+        }
+        int cmp = compare(fresh.start, fresh.id, node);
+        if (cmp < 0) {
+            node.left = insert(node.left, fresh);
+        } else if (cmp > 0) {
+            node.right = insert(node.right, fresh);
+        } else {
+            return node;
+        }
+        return rebalance(node);
+    }
+
+    private Node remove(Node node, long start, int id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+        return rebalance(node);
+    }
+
+    private Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+
+    private static boolean overlaps(Node node, long start, long end, Integer excludeId) {
+        if (node == null || node.maxEnd <= start) {
+            return false;
+        }
+        if (node.start < end && node.end > start && (excludeId == null || node.id != excludeId)) {
+            return true;
+        }
+        if (overlaps(node.left, start, end, excludeId)) {
+            return true;
+        }
+        // Everything on the right starts at or after this node, so it cannot overlap once we pass the window end
+        return node.start < end && overlaps(node.right, start, end, excludeId);
+    }
+
+    private static int compare(long start, int id, Node node) {
+        int cmp = Long.compare(start, node.start);
+        return cmp != 0 ? cmp : Integer.compare(id, node.id);
+    }
+
+    private static Node rebalance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.maxEnd = Math.max(node.end, Math.max(maxEnd(node.left), maxEnd(node.right)));
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static long maxEnd(Node node) {
+        return node == null ? Long.MIN_VALUE : node.maxEnd;
+    }
+
+    private static final class Node {
+        private final int id;
+        private final long start;
+        private final long end;
+        private long maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        private Node(int id, long start, long end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+}
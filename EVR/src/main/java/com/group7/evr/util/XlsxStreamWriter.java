@@ -0,0 +1,206 @@
+package com.group7.evr.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Minimal streaming writer for .xlsx workbooks. Rows are written straight into the zipped sheet XML as
+ * they arrive, so memory stays constant regardless of the row count. When a sheet reaches Excel's row
+ * limit the writer continues on a new sheet, repeating the header row. Strings are written inline (no
+ * shared-string table) and there are no styles; numbers are written as numeric cells.
+ * <p>
+ * Not thread-safe. Call {@link #close()} to finish the workbook; it does not close the target stream.
+ */
+public class XlsxStreamWriter implements AutoCloseable {
+    // Excel's hard row limit per sheet
+    public static final int MAX_ROWS_PER_SHEET = 1_048_576;
+    private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+    private final ZipOutputStream zip;
+    private final Writer out;
+    private final String sheetName;
+    private final String[] header;
+    private final int maxRowsPerSheet;
+    private int sheetCount;
+    private int rowCount;
+    private boolean rowOpen;
+    private int columnIndex;
+
+    public XlsxStreamWriter(OutputStream target, String sheetName, String... header) throws IOException {
+        this(target, sheetName, MAX_ROWS_PER_SHEET, header);
+    }
+
+    XlsxStreamWriter(OutputStream target, String sheetName, int maxRowsPerSheet, String... header) throws IOException {
+        this.zip = new ZipOutputStream(new NonClosingOutputStream(target), StandardCharsets.UTF_8);
+        this.out = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+        this.sheetName = sheetName;
+        this.header = header;
+        this.maxRowsPerSheet = maxRowsPerSheet;
+        startSheet();
+    }
+
+    public void startRow() throws IOException {
+        endRow();
+        if (rowCount >= maxRowsPerSheet) {
+            endSheet();
+            startSheet();
+        }
+        openRow();
+    }
+
+    public void writeString(String value) throws IOException {
+        columnIndex++;
+        if (value == null) {
+            return;
+        }
+        out.write("<c r=\"" + cellReference() + "\" t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+        out.write(escape(value));
+        out.write("</t></is></c>");
+    }
+
+    public void writeNumber(Number value) throws IOException {
+        columnIndex++;
+        if (value == null) {
+            return;
+        }
+        out.write("<c r=\"" + cellReference() + "\"><v>" + value + "</v></c>");
+    }
+
+    @Override
+    public void close() throws IOException {
+        endRow();
+        endSheet();
+        writePackageParts();
+        zip.finish();
+        zip.close();
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private void startSheet() throws IOException {
+        sheetCount++;
+        rowCount = 0;
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheetCount + ".xml"));
+        out.write(XML_DECLARATION
+                + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+        if (header.length > 0) {
+            openRow();
+            for (String column : header) {
+                writeString(column);
+            }
+            endRow();
+        }
+    }
+
+    private void endSheet() throws IOException {
+        out.write("</sheetData></worksheet>");
+        out.flush();
+        zip.closeEntry();
+    }
+
+    private void openRow() throws IOException {
+        rowCount++;
+        columnIndex = 0;
+        rowOpen = true;
+        out.write("<row r=\"" + rowCount + "\">");
+    }
+
+    private void endRow() throws IOException {
+        if (rowOpen) {
+            out.write("</row>");
+            rowOpen = false;
+        }
+    }
+
+    // Workbook, relationships and content types list every sheet, so they are written once the count is known
+    private void writePackageParts() throws IOException {
+        StringBuilder overrides = new StringBuilder();
+        StringBuilder sheets = new StringBuilder();
+        StringBuilder relationships = new StringBuilder();
+        for (int i = 1; i <= sheetCount; i++) {
+            overrides.append("<Override PartName=\"/xl/worksheets/sheet").append(i).append(".xml\" ContentType=\"")
+                    .append("application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+            String name = sheetCount == 1 ? sheetName : sheetName + " " + i;
+            sheets.append("<sheet name=\"").append(escape(name)).append("\" sheetId=\"").append(i)
+                    .append("\" r:id=\"rId").append(i).append("\"/>");
+            relationships.append("<Relationship Id=\"rId").append(i).append("\" Type=\"")
+                    .append("http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" ")
+                    .append("Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+        }
+        writeEntry("[Content_Types].xml", XML_DECLARATION
+                + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+                + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+                + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+                + "<Override PartName=\"/xl/workbook.xml\" "
+                + "ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+                + overrides + "</Types>");
+        writeEntry("_rels/.rels", XML_DECLARATION
+                + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                + "<Relationship Id=\"rId1\" "
+                + "Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" "
+                + "Target=\"xl/workbook.xml\"/></Relationships>");
+        writeEntry("xl/workbook.xml", XML_DECLARATION
+                + "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" "
+                + "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">"
+                + "<sheets>" + sheets + "</sheets></workbook>");
+        writeEntry("xl/_rels/workbook.xml.rels", XML_DECLARATION
+                + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                + relationships + "</Relationships>");
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private String cellReference() {
+        StringBuilder column = new StringBuilder();
+        for (int n = columnIndex; n > 0; n = (n - 1) / 26) {
+            column.insert(0, (char) ('A' + (n - 1) % 26));
+        }
+        return column.append(rowCount).toString();
+    }
+
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> escaped.append("&amp;");
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '"' -> escaped.append("&quot;");
+                default -> {
+                    // Control characters other than tab/newline are not allowed in XML 1.0
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+
+    // Lets the zip stream be closed (flushing its trailer) without closing the response stream
+    private static final class NonClosingOutputStream extends java.io.FilterOutputStream {
+        private NonClosingOutputStream(OutputStream target) {
+            super(target);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.group7.evr.benchmark;
+
+import com.group7.evr.EvrApplication;
+import com.group7.evr.dto.StationRevenueRow;
+import com.group7.evr.entity.Booking;
+import com.group7.evr.enums.BookingStatus;
+import com.group7.evr.repository.BookingRepository;
+import com.group7.evr.service.AdminService;
+import com.group7.evr.service.impl.DailyRevenueRollup;
+import com.group7.evr.service.impl.ReportCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.MSSQLServerContainer;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The admin revenue report over 1M bookings at 200 stations in SQL Server (Testcontainers, so Docker is
+ * needed). Compares the report served from the DailyStationRevenue rollup, the grouped query over raw
+ * bookings that backs it when the rollup is off, and the entity scan the report used before it was
+ * rewritten. The report cache is cleared before every call. Run with {@code mvn test-compile exec:java
+ * -Dexec.classpathScope=test -Dexec.mainClass=com.group7.evr.benchmark.RevenueReportBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class RevenueReportBenchmark {
+    private static final int BOOKINGS = 1_000_000;
+    private static final int STATIONS = 200;
+    private static final int HISTORY_DAYS = 730;
+
+    @Param({"30", "365"})
+    private int days;
+
+    private MSSQLServerContainer<?> sqlServer;
+    private ConfigurableApplicationContext context;
+    private AdminService adminService;
+    private ReportCache reportCache;
+    private BookingRepository bookingRepository;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    @Setup
+    public void setUp() {
+        sqlServer = new MSSQLServerContainer<>("mcr.microsoft.com/mssql/server:2022-latest").acceptLicense();
+        sqlServer.start();
+        context = new SpringApplicationBuilder(EvrApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + sqlServer.getJdbcUrl(),
+                        "--spring.datasource.username=" + sqlServer.getUsername(),
+                        "--spring.datasource.password=" + sqlServer.getPassword(),
+                        "--spring.jpa.show-sql=false",
+                        "--app.mail.outbox.poll-interval-ms=3600000");
+
+        // Set-based inserts: generating a million rows through JPA would take longer than the benchmark
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("WITH n AS (SELECT TOP (" + STATIONS + ") ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) AS i " +
+                "FROM sys.all_objects) " +
+                "INSERT INTO Station (name, totalSlots, AvailableSlots, Version) " +
+                "SELECT CONCAT('Station ', i), 20, 20, 0 FROM n");
+        // 80% COMPLETED, the rest CANCELLED or CONFIRMED, spread evenly over two years and all stations
+        jdbc.update("WITH n AS (SELECT TOP (" + BOOKINGS + ") ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) - 1 AS i " +
+                "FROM sys.all_objects a CROSS JOIN sys.all_objects b CROSS JOIN sys.all_objects c) " +
+                "INSERT INTO Booking " +
+                "(StationID, startTime, endTime, totalPrice, extraFees, createdAt, BookingStatus, Version) " +
+                "SELECT (SELECT MIN(StationID) FROM Station) + i % " + STATIONS + ", " +
+                "DATEADD(day, -(i % " + HISTORY_DAYS + "), CAST(GETDATE() AS date)), " +
+                "DATEADD(day, 1 - (i % " + HISTORY_DAYS + "), CAST(GETDATE() AS date)), " +
+                "200000 + (i % 50) * 10000, (i % 7) * 5000, SYSDATETIME(), " +
+                "CASE WHEN i % 10 < 8 THEN 'COMPLETED' WHEN i % 10 = 8 THEN 'CANCELLED' ELSE 'CONFIRMED' END, 0 " +
+                "FROM n");
+        context.getBean(DailyRevenueRollup.class).rebuild();
+
+        adminService = context.getBean(AdminService.class);
+        reportCache = context.getBean(ReportCache.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        to = LocalDate.now().atStartOfDay();
+        from = to.minusDays(days);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        sqlServer.stop();
+    }
+
+    @Benchmark
+    public Map<String, Object> reportFromRollup() {
+        reportCache.invalidateType("revenue");
+        return adminService.getRevenueReport(null, from, to);
+    }
+
+    @Benchmark
+    public List<StationRevenueRow> groupedQueryOverBookings() {
+        return bookingRepository.sumRevenueByStation(BookingStatus.COMPLETED,
+                Date.valueOf(from.toLocalDate()), Date.valueOf(to.toLocalDate()), null);
+    }
+
+    /**
+     * The report before it was rewritten: every COMPLETED booking loaded as an entity, then filtered by date
+     * and summed in Java. The per-station pass it also made is left out, so this understates the old cost.
+     */
+    @Benchmark
+    public BigDecimal entityScanBaseline() {
+        Date fromDate = Date.valueOf(from.toLocalDate());
+        Date toDate = Date.valueOf(to.toLocalDate());
+        BigDecimal total = BigDecimal.ZERO;
+        for (Booking booking : bookingRepository.findByBookingStatus(BookingStatus.COMPLETED)) {
+            if (booking.getStartTime() != null && !booking.getStartTime().before(fromDate)
+                    && !booking.getStartTime().after(toDate) && booking.getTotalPrice() != null) {
+                total = total.add(booking.getTotalPrice());
+            }
+        }
+        return total;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RevenueReportBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,145 @@
+package com.group7.evr.benchmark;
+
+import com.group7.evr.EvrApplication;
+import com.group7.evr.entity.RiskFlag;
+import com.group7.evr.entity.User;
+import com.group7.evr.enums.UserRole;
+import com.group7.evr.repository.RiskFlagRepository;
+import com.group7.evr.repository.UserRepository;
+import com.group7.evr.service.AdminService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.MSSQLServerContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The admin risk-customer list over 500k customers in SQL Server (Testcontainers, so Docker is needed).
+ * One customer in ten has between one and four flags, roughly a third of them resolved. Compares the
+ * grouped, paged query on the first page and on a deep page with the per-customer lookup the list used
+ * before (role check fixed, so it returns the same customers). The baseline issues one query per customer
+ * and is timed as a single shot. Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.group7.evr.benchmark.RiskCustomerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class RiskCustomerBenchmark {
+    private static final int CUSTOMERS = 500_000;
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"0", "8"})
+    private int minScore;
+
+    private MSSQLServerContainer<?> sqlServer;
+    private ConfigurableApplicationContext context;
+    private AdminService adminService;
+    private UserRepository userRepository;
+    private RiskFlagRepository riskFlagRepository;
+    private int deepPage;
+
+    @Setup
+    public void setUp() {
+        sqlServer = new MSSQLServerContainer<>("mcr.microsoft.com/mssql/server:2022-latest").acceptLicense();
+        sqlServer.start();
+        context = new SpringApplicationBuilder(EvrApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + sqlServer.getJdbcUrl(),
+                        "--spring.datasource.username=" + sqlServer.getUsername(),
+                        "--spring.datasource.password=" + sqlServer.getPassword(),
+                        "--spring.jpa.show-sql=false",
+                        "--app.mail.outbox.poll-interval-ms=3600000");
+
+        // Set-based inserts: half a million users through JPA would take longer than the benchmark
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("WITH n AS (SELECT TOP (" + CUSTOMERS + ") ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) AS i " +
+                "FROM sys.all_objects a CROSS JOIN sys.all_objects b CROSS JOIN sys.all_objects c) " +
+                "INSERT INTO Users (Name, Email, Phone, CreatedAt, Role, Status, EmailVerified) " +
+                "SELECT CONCAT('Customer ', i), CONCAT('customer', i, '@bench.test'), CONCAT('09', i), " +
+                "SYSDATETIME(), 'CUSTOMER', 'ACTIVE', 1 FROM n");
+        // Every tenth customer gets 1-4 flags; every third flag is resolved
+        jdbc.update("WITH flagged AS (SELECT UserID, ROW_NUMBER() OVER (ORDER BY UserID) AS i FROM Users " +
+                "WHERE Role = 'CUSTOMER' AND UserID % 10 = 0), " +
+                "k AS (SELECT k FROM (VALUES (0), (1), (2), (3)) v(k)) " +
+                "INSERT INTO RiskFlag (UserID, reason, riskScore, status, flaggedAt) " +
+                "SELECT f.UserID, CONCAT('Reason ', f.i, '-', k.k), 1 + (f.i * 7 + k.k * 3) % 10, " +
+                "CASE WHEN (f.i + k.k) % 3 = 0 THEN 'Resolved' ELSE 'Active' END, " +
+                "DATEADD(minute, -(f.i % 100000) - k.k, SYSDATETIME()) " +
+                "FROM flagged f JOIN k ON k.k <= f.i % 4");
+        jdbc.execute("UPDATE STATISTICS Users");
+        jdbc.execute("UPDATE STATISTICS RiskFlag");
+
+        adminService = context.getBean(AdminService.class);
+        userRepository = context.getBean(UserRepository.class);
+        riskFlagRepository = context.getBean(RiskFlagRepository.class);
+        int totalPages = (Integer) adminService.getCustomersWithRiskFlags(minScore, 0, PAGE_SIZE).get("totalPages");
+        deepPage = Math.max(0, totalPages * 9 / 10);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        sqlServer.stop();
+    }
+
+    @Benchmark
+    public Map<String, Object> groupedFirstPage() {
+        return adminService.getCustomersWithRiskFlags(minScore, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Map<String, Object> groupedDeepPage() {
+        return adminService.getCustomersWithRiskFlags(minScore, deepPage, PAGE_SIZE);
+    }
+
+    /**
+     * The list before it was rewritten: every user loaded, then each customer's flags looked up one query
+     * at a time and filtered in Java. Unpaged, so this is the cost of any page.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public List<User> perCustomerBaseline() {
+        List<User> flagged = new ArrayList<>();
+        for (User user : userRepository.findAll()) {
+            if (user.getRole() != UserRole.CUSTOMER) {
+                continue;
+            }
+            for (RiskFlag flag : riskFlagRepository.findByUserUserId(user.getUserId())) {
+                if ("Active".equals(flag.getStatus()) && flag.getRiskScore() >= minScore) {
+                    flagged.add(user);
+                    break;
+                }
+            }
+        }
+        return flagged;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RiskCustomerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,117 @@
+package com.group7.evr.benchmark;
+
+import com.group7.evr.dto.TelemetryReading;
+import com.group7.evr.service.impl.TelemetrySeriesStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Chart queries over a year of 5-second telemetry for one vehicle, read back from the series files.
+ * Setup prints the on-disk bytes per sample. Run with {@code mvn test-compile exec:java
+ * -Dexec.classpathScope=test -Dexec.mainClass=com.group7.evr.benchmark.TelemetrySeriesBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgs = {"-Xmx1g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TelemetrySeriesBenchmark {
+    private static final int VEHICLE = 1;
+    private static final int CADENCE_SECONDS = 5;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime END = START.plusYears(1);
+
+    private Path directory;
+    private TelemetrySeriesStore store;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("telemetry-bench");
+        TelemetrySeriesStore writer = newStore();
+        Random random = new Random(42);
+        double battery = 100;
+        double mileage = 10_000;
+        // Persist a day at a time, as the scheduled flush would in smaller steps
+        for (LocalDateTime day = START; day.isBefore(END); day = day.plusDays(1)) {
+            List<TelemetryReading> readings = new ArrayList<>();
+            for (LocalDateTime at = day; at.isBefore(day.plusDays(1)); at = at.plusSeconds(CADENCE_SECONDS)) {
+                if (battery < 20) {
+                    battery = 100;
+                }
+                battery -= random.nextInt(3) * 0.01;
+                mileage += random.nextInt(20) * 0.01;
+                readings.add(new TelemetryReading(VEHICLE, battery, mileage, at));
+            }
+            writer.append(readings);
+            writer.persist();
+        }
+        Map<String, Object> stats = writer.getStats();
+        System.out.printf("%n%s samples, %.2f bytes per sample%n", stats.get("samplesWritten"), stats.get("bytesPerSample"));
+
+        // Query through a fresh store so every read comes from disk
+        store = newStore();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object queryDay() {
+        return store.query(VEHICLE, START.plusDays(200), START.plusDays(201), null);
+    }
+
+    @Benchmark
+    public Object queryMonth() {
+        return store.query(VEHICLE, START.plusMonths(6), START.plusMonths(7), null);
+    }
+
+    @Benchmark
+    public Object queryYear() {
+        return store.query(VEHICLE, START, END, null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TelemetrySeriesBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private TelemetrySeriesStore newStore() {
+        TelemetrySeriesStore created = new TelemetrySeriesStore(directory.toString());
+        ReflectionTestUtils.setField(created, "maxPoints", 2000);
+        ReflectionTestUtils.setField(created, "retentionMonths", 24);
+        return created;
+    }
+}
@@ -0,0 +1,148 @@
+package com.group7.evr.benchmark;
+
+import com.group7.evr.util.UtilizationSweep;
+import com.group7.evr.util.VehicleIdRange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One full utilization sweep over a year of fleet bookings, already sorted by (vehicle, start) as the
+ * report query returns them, against the same bookings split into vehicle id ranges that are swept in
+ * parallel and merged, as the report does. Only the sweep is measured; the report also overlaps the range
+ * cursors on the database. Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.group7.evr.benchmark.UtilizationSweepBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgs = {"-Xmx1g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UtilizationSweepBenchmark {
+    private static final long HOUR = 3_600_000L;
+    private static final long YEAR = 365 * 24 * HOUR;
+    private static final int VEHICLES = 2_000;
+    private static final int STATIONS = 40;
+    private static final int MODELS = 12;
+
+    @Param({"100000", "1000000"})
+    private int bookings;
+
+    private int[] vehicleIds;
+    private long[] starts;
+    private long[] ends;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        vehicleIds = new int[bookings];
+        starts = new long[bookings];
+        ends = new long[bookings];
+        // Each vehicle gets an even share of back-to-back rentals of 1-48 hours, some of them overlapping
+        int perVehicle = bookings / VEHICLES;
+        int i = 0;
+        for (int vehicle = 0; vehicle < VEHICLES && i < bookings; vehicle++) {
+            long cursor = (long) (random.nextDouble() * 24 * HOUR);
+            long spacing = YEAR / Math.max(1, perVehicle);
+            int count = vehicle == VEHICLES - 1 ? bookings - i : perVehicle;
+            for (int j = 0; j < count; j++, i++) {
+                vehicleIds[i] = vehicle;
+                starts[i] = cursor;
+                ends[i] = cursor + (1 + random.nextInt(48)) * HOUR;
+                cursor += (long) (random.nextDouble() * 2 * spacing);
+            }
+        }
+    }
+
+    @Benchmark
+    public long sweepYearHourly() {
+        UtilizationSweep sweep = sweep(0, vehicleIds.length);
+        return sweep.getBookedMillis() + sweep.bookedVehiclesPerBucket()[0];
+    }
+
+    @Benchmark
+    public long sweepYearHourlyInVehicleRanges(Ranges ranges) throws InterruptedException, ExecutionException {
+        List<Future<UtilizationSweep>> parts = new ArrayList<>();
+        for (int r = 0; r + 1 < ranges.bounds.length; r++) {
+            int from = ranges.bounds[r];
+            int to = ranges.bounds[r + 1];
+            parts.add(ranges.executor.submit(() -> sweep(from, to)));
+        }
+        UtilizationSweep sweep = new UtilizationSweep(0, YEAR, HOUR);
+        for (Future<UtilizationSweep> part : parts) {
+            sweep.merge(part.get());
+        }
+        return sweep.getBookedMillis() + sweep.bookedVehiclesPerBucket()[0];
+    }
+
+    /**
+     * The bookings split into {@code parts} vehicle id ranges, one thread each.
+     */
+    @State(Scope.Benchmark)
+    public static class Ranges {
+        @Param({"2", "4", "8"})
+        private int parts;
+
+        // Index of the first booking of each range, then the booking count
+        private int[] bounds;
+        private ExecutorService executor;
+
+        @Setup
+        public void setUp(UtilizationSweepBenchmark data) {
+            List<VehicleIdRange> ranges = VehicleIdRange.split(0, VEHICLES - 1, parts);
+            bounds = new int[ranges.size() + 1];
+            int i = 0;
+            for (int r = 0; r < ranges.size(); r++) {
+                bounds[r] = i;
+                while (i < data.vehicleIds.length && data.vehicleIds[i] <= ranges.get(r).toId()) {
+                    i++;
+                }
+            }
+            bounds[ranges.size()] = data.vehicleIds.length;
+            executor = Executors.newFixedThreadPool(ranges.size());
+        }
+
+        @TearDown
+        public void tearDown() {
+            executor.shutdownNow();
+        }
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private UtilizationSweep sweep(int from, int to) {
+        UtilizationSweep sweep = new UtilizationSweep(0, YEAR, HOUR);
+        for (int i = from; i < to; i++) {
+            int vehicle = vehicleIds[i];
+            sweep.accept(vehicle, vehicle % STATIONS, vehicle % MODELS, starts[i], ends[i]);
+        }
+        sweep.finish();
+        return sweep;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UtilizationSweepBenchmark.class.getSimpleName()).build()).run();
+    }
+}
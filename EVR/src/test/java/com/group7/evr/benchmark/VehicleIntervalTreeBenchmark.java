@@ -0,0 +1,97 @@
+package com.group7.evr.benchmark;
+
+import com.group7.evr.util.VehicleIntervalTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conflict probe on one vehicle's bookings: the interval tree against the linear scan it replaced.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.group7.evr.benchmark.VehicleIntervalTreeBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class VehicleIntervalTreeBenchmark {
+    private static final long HOUR = 3_600_000L;
+    private static final int PROBES = 1024;
+
+    @Param({"100", "1000", "10000"})
+    private int bookings;
+
+    private VehicleIntervalTree tree;
+    private long[] starts;
+    private long[] ends;
+    private long[] probeStarts;
+    private int probe;
+    private int nextId;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        tree = new VehicleIntervalTree();
+        starts = new long[bookings];
+        ends = new long[bookings];
+        // Back-to-back rentals of 2-48 hours with small gaps, like a busy vehicle's history
+        long cursor = 0;
+        for (int i = 0; i < bookings; i++) {
+            starts[i] = cursor + (1 + random.nextInt(6)) * HOUR;
+            ends[i] = starts[i] + (2 + random.nextInt(47)) * HOUR;
+            cursor = ends[i];
+            tree.insert(i, starts[i], ends[i]);
+        }
+        probeStarts = new long[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probeStarts[i] = (long) (random.nextDouble() * cursor);
+        }
+        nextId = bookings;
+    }
+
+    @Benchmark
+    public boolean treeOverlap() {
+        long start = probeStarts[probe++ & (PROBES - 1)];
+        return tree.overlaps(start, start + 4 * HOUR);
+    }
+
+    @Benchmark
+    public boolean linearScanOverlap() {
+        long start = probeStarts[probe++ & (PROBES - 1)];
+        long end = start + 4 * HOUR;
+        for (int i = 0; i < starts.length; i++) {
+            if (starts[i] < end && ends[i] > start) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean treeInsertAndRemove() {
+        long start = probeStarts[probe++ & (PROBES - 1)];
+        int id = nextId++;
+        tree.insert(id, start, start + HOUR);
+        return tree.remove(id, start);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(VehicleIntervalTreeBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,58 @@
+package com.group7.evr.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchedulingConfigTest {
+
+    @Test
+    void blockedBatchJobDoesNotStallFrequentJobs() throws Exception {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            // Worst case for the default pool: a single thread
+            context.registerBean(ThreadPoolTaskSchedulerBuilder.class,
+                    () -> new ThreadPoolTaskSchedulerBuilder().poolSize(1));
+            context.register(SchedulingConfig.class, Jobs.class);
+            context.refresh();
+            Jobs jobs = context.getBean(Jobs.class);
+            try {
+                assertTrue(jobs.rebuildStarted.await(5, TimeUnit.SECONDS), "batch job never ran");
+                int before = jobs.flushes.get();
+
+                Thread.sleep(500);
+
+                int flushed = jobs.flushes.get() - before;
+                assertTrue(flushed >= 10, "flushes while the batch job ran: " + flushed);
+                assertTrue(jobs.rebuildThread.startsWith("evr-batch-"), jobs.rebuildThread);
+            } finally {
+                jobs.release.countDown();
+            }
+        }
+    }
+
+    static class Jobs {
+        final CountDownLatch rebuildStarted = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger flushes = new AtomicInteger();
+        volatile String rebuildThread;
+
+        @Scheduled(fixedDelay = 10, scheduler = SchedulingConfig.BATCH_SCHEDULER)
+        void rebuild() throws InterruptedException {
+            rebuildThread = Thread.currentThread().getName();
+            rebuildStarted.countDown();
+            release.await();
+        }
+
+        @Scheduled(fixedDelay = 10)
+        void flush() {
+            flushes.incrementAndGet();
+        }
+    }
+}
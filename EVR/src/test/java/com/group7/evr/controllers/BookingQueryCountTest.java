@@ -0,0 +1,241 @@
+package com.group7.evr.controllers;
+
+import com.group7.evr.entity.Booking;
+import com.group7.evr.entity.Contract;
+import com.group7.evr.entity.Model;
+import com.group7.evr.entity.Station;
+import com.group7.evr.entity.User;
+import com.group7.evr.entity.Vehicle;
+import com.group7.evr.enums.BookingStatus;
+import com.group7.evr.enums.UserRole;
+import com.group7.evr.enums.UserStatus;
+import com.group7.evr.enums.VehicleStatus;
+import com.group7.evr.repository.BookingRepository;
+import com.group7.evr.repository.ContractRepository;
+import com.group7.evr.repository.StationRepository;
+import com.group7.evr.repository.UserRepository;
+import com.group7.evr.repository.VehicleRepository;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MSSQLServerContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * JDBC statements per request on the booking listing endpoints, counted with Hibernate statistics over the
+ * full MockMvc round trip (open-in-view included, so lazy loads during JSON rendering count too). Each
+ * endpoint is called for a station or customer with a handful of bookings and one with hundreds; the
+ * count must not move. Runs against a real SQL Server; skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Statistics are global; keep the outbox poller from landing inside a measured request
+        "app.mail.outbox.poll-interval-ms=3600000"})
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+class BookingQueryCountTest {
+    private static final int FEW = 15;
+    private static final int MANY = 300;
+    private static final int CUSTOMERS = 5;
+
+    @Container
+    @ServiceConnection
+    static MSSQLServerContainer<?> sqlServer =
+            new MSSQLServerContainer<>("mcr.microsoft.com/mssql/server:2022-latest").acceptLicense();
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private StationRepository stationRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private VehicleRepository vehicleRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Test
+    void staffContractListingRunsTheSameStatementsForAnyNumberOfBookings() throws Exception {
+        Fixture few = seed("contracts-few", FEW);
+        Fixture many = seed("contracts-many", MANY);
+
+        String path = "/api/staff/bookings/contracts";
+        long fewStatements = statementsFor(get(path).param("staffId", few.staffId().toString()),
+                "$.contracts.length()", FEW);
+        long manyStatements = statementsFor(get(path).param("staffId", many.staffId().toString()),
+                "$.contracts.length()", MANY);
+
+        // The staff lookup and the listing projection
+        assertEquals(2, fewStatements);
+        assertEquals(fewStatements, manyStatements);
+    }
+
+    @Test
+    void staffQueuesRunTheSameStatementsForAnyNumberOfBookings() throws Exception {
+        Fixture few = seed("queues-few", FEW);
+        Fixture many = seed("queues-many", MANY);
+
+        for (String queue : List.of("checkin-queue", "return-queue")) {
+            String path = "/api/staff/bookings/" + queue;
+            long fewStatements = statementsFor(get(path).param("staffId", few.staffId().toString()),
+                    "$.length()", FEW / 3);
+            long manyStatements = statementsFor(get(path).param("staffId", many.staffId().toString()),
+                    "$.length()", MANY / 3);
+
+            // The staff lookup and one query joining customer, vehicle, model, station and staff
+            assertEquals(2, fewStatements, queue);
+            assertEquals(fewStatements, manyStatements, queue);
+        }
+    }
+
+    @Test
+    void customerHistoryRunsTheSameStatementsForAnyNumberOfBookings() throws Exception {
+        Fixture few = seed("history-few", FEW);
+        Fixture many = seed("history-many", MANY);
+
+        long fewStatements = statementsFor(get("/api/bookings/user").param("userId", few.customerId().toString()),
+                "$.length()", FEW / CUSTOMERS);
+        long manyStatements = statementsFor(get("/api/bookings/user").param("userId", many.customerId().toString()),
+                "$.length()", MANY / CUSTOMERS);
+
+        assertEquals(1, fewStatements);
+        assertEquals(fewStatements, manyStatements);
+    }
+
+    @Test
+    void pagedAndKeysetHistoryRunFixedStatementsPerPage() throws Exception {
+        for (int bookings : List.of(FEW, MANY)) {
+            String path = "/api/bookings/user/" + seed("pages-" + bookings, bookings).customerId();
+            int perCustomer = bookings / CUSTOMERS;
+
+            // The customer fills the first page, so the count query runs too
+            assertEquals(2, statementsFor(get(path).param("size", "2"), "$.bookings.length()", 2), "page and count");
+
+            String cursor = JsonPath.read(mockMvc.perform(get(path).param("size", "2"))
+                    .andReturn().getResponse().getContentAsString(), "$.nextCursor");
+            assertEquals(1, statementsFor(get(path).param("size", "2").param("cursor", cursor),
+                    "$.bookings.length()", Math.min(2, perCustomer - 2)), "keyset page");
+        }
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private long statementsFor(RequestBuilder request, String rowsPath, int expectedRows) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(rowsPath).value(expectedRows));
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * A station with its staff member, a few vehicles of two models and customers, and {@code bookings}
+     * bookings spread over them, every other one with a signed contract.
+     */
+    private Fixture seed(String name, int bookings) {
+        Station station = new Station();
+        station.setName(name);
+        station.setTotalSlots(10);
+        station.setAvailableSlots(10);
+        stationRepository.save(station);
+
+        User staff = newUser("staff@" + name + ".test", UserRole.STAFF);
+        staff.setStation(station);
+        userRepository.save(staff);
+
+        List<Model> models = new TransactionTemplate(transactionManager).execute(tx -> {
+            List<Model> created = new ArrayList<>();
+            for (String modelName : List.of("VF e34", "VF 8")) {
+                Model model = new Model();
+                model.setBrand("VinFast");
+                model.setModelName(modelName);
+                model.setBasePrice(BigDecimal.valueOf(500_000));
+                entityManager.persist(model);
+                created.add(model);
+            }
+            return created;
+        });
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Vehicle vehicle = new Vehicle();
+            vehicle.setStation(station);
+            vehicle.setModel(models.get(i % models.size()));
+            vehicle.setPlateNumber(String.format("%s-%03d", name, i));
+            vehicle.setBatteryLevel(BigDecimal.valueOf(90));
+            vehicle.setStatus(VehicleStatus.AVAILABLE);
+            vehicles.add(vehicleRepository.save(vehicle));
+        }
+        List<User> customers = new ArrayList<>();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            customers.add(userRepository.save(newUser("customer" + i + "@" + name + ".test", UserRole.CUSTOMER)));
+        }
+
+        BookingStatus[] statuses = {BookingStatus.PENDING, BookingStatus.CONFIRMED, BookingStatus.COMPLETED};
+        for (int i = 0; i < bookings; i++) {
+            Booking booking = new Booking();
+            booking.setStation(station);
+            booking.setStaff(staff);
+            booking.setUser(customers.get(i % customers.size()));
+            booking.setVehicle(vehicles.get(i % vehicles.size()));
+            LocalDate start = LocalDate.now().minusDays(i % 60);
+            booking.setStartTime(Date.valueOf(start));
+            booking.setEndTime(Date.valueOf(start.plusDays(1)));
+            booking.setTotalPrice(BigDecimal.valueOf(400_000));
+            booking.setBookingStatus(statuses[i % statuses.length]);
+            bookingRepository.save(booking);
+            if (i % 2 == 0) {
+                Contract contract = new Contract();
+                contract.setBooking(booking);
+                contract.setRenterSignature("renter-" + i);
+                contract.setStaffSignature("staff-" + i);
+                contractRepository.save(contract);
+            }
+        }
+        return new Fixture(staff.getUserId(), customers.get(0).getUserId());
+    }
+
+    private static User newUser(String email, UserRole role) {
+        User user = new User();
+        user.setName(email);
+        user.setEmail(email);
+        user.setRole(role);
+        user.setStatus(UserStatus.ACTIVE);
+        user.setEmailVerified(Boolean.TRUE);
+        return user;
+    }
+
+    private record Fixture(Integer staffId, Integer customerId) {
+    }
+}
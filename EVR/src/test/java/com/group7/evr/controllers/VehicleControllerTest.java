@@ -0,0 +1,126 @@
+package com.group7.evr.controllers;
+
+import com.group7.evr.exception.BadRequestExceptionHandler;
+import com.group7.evr.exception.ConflictExceptionHandler;
+import com.group7.evr.exception.DuplicatePlateNumberException;
+import com.group7.evr.exception.InvalidDateException;
+import com.group7.evr.service.VehicleService;
+import com.group7.evr.service.impl.TelemetrySeriesStore;
+import com.group7.evr.service.impl.VehicleTelemetryBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class VehicleControllerTest {
+    private final VehicleService vehicleService = mock(VehicleService.class);
+    private final TelemetrySeriesStore telemetrySeriesStore = mock(TelemetrySeriesStore.class);
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                        new VehicleController(vehicleService, mock(VehicleTelemetryBuffer.class), telemetrySeriesStore))
+                .setControllerAdvice(new BadRequestExceptionHandler(), new ConflictExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void availabilityAcceptsDatesAndDateTimes() throws Exception {
+        when(vehicleService.findAvailableVehicles(any(), any(), any(), any())).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/vehicles/availability").param("from", "2025-06-01").param("to", "2025-06-02T10:30"))
+                .andExpect(status().isOk());
+
+        verify(vehicleService).findAvailableVehicles(null, null,
+                LocalDateTime.of(2025, 6, 1, 0, 0), LocalDateTime.of(2025, 6, 2, 10, 30));
+    }
+
+    @Test
+    void availabilityWithAMalformedDateIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/vehicles/availability").param("from", "tomorrow").param("to", "2025-06-02"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid date"))
+                .andExpect(jsonPath("$.message").value("Invalid date: tomorrow"));
+        mockMvc.perform(get("/api/vehicles/availability").param("from", "2025-06-01").param("to", "2025-13-01"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(vehicleService);
+    }
+
+    @Test
+    void telemetryHistoryWithAMalformedDateIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/vehicles/5/telemetry").param("from", "2025-06-01 10:00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid date: 2025-06-01 10:00"));
+        mockMvc.perform(get("/api/vehicles/5/telemetry/drain").param("to", "yesterday"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid date"));
+
+        verifyNoInteractions(telemetrySeriesStore);
+    }
+
+    @Test
+    void telemetryHistoryWithAReversedWindowIsABadRequest() throws Exception {
+        when(telemetrySeriesStore.query(any(), any(), any(), any()))
+                .thenThrow(new InvalidDateException("From must be before to"));
+
+        mockMvc.perform(get("/api/vehicles/5/telemetry").param("from", "2025-06-02").param("to", "2025-06-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("From must be before to"));
+        verify(telemetrySeriesStore).query(5,
+                LocalDateTime.of(2025, 6, 2, 0, 0), LocalDateTime.of(2025, 6, 1, 0, 0), null);
+    }
+
+    @Test
+    void duplicatePlateIsAConflict() throws Exception {
+        when(vehicleService.createVehicle(any())).thenThrow(new DuplicatePlateNumberException("51a 123.45"));
+
+        mockMvc.perform(post("/api/vehicles").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"plateNumber\": \"51a 123.45\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Duplicate plate number"))
+                .andExpect(jsonPath("$.plateNumber").value("51a 123.45"));
+    }
+
+    @Test
+    void importWithDuplicatesIsAConflictAndWithOnlyInvalidRowsABadRequest() throws Exception {
+        String body = "[{\"plateNumber\": \"51A-123.45\"}, {\"plateNumber\": \"51a 12345\"}]";
+        when(vehicleService.importVehicles(any())).thenReturn(importResult(
+                Map.of("row", 0, "code", "INVALID"), Map.of("row", 1, "code", "DUPLICATE_IN_IMPORT")));
+        mockMvc.perform(post("/api/vehicles/import").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errors.length()").value(2));
+
+        when(vehicleService.importVehicles(any())).thenReturn(importResult(Map.of("row", 0, "code", "REQUIRED")));
+        mockMvc.perform(post("/api/vehicles/import").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest());
+
+        when(vehicleService.importVehicles(any())).thenReturn(importResult());
+        mockMvc.perform(post("/api/vehicles/import").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    @SafeVarargs
+    private static Map<String, Object> importResult(Map<String, Object>... errors) {
+        return Map.of("received", 2, "imported", errors.length == 0 ? 2 : 0, "errors", List.of(errors));
+    }
+}
@@ -0,0 +1,153 @@
+package com.group7.evr.service.impl;
+
+import com.group7.evr.dto.BookingInterval;
+import com.group7.evr.dto.StationModelVehicleCount;
+import com.group7.evr.dto.StationVehicleStatusCount;
+import com.group7.evr.enums.BookingStatus;
+import com.group7.evr.enums.ComplaintStatus;
+import com.group7.evr.enums.VehicleStatus;
+import com.group7.evr.repository.BookingRepository;
+import com.group7.evr.repository.ComplaintRepository;
+import com.group7.evr.repository.VehicleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdminServiceImplTest {
+    private final VehicleRepository vehicleRepository = mock(VehicleRepository.class);
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final ComplaintRepository complaintRepository = mock(ComplaintRepository.class);
+    private final ReportCache reportCache = mock(ReportCache.class);
+    private final ReportExecutor reportExecutor = new ReportExecutor(mock(PlatformTransactionManager.class), 10, 0, 60);
+    private AdminServiceImpl adminService;
+
+    @BeforeEach
+    void setUp() {
+        adminService = new AdminServiceImpl();
+        ReflectionTestUtils.setField(adminService, "vehicleRepository", vehicleRepository);
+        ReflectionTestUtils.setField(adminService, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(adminService, "complaintRepository", complaintRepository);
+        ReflectionTestUtils.setField(adminService, "reportCache", reportCache);
+        ReflectionTestUtils.setField(adminService, "reportExecutor", reportExecutor);
+        when(reportCache.get(any(), any(), any(), any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(3)).get());
+    }
+
+    @AfterEach
+    void tearDown() {
+        reportExecutor.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void utilizationSweptInVehicleRangesMatchesOneSweep() {
+        List<BookingInterval> bookings = randomBookings(new Random(3), 20);
+        when(vehicleRepository.findVehicleIdRange(null)).thenReturn(List.<Object[]>of(new Object[]{1, 20}));
+        when(vehicleRepository.countByStationAndModel()).thenReturn(List.of(
+                new StationModelVehicleCount(1, 10, "VF e34", 7L), new StationModelVehicleCount(2, 11, "VF 8", 6L),
+                new StationModelVehicleCount(3, 10, "VF e34", 7L)));
+        when(vehicleRepository.countByStationAndStatus()).thenReturn(List.of(
+                new StationVehicleStatusCount(1, "District 1", VehicleStatus.AVAILABLE, 7L),
+                new StationVehicleStatusCount(2, "Thu Duc", VehicleStatus.RENTED, 6L),
+                new StationVehicleStatusCount(3, "Go Vap", VehicleStatus.AVAILABLE, 7L)));
+        when(bookingRepository.streamBookedIntervals(anyInt(), anyInt(), any(), any(), isNull()))
+                .thenAnswer(invocation -> {
+                    int fromId = invocation.getArgument(0);
+                    int toId = invocation.getArgument(1);
+                    return bookings.stream().filter(b -> b.vehicleId() >= fromId && b.vehicleId() <= toId);
+                });
+        LocalDateTime from = LocalDateTime.of(2025, 6, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 6, 15, 0, 0);
+
+        ReflectionTestUtils.setField(adminService, "utilizationVehicleRanges", 1);
+        Map<String, Object> single = adminService.getUtilizationReport(null, from, to);
+        ReflectionTestUtils.setField(adminService, "utilizationVehicleRanges", 4);
+        Map<String, Object> split = adminService.getUtilizationReport(null, from, to);
+
+        for (int[] range : new int[][]{{1, 20}, {1, 5}, {6, 10}, {11, 15}, {16, 20}}) {
+            verify(bookingRepository).streamBookedIntervals(eq(range[0]), eq(range[1]), any(), any(), isNull());
+        }
+        assertEquals(single.get("bookedVehicleHours"), split.get("bookedVehicleHours"));
+        assertEquals(single.get("utilizationRate"), split.get("utilizationRate"));
+        assertEquals(single.get("byStation"), split.get("byStation"));
+        assertEquals(single.get("byModel"), split.get("byModel"));
+        assertArrayEquals((long[]) ((Map<String, Object>) single.get("hourly")).get("bookedVehicles"),
+                (long[]) ((Map<String, Object>) split.get("hourly")).get("bookedVehicles"));
+        assertTrue((Double) split.get("bookedVehicleHours") > 0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void dashboardSnapshotHasEveryCounterTheStreamSendsDeltasFor() {
+        when(vehicleRepository.countByStationAndStatus()).thenReturn(List.of(
+                new StationVehicleStatusCount(1, "District 1", VehicleStatus.AVAILABLE, 4L),
+                new StationVehicleStatusCount(1, "District 1", VehicleStatus.RENTED, 2L),
+                new StationVehicleStatusCount(2, "Thu Duc", VehicleStatus.AVAILABLE, 3L),
+                new StationVehicleStatusCount(null, null, VehicleStatus.MAINTENANCE, 1L)));
+        when(bookingRepository.countByStatus()).thenReturn(List.<Object[]>of(
+                new Object[]{BookingStatus.PENDING, 5L}, new Object[]{BookingStatus.COMPLETED, 12L}));
+        when(complaintRepository.countByStatus()).thenReturn(List.<Object[]>of(
+                new Object[]{ComplaintStatus.PENDING, 2L}));
+
+        Map<String, Object> snapshot = adminService.getDashboardSnapshot();
+
+        assertEquals(10L, snapshot.get("totalVehicles"));
+        assertEquals(2, ((List<?>) snapshot.get("stations")).size());
+        assertEquals(Map.ofEntries(
+                Map.entry("fleet.total", 10L),
+                Map.entry("fleet.AVAILABLE", 7L),
+                Map.entry("fleet.RENTED", 2L),
+                Map.entry("fleet.MAINTENANCE", 1L),
+                Map.entry("stations.1.AVAILABLE", 4L),
+                Map.entry("stations.1.RENTED", 2L),
+                Map.entry("stations.2.AVAILABLE", 3L),
+                // Statuses with nothing in them are still there, so a delta always has a baseline to add to
+                Map.entry("bookings.PENDING", 5L),
+                Map.entry("bookings.CONFIRMED", 0L),
+                Map.entry("bookings.CANCELLED", 0L),
+                Map.entry("bookings.COMPLETED", 12L),
+                Map.entry("bookings.DENIED", 0L),
+                Map.entry("complaints.PENDING", 2L),
+                Map.entry("complaints.RESOLVED", 0L),
+                Map.entry("complaints.REJECTED", 0L)), (Map<String, Long>) snapshot.get("counters"));
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    // Day-resolution bookings in (vehicle, start) order, some overlapping, as the range query streams them
+    private static List<BookingInterval> randomBookings(Random random, int vehicles) {
+        List<BookingInterval> bookings = new ArrayList<>();
+        for (int vehicle = 1; vehicle <= vehicles; vehicle++) {
+            for (int i = 0; i < 6; i++) {
+                LocalDate start = LocalDate.of(2025, 5, 28).plusDays(random.nextInt(20));
+                bookings.add(new BookingInterval(vehicle, 1 + vehicle % 3, vehicle % 2 == 0 ? 10 : 11,
+                        Date.valueOf(start), Date.valueOf(start.plusDays(random.nextInt(4)))));
+            }
+        }
+        bookings.sort(Comparator.comparing(BookingInterval::vehicleId).thenComparing(BookingInterval::startTime));
+        return bookings;
+    }
+}
@@ -0,0 +1,227 @@
+package com.group7.evr.service.impl;
+
+import com.group7.evr.entity.Booking;
+import com.group7.evr.entity.Station;
+import com.group7.evr.entity.User;
+import com.group7.evr.entity.Vehicle;
+import com.group7.evr.enums.BookingStatus;
+import com.group7.evr.enums.UserRole;
+import com.group7.evr.enums.UserStatus;
+import com.group7.evr.enums.VehicleStatus;
+import com.group7.evr.repository.BookingRepository;
+import com.group7.evr.repository.StationRepository;
+import com.group7.evr.repository.UserRepository;
+import com.group7.evr.repository.VehicleRepository;
+import com.group7.evr.service.BookingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.MSSQLServerContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Customers and staff hammer one station at once: thousands of concurrent create, modify, cancel,
+ * check-in and return calls against a small fleet. The in-memory conflict check lets racing writers
+ * through, so only the version checks on Booking, Vehicle and Station and the retry stand between them
+ * and a double booking or a lost slot update. The final database state is checked against the bookings
+ * that committed. Runs against a real SQL Server; skipped when Docker is not available.
+ */
+@SpringBootTest(properties = "spring.datasource.hikari.maximum-pool-size=" + BookingConcurrencyTest.IN_FLIGHT)
+@Testcontainers(disabledWithoutDocker = true)
+class BookingConcurrencyTest {
+    static final int IN_FLIGHT = 32;
+    private static final int TASKS = 2_000;
+    private static final int VEHICLES = 40;
+    private static final int CUSTOMERS = 50;
+    private static final int TOTAL_SLOTS = 12;
+
+    private enum Operation { CREATE, MODIFY, CANCEL, CHECK_IN, RETURN }
+
+    @Container
+    @ServiceConnection
+    static MSSQLServerContainer<?> sqlServer =
+            new MSSQLServerContainer<>("mcr.microsoft.com/mssql/server:2022-latest").acceptLicense();
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private VehicleRepository vehicleRepository;
+    @Autowired
+    private StationRepository stationRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private StationStaffDirectory stationStaffDirectory;
+
+    @Test
+    void concurrentBookingWritesNeverDoubleBookOrLoseSlotUpdates() throws Exception {
+        Station station = new Station();
+        station.setName("Stress station");
+        station.setTotalSlots(TOTAL_SLOTS);
+        station.setAvailableSlots(TOTAL_SLOTS);
+        Integer stationId = stationRepository.save(station).getStationId();
+
+        User staff = newUser("staff@stress.test", UserRole.STAFF);
+        staff.setStation(station);
+        User savedStaff = userRepository.save(staff);
+        stationStaffDirectory.invalidate();
+
+        List<Integer> vehicleIds = new ArrayList<>();
+        for (int i = 0; i < VEHICLES; i++) {
+            Vehicle vehicle = new Vehicle();
+            vehicle.setStation(station);
+            vehicle.setPlateNumber(String.format("51A-%03d.%02d", i, i));
+            vehicle.setBatteryLevel(BigDecimal.valueOf(90));
+            vehicle.setStatus(VehicleStatus.AVAILABLE);
+            vehicleIds.add(vehicleRepository.save(vehicle).getVehicleId());
+        }
+        List<User> customers = new ArrayList<>();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            customers.add(userRepository.save(newUser("customer" + i + "@stress.test", UserRole.CUSTOMER)));
+        }
+
+        // Half the fleet starts out booked so modify/cancel/check-in have targets from the first task on
+        List<Integer> bookingIds = new CopyOnWriteArrayList<>();
+        Random seeding = new Random(7);
+        for (int i = 0; i < VEHICLES / 2; i++) {
+            bookingIds.add(bookingService.createBooking(newRequest(vehicleIds.get(i), seeding),
+                    customers.get(i % CUSTOMERS)).getBookingId());
+        }
+
+        Map<Operation, AtomicInteger> succeeded = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            succeeded.put(operation, new AtomicInteger());
+        }
+        CountDownLatch go = new CountDownLatch(1);
+        // Every task gets a virtual thread; the semaphore keeps no more in flight than there are connections
+        Semaphore inFlight = new Semaphore(IN_FLIGHT);
+        List<Future<?>> tasks = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < TASKS; i++) {
+                Random random = new Random(i);
+                tasks.add(executor.submit(() -> {
+                    go.await();
+                    inFlight.acquire();
+                    try {
+                        Operation operation = Operation.values()[random.nextInt(Operation.values().length)];
+                        Integer bookingId = bookingIds.get(random.nextInt(bookingIds.size()));
+                        User customer = customers.get(random.nextInt(CUSTOMERS));
+                        switch (operation) {
+                            case CREATE -> bookingIds.add(bookingService.createBooking(
+                                    newRequest(vehicleIds.get(random.nextInt(VEHICLES)), random), customer).getBookingId());
+                            case MODIFY -> {
+                                Booking updates = newRequest(vehicleIds.get(random.nextInt(VEHICLES)), random);
+                                // Some modifications only move the window, the rest also switch vehicle
+                                if (random.nextBoolean()) {
+                                    updates.setVehicle(null);
+                                }
+                                bookingService.modifyBooking(bookingId, updates, customer);
+                            }
+                            case CANCEL -> bookingService.cancelBooking(bookingId, customer);
+                            case CHECK_IN -> bookingService.checkIn(bookingId, customer, savedStaff);
+                            case RETURN -> bookingService.returnVehicle(bookingId, customer, savedStaff, 80.0);
+                        }
+                        succeeded.get(operation).incrementAndGet();
+                    } finally {
+                        inFlight.release();
+                    }
+                    return null;
+                }));
+            }
+            go.countDown();
+
+            for (Future<?> task : tasks) {
+                try {
+                    task.get(5, TimeUnit.MINUTES);
+                } catch (ExecutionException e) {
+                    // Rejections (vehicle taken, no slots, retries exhausted) are expected; anything else is not
+                    assertTrue(e.getCause() instanceof RuntimeException, () -> "Unexpected failure: " + e.getCause());
+                }
+            }
+        }
+
+        for (Operation operation : Operation.values()) {
+            assertTrue(succeeded.get(operation).get() > 0, () -> "No " + operation + " call succeeded");
+        }
+
+        Set<Integer> fleet = new HashSet<>(vehicleIds);
+        List<Booking> committed = bookingRepository.findAll().stream()
+                .filter(booking -> fleet.contains(booking.getVehicle().getVehicleId()))
+                .toList();
+        assertEquals(bookingIds.size(), committed.size());
+
+        // No double booking: a vehicle is held by at most one active booking, and is RENTED exactly then
+        Map<Integer, Integer> activeByVehicle = new HashMap<>();
+        for (Booking booking : committed) {
+            if (BookingStatus.PENDING.equals(booking.getBookingStatus())
+                    || BookingStatus.CONFIRMED.equals(booking.getBookingStatus())) {
+                activeByVehicle.merge(booking.getVehicle().getVehicleId(), 1, Integer::sum);
+            }
+        }
+        for (Integer vehicleId : vehicleIds) {
+            int active = activeByVehicle.getOrDefault(vehicleId, 0);
+            assertTrue(active <= 1, "vehicle " + vehicleId + " has " + active + " active bookings");
+            assertEquals(active == 1 ? VehicleStatus.RENTED : VehicleStatus.AVAILABLE,
+                    vehicleRepository.findById(vehicleId).orElseThrow().getStatus(), "vehicle " + vehicleId);
+        }
+
+        // No lost slot update: every committed check-in took a slot and every committed return gave one back
+        long checkedIn = committed.stream().filter(booking -> booking.getCheckedInAt() != null).count();
+        long returned = committed.stream().filter(booking -> booking.getReturnedAt() != null).count();
+        int availableSlots = stationRepository.findById(stationId).orElseThrow().getAvailableSlots();
+        assertEquals(TOTAL_SLOTS - checkedIn + returned, availableSlots);
+        assertTrue(availableSlots >= 0 && availableSlots <= TOTAL_SLOTS, "available slots " + availableSlots);
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private static Booking newRequest(Integer vehicleId, Random random) {
+        LocalDate start = LocalDate.now().plusDays(1 + random.nextInt(30));
+        Booking request = new Booking();
+        Vehicle requested = new Vehicle();
+        requested.setVehicleId(vehicleId);
+        request.setVehicle(requested);
+        request.setStartTime(Date.valueOf(start));
+        request.setEndTime(Date.valueOf(start.plusDays(1 + random.nextInt(3))));
+        request.setTotalPrice(BigDecimal.valueOf(400_000));
+        return request;
+    }
+
+    private static User newUser(String email, UserRole role) {
+        User user = new User();
+        user.setName(email);
+        user.setEmail(email);
+        user.setRole(role);
+        user.setStatus(UserStatus.ACTIVE);
+        user.setEmailVerified(Boolean.TRUE);
+        return user;
+    }
+}
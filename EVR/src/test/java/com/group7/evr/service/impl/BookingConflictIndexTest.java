@@ -0,0 +1,124 @@
+package com.group7.evr.service.impl;
+
+import com.group7.evr.entity.Booking;
+import com.group7.evr.entity.Vehicle;
+import com.group7.evr.enums.BookingStatus;
+import com.group7.evr.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingConflictIndexTest {
+    private static final LocalDate DAY = LocalDate.now().plusDays(3);
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private BookingConflictIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingConflictIndex(bookingRepository);
+        ReflectionTestUtils.setField(index, "slotMinutes", 15);
+        ReflectionTestUtils.setField(index, "horizonDays", 90);
+    }
+
+    @Test
+    void deniedBookingNoLongerBlocksItsWindow() {
+        index.warmUp();
+        Booking booking = booking(1, 10, BookingStatus.PENDING, DAY, DAY.plusDays(2));
+        index.sync(booking);
+        assertTrue(index.hasConflict(10, Date.valueOf(DAY.plusDays(1)), Date.valueOf(DAY.plusDays(3))));
+        assertEquals(List.of(11), index.filterAvailable(List.of(10, 11), millis(DAY), millis(DAY.plusDays(1))));
+
+        booking.setBookingStatus(BookingStatus.DENIED);
+        index.sync(booking);
+
+        assertFalse(index.hasConflict(10, Date.valueOf(DAY), Date.valueOf(DAY.plusDays(2))));
+        assertEquals(List.of(10, 11), index.filterAvailable(List.of(10, 11), millis(DAY), millis(DAY.plusDays(1))));
+        // Past the calendar horizon the interval trees answer, and agree
+        LocalDate late = LocalDate.now().plusDays(200);
+        index.sync(booking(2, 10, BookingStatus.PENDING, late, late.plusDays(1)));
+        assertEquals(List.of(11), index.filterAvailable(List.of(10, 11), millis(late), millis(late.plusDays(1))));
+    }
+
+    @Test
+    void warmUpSkipsDeniedBookings() {
+        index.warmUp();
+
+        verify(bookingRepository).findByBookingStatusNotIn(argThat(inactive ->
+                inactive.contains(BookingStatus.DENIED) && inactive.contains(BookingStatus.CANCELLED)
+                        && inactive.contains(BookingStatus.COMPLETED) && !inactive.contains(BookingStatus.PENDING)));
+    }
+
+    @Test
+    void checksTheDatabaseUntilWarmedUp() {
+        when(bookingRepository.existsOverlapping(eq(10), anyCollection(), any(), any(), isNull())).thenReturn(true);
+        when(bookingRepository.findBookedVehicleIds(anyCollection(), any(), any())).thenReturn(List.of(10));
+
+        assertTrue(index.hasConflict(10, Date.valueOf(DAY), Date.valueOf(DAY.plusDays(1))));
+        assertEquals(List.of(11), index.filterAvailable(List.of(10, 11), millis(DAY), millis(DAY.plusDays(1))));
+        // A window within one day is widened to that whole day, as booking dates are day-granular
+        index.filterAvailable(List.of(10), millis(DAY.atTime(9, 0)), millis(DAY.atTime(12, 0)));
+        verify(bookingRepository, times(2)).findBookedVehicleIds(anyCollection(), eq(Date.valueOf(DAY)), eq(Date.valueOf(DAY.plusDays(1))));
+
+        index.warmUp();
+
+        assertFalse(index.hasConflict(10, Date.valueOf(DAY), Date.valueOf(DAY.plusDays(1))));
+        assertEquals(List.of(10, 11), index.filterAvailable(List.of(10, 11), millis(DAY), millis(DAY.plusDays(1))));
+        verify(bookingRepository, times(1)).existsOverlapping(any(), anyCollection(), any(), any(), any());
+        verify(bookingRepository, times(2)).findBookedVehicleIds(anyCollection(), any(), any());
+    }
+
+    @Test
+    void bookingSyncedBeforeWarmUpIsIndexedOnce() {
+        Booking booking = booking(1, 10, BookingStatus.PENDING, DAY, DAY.plusDays(1));
+        index.sync(booking);
+        when(bookingRepository.findByBookingStatusNotIn(anyCollection())).thenReturn(List.of(booking));
+        index.warmUp();
+
+        booking.setBookingStatus(BookingStatus.CANCELLED);
+        index.sync(booking);
+
+        assertFalse(index.hasConflict(10, Date.valueOf(DAY), Date.valueOf(DAY.plusDays(1))));
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private static Booking booking(int bookingId, int vehicleId, BookingStatus status, LocalDate start, LocalDate end) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setVehicleId(vehicleId);
+        Booking booking = new Booking();
+        booking.setBookingId(bookingId);
+        booking.setVehicle(vehicle);
+        booking.setBookingStatus(status);
+        booking.setStartTime(Date.valueOf(start));
+        booking.setEndTime(Date.valueOf(end));
+        return booking;
+    }
+
+    private static long millis(LocalDate day) {
+        return millis(day.atStartOfDay());
+    }
+
+    private static long millis(LocalDateTime at) {
+        return at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,144 @@
+package com.group7.evr.service.impl;
+
+import com.group7.evr.entity.Booking;
+import com.group7.evr.entity.Station;
+import com.group7.evr.entity.User;
+import com.group7.evr.entity.Vehicle;
+import com.group7.evr.enums.BookingStatus;
+import com.group7.evr.enums.VehicleStatus;
+import com.group7.evr.repository.BookingRepository;
+import com.group7.evr.repository.StationRepository;
+import com.group7.evr.repository.VehicleRepository;
+import com.group7.evr.service.EmailService;
+import com.group7.evr.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Booking writes against mocked repositories and a real conflict index, so the index sees exactly the
+ * bookings the service saved.
+ */
+class BookingServiceImplTest {
+    private static final LocalDate DAY = LocalDate.now().plusDays(5);
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final VehicleRepository vehicleRepository = mock(VehicleRepository.class);
+    private final UserService userService = mock(UserService.class);
+    private final Map<Integer, Booking> saved = new HashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    private BookingServiceImpl bookingService;
+    private Station station;
+    private Vehicle vehicle;
+    private User staff;
+
+    @BeforeEach
+    void setUp() {
+        BookingConflictIndex index = new BookingConflictIndex(bookingRepository);
+        ReflectionTestUtils.setField(index, "slotMinutes", 15);
+        ReflectionTestUtils.setField(index, "horizonDays", 90);
+        index.warmUp();
+        OptimisticLockRetry retry = new OptimisticLockRetry(mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(retry, "maxAttempts", 1);
+        bookingService = new BookingServiceImpl(bookingRepository, vehicleRepository, userService,
+                mock(StationRepository.class), mock(EmailService.class), index, retry,
+                mock(DailyRevenueRollup.class), mock(BookingHeatmapIndex.class), mock(ApplicationEventPublisher.class));
+
+        station = new Station();
+        station.setStationId(3);
+        station.setTotalSlots(5);
+        station.setAvailableSlots(5);
+        staff = new User();
+        staff.setUserId(90);
+        staff.setStation(station);
+        vehicle = new Vehicle();
+        vehicle.setVehicleId(10);
+        vehicle.setStation(station);
+        vehicle.setStatus(VehicleStatus.AVAILABLE);
+
+        when(vehicleRepository.findById(10)).thenReturn(Optional.of(vehicle));
+        when(userService.getPrimaryStaffForStation(3)).thenReturn(staff);
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            if (booking.getBookingId() == null) {
+                booking.setBookingId(nextId.getAndIncrement());
+            }
+            saved.put(booking.getBookingId(), booking);
+            return booking;
+        });
+        when(bookingRepository.findById(anyInt())).thenAnswer(invocation ->
+                Optional.ofNullable(saved.get(invocation.<Integer>getArgument(0))));
+    }
+
+    @Test
+    void deniedBookingFreesItsWindowForTheNextCustomer() {
+        Booking first = bookingService.createBooking(request(DAY, DAY.plusDays(2)), new User());
+        assertEquals(VehicleStatus.RENTED, vehicle.getStatus());
+
+        bookingService.denyBooking(first.getBookingId(), staff, "Licence expired");
+        assertEquals(BookingStatus.DENIED, first.getBookingStatus());
+        assertEquals(VehicleStatus.AVAILABLE, vehicle.getStatus());
+
+        Booking second = bookingService.createBooking(request(DAY, DAY.plusDays(2)), new User());
+
+        assertEquals(BookingStatus.PENDING, second.getBookingStatus());
+        assertEquals(VehicleStatus.RENTED, vehicle.getStatus());
+    }
+
+    @Test
+    void pendingBookingStillBlocksTheSameWindow() {
+        bookingService.createBooking(request(DAY, DAY.plusDays(2)), new User());
+        // Staff made the vehicle available again without touching the booking
+        vehicle.setStatus(VehicleStatus.AVAILABLE);
+
+        RuntimeException conflict = assertThrows(RuntimeException.class,
+                () -> bookingService.createBooking(request(DAY.plusDays(1), DAY.plusDays(3)), new User()));
+        assertEquals("Booking time conflicts with existing booking", conflict.getMessage());
+    }
+
+    @Test
+    void checkingInADeniedBookingBlocksItsWindowAgain() {
+        Booking first = bookingService.createBooking(request(DAY, DAY.plusDays(2)), new User());
+        bookingService.denyBooking(first.getBookingId(), staff, null);
+
+        bookingService.checkIn(first.getBookingId(), new User(), staff);
+
+        assertEquals(BookingStatus.CONFIRMED, first.getBookingStatus());
+        // Denial released the vehicle, so only the index stands in the way
+        assertEquals(VehicleStatus.AVAILABLE, vehicle.getStatus());
+        RuntimeException conflict = assertThrows(RuntimeException.class,
+                () -> bookingService.createBooking(request(DAY, DAY.plusDays(1)), new User()));
+        assertEquals("Booking time conflicts with existing booking", conflict.getMessage());
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private static Booking request(LocalDate start, LocalDate end) {
+        Vehicle requested = new Vehicle();
+        requested.setVehicleId(10);
+        Booking request = new Booking();
+        request.setVehicle(requested);
+        request.setStartTime(Date.valueOf(start));
+        request.setEndTime(Date.valueOf(end));
+        request.setTotalPrice(BigDecimal.valueOf(400_000));
+        return request;
+    }
+}
@@ -0,0 +1,299 @@
+package com.group7.evr.service.impl;
+
+import com.group7.evr.enums.BookingStatus;
+import com.group7.evr.enums.ComplaintStatus;
+import com.group7.evr.enums.VehicleStatus;
+import com.group7.evr.event.BookingChangedEvent;
+import com.group7.evr.event.ComplaintChangedEvent;
+import com.group7.evr.event.VehicleChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The hub with fake emitters that record what a client would receive. Sends still run on the hub's
+ * virtual threads, so the helpers keep flushing until an event shows up or the wait runs out.
+ */
+class DashboardStreamHubTest {
+    private static final Pattern EVENT_NAME = Pattern.compile("^event:(\\w+)", Pattern.MULTILINE);
+    private static final long HEARTBEAT_SECONDS = 15;
+
+    private record Received(String name, Object data, String text) {
+        @SuppressWarnings("unchecked")
+        Map<String, Long> counters() {
+            return (Map<String, Long>) ((Map<String, Object>) data).get("counters");
+        }
+    }
+
+    private final BlockingQueue<FakeEmitter> created = new LinkedBlockingQueue<>();
+    private DashboardStreamHub hub;
+
+    @BeforeEach
+    void setUp() {
+        hub = new DashboardStreamHub() {
+            @Override
+            SseEmitter createEmitter() {
+                FakeEmitter emitter = new FakeEmitter();
+                created.add(emitter);
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(hub, "maxSubscribers", 500);
+        ReflectionTestUtils.setField(hub, "maxPendingKeys", 256);
+        ReflectionTestUtils.setField(hub, "timeoutMillis", 60_000L);
+        ReflectionTestUtils.setField(hub, "heartbeatSeconds", HEARTBEAT_SECONDS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void snapshotGoesFirstAndChangesWhileBuildingItFollowAsADelta() throws Exception {
+        FakeEmitter emitter = subscribe(() -> {
+            hub.onBookingChanged(new BookingChangedEvent(1, 3, null, BookingStatus.PENDING));
+            return Map.of("counters", Map.of("bookings.PENDING", 4L));
+        });
+
+        Received snapshot = take(emitter);
+        assertEquals("snapshot", snapshot.name());
+        assertEquals(Map.of("bookings.PENDING", 4L), snapshot.counters());
+
+        Received delta = next(emitter, 0);
+        assertEquals("delta", delta.name());
+        assertEquals(Map.of("bookings.created", 1L, "bookings.PENDING", 1L), delta.counters());
+    }
+
+    @Test
+    void changesBetweenFlushesAreCoalescedIntoOneDelta() throws Exception {
+        FakeEmitter emitter = subscribe();
+
+        hub.onBookingChanged(new BookingChangedEvent(1, 3, null, BookingStatus.PENDING));
+        hub.onBookingChanged(new BookingChangedEvent(2, 3, null, BookingStatus.PENDING));
+        hub.onBookingChanged(new BookingChangedEvent(1, 3, BookingStatus.PENDING, BookingStatus.CONFIRMED));
+        hub.onComplaintChanged(new ComplaintChangedEvent(7, ComplaintStatus.PENDING, ComplaintStatus.RESOLVED));
+        // Rented and returned to the same station before the flush: nets out and is not sent at all
+        hub.onVehicleChanged(new VehicleChangedEvent(9, 3, 3, VehicleStatus.AVAILABLE, VehicleStatus.RENTED));
+        hub.onVehicleChanged(new VehicleChangedEvent(9, 3, 3, VehicleStatus.RENTED, VehicleStatus.AVAILABLE));
+
+        Received delta = next(emitter, 0);
+        assertEquals("delta", delta.name());
+        assertEquals(Map.of(
+                "bookings.created", 2L,
+                "bookings.PENDING", 1L,
+                "bookings.CONFIRMED", 1L,
+                "complaints.PENDING", -1L,
+                "complaints.RESOLVED", 1L), delta.counters());
+        assertNull(next(emitter, 0), "nothing left to send and no heartbeat due");
+    }
+
+    @Test
+    void slowClientKeepsCoalescingWhileItsSendIsInFlight() throws Exception {
+        FakeEmitter emitter = subscribe();
+        CountDownLatch gate = new CountDownLatch(1);
+        emitter.gate = gate;
+
+        hub.onBookingChanged(new BookingChangedEvent(1, 3, null, BookingStatus.PENDING));
+        hub.flush(System.currentTimeMillis());
+        assertTrue(emitter.blocked.await(5, TimeUnit.SECONDS));
+        hub.onBookingChanged(new BookingChangedEvent(2, 3, null, BookingStatus.PENDING));
+        hub.flush(System.currentTimeMillis());
+        hub.onBookingChanged(new BookingChangedEvent(2, 3, BookingStatus.PENDING, BookingStatus.CANCELLED));
+        hub.flush(System.currentTimeMillis());
+        gate.countDown();
+
+        assertEquals(Map.of("bookings.created", 1L, "bookings.PENDING", 1L), take(emitter).counters());
+        assertEquals(Map.of("bookings.created", 1L, "bookings.CANCELLED", 1L), next(emitter, 0).counters());
+    }
+
+    @Test
+    void overflowSendsOneResyncThenDeltasResume() throws Exception {
+        ReflectionTestUtils.setField(hub, "maxPendingKeys", 4);
+        FakeEmitter emitter = subscribe();
+
+        // Each new vehicle adds a station key on top of fleet.total and fleet.AVAILABLE
+        for (int stationId = 1; stationId <= 3; stationId++) {
+            hub.onVehicleChanged(new VehicleChangedEvent(stationId, null, stationId, null, VehicleStatus.AVAILABLE));
+        }
+        // Dropped: the client reloads everything on the resync anyway
+        hub.onBookingChanged(new BookingChangedEvent(1, 3, null, BookingStatus.PENDING));
+
+        Received resync = next(emitter, 0);
+        assertEquals("resync", resync.name());
+        assertTrue(((Map<?, ?>) resync.data()).containsKey("at"));
+
+        hub.onComplaintChanged(new ComplaintChangedEvent(7, null, ComplaintStatus.PENDING));
+        Received delta = next(emitter, 0);
+        assertEquals("delta", delta.name());
+        assertEquals(Map.of("complaints.created", 1L, "complaints.PENDING", 1L), delta.counters());
+    }
+
+    @Test
+    void idleStreamGetsAHeartbeatOnlyOnceTheIntervalHasPassed() throws Exception {
+        FakeEmitter emitter = subscribe();
+
+        assertNull(next(emitter, 0));
+
+        Received heartbeat = next(emitter, TimeUnit.SECONDS.toMillis(HEARTBEAT_SECONDS) + 1_000);
+        assertNotNull(heartbeat);
+        assertNull(heartbeat.name());
+        assertEquals(":heartbeat\n\n", heartbeat.text());
+    }
+
+    @Test
+    void failedSendUnsubscribesTheClient() throws Exception {
+        FakeEmitter broken = subscribe();
+        FakeEmitter healthy = subscribe();
+        assertEquals(2, hub.getSubscriberCount());
+
+        broken.failing = true;
+        hub.onBookingChanged(new BookingChangedEvent(1, 3, null, BookingStatus.PENDING));
+
+        assertEquals("delta", next(healthy, 0).name());
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (hub.getSubscriberCount() > 1 && System.currentTimeMillis() < deadline) {
+            hub.flush(System.currentTimeMillis());
+            Thread.sleep(10);
+        }
+        assertEquals(1, hub.getSubscriberCount());
+        assertInstanceOf(IOException.class, broken.failure);
+
+        // Later changes only reach the client that is still connected
+        hub.onBookingChanged(new BookingChangedEvent(2, 3, null, BookingStatus.PENDING));
+        assertEquals("delta", next(healthy, 0).name());
+        assertTrue(broken.events.isEmpty());
+    }
+
+    @Test
+    void snapshotThatCannotBeSentLeavesNoSubscriber() {
+        hub.shutdown();
+        hub = new DashboardStreamHub() {
+            @Override
+            SseEmitter createEmitter() {
+                FakeEmitter emitter = new FakeEmitter();
+                emitter.failing = true;
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(hub, "maxSubscribers", 500);
+
+        hub.subscribe(Map::of);
+
+        assertEquals(0, hub.getSubscriberCount());
+    }
+
+    @Test
+    void subscribersAreCappedAndAFailedSnapshotIsNotRegistered() {
+        ReflectionTestUtils.setField(hub, "maxSubscribers", 1);
+
+        assertThrows(IllegalStateException.class, () -> hub.subscribe(() -> {
+            throw new IllegalStateException("Database unavailable");
+        }));
+        assertEquals(0, hub.getSubscriberCount());
+
+        hub.subscribe(Map::of);
+        assertThrows(RuntimeException.class, () -> hub.subscribe(Map::of));
+        assertEquals(1, hub.getSubscriberCount());
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private FakeEmitter subscribe() throws InterruptedException {
+        FakeEmitter emitter = subscribe(Map::of);
+        assertEquals("snapshot", take(emitter).name());
+        return emitter;
+    }
+
+    private FakeEmitter subscribe(Supplier<Map<String, Object>> snapshot) {
+        hub.subscribe(snapshot);
+        return created.remove();
+    }
+
+    // Flushes as of {@code aheadMillis} from now until the client receives something, or null after 300ms
+    private Received next(FakeEmitter emitter, long aheadMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 300;
+        while (System.currentTimeMillis() < deadline) {
+            hub.flush(System.currentTimeMillis() + aheadMillis);
+            Set<ResponseBodyEmitter.DataWithMediaType> event = emitter.events.poll(20, TimeUnit.MILLISECONDS);
+            if (event != null) {
+                return decode(event);
+            }
+        }
+        return null;
+    }
+
+    private static Received take(FakeEmitter emitter) throws InterruptedException {
+        Set<ResponseBodyEmitter.DataWithMediaType> event = emitter.events.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event, "no event sent");
+        return decode(event);
+    }
+
+    private static Received decode(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        StringBuilder text = new StringBuilder();
+        Object data = null;
+        for (ResponseBodyEmitter.DataWithMediaType part : event) {
+            if (part.getData() instanceof String chunk) {
+                text.append(chunk);
+            } else {
+                data = part.getData();
+            }
+        }
+        Matcher name = EVENT_NAME.matcher(text);
+        return new Received(name.find() ? name.group(1) : null, data, text.toString());
+    }
+
+    /** Records each event instead of writing it; can fail every send, or hold one until the gate opens. */
+    private static final class FakeEmitter extends SseEmitter {
+        private final BlockingQueue<Set<DataWithMediaType>> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private volatile boolean failing;
+        private volatile CountDownLatch gate;
+        private volatile Throwable failure;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            CountDownLatch waitFor = gate;
+            if (waitFor != null) {
+                gate = null;
+                blocked.countDown();
+                try {
+                    waitFor.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            events.add(builder.build());
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            failure = ex;
+            super.completeWithError(ex);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.group7.evr.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Backtest harness for the demand forecasts: trains the engine's per-station model on generated booking
+ * history with daily and weekly seasonality, and reports the holdout MAPE and training time per station.
+ */
+class DemandForecastBacktestTest {
+    private static final int WEEKS = 8;
+
+    private final DemandForecastEngine engine = new DemandForecastEngine(null);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(engine, "trainingWeeks", WEEKS);
+        ReflectionTestUtils.setField(engine, "holdoutDays", 7);
+    }
+
+    @Test
+    void backtestOnGeneratedStationHistory() {
+        // Peak bookings per hour at a quiet, an average and a busy station. Poisson noise alone puts the
+        // daily MAPE floor near 0.15, 0.08 and 0.04; the bounds allow roughly twice that.
+        double[] peaks = {3, 10, 40};
+        double[] maxMape = {0.30, 0.15, 0.10};
+        Random random = new Random(2024);
+
+        for (int i = 0; i < peaks.length; i++) {
+            double[] history = generateBookings(WEEKS * DemandForecastEngine.HOURS_PER_WEEK, peaks[i], random);
+
+            DemandForecastEngine.TrainedModel trained = engine.train(history);
+
+            System.out.printf("Backtest peak %.0f/h: daily MAPE %.3f, trained in %d ms%n",
+                    peaks[i], trained.mape(), trained.trainingMillis());
+            assertTrue(trained.mape() < maxMape[i], "MAPE " + trained.mape() + " at peak " + peaks[i]);
+            assertTrue(trained.trainingMillis() < 1_000, "training took " + trained.trainingMillis() + " ms");
+        }
+    }
+
+    @Test
+    void retrainIsSkippedWhenTheTrainingWindowIsTooShort() {
+        ReflectionTestUtils.setField(engine, "trainingWeeks", 1);
+
+        engine.retrainAll();
+
+        assertTrue(engine.getAllForecasts().isEmpty());
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    /**
+     * Poisson booking counts per hour: near zero at night, a daytime peak, weekends 40% busier.
+     */
+    private static double[] generateBookings(int hours, double peak, Random random) {
+        double[] counts = new double[hours];
+        for (int t = 0; t < hours; t++) {
+            int hourOfDay = t % DemandForecastEngine.HOURS_PER_DAY;
+            int dayOfWeek = (t / DemandForecastEngine.HOURS_PER_DAY) % 7;
+            double daily = Math.max(0.05, Math.sin(Math.PI * (hourOfDay - 6) / 14.0));
+            double weekly = dayOfWeek >= 5 ? 1.4 : 1.0;
+            counts[t] = poisson(peak * daily * weekly, random);
+        }
+        return counts;
+    }
+
+    private static int poisson(double mean, Random random) {
+        double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            count++;
+        }
+        return count;
+    }
+}
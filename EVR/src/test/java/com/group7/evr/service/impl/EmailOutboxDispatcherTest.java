@@ -0,0 +1,323 @@
+package com.group7.evr.service.impl;
+
+import com.group7.evr.entity.EmailOutbox;
+import com.group7.evr.enums.EmailOutboxStatus;
+import com.group7.evr.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The dispatcher against a real {@link JavaMailSenderImpl} talking to an in-process SMTP server. The
+ * outbox table is an in-memory map behind a mocked repository that claims rows the way the native query
+ * does.
+ */
+class EmailOutboxDispatcherTest {
+    private static final int BATCH_SIZE = 50;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long INITIAL_BACKOFF_SECONDS = 30;
+
+    private final Map<Integer, EmailOutbox> outbox = new TreeMap<>();
+    private FakeSmtpServer smtp;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtp = new FakeSmtpServer();
+        dispatcher = newDispatcher(smtp.port());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        smtp.close();
+    }
+
+    @Test
+    void sendsEachClaimedBatchOverOneConnection() {
+        for (int i = 0; i < 120; i++) {
+            enqueue("customer" + i + "@evr.test");
+        }
+
+        dispatcher.dispatch();
+        dispatcher.dispatch();
+        dispatcher.dispatch();
+        dispatcher.dispatch();
+
+        assertEquals(List.of(50, 50, 20), smtp.messagesPerConnection());
+        // Claimed in outboxId order, so the queue drains first in, first out
+        List<String> expected = outbox.values().stream().map(EmailOutbox::getRecipient).toList();
+        assertEquals(expected, smtp.delivered);
+        for (EmailOutbox entry : outbox.values()) {
+            assertEquals(EmailOutboxStatus.SENT, entry.getStatus());
+            assertEquals(1, entry.getAttempts());
+            assertNotNull(entry.getSentAt());
+            assertNull(entry.getClaimToken());
+        }
+        assertEquals(120L, dispatcher.getStats().get("sentSinceStartup"));
+        assertEquals(3L, dispatcher.getStats().get("batches"));
+    }
+
+    @Test
+    void rejectedRecipientIsRetriedWithDoublingBackoffWhileTheRestOfTheBatchGoesOut() {
+        smtp.rejected.add("bounce@evr.test");
+        EmailOutbox good = enqueue("good@evr.test");
+        EmailOutbox bounce = enqueue("bounce@evr.test");
+        EmailOutbox alsoGood = enqueue("also-good@evr.test");
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatch();
+
+        assertEquals(List.of(3), smtp.messagesPerConnection());
+        assertEquals(List.of("good@evr.test", "also-good@evr.test"), smtp.delivered);
+        assertEquals(EmailOutboxStatus.SENT, good.getStatus());
+        assertEquals(EmailOutboxStatus.SENT, alsoGood.getStatus());
+        assertEquals(EmailOutboxStatus.PENDING, bounce.getStatus());
+        assertEquals(1, bounce.getAttempts());
+        assertNotNull(bounce.getLastError());
+        assertNull(bounce.getLockedUntil());
+        assertBackoff(before, INITIAL_BACKOFF_SECONDS, bounce.getNextAttemptAt());
+
+        // Not due yet: nothing is claimed and no connection is opened
+        dispatcher.dispatch();
+        assertEquals(1, smtp.messagesPerConnection().size());
+
+        bounce.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        before = LocalDateTime.now();
+        dispatcher.dispatch();
+
+        assertEquals(EmailOutboxStatus.PENDING, bounce.getStatus());
+        assertEquals(2, bounce.getAttempts());
+        assertBackoff(before, INITIAL_BACKOFF_SECONDS * 2, bounce.getNextAttemptAt());
+    }
+
+    @Test
+    void movesToDeadAfterTheLastAttemptAndIsNeverClaimedAgain() {
+        smtp.rejected.add("bounce@evr.test");
+        EmailOutbox bounce = enqueue("bounce@evr.test");
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            bounce.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+            dispatcher.dispatch();
+            assertEquals(attempt, bounce.getAttempts());
+        }
+        assertEquals(EmailOutboxStatus.DEAD, bounce.getStatus());
+
+        bounce.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        dispatcher.dispatch();
+
+        assertEquals(MAX_ATTEMPTS, bounce.getAttempts());
+        assertEquals(MAX_ATTEMPTS, smtp.messagesPerConnection().size());
+        assertEquals(1L, dispatcher.getStats().get("deadLetteredSinceStartup"));
+        assertEquals(0, smtp.delivered.size());
+    }
+
+    @Test
+    void unreachableServerFailsTheWholeBatchAndAnExpiredClaimIsPickedUpAgain() throws IOException {
+        EmailOutbox first = enqueue("first@evr.test");
+        EmailOutbox second = enqueue("second@evr.test");
+        // A dispatcher died holding this row; its claim has run out
+        EmailOutbox orphaned = enqueue("orphaned@evr.test");
+        orphaned.setStatus(EmailOutboxStatus.SENDING);
+        orphaned.setLockedUntil(LocalDateTime.now().minusSeconds(1));
+        smtp.close();
+
+        dispatcher.dispatch();
+
+        for (EmailOutbox entry : List.of(first, second, orphaned)) {
+            assertEquals(EmailOutboxStatus.PENDING, entry.getStatus());
+            assertEquals(1, entry.getAttempts());
+        }
+
+        smtp = new FakeSmtpServer();
+        dispatcher = newDispatcher(smtp.port());
+        outbox.values().forEach(entry -> entry.setNextAttemptAt(LocalDateTime.now().minusSeconds(1)));
+        dispatcher.dispatch();
+
+        assertEquals(List.of("first@evr.test", "second@evr.test", "orphaned@evr.test"), smtp.delivered);
+        assertTrue(outbox.values().stream().allMatch(entry -> entry.getStatus() == EmailOutboxStatus.SENT));
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private EmailOutboxDispatcher newDispatcher(int port) {
+        EmailOutboxRepository repository = mock(EmailOutboxRepository.class);
+        when(repository.claimDue(any(), any(), anyString(), anyInt())).thenAnswer(invocation -> {
+            LocalDateTime now = invocation.getArgument(0);
+            int claimed = 0;
+            for (EmailOutbox entry : outbox.values()) {
+                boolean due = (entry.getStatus() == EmailOutboxStatus.PENDING && !entry.getNextAttemptAt().isAfter(now))
+                        || (entry.getStatus() == EmailOutboxStatus.SENDING && entry.getLockedUntil().isBefore(now));
+                if (due && claimed < invocation.<Integer>getArgument(3)) {
+                    entry.setStatus(EmailOutboxStatus.SENDING);
+                    entry.setLockedUntil(invocation.getArgument(1));
+                    entry.setClaimToken(invocation.getArgument(2));
+                    claimed++;
+                }
+            }
+            return claimed;
+        });
+        when(repository.findByClaimTokenOrderByOutboxId(anyString())).thenAnswer(invocation -> outbox.values().stream()
+                .filter(entry -> invocation.getArgument(0).equals(entry.getClaimToken()))
+                .sorted(Comparator.comparing(EmailOutbox::getOutboxId))
+                .toList());
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(port);
+        Properties properties = new Properties();
+        properties.put("mail.smtp.connectiontimeout", "5000");
+        properties.put("mail.smtp.timeout", "5000");
+        mailSender.setJavaMailProperties(properties);
+
+        EmailOutboxDispatcher newDispatcher = new EmailOutboxDispatcher(repository, mailSender);
+        ReflectionTestUtils.setField(newDispatcher, "defaultSender", "no-reply@evr.test");
+        ReflectionTestUtils.setField(newDispatcher, "batchSize", BATCH_SIZE);
+        ReflectionTestUtils.setField(newDispatcher, "maxAttempts", MAX_ATTEMPTS);
+        ReflectionTestUtils.setField(newDispatcher, "initialBackoffSeconds", INITIAL_BACKOFF_SECONDS);
+        ReflectionTestUtils.setField(newDispatcher, "maxBackoffSeconds", 3600L);
+        ReflectionTestUtils.setField(newDispatcher, "claimSeconds", 300L);
+        return newDispatcher;
+    }
+
+    private EmailOutbox enqueue(String recipient) {
+        EmailOutbox entry = new EmailOutbox();
+        entry.setOutboxId(outbox.size() + 1);
+        entry.setRecipient(recipient);
+        entry.setSubject("Booking confirmed");
+        entry.setBody("Your booking is confirmed.");
+        entry.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outbox.put(entry.getOutboxId(), entry);
+        return entry;
+    }
+
+    private static void assertBackoff(LocalDateTime before, long seconds, LocalDateTime nextAttemptAt) {
+        LocalDateTime earliest = before.plusSeconds(seconds);
+        assertTrue(!nextAttemptAt.isBefore(earliest)
+                        && nextAttemptAt.isBefore(earliest.plus(Duration.ofSeconds(5))),
+                "next attempt " + nextAttemptAt + ", expected about " + earliest);
+    }
+
+    /**
+     * Just enough SMTP for Jakarta Mail: one session at a time, every message accepted except for
+     * recipients in {@link #rejected}, which get a 550 at RCPT TO.
+     */
+    private static final class FakeSmtpServer implements AutoCloseable {
+        final Set<String> rejected = ConcurrentHashMap.newKeySet();
+        final List<String> delivered = new CopyOnWriteArrayList<>();
+        private final List<Integer> messagesPerConnection = new CopyOnWriteArrayList<>();
+        private final ServerSocket serverSocket;
+
+        private FakeSmtpServer() throws IOException {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread acceptor = new Thread(this::acceptLoop, "fake-smtp");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        /** Messages that reached DATA or were rejected, per SMTP connection, in connection order. */
+        List<Integer> messagesPerConnection() {
+            return messagesPerConnection;
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try (Socket client = serverSocket.accept()) {
+                    session(client);
+                } catch (IOException e) {
+                    // Closed, or the client hung up mid-session
+                }
+            }
+        }
+
+        private void session(Socket client) throws IOException {
+            BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.ISO_8859_1));
+            Writer out = new OutputStreamWriter(client.getOutputStream(), StandardCharsets.ISO_8859_1);
+            int index = messagesPerConnection.size();
+            messagesPerConnection.add(0);
+            List<String> recipients = new ArrayList<>();
+            reply(out, "220 localhost fake SMTP");
+            for (String line = in.readLine(); line != null; line = in.readLine()) {
+                String command = line.toUpperCase();
+                if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                    reply(out, "250 localhost");
+                } else if (command.startsWith("MAIL FROM")) {
+                    recipients.clear();
+                    messagesPerConnection.set(index, messagesPerConnection.get(index) + 1);
+                    reply(out, "250 OK");
+                } else if (command.startsWith("RCPT TO")) {
+                    String recipient = line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+                    if (rejected.contains(recipient)) {
+                        reply(out, "550 5.1.1 Mailbox unavailable");
+                    } else {
+                        recipients.add(recipient);
+                        reply(out, "250 OK");
+                    }
+                } else if (command.equals("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    for (String data = in.readLine(); data != null && !data.equals("."); data = in.readLine()) {
+                        // Message content is not inspected
+                    }
+                    delivered.addAll(recipients);
+                    reply(out, "250 OK queued");
+                } else if (command.equals("RSET") || command.equals("NOOP")) {
+                    recipients.clear();
+                    reply(out, "250 OK");
+                } else if (command.equals("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else {
+                    reply(out, "502 Command not implemented");
+                }
+            }
+        }
+
+        private static void reply(Writer out, String line) throws IOException {
+            out.write(line + "\r\n");
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.group7.evr.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Uploads are generated as they are read, so nothing but the store itself can hold them in memory. The
+ * 20-photo upload runs in a child JVM with an 8 MB heap, smaller than a single photo. The child gets only the
+ * jars the store needs; opening the whole test classpath alone does not fit in that heap.
+ */
+class MediaStoreTest {
+    private static final int PHOTOS = 20;
+    private static final int PHOTO_BYTES = 12 * 1024 * 1024;
+    private static final String SMALL_HEAP = "-Xmx8m";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void storesUnderTheContentHashAndDeduplicates() throws Exception {
+        MediaStore store = new MediaStore(directory.toString());
+
+        String first = store.store(new GeneratedPhoto(1, 100_000));
+        String again = store.store(new GeneratedPhoto(1, 100_000));
+        String other = store.store(new GeneratedPhoto(2, 100_000));
+
+        assertEquals(sha256(new GeneratedPhoto(1, 100_000)), first);
+        assertEquals(first, again);
+        assertFalse(first.equals(other));
+        assertEquals(directory.resolve(first.substring(0, 2)).resolve(first), store.resolve(first));
+        assertEquals(100_000, Files.size(store.resolve(first)));
+        assertEquals(2L, store.getStats().get("stored"));
+        assertEquals(1L, store.getStats().get("deduplicated"));
+        assertEquals(200_000L, store.getStats().get("bytesStored"));
+        // No temp files are left behind
+        try (Stream<Path> temps = Files.list(directory.resolve("tmp"))) {
+            assertEquals(0, temps.count());
+        }
+    }
+
+    @Test
+    void sniffsContentTypeAndRejectsBadIds() throws Exception {
+        MediaStore store = new MediaStore(directory.toString());
+        String pdf = store.store(new BytesUpload("%PDF-1.7 ...".getBytes(StandardCharsets.US_ASCII)));
+        String text = store.store(new BytesUpload("plain text".getBytes(StandardCharsets.US_ASCII)));
+
+        assertEquals("application/pdf", store.contentType(pdf));
+        assertEquals("application/octet-stream", store.contentType(text));
+        assertEquals("image/jpeg", store.contentType(store.store(new GeneratedPhoto(3, 1_000))));
+        assertThrows(RuntimeException.class, () -> store.resolve("../" + pdf.substring(3)));
+        assertThrows(RuntimeException.class, () -> store.resolve("0".repeat(64)));
+        assertThrows(RuntimeException.class, () -> store.store(new BytesUpload(new byte[0])));
+    }
+
+    @Test
+    void twentyPhotoUploadRunsInAHeapSmallerThanOnePhoto() throws Exception {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(List.of(java, SMALL_HEAP, "-cp", minimalClassPath(),
+                MediaStoreTest.class.getName(), directory.toString()))
+                .redirectErrorStream(true)
+                .start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+        assertTrue(process.waitFor(2, TimeUnit.MINUTES), "upload did not finish");
+        assertEquals(0, process.exitValue(), output);
+
+        String[] lines = output.split("\\R");
+        List<String> mediaIds = List.of(lines[lines.length - 1].trim().split(","));
+        assertEquals(PHOTOS, mediaIds.size());
+        assertEquals(PHOTOS, mediaIds.stream().distinct().count());
+        MediaStore store = new MediaStore(directory.toString());
+        for (int i = 0; i < PHOTOS; i++) {
+            assertEquals(PHOTO_BYTES, Files.size(store.resolve(mediaIds.get(i))));
+        }
+        assertEquals(sha256(new GeneratedPhoto(PHOTOS - 1, PHOTO_BYTES)), mediaIds.get(PHOTOS - 1));
+    }
+
+    /**
+     * Child JVM entry point: store 20 generated photos under the given directory and print their media IDs.
+     */
+    public static void main(String[] args) throws IOException {
+        MediaStore store = new MediaStore(args[0]);
+        StringBuilder mediaIds = new StringBuilder();
+        for (int i = 0; i < PHOTOS; i++) {
+            if (i > 0) mediaIds.append(",");
+            mediaIds.append(store.store(new GeneratedPhoto(i, PHOTO_BYTES)));
+        }
+        System.out.println(mediaIds);
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private static String minimalClassPath() {
+        return Stream.of(MediaStoreTest.class, MediaStore.class, MultipartFile.class, InputStreamSource.class,
+                        LoggerFactory.class)
+                .map(type -> {
+                    try {
+                        return Path.of(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                })
+                .distinct()
+                .collect(Collectors.joining(File.pathSeparator));
+    }
+
+    private static String sha256(MultipartFile file) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] buffer = new byte[8192];
+        try (InputStream in = file.getInputStream()) {
+            for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * A JPEG-looking upload of pseudo-random bytes, produced as it is read. Anything that asks for the whole
+     * content at once fails.
+     */
+    private static final class GeneratedPhoto extends BytesUpload {
+        private final long seed;
+        private final int size;
+
+        private GeneratedPhoto(long seed, int size) {
+            super(null);
+            this.seed = seed;
+            this.size = size;
+        }
+
+        @Override
+        public long getSize() {
+            return size;
+        }
+
+        @Override
+        public byte[] getBytes() {
+            throw new UnsupportedOperationException("upload must be streamed");
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            Random random = new Random(seed);
+            return new InputStream() {
+                private final byte[] header = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+                private int position;
+
+                @Override
+                public int read() {
+                    byte[] one = new byte[1];
+                    return read(one, 0, 1) == -1 ? -1 : one[0] & 0xFF;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    if (position >= size) {
+                        return -1;
+                    }
+                    int count = Math.min(len, size - position);
+                    for (int i = 0; i < count; i++, position++) {
+                        b[off + i] = position < header.length ? header[position] : (byte) random.nextInt();
+                    }
+                    return count;
+                }
+            };
+        }
+    }
+
+    private static class BytesUpload implements MultipartFile {
+        private final byte[] content;
+
+        private BytesUpload(byte[] content) {
+            this.content = content;
+        }
+
+        @Override
+        public String getName() {
+            return "photos";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return "photo.jpg";
+        }
+
+        @Override
+        public String getContentType() {
+            return "image/jpeg";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return getSize() == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return content.length;
+        }
+
+        @Override
+        public byte[] getBytes() {
+            return content.clone();
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public void transferTo(File dest) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
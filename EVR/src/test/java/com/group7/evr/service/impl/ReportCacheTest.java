@@ -0,0 +1,74 @@
+package com.group7.evr.service.impl;
+
+import com.group7.evr.event.BookingChangedEvent;
+import com.group7.evr.event.VehicleChangedEvent;
+import com.group7.evr.enums.BookingStatus;
+import com.group7.evr.enums.VehicleStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReportCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final ReportCache cache = new ReportCache(3, Duration.ofSeconds(60), now::get);
+
+    @Test
+    void servesCachedValueUntilStationIsInvalidated() {
+        AtomicInteger revenue = new AtomicInteger(100);
+
+        assertEquals(100, cache.get("revenue", 1, "today", revenue::get));
+        revenue.set(250);
+        assertEquals(100, cache.get("revenue", 1, "today", revenue::get));
+
+        cache.onBookingChanged(new BookingChangedEvent(7, 1, BookingStatus.CONFIRMED, BookingStatus.COMPLETED));
+        assertEquals(250, cache.get("revenue", 1, "today", revenue::get));
+    }
+
+    @Test
+    void stationChangeDropsFleetWideEntriesButKeepsOtherStations() {
+        cache.get("fleet-counts", null, null, () -> "all");
+        cache.get("revenue", 2, "today", () -> "station 2");
+
+        cache.onVehicleChanged(new VehicleChangedEvent(5, 1, 1, VehicleStatus.AVAILABLE, VehicleStatus.RENTED));
+
+        assertEquals("all after", cache.get("fleet-counts", null, null, () -> "all after"));
+        assertEquals("station 2", cache.get("revenue", 2, "today", () -> "station 2 after"));
+    }
+
+    @Test
+    void resultComputedAcrossAnInvalidationIsNotStored() {
+        AtomicInteger revenue = new AtomicInteger(100);
+
+        // A write commits while the report is being computed from the old data
+        Integer computed = cache.get("revenue", 1, "today", () -> {
+            int stale = revenue.get();
+            revenue.set(250);
+            cache.invalidateStation(1);
+            return stale;
+        });
+
+        assertEquals(100, computed);
+        assertEquals(250, cache.get("revenue", 1, "today", revenue::get));
+    }
+
+    @Test
+    void expiresAfterTtlAndEvictsLeastRecentlyUsed() {
+        cache.get("revenue", 1, "a", () -> "a");
+        now.addAndGet(Duration.ofSeconds(61).toMillis());
+        assertEquals("a2", cache.get("revenue", 1, "a", () -> "a2"));
+
+        cache.get("revenue", 1, "b", () -> "b");
+        cache.get("revenue", 1, "c", () -> "c");
+        cache.get("revenue", 1, "a", () -> "unused");
+        cache.get("revenue", 1, "d", () -> "d");
+
+        assertEquals("b2", cache.get("revenue", 1, "b", () -> "b2"));
+        assertEquals(1L, cache.getStats().get("expirations"));
+        assertEquals(2L, cache.getStats().get("evictions"));
+    }
+}
@@ -0,0 +1,143 @@
+package com.group7.evr.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class ReportExecutorTest {
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private ReportExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void concurrencyDefaultsToHalfThePoolAndNeverReachesThePoolSize() {
+        executor = new ReportExecutor(transactionManager, 10, 0, 60);
+        assertEquals(5, executor.getMaxConcurrency());
+        executor.shutdown();
+
+        executor = new ReportExecutor(transactionManager, 4, 16, 60);
+        assertEquals(3, executor.getMaxConcurrency());
+        executor.shutdown();
+
+        executor = new ReportExecutor(transactionManager, 1, 0, 60);
+        assertEquals(1, executor.getMaxConcurrency());
+    }
+
+    @Test
+    void runsAtMostTheCapAtOnceAndReturnsResultsInKeyOrder() {
+        executor = new ReportExecutor(transactionManager, 4, 16, 60);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger mostAtOnce = new AtomicInteger();
+
+        Map<Integer, Integer> results = executor.fanOut("test", List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12), key -> {
+            mostAtOnce.accumulateAndGet(running.incrementAndGet(), Math::max);
+            // Later keys finish first
+            sleep(5L * (13 - key));
+            running.decrementAndGet();
+            return key * key;
+        });
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12), List.copyOf(results.keySet()));
+        assertEquals(121, results.get(11));
+        assertTrue(mostAtOnce.get() <= 3, "ran " + mostAtOnce.get() + " parts at once");
+        assertEquals(12L, executor.getStats().get("tasks"));
+    }
+
+    @Test
+    void eachPartRunsInAReadOnlyTransactionThatTimesOutWithTheReport() {
+        executor = new ReportExecutor(transactionManager, 10, 0, 30);
+
+        executor.fanOut("test", List.of(1, 2), key -> key);
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, atLeastOnce()).getTransaction(definition.capture());
+        for (TransactionDefinition part : definition.getAllValues()) {
+            assertTrue(part.isReadOnly());
+            assertTrue(part.getTimeout() >= 1 && part.getTimeout() <= 30, "timeout " + part.getTimeout());
+        }
+    }
+
+    @Test
+    void timeoutCancelsTheRunningAndQueuedParts() throws Exception {
+        executor = new ReportExecutor(transactionManager, 4, 2, 1);
+        CountDownLatch interrupted = new CountDownLatch(2);
+        AtomicInteger started = new AtomicInteger();
+
+        long begin = System.nanoTime();
+        RuntimeException e = assertThrows(RuntimeException.class, () ->
+                executor.fanOut("slow", List.of(1, 2, 3, 4), key -> {
+                    started.incrementAndGet();
+                    try {
+                        Thread.sleep(30_000);
+                    } catch (InterruptedException cancelled) {
+                        interrupted.countDown();
+                        Thread.currentThread().interrupt();
+                    }
+                    return key;
+                }));
+
+        assertEquals("The slow report took longer than 1s", e.getMessage());
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - begin) < 5);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "running parts were not interrupted");
+        // The two parts still waiting for a slot never start
+        sleep(100);
+        assertEquals(2, started.get());
+        assertEquals(1L, executor.getStats().get("timeouts"));
+    }
+
+    @Test
+    void failedPartFailsTheReportAndCancelsTheOthers() throws Exception {
+        executor = new ReportExecutor(transactionManager, 10, 0, 60);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("Range 1 failed");
+
+        RuntimeException e = assertThrows(RuntimeException.class, () ->
+                executor.fanOut("test", List.of(1, 2), key -> {
+                    if (key == 1) {
+                        sleep(50);
+                        throw failure;
+                    }
+                    try {
+                        Thread.sleep(30_000);
+                    } catch (InterruptedException cancelled) {
+                        interrupted.countDown();
+                        Thread.currentThread().interrupt();
+                    }
+                    return key;
+                }));
+
+        assertSame(failure, e);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "the other part was not interrupted");
+        assertEquals(1L, executor.getStats().get("failures"));
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.group7.evr.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The exporter runs against a generated JDBC result set, so no database is needed. The 5M-row exports run
+ * in a child JVM with a 32 MB heap, where anything that kept rows around fails with an OutOfMemoryError.
+ * They take a few minutes, so they only run with {@code mvn test -Devr.tests.large=true}.
+ */
+class RevenueExporterTest {
+    private static final int LARGE_EXPORT_ROWS = 5_000_000;
+    private static final String SMALL_HEAP = "-Xmx32m";
+
+    @Test
+    void csvQuotesFieldsAndAddsFeesToRevenue() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        export(2, RevenueExporter.FORMAT_CSV, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("\uFEFFBooking ID,Station ID,Station,"));
+        assertEquals("1,1,Station 1,101,201,51A-00001,2025-01-02,2025-01-03,COMPLETED,450000.00,10000.00,460000.00,"
+                + "2025-01-01T09:00,2025-01-02T08:00,2025-01-03T18:30", lines[1]);
+        assertTrue(lines[2].startsWith("2,2,\"Station 2, \"\"Quận 1\"\"\",102,202,51A-00002,"), lines[2]);
+    }
+
+    @Test
+    void rejectsUnknownFormatsBeforeStreaming() {
+        RevenueExporter exporter = new RevenueExporter(new JdbcTemplate(generatedBookings(0)));
+
+        assertThrows(RuntimeException.class, () -> exporter.exportRevenue(null,
+                LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 1, 31, 0, 0), "pdf"));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "evr.tests.large", matches = "true")
+    void fiveMillionRowCsvExportRunsInASmallHeap() throws Exception {
+        long[] written = exportInChildJvm(RevenueExporter.FORMAT_CSV);
+
+        assertEquals(LARGE_EXPORT_ROWS + 1L, written[1]);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "evr.tests.large", matches = "true")
+    void fiveMillionRowXlsxExportRunsInASmallHeap() throws Exception {
+        long[] written = exportInChildJvm(RevenueExporter.FORMAT_XLSX);
+
+        // Even compressed, every row takes more than a byte
+        assertTrue(written[0] > LARGE_EXPORT_ROWS, "wrote " + written[0] + " bytes");
+    }
+
+    /**
+     * Child JVM entry point: export the given number of generated rows, discard the output and print the
+     * number of bytes and of line feeds written.
+     */
+    public static void main(String[] args) throws IOException {
+        long[] written = {0, 0};
+        OutputStream sink = new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                written[0] += len;
+                for (int i = off; i < off + len; i++) {
+                    if (b[i] == '\n') {
+                        written[1]++;
+                    }
+                }
+            }
+        };
+        export(Integer.parseInt(args[1]), args[0], sink);
+        System.out.println(written[0] + " " + written[1]);
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private static void export(int rows, String format, OutputStream output) throws IOException {
+        RevenueExporter exporter = new RevenueExporter(new JdbcTemplate(generatedBookings(rows)));
+        ReflectionTestUtils.setField(exporter, "fetchSize", 1000);
+        exporter.exportRevenue(null, LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 12, 31, 0, 0), format)
+                .writeTo(output);
+    }
+
+    private static long[] exportInChildJvm(String format) throws Exception {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(List.of(java, SMALL_HEAP, "-cp", System.getProperty("java.class.path"),
+                RevenueExporterTest.class.getName(), format, String.valueOf(LARGE_EXPORT_ROWS)))
+                .redirectErrorStream(true)
+                .start();
+        // Stdout is tiny: the counts, or the OutOfMemoryError stack trace
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+        assertTrue(process.waitFor(5, TimeUnit.MINUTES), "export did not finish");
+        assertEquals(0, process.exitValue(), output);
+        String[] lines = output.split("\\R");
+        String[] counts = lines[lines.length - 1].trim().split(" ");
+        return new long[]{Long.parseLong(counts[0]), Long.parseLong(counts[1])};
+    }
+
+    /**
+     * A DataSource whose single query returns {@code rows} completed bookings, generated as the cursor
+     * advances. Every other JDBC call is a no-op.
+     */
+    private static DataSource generatedBookings(int rows) {
+        ResultSet resultSet = proxy(ResultSet.class, new GeneratedBookingRows(rows));
+        PreparedStatement statement = proxy(PreparedStatement.class, (method, args) ->
+                method.equals("executeQuery") ? resultSet : null);
+        Connection connection = proxy(Connection.class, (method, args) ->
+                method.startsWith("prepareStatement") ? statement : null);
+        return proxy(DataSource.class, (method, args) -> method.equals("getConnection") ? connection : null);
+    }
+
+    private static <T> T proxy(Class<T> type, JdbcCall call) {
+        return type.cast(Proxy.newProxyInstance(RevenueExporterTest.class.getClassLoader(), new Class<?>[]{type},
+                (self, method, args) -> {
+                    Object result = call.invoke(method.getName(), args);
+                    Class<?> returnType = method.getReturnType();
+                    // Unhandled calls return the zero value of primitive return types
+                    return result != null || !returnType.isPrimitive() || returnType == void.class
+                            ? result : Array.get(Array.newInstance(returnType, 1), 0);
+                }));
+    }
+
+    @FunctionalInterface
+    private interface JdbcCall {
+        Object invoke(String method, Object[] args);
+    }
+
+    // Column values follow the order of RevenueExporter's SELECT list
+    private static final class GeneratedBookingRows implements JdbcCall {
+        private final int rows;
+        private int row;
+
+        private GeneratedBookingRows(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public Object invoke(String method, Object[] args) {
+            if (method.equals("next")) {
+                return ++row <= rows;
+            }
+            int column = args != null && args.length > 0 && args[0] instanceof Integer index ? index : 0;
+            int day = row % 365;
+            return switch (column) {
+                case 1 -> row;
+                case 2 -> row % 40;
+                case 3 -> row % 2 == 0 ? "Station " + row % 40 + ", \"Quận 1\"" : "Station " + row % 40;
+                case 4 -> 100 + row % 5_000;
+                case 5 -> 200 + row % 2_000;
+                case 6 -> String.format("51A-%05d", row % 100_000);
+                case 7 -> Date.valueOf(LocalDate.of(2025, 1, 1).plusDays(day));
+                case 8 -> Date.valueOf(LocalDate.of(2025, 1, 2).plusDays(day));
+                case 9 -> "COMPLETED";
+                case 10 -> BigDecimal.valueOf(400_000 + row % 7 * 50_000).setScale(2);
+                case 11 -> BigDecimal.valueOf(row % 3 * 10_000L).setScale(2);
+                case 12 -> Timestamp.valueOf(LocalDateTime.of(2024, 12, 31, 9, 0).plusDays(day));
+                case 13 -> Timestamp.valueOf(LocalDateTime.of(2025, 1, 1, 8, 0).plusDays(day));
+                case 14 -> Timestamp.valueOf(LocalDateTime.of(2025, 1, 2, 18, 30).plusDays(day));
+                default -> null;
+            };
+        }
+    }
+}
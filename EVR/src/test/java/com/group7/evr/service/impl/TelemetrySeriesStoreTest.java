@@ -0,0 +1,170 @@
+package com.group7.evr.service.impl;
+
+import com.group7.evr.dto.TelemetryReading;
+import com.group7.evr.exception.InvalidDateException;
+import com.group7.evr.util.TelemetryCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelemetrySeriesStoreTest {
+    private static final int VEHICLE = 7;
+
+    @TempDir
+    Path directory;
+
+    private TelemetrySeriesStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = newStore();
+    }
+
+    @Test
+    void splitsSeriesAtTheMonthBoundaryAndQueriesAcrossIt() throws IOException {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 31, 23, 58);
+        store.append(readings(start, 48, 5));
+
+        // Not persisted yet: the query sees the in-memory samples
+        assertEquals(48L, query(start, start.plusMinutes(4)).get("samples"));
+
+        store.persist();
+
+        assertTrue(Files.size(directory.resolve("2025-01").resolve(VEHICLE + ".evts")) > TelemetryCodec.HEADER_BYTES);
+        assertTrue(Files.size(directory.resolve("2025-02").resolve(VEHICLE + ".evts")) > TelemetryCodec.HEADER_BYTES);
+        assertEquals(48L, query(start, start.plusMinutes(4)).get("samples"));
+        assertEquals(24L, query(LocalDateTime.of(2025, 2, 1, 0, 0), start.plusMinutes(4)).get("samples"));
+        // A fresh store reads the same history from disk alone
+        assertEquals(48L, newStore().query(VEHICLE, start, start.plusMinutes(4), 60).get("samples"));
+    }
+
+    @Test
+    void recoversFromATornTailAndKeepsAppending() throws IOException {
+        LocalDateTime start = LocalDateTime.of(2025, 3, 10, 8, 0);
+        store.append(readings(start, 100, 5));
+        store.persist();
+        Path file = directory.resolve("2025-03").resolve(VEHICLE + ".evts");
+        long intactLength = Files.size(file);
+        // A crash mid-append leaves the start of a sample: a varint with its continuation bit set
+        Files.write(file, new byte[]{(byte) 0x8A, (byte) 0x81}, StandardOpenOption.APPEND);
+
+        TelemetrySeriesStore restarted = newStore();
+        assertEquals(100L, restarted.query(VEHICLE, start, start.plusHours(1), 60).get("samples"));
+        restarted.append(readings(start.plusSeconds(500), 50, 5));
+        restarted.persist();
+
+        assertTrue(Files.size(file) > intactLength);
+        Map<String, Object> result = restarted.query(VEHICLE, start, start.plusHours(1), 60);
+        assertEquals(150L, result.get("samples"));
+        List<Map<String, Object>> points = points(result);
+        assertEquals(start, points.get(0).get("at"));
+        assertEquals(start.plusMinutes(12), points.get(points.size() - 1).get("at"));
+    }
+
+    @Test
+    void dropsOutOfOrderSamplesAndCarriesMissingValuesForward() {
+        LocalDateTime start = LocalDateTime.of(2025, 4, 1, 12, 0);
+        List<TelemetryReading> readings = new ArrayList<>();
+        readings.add(new TelemetryReading(VEHICLE, 80.0, 1_000.0, start));
+        readings.add(new TelemetryReading(VEHICLE, null, 1_001.5, start.plusSeconds(5)));
+        readings.add(new TelemetryReading(VEHICLE, 79.0, null, start.plusSeconds(10)));
+        readings.add(new TelemetryReading(VEHICLE, 50.0, 900.0, start.plusSeconds(10)));
+        readings.add(new TelemetryReading(VEHICLE, 50.0, 900.0, start.plusSeconds(2)));
+        store.append(readings);
+        store.persist();
+
+        List<Map<String, Object>> points = points(store.query(VEHICLE, start, start.plusMinutes(1), 5));
+
+        assertEquals(3, points.size());
+        assertEquals(80.0, points.get(1).get("batteryAvg"));
+        assertEquals(1_001.5, points.get(1).get("mileage"));
+        assertEquals(79.0, points.get(2).get("batteryAvg"));
+        assertEquals(1_001.5, points.get(2).get("mileage"));
+        assertEquals(2L, store.getStats().get("droppedOutOfOrder"));
+    }
+
+    @Test
+    void drainRateSkipsChargingAndOfflineGaps() {
+        LocalDateTime start = LocalDateTime.of(2025, 5, 5, 9, 0);
+        List<TelemetryReading> readings = new ArrayList<>();
+        // One hour of driving: 10% and 30 km
+        for (int minute = 0; minute <= 60; minute++) {
+            readings.add(new TelemetryReading(VEHICLE, 90 - minute / 6.0, 100 + minute * 0.5, start.plusMinutes(minute)));
+        }
+        // Charging back up, then offline for an hour while parked
+        readings.add(new TelemetryReading(VEHICLE, 95.0, 130.0, start.plusMinutes(61)));
+        readings.add(new TelemetryReading(VEHICLE, 60.0, 130.0, start.plusMinutes(121)));
+        store.append(readings);
+
+        TelemetrySeriesStore.DrainRate drain = store.getDrainRate(VEHICLE, start, start.plusHours(3));
+
+        assertEquals(63, drain.samples());
+        assertEquals(10.0, drain.drainedPercent(), 0.01);
+        assertEquals(1.0, drain.dischargingHours(), 1e-9);
+        assertEquals(30.0, drain.distanceKm(), 0.01);
+        assertEquals(10.0, drain.percentPerHour(), 0.01);
+    }
+
+    @Test
+    void emptyRangeHasNoPoints() {
+        Map<String, Object> result = store.query(VEHICLE, LocalDateTime.of(2024, 1, 1, 0, 0),
+                LocalDateTime.of(2024, 1, 2, 0, 0), null);
+
+        assertEquals(0L, result.get("samples"));
+        assertTrue(points(result).isEmpty());
+        assertFalse(Files.exists(directory.resolve("2024-01")));
+        assertNull(store.getDrainRate(VEHICLE, LocalDateTime.of(2024, 1, 1, 0, 0),
+                LocalDateTime.of(2024, 1, 2, 0, 0)).percentPerHour());
+    }
+
+    @Test
+    void reversedWindowIsAnInvalidDate() {
+        LocalDateTime at = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+        assertThrows(InvalidDateException.class, () -> store.query(VEHICLE, at, at, null));
+        assertThrows(InvalidDateException.class, () -> store.getDrainRate(VEHICLE, at, at.minusHours(1)));
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private TelemetrySeriesStore newStore() {
+        TelemetrySeriesStore created = new TelemetrySeriesStore(directory.toString());
+        ReflectionTestUtils.setField(created, "maxPoints", 2000);
+        ReflectionTestUtils.setField(created, "retentionMonths", 24);
+        return created;
+    }
+
+    private Map<String, Object> query(LocalDateTime from, LocalDateTime to) {
+        return store.query(VEHICLE, from, to, 60);
+    }
+
+    private static List<TelemetryReading> readings(LocalDateTime start, int count, int everySeconds) {
+        List<TelemetryReading> readings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            readings.add(new TelemetryReading(VEHICLE, 90 - i * 0.01, 1_000 + i * 0.05,
+                    start.plusSeconds((long) i * everySeconds)));
+        }
+        return readings;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> points(Map<String, Object> result) {
+        return (List<Map<String, Object>>) result.get("points");
+    }
+}
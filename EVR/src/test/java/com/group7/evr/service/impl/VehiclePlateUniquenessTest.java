@@ -0,0 +1,164 @@
+package com.group7.evr.service.impl;
+
+import com.group7.evr.controllers.VehicleController;
+import com.group7.evr.exception.ConflictExceptionHandler;
+import com.group7.evr.repository.IssueReportRepository;
+import com.group7.evr.repository.UserRepository;
+import com.group7.evr.repository.VehicleRepository;
+import com.group7.evr.service.StationService;
+import com.group7.evr.service.UserService;
+import com.group7.evr.util.PlateNumbers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.testcontainers.containers.MSSQLServerContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Duplicate plates against the real unique index: the computed plateNumberNormalized column must agree
+ * with PlateNumbers.normalize, and a create whose exists check was passed by a racing create must still
+ * come back as 409. The repository is wrapped so the test decides when the exists check answers. Runs
+ * against a real SQL Server; skipped when Docker is not available.
+ */
+@SpringBootTest(properties = "app.mail.outbox.poll-interval-ms=3600000")
+@Testcontainers(disabledWithoutDocker = true)
+class VehiclePlateUniquenessTest {
+
+    @Container
+    @ServiceConnection
+    static MSSQLServerContainer<?> sqlServer =
+            new MSSQLServerContainer<>("mcr.microsoft.com/mssql/server:2022-latest").acceptLicense();
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private IssueReportRepository issueReportRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private StationService stationService;
+    @Autowired
+    private BookingConflictIndex bookingConflictIndex;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private MediaStore mediaStore;
+    @Autowired
+    private VehicleTelemetryBuffer vehicleTelemetryBuffer;
+    @Autowired
+    private TelemetrySeriesStore telemetrySeriesStore;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private VehicleRepository racingRepository;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        racingRepository = mock(VehicleRepository.class, delegatesTo(vehicleRepository));
+        VehicleServiceImpl vehicleService = new VehicleServiceImpl(racingRepository, userRepository,
+                issueReportRepository, userService, stationService, bookingConflictIndex, eventPublisher, mediaStore);
+        ReflectionTestUtils.setField(vehicleService, "maintenanceIntervalDays", 90);
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                        new VehicleController(vehicleService, vehicleTelemetryBuffer, telemetrySeriesStore))
+                .setControllerAdvice(new ConflictExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void computedColumnMatchesTheJavaNormalization() throws Exception {
+        List<String> plates = List.of("51A-123.45", "30e 999.99", " 29-b.11111 ", "43C12345");
+        for (String plate : plates) {
+            create(plate).andExpect(status().isOk());
+        }
+
+        for (String plate : plates) {
+            List<String> stored = jdbcTemplate.queryForList(
+                    "SELECT plateNumberNormalized FROM Vehicle WHERE plateNumber = ?", String.class, plate);
+            assertEquals(List.of(PlateNumbers.normalize(plate)), stored, plate);
+        }
+    }
+
+    @Test
+    void createThatSlipsPastTheExistsCheckIsAConflict() throws Exception {
+        doReturn(false).when(racingRepository).existsByPlateNumberNormalized(anyString());
+
+        create("51G-222.22").andExpect(status().isOk());
+        create("51g 22222")
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.plateNumber").value("51g 22222"));
+
+        assertEquals(1, countPlate("51G22222"));
+    }
+
+    @Test
+    void concurrentCreatesOfTheSamePlateLeaveOneVehicle() throws Exception {
+        // Neither create may insert before both have passed the exists check
+        CyclicBarrier bothChecked = new CyclicBarrier(2);
+        doAnswer(invocation -> {
+            boolean exists = vehicleRepository.existsByPlateNumberNormalized(invocation.getArgument(0));
+            bothChecked.await(10, TimeUnit.SECONDS);
+            return exists;
+        }).when(racingRepository).existsByPlateNumberNormalized(anyString());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (String plate : List.of("51F-777.77", "51f 77777")) {
+                statuses.add(executor.submit(() -> create(plate).andReturn().getResponse().getStatus()));
+            }
+            List<Integer> codes = new ArrayList<>();
+            for (Future<Integer> status : statuses) {
+                codes.add(status.get(30, TimeUnit.SECONDS));
+            }
+            codes.sort(null);
+
+            assertEquals(List.of(200, 409), codes);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, countPlate("51F77777"));
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private ResultActions create(String plateNumber) throws Exception {
+        return mockMvc.perform(post("/api/vehicles").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"plateNumber\": \"" + plateNumber + "\"}"));
+    }
+
+    private int countPlate(String normalizedPlate) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM Vehicle WHERE plateNumberNormalized = ?", Integer.class, normalizedPlate);
+    }
+}
@@ -0,0 +1,258 @@
+package com.group7.evr.service.impl;
+
+import com.group7.evr.dto.VehicleSearchCriteria;
+import com.group7.evr.entity.Model;
+import com.group7.evr.entity.Station;
+import com.group7.evr.entity.Vehicle;
+import com.group7.evr.enums.VehicleStatus;
+import com.group7.evr.repository.StationRepository;
+import com.group7.evr.repository.VehicleRepository;
+import com.group7.evr.service.VehicleService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MSSQLServerContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * The vehicle search against a seeded fleet, checked against the same filters applied in Java: the composed
+ * Specification, keyset and numbered paging, and facet counts that leave out their own dimension. Runs
+ * against a real SQL Server; skipped when Docker is not available.
+ */
+@SpringBootTest(properties = "app.mail.outbox.poll-interval-ms=3600000")
+@Testcontainers(disabledWithoutDocker = true)
+class VehicleSearchTest {
+    private static final int VEHICLES = 120;
+    private static final int MAINTENANCE_INTERVAL_DAYS = 90;
+
+    private enum Dimension { STATION, MODEL, STATUS }
+
+    private record Seeded(Integer vehicleId, Integer stationId, Integer modelId, VehicleStatus status,
+                          BigDecimal battery, LocalDate lastMaintenance) {
+    }
+
+    @Container
+    @ServiceConnection
+    static MSSQLServerContainer<?> sqlServer =
+            new MSSQLServerContainer<>("mcr.microsoft.com/mssql/server:2022-latest").acceptLicense();
+
+    // The container outlives each test instance, so the fleet is seeded once
+    private static List<Seeded> fleet;
+    private static List<Integer> stationIds;
+    private static List<Integer> modelIds;
+
+    @Autowired
+    private VehicleService vehicleService;
+    @Autowired
+    private VehicleRepository vehicleRepository;
+    @Autowired
+    private StationRepository stationRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void seedOnce() {
+        if (fleet == null) {
+            fleet = seed(new Random(20240901L));
+        }
+    }
+
+    @Test
+    void composedFiltersMatchEveryCriterion() {
+        Random random = new Random(1L);
+        for (int i = 0; i < 60; i++) {
+            VehicleSearchCriteria criteria = randomCriteria(random);
+
+            Map<String, Object> response = vehicleService.searchVehicles(criteria, null, null, null);
+
+            List<Integer> expected = expectedIds(criteria);
+            assertEquals(expected, ids(response), criteria.toString());
+            assertEquals((long) expected.size(), response.get("totalItems"), criteria.toString());
+            assertFalse((Boolean) response.get("hasMore"));
+        }
+    }
+
+    @Test
+    void keysetAndNumberedPagesWalkEveryMatchOnceInOrder() {
+        Random random = new Random(2L);
+        for (int i = 0; i < 20; i++) {
+            VehicleSearchCriteria criteria = i == 0 ? new VehicleSearchCriteria(null, null, null, null, null, null)
+                    : randomCriteria(random);
+            int size = 1 + random.nextInt(9);
+
+            List<Integer> keyset = new ArrayList<>();
+            Map<String, Object> response = vehicleService.searchVehicles(criteria, null, size, null);
+            keyset.addAll(ids(response));
+            while ((Boolean) response.get("hasMore")) {
+                response = vehicleService.searchVehicles(criteria, null, size, (String) response.get("nextCursor"));
+                keyset.addAll(ids(response));
+            }
+            assertNull(response.get("nextCursor"));
+
+            List<Integer> numbered = new ArrayList<>();
+            int totalPages = (Integer) vehicleService.searchVehicles(criteria, 0, size, null).get("totalPages");
+            for (int page = 0; page < totalPages; page++) {
+                numbered.addAll(ids(vehicleService.searchVehicles(criteria, page, size, null)));
+            }
+
+            assertEquals(expectedIds(criteria), keyset, criteria + " by cursor, size " + size);
+            assertEquals(expectedIds(criteria), numbered, criteria + " by page, size " + size);
+        }
+    }
+
+    @Test
+    void facetsLeaveOutTheirOwnDimension() {
+        Random random = new Random(3L);
+        for (int i = 0; i < 60; i++) {
+            VehicleSearchCriteria criteria = randomCriteria(random);
+
+            @SuppressWarnings("unchecked")
+            Map<String, Object> facets = (Map<String, Object>) vehicleService
+                    .searchVehicles(criteria, null, null, null).get("facets");
+
+            Map<VehicleStatus, Long> byStatus = new EnumMap<>(VehicleStatus.class);
+            Map<Integer, Long> byModel = new TreeMap<>();
+            Map<Integer, Long> byStation = new TreeMap<>();
+            for (Seeded vehicle : fleet) {
+                if (matches(vehicle, criteria, Dimension.STATUS)) {
+                    byStatus.merge(vehicle.status(), 1L, Long::sum);
+                }
+                if (vehicle.modelId() != null && matches(vehicle, criteria, Dimension.MODEL)) {
+                    byModel.merge(vehicle.modelId(), 1L, Long::sum);
+                }
+                if (vehicle.stationId() != null && matches(vehicle, criteria, Dimension.STATION)) {
+                    byStation.merge(vehicle.stationId(), 1L, Long::sum);
+                }
+            }
+            assertEquals(byStatus, facets.get("status"), criteria.toString());
+            assertEquals(byModel, counts(facets.get("model"), "modelId"), criteria.toString());
+            assertEquals(byStation, counts(facets.get("station"), "stationId"), criteria.toString());
+        }
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private List<Seeded> seed(Random random) {
+        stationIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Station station = new Station();
+            station.setName("Search station " + i);
+            station.setTotalSlots(50);
+            station.setAvailableSlots(50);
+            stationIds.add(stationRepository.save(station).getStationId());
+        }
+        List<Model> models = new TransactionTemplate(transactionManager).execute(tx -> {
+            List<Model> created = new ArrayList<>();
+            for (String modelName : List.of("VF e34", "VF 5", "VF 8")) {
+                Model model = new Model();
+                model.setBrand("VinFast");
+                model.setModelName(modelName);
+                model.setBasePrice(BigDecimal.valueOf(500_000));
+                entityManager.persist(model);
+                created.add(model);
+            }
+            return created;
+        });
+        modelIds = models.stream().map(Model::getModelId).toList();
+
+        List<Seeded> seeded = new ArrayList<>();
+        for (int i = 0; i < VEHICLES; i++) {
+            Vehicle vehicle = new Vehicle();
+            // A few vehicles are unassigned, so the facet joins have to stay outer joins
+            Integer stationId = i % 20 == 0 ? null : stationIds.get(random.nextInt(stationIds.size()));
+            Integer modelIndex = i % 25 == 0 ? null : random.nextInt(models.size());
+            if (stationId != null) {
+                vehicle.setStation(stationRepository.getReferenceById(stationId));
+            }
+            if (modelIndex != null) {
+                vehicle.setModel(models.get(modelIndex));
+            }
+            vehicle.setPlateNumber(String.format("51S-%05d", i));
+            vehicle.setStatus(VehicleStatus.values()[random.nextInt(VehicleStatus.values().length)]);
+            vehicle.setBatteryLevel(BigDecimal.valueOf(random.nextInt(101)));
+            LocalDate lastMaintenance = random.nextInt(4) == 0 ? null : LocalDate.now().minusDays(random.nextInt(200));
+            vehicle.setLastMaintenanceDate(lastMaintenance != null ? Date.valueOf(lastMaintenance) : null);
+            Vehicle saved = vehicleRepository.save(vehicle);
+            seeded.add(new Seeded(saved.getVehicleId(), stationId,
+                    modelIndex != null ? modelIds.get(modelIndex) : null, saved.getStatus(),
+                    saved.getBatteryLevel(), lastMaintenance));
+        }
+        return seeded;
+    }
+
+    private static VehicleSearchCriteria randomCriteria(Random random) {
+        Integer stationId = random.nextBoolean() ? stationIds.get(random.nextInt(stationIds.size())) : null;
+        Integer modelId = random.nextBoolean() ? modelIds.get(random.nextInt(modelIds.size())) : null;
+        String status = random.nextBoolean()
+                ? VehicleStatus.values()[random.nextInt(VehicleStatus.values().length)].name().toLowerCase() : null;
+        BigDecimal minBattery = random.nextInt(3) == 0 ? BigDecimal.valueOf(random.nextInt(50)) : null;
+        BigDecimal maxBattery = random.nextInt(3) == 0 ? BigDecimal.valueOf(50 + random.nextInt(51)) : null;
+        Boolean maintenanceDue = switch (random.nextInt(3)) {
+            case 0 -> Boolean.TRUE;
+            case 1 -> Boolean.FALSE;
+            default -> null;
+        };
+        return new VehicleSearchCriteria(stationId, modelId, status, minBattery, maxBattery, maintenanceDue);
+    }
+
+    private static List<Integer> expectedIds(VehicleSearchCriteria criteria) {
+        return fleet.stream()
+                .filter(vehicle -> matches(vehicle, criteria, null))
+                .map(Seeded::vehicleId)
+                .sorted(Comparator.reverseOrder())
+                .toList();
+    }
+
+    // Every filter of the criteria except the skipped dimension's
+    private static boolean matches(Seeded vehicle, VehicleSearchCriteria criteria, Dimension skipped) {
+        LocalDate cutoff = LocalDate.now().minusDays(MAINTENANCE_INTERVAL_DAYS);
+        boolean due = vehicle.lastMaintenance() == null || vehicle.lastMaintenance().isBefore(cutoff);
+        return (skipped == Dimension.STATION || criteria.stationId() == null
+                        || criteria.stationId().equals(vehicle.stationId()))
+                && (skipped == Dimension.MODEL || criteria.modelId() == null
+                        || criteria.modelId().equals(vehicle.modelId()))
+                && (skipped == Dimension.STATUS || criteria.status() == null
+                        || criteria.status().equalsIgnoreCase(vehicle.status().name()))
+                && (criteria.minBattery() == null || vehicle.battery().compareTo(criteria.minBattery()) >= 0)
+                && (criteria.maxBattery() == null || vehicle.battery().compareTo(criteria.maxBattery()) <= 0)
+                && (criteria.maintenanceDue() == null
+                        || (criteria.maintenanceDue() ? due : vehicle.lastMaintenance() != null && !due));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Integer> ids(Map<String, Object> response) {
+        return ((List<Vehicle>) response.get("vehicles")).stream().map(Vehicle::getVehicleId).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Integer, Long> counts(Object facet, String idKey) {
+        Map<Integer, Long> counts = new TreeMap<>();
+        for (Map<String, Object> entry : (List<Map<String, Object>>) facet) {
+            counts.put((Integer) entry.get(idKey), (Long) entry.get("count"));
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,340 @@
+package com.group7.evr.service.impl;
+
+import com.group7.evr.dto.VehicleFacetRow;
+import com.group7.evr.dto.VehicleSearchCriteria;
+import com.group7.evr.entity.Booking;
+import com.group7.evr.entity.Vehicle;
+import com.group7.evr.enums.BookingStatus;
+import com.group7.evr.enums.VehicleStatus;
+import com.group7.evr.exception.DuplicatePlateNumberException;
+import com.group7.evr.exception.InvalidDateException;
+import com.group7.evr.repository.BookingRepository;
+import com.group7.evr.repository.IssueReportRepository;
+import com.group7.evr.repository.UserRepository;
+import com.group7.evr.repository.VehicleRepository;
+import com.group7.evr.service.StationService;
+import com.group7.evr.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Vehicle service against mocked repositories and a real conflict index, so availability is answered from
+ * the same bitmaps and interval trees as in production.
+ */
+class VehicleServiceImplTest {
+    private static final LocalDate DAY = LocalDate.now().plusDays(4);
+
+    private final VehicleRepository vehicleRepository = mock(VehicleRepository.class);
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+
+    private BookingConflictIndex index;
+    private VehicleServiceImpl vehicleService;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingConflictIndex(bookingRepository);
+        ReflectionTestUtils.setField(index, "slotMinutes", 15);
+        ReflectionTestUtils.setField(index, "horizonDays", 90);
+        index.warmUp();
+        vehicleService = new VehicleServiceImpl(vehicleRepository, mock(UserRepository.class),
+                mock(IssueReportRepository.class), mock(UserService.class), mock(StationService.class), index,
+                mock(ApplicationEventPublisher.class), mock(MediaStore.class));
+    }
+
+    @Test
+    void availabilityDropsVehiclesBookedInTheWindow() {
+        when(vehicleRepository.findByStationStationIdAndModelModelIdAndStatus(3, 7, VehicleStatus.AVAILABLE))
+                .thenReturn(vehicles(10, 11, 12));
+        index.sync(booking(1, 11, BookingStatus.CONFIRMED, DAY, DAY.plusDays(2)));
+
+        List<Vehicle> available = vehicleService.findAvailableVehicles(3, 7,
+                DAY.plusDays(1).atStartOfDay(), DAY.plusDays(1).atTime(12, 0));
+
+        assertEquals(List.of(10, 12), ids(available));
+    }
+
+    @Test
+    void availabilityPicksTheCandidateQueryFromTheFilters() {
+        LocalDateTime from = DAY.atStartOfDay();
+        LocalDateTime to = DAY.plusDays(1).atStartOfDay();
+        when(vehicleRepository.findByStationStationIdAndStatus(3, VehicleStatus.AVAILABLE)).thenReturn(vehicles(10));
+        when(vehicleRepository.findByModelModelIdAndStatus(7, VehicleStatus.AVAILABLE)).thenReturn(vehicles(11));
+        when(vehicleRepository.findByStatus(VehicleStatus.AVAILABLE)).thenReturn(vehicles(10, 11, 12));
+
+        assertEquals(List.of(10), ids(vehicleService.findAvailableVehicles(3, null, from, to)));
+        assertEquals(List.of(11), ids(vehicleService.findAvailableVehicles(null, 7, from, to)));
+        assertEquals(List.of(10, 11, 12), ids(vehicleService.findAvailableVehicles(null, null, from, to)));
+        verify(vehicleRepository).findByStatus(VehicleStatus.AVAILABLE);
+    }
+
+    @Test
+    void availabilityHonoursBookingBoundariesAndInactiveBookings() {
+        when(vehicleRepository.findByStatus(VehicleStatus.AVAILABLE)).thenReturn(vehicles(10, 11, 12));
+        index.sync(booking(1, 10, BookingStatus.PENDING, DAY, DAY.plusDays(1)));
+        index.sync(booking(2, 11, BookingStatus.CANCELLED, DAY, DAY.plusDays(3)));
+        index.sync(booking(3, 12, BookingStatus.COMPLETED, DAY, DAY.plusDays(3)));
+
+        // The window starts exactly when vehicle 10's booking ends
+        assertEquals(List.of(10, 11, 12), ids(vehicleService.findAvailableVehicles(null, null,
+                DAY.plusDays(1).atStartOfDay(), DAY.plusDays(2).atStartOfDay())));
+        assertEquals(List.of(11, 12), ids(vehicleService.findAvailableVehicles(null, null,
+                DAY.atTime(23, 0), DAY.plusDays(1).atTime(1, 0))));
+    }
+
+    @Test
+    void availabilityPastTheCalendarHorizonUsesTheIntervalTrees() {
+        when(vehicleRepository.findByStatus(VehicleStatus.AVAILABLE)).thenReturn(vehicles(10, 11));
+        LocalDate late = LocalDate.now().plusDays(120);
+        index.sync(booking(1, 10, BookingStatus.CONFIRMED, late, late.plusDays(1)));
+
+        assertEquals(List.of(11), ids(vehicleService.findAvailableVehicles(null, null,
+                late.atTime(10, 0), late.atTime(11, 0))));
+        // Straddling the horizon end is answered by the trees too
+        assertEquals(List.of(11), ids(vehicleService.findAvailableVehicles(null, null,
+                LocalDate.now().plusDays(85).atStartOfDay(), late.plusDays(1).atStartOfDay())));
+    }
+
+    @Test
+    void availabilityRejectsEmptyOrReversedWindows() {
+        LocalDateTime at = DAY.atTime(9, 0);
+
+        assertThrows(InvalidDateException.class, () -> vehicleService.findAvailableVehicles(null, null, at, at));
+        assertThrows(InvalidDateException.class,
+                () -> vehicleService.findAvailableVehicles(null, null, at, at.minusHours(1)));
+        assertThrows(InvalidDateException.class, () -> vehicleService.findAvailableVehicles(null, null, null, at));
+        verifyNoInteractions(vehicleRepository);
+    }
+
+    @Test
+    void eachFacetCountsWithoutItsOwnFilter() {
+        // Station 1 and AVAILABLE picked: the RENTED row only feeds the status facet, station 2 only the station one
+        when(vehicleRepository.countFacets(any(), any(), any(), any())).thenReturn(List.of(
+                new VehicleFacetRow(1, "District 1", 7, "VF e34", VehicleStatus.AVAILABLE, 4L, 4L, 4L, 4L),
+                new VehicleFacetRow(1, "District 1", 8, "VF 8", VehicleStatus.RENTED, 0L, 0L, 0L, 3L),
+                new VehicleFacetRow(2, "District 2", 7, "VF e34", VehicleStatus.AVAILABLE, 0L, 9L, 0L, 0L)));
+
+        Map<String, Object> response = vehicleService.searchVehicles(
+                new VehicleSearchCriteria(1, null, "available", null, null, null), null, null, null);
+
+        Map<String, Object> facets = facets(response);
+        assertEquals(4L, response.get("totalItems"));
+        assertEquals(Map.of(VehicleStatus.AVAILABLE, 4L, VehicleStatus.RENTED, 3L), facets.get("status"));
+        assertEquals(List.of(Map.of("modelId", 7, "modelName", "VF e34", "count", 4L)), facets.get("model"));
+        assertEquals(List.of(
+                Map.of("stationId", 1, "name", "District 1", "count", 4L),
+                Map.of("stationId", 2, "name", "District 2", "count", 9L)), facets.get("station"));
+    }
+
+    @Test
+    void totalCountsOnlyVehiclesMatchingEveryFilter() {
+        when(vehicleRepository.countFacets(any(), any(), any(), any())).thenReturn(List.of(
+                new VehicleFacetRow(1, "District 1", 7, "VF e34", VehicleStatus.AVAILABLE, 4L, 4L, 4L, 4L),
+                new VehicleFacetRow(2, "District 2", 7, "VF e34", VehicleStatus.RENTED, 0L, 0L, 0L, 3L)));
+        doReturn(new SliceImpl<>(vehicles(13, 12, 11, 10)))
+                .when(vehicleRepository).findBy(any(Specification.class), any());
+
+        Map<String, Object> response = vehicleService.searchVehicles(
+                new VehicleSearchCriteria(null, null, "available", null, null, null), 0, 10, null);
+
+        assertEquals(4L, response.get("totalItems"));
+        assertEquals(1, response.get("totalPages"));
+        // A facet value nothing counts towards is left out
+        assertEquals(List.of(Map.of("stationId", 1, "name", "District 1", "count", 4L)),
+                facets(response).get("station"));
+    }
+
+    @Test
+    void keysetPageReportsTheLastVehicleAsTheNextCursor() {
+        when(vehicleRepository.countFacets(any(), any(), any(), any())).thenReturn(List.of());
+        // One row past the page size comes back when there are more
+        doReturn(vehicles(40, 38, 37, 31)).when(vehicleRepository).findBy(any(Specification.class), any());
+
+        Map<String, Object> response = vehicleService.searchVehicles(
+                new VehicleSearchCriteria(null, null, null, null, null, null), null, 3, "41");
+
+        assertEquals(List.of(40, 38, 37), ids(vehicles(response)));
+        assertEquals(true, response.get("hasMore"));
+        assertEquals("37", response.get("nextCursor"));
+
+        doReturn(vehicles(30, 29)).when(vehicleRepository).findBy(any(Specification.class), any());
+        Map<String, Object> last = vehicleService.searchVehicles(
+                new VehicleSearchCriteria(null, null, null, null, null, null), null, 3, "37");
+
+        assertEquals(List.of(30, 29), ids(vehicles(last)));
+        assertEquals(false, last.get("hasMore"));
+        assertNull(last.get("nextCursor"));
+    }
+
+    @Test
+    void searchRejectsBadCursorsAndFilters() {
+        VehicleSearchCriteria none = new VehicleSearchCriteria(null, null, null, null, null, null);
+
+        assertThrows(RuntimeException.class, () -> vehicleService.searchVehicles(none, null, 10, "abc"));
+        assertThrows(RuntimeException.class, () -> vehicleService.searchVehicles(none, null, 0, null));
+        assertThrows(RuntimeException.class, () -> vehicleService.searchVehicles(
+                new VehicleSearchCriteria(null, null, "parked", null, null, null), null, null, null));
+        assertThrows(RuntimeException.class, () -> vehicleService.searchVehicles(
+                new VehicleSearchCriteria(null, null, null, BigDecimal.valueOf(80), BigDecimal.valueOf(20), null),
+                null, null, null));
+    }
+
+    @Test
+    void importReportsEveryBadRowAndSavesNothing() {
+        when(vehicleRepository.findExistingNormalizedPlates(any())).thenReturn(List.of("30E99999"));
+
+        Map<String, Object> result = vehicleService.importVehicles(List.of(
+                vehicle("51A-123.45"), vehicle("30e 999.99"), vehicle("51a 12345"),
+                vehicle(" "), vehicle("51A_123"), vehicle("51A-123.46")));
+
+        assertEquals(0, result.get("imported"));
+        assertEquals(List.of(
+                List.of(1, "ALREADY_EXISTS"), List.of(2, "DUPLICATE_IN_IMPORT"),
+                List.of(3, "REQUIRED"), List.of(4, "INVALID")), errorCodes(result));
+        assertEquals("Same plate number as row 0", errors(result).get(1).get("message"));
+        verify(vehicleRepository, never()).save(any());
+    }
+
+    @Test
+    void importLooksUpEveryDistinctPlateInOneQuery() {
+        when(vehicleRepository.findExistingNormalizedPlates(any())).thenReturn(List.of());
+        when(vehicleRepository.save(any(Vehicle.class))).thenAnswer(invocation -> {
+            Vehicle vehicle = invocation.getArgument(0);
+            vehicle.setVehicleId(100 + vehicle.getPlateNumber().length());
+            return vehicle;
+        });
+
+        Map<String, Object> result = vehicleService.importVehicles(List.of(
+                vehicle("51A-123.45"), vehicle("30E-999.9")));
+
+        assertEquals(2, result.get("imported"));
+        ArgumentCaptor<String> plates = ArgumentCaptor.forClass(String.class);
+        verify(vehicleRepository).findExistingNormalizedPlates(plates.capture());
+        assertEquals(Set.of("51A12345", "30E9999"), Set.of(plates.getValue().split(",")));
+    }
+
+    @Test
+    void createRejectsAPlateThatExistsInAnotherForm() {
+        when(vehicleRepository.existsByPlateNumberNormalized("51A12345")).thenReturn(true);
+
+        DuplicatePlateNumberException e = assertThrows(DuplicatePlateNumberException.class,
+                () -> vehicleService.createVehicle(vehicle("51a 123.45")));
+
+        assertEquals("51a 123.45", e.getPlateNumber());
+        verify(vehicleRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void uniqueIndexViolationAfterAPassedCheckIsADuplicate() {
+        // Both creates passed the exists check; the unique index rejects the second insert
+        when(vehicleRepository.existsByPlateNumberNormalized("51A12345")).thenReturn(false);
+        when(vehicleRepository.saveAndFlush(any(Vehicle.class))).thenThrow(plateIndexViolation("51A12345"));
+
+        assertThrows(DuplicatePlateNumberException.class, () -> vehicleService.createVehicle(vehicle("51A-123.45")));
+
+        when(vehicleRepository.findExistingNormalizedPlates(any())).thenReturn(List.of());
+        when(vehicleRepository.save(any(Vehicle.class))).thenThrow(plateIndexViolation("30E99999"));
+
+        DuplicatePlateNumberException e = assertThrows(DuplicatePlateNumberException.class,
+                () -> vehicleService.importVehicles(List.of(vehicle("30E-999.99"))));
+        assertEquals("30E-999.99", e.getPlateNumber());
+    }
+
+    @Test
+    void otherIntegrityViolationsAreNotReportedAsDuplicates() {
+        DataIntegrityViolationException foreignKey = new DataIntegrityViolationException("insert failed",
+                new SQLException("The INSERT statement conflicted with the FOREIGN KEY constraint "
+                        + "\"FK_Vehicle_Station\""));
+        when(vehicleRepository.saveAndFlush(any(Vehicle.class))).thenThrow(foreignKey);
+
+        assertSame(foreignKey, assertThrows(DataIntegrityViolationException.class,
+                () -> vehicleService.createVehicle(vehicle("51A-123.45"))));
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private static List<Vehicle> vehicles(Integer... ids) {
+        return Arrays.stream(ids).map(id -> {
+            Vehicle vehicle = new Vehicle();
+            vehicle.setVehicleId(id);
+            vehicle.setStatus(VehicleStatus.AVAILABLE);
+            return vehicle;
+        }).toList();
+    }
+
+    private static Vehicle vehicle(String plateNumber) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setPlateNumber(plateNumber);
+        return vehicle;
+    }
+
+    // SQL Server's message for a duplicate key in a unique index
+    private static DataIntegrityViolationException plateIndexViolation(String normalizedPlate) {
+        return new DataIntegrityViolationException("could not execute statement", new SQLException(
+                "Cannot insert duplicate key row in object 'dbo.Vehicle' with unique index "
+                        + "'UX_Vehicle_PlateNumberNormalized'. The duplicate key value is (" + normalizedPlate + ").",
+                "23000", 2601));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> errors(Map<String, Object> result) {
+        return (List<Map<String, Object>>) result.get("errors");
+    }
+
+    private static List<List<Object>> errorCodes(Map<String, Object> result) {
+        return errors(result).stream().map(error -> List.of(error.get("row"), error.get("code"))).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> facets(Map<String, Object> response) {
+        return (Map<String, Object>) response.get("facets");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Vehicle> vehicles(Map<String, Object> response) {
+        return (List<Vehicle>) response.get("vehicles");
+    }
+
+    private static List<Integer> ids(List<Vehicle> vehicles) {
+        return vehicles.stream().map(Vehicle::getVehicleId).toList();
+    }
+
+    private static Booking booking(int bookingId, int vehicleId, BookingStatus status, LocalDate start, LocalDate end) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setVehicleId(vehicleId);
+        Booking booking = new Booking();
+        booking.setBookingId(bookingId);
+        booking.setVehicle(vehicle);
+        booking.setBookingStatus(status);
+        booking.setStartTime(Date.valueOf(start));
+        booking.setEndTime(Date.valueOf(end));
+        return booking;
+    }
+}
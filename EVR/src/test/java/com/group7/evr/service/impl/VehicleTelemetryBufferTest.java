@@ -0,0 +1,80 @@
+package com.group7.evr.service.impl;
+
+import com.group7.evr.dto.TelemetryReading;
+import com.group7.evr.enums.VehicleStatus;
+import com.group7.evr.event.VehicleChangedEvent;
+import com.group7.evr.repository.VehicleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VehicleTelemetryBufferTest {
+
+    private final VehicleRepository vehicleRepository = mock(VehicleRepository.class);
+    private VehicleTelemetryBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new VehicleTelemetryBuffer(null, null, vehicleRepository, null, 100, 10);
+    }
+
+    @Test
+    void rejectsReadingsForVehiclesThatDoNotExist() {
+        when(vehicleRepository.findAllVehicleIds()).thenReturn(List.of(1, 2));
+
+        Map<String, Object> result = buffer.ingest(List.of(reading(1), reading(2), reading(3), reading(3)));
+
+        assertEquals(2, result.get("accepted"));
+        assertEquals(2, result.get("rejected"));
+        assertEquals(2L, buffer.getStats().get("unknownVehicles"));
+        assertEquals(2, buffer.getStats().get("pendingVehicles"));
+    }
+
+    @Test
+    void loadsTheIdsOnceAndLearnsNewVehiclesFromEvents() {
+        when(vehicleRepository.findAllVehicleIds()).thenReturn(List.of(1));
+        buffer.ingest(List.of(reading(1)));
+
+        buffer.onVehicleChanged(new VehicleChangedEvent(5, null, 2, null, VehicleStatus.AVAILABLE));
+        buffer.onVehicleChanged(new VehicleChangedEvent(6, 2, 3, VehicleStatus.AVAILABLE, VehicleStatus.AVAILABLE));
+        Map<String, Object> result = buffer.ingest(List.of(reading(5), reading(6)));
+
+        assertEquals(1, result.get("accepted"));
+        verify(vehicleRepository, times(1)).findAllVehicleIds();
+    }
+
+    @Test
+    void refreshAddsNewIdsAndKeepsThoseLearnedFromEvents() {
+        when(vehicleRepository.findAllVehicleIds()).thenReturn(List.of(1), List.of(1, 4));
+        buffer.ingest(List.of(reading(1)));
+        buffer.onVehicleChanged(new VehicleChangedEvent(5, null, 2, null, VehicleStatus.AVAILABLE));
+
+        buffer.refreshKnownVehicles();
+        Map<String, Object> result = buffer.ingest(List.of(reading(1), reading(4), reading(5), reading(9)));
+
+        assertEquals(3, result.get("accepted"));
+        verify(vehicleRepository, times(2)).findAllVehicleIds();
+    }
+
+    @Test
+    void refreshBeforeFirstUseDoesNotQuery() {
+        buffer.refreshKnownVehicles();
+
+        verify(vehicleRepository, times(0)).findAllVehicleIds();
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private static TelemetryReading reading(int vehicleId) {
+        return new TelemetryReading(vehicleId, 80.0, 1_000.0, LocalDateTime.now().minusSeconds(5));
+    }
+}
@@ -0,0 +1,136 @@
+package com.group7.evr.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DoubleSeasonalHoltWintersTest {
+    private static final int DAY = 24;
+    private static final int WEEK = 7 * DAY;
+
+    @Test
+    void rejectsHistoryShorterThanTwoWeeklyCycles() {
+        DoubleSeasonalHoltWinters model = newModel();
+
+        assertThrows(IllegalArgumentException.class, () -> model.fit(new double[2 * WEEK - 1]));
+    }
+
+    @Test
+    void learnsDailyAndWeeklyPatternOfAnExactSeries() {
+        double[] history = generate(8 * WEEK, 0, new Random(1));
+        DoubleSeasonalHoltWinters model = newModel();
+
+        model.fit(Arrays.copyOf(history, 7 * WEEK));
+        double[] forecast = model.forecast(WEEK);
+
+        double mape = hourlyMape(forecast, Arrays.copyOfRange(history, 7 * WEEK, 8 * WEEK));
+        assertTrue(mape < 0.05, "hourly MAPE " + mape);
+    }
+
+    @Test
+    void forecastsNoisyDemandWithinDailyMape() {
+        double[] history = generate(8 * WEEK, 1.0, new Random(7));
+        DoubleSeasonalHoltWinters model = newModel();
+
+        model.fit(Arrays.copyOf(history, 7 * WEEK));
+        double[] forecast = model.forecast(WEEK);
+
+        double mape = dailyMape(forecast, Arrays.copyOfRange(history, 7 * WEEK, 8 * WEEK));
+        assertTrue(mape < 0.15, "daily MAPE " + mape);
+    }
+
+    @Test
+    void incrementalUpdatesMatchAFullFit() {
+        double[] history = generate(6 * WEEK, 1.0, new Random(3));
+        DoubleSeasonalHoltWinters full = newModel();
+        DoubleSeasonalHoltWinters incremental = newModel();
+
+        full.fit(history);
+        incremental.fit(Arrays.copyOf(history, 4 * WEEK));
+        for (int i = 4 * WEEK; i < history.length; i++) {
+            incremental.update(history[i]);
+        }
+
+        assertArrayEquals(toBits(full.forecast(WEEK)), toBits(incremental.forecast(WEEK)));
+        assertEquals(full.oneStepRmse(), incremental.oneStepRmse(), 1e-12);
+    }
+
+    @Test
+    void refittingTheSameModelGivesTheSameForecast() {
+        double[] history = generate(4 * WEEK, 1.0, new Random(5));
+        DoubleSeasonalHoltWinters model = newModel();
+
+        model.fit(history);
+        double[] first = model.forecast(DAY);
+        model.fit(history);
+
+        assertArrayEquals(toBits(first), toBits(model.forecast(DAY)));
+    }
+
+    @Test
+    void clipsNegativeForecastsToZero() {
+        double[] history = new double[2 * WEEK];
+        for (int i = WEEK; i < history.length; i++) {
+            history[i] = Math.max(0, 10 - (i - WEEK) * 0.2);
+        }
+        DoubleSeasonalHoltWinters model = newModel();
+
+        model.fit(history);
+
+        assertTrue(Arrays.stream(model.forecast(WEEK)).allMatch(value -> value >= 0));
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private static DoubleSeasonalHoltWinters newModel() {
+        return new DoubleSeasonalHoltWinters(DAY, WEEK, 0.15, 0.01, 0.15, 0.15);
+    }
+
+    /**
+     * Hourly bookings with a daily cycle (busy daytime, quiet night), busier weekends and optional
+     * Gaussian noise of the given standard deviation.
+     */
+    static double[] generate(int hours, double noise, Random random) {
+        double[] series = new double[hours];
+        for (int t = 0; t < hours; t++) {
+            int hourOfDay = t % DAY;
+            int dayOfWeek = (t / DAY) % 7;
+            double daily = 4 * Math.sin(Math.PI * (hourOfDay - 6) / 12.0);
+            double weekly = dayOfWeek >= 5 ? 3 : 0;
+            series[t] = Math.max(0, 8 + daily + weekly + noise * random.nextGaussian());
+        }
+        return series;
+    }
+
+    private static double hourlyMape(double[] predicted, double[] actual) {
+        double sum = 0;
+        for (int i = 0; i < actual.length; i++) {
+            sum += Math.abs(actual[i] - predicted[i]) / actual[i];
+        }
+        return sum / actual.length;
+    }
+
+    private static double dailyMape(double[] predicted, double[] actual) {
+        double sum = 0;
+        for (int day = 0; day < actual.length / DAY; day++) {
+            double actualTotal = 0;
+            double predictedTotal = 0;
+            for (int hour = day * DAY; hour < (day + 1) * DAY; hour++) {
+                actualTotal += actual[hour];
+                predictedTotal += predicted[hour];
+            }
+            sum += Math.abs(actualTotal - predictedTotal) / actualTotal;
+        }
+        return sum / (actual.length / DAY);
+    }
+
+    private static long[] toBits(double[] values) {
+        return Arrays.stream(values).mapToLong(Double::doubleToLongBits).toArray();
+    }
+}
@@ -0,0 +1,46 @@
+package com.group7.evr.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PlateNumbersTest {
+
+    @Test
+    void separatorsAndCaseDoNotMatter() {
+        assertEquals("51A12345", PlateNumbers.normalize("51A-123.45"));
+        assertEquals("51A12345", PlateNumbers.normalize("51a 123 45"));
+        assertEquals("51A12345", PlateNumbers.normalize(" 51-a.12345 "));
+        assertEquals(PlateNumbers.normalize("30E-999.99"), PlateNumbers.normalize("30e99999"));
+    }
+
+    @Test
+    void lettersAndDigitsAreKept() {
+        assertNotEquals(PlateNumbers.normalize("51A-123.45"), PlateNumbers.normalize("51B-123.45"));
+        assertNotEquals(PlateNumbers.normalize("51A-123.45"), PlateNumbers.normalize("51A-123.46"));
+        // Other characters are left for the import validation to reject
+        assertEquals("51A_12345", PlateNumbers.normalize("51a_123.45"));
+    }
+
+    @Test
+    void upperCasingIgnoresTheDefaultLocale() {
+        // Turkish upper-cases i to a dotted capital I
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            assertEquals("29I12345", PlateNumbers.normalize("29i-123.45"));
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    void blankAndNullPlates() {
+        assertNull(PlateNumbers.normalize(null));
+        assertEquals("", PlateNumbers.normalize(" - . "));
+    }
+}
@@ -0,0 +1,208 @@
+package com.group7.evr.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlotBitmapCalendarTest {
+    private static final long SLOT = 900_000L;
+    // Not a multiple of 64, so the last word is partial
+    private static final int SLOTS = 100;
+    private static final long ORIGIN = 1_700_000_100_000L - 1_700_000_100_000L % SLOT;
+    private static final long HORIZON_END = ORIGIN + SLOTS * SLOT;
+
+    @Test
+    void coversOnlyWindowsInsideTheHorizon() {
+        SlotBitmapCalendar calendar = new SlotBitmapCalendar(SLOT, SLOTS, ORIGIN);
+
+        assertTrue(calendar.covers(ORIGIN, HORIZON_END));
+        assertTrue(calendar.covers(HORIZON_END - 1, HORIZON_END));
+        assertFalse(calendar.covers(ORIGIN - 1, ORIGIN + SLOT));
+        assertFalse(calendar.covers(HORIZON_END - SLOT, HORIZON_END + 1));
+        assertFalse(calendar.covers(HORIZON_END, HORIZON_END + SLOT));
+        // An empty window on a slot boundary touches no slot
+        assertFalse(calendar.covers(ORIGIN + SLOT, ORIGIN + SLOT));
+    }
+
+    @Test
+    void originIsRoundedDownToItsSlot() {
+        SlotBitmapCalendar calendar = new SlotBitmapCalendar(SLOT, SLOTS, ORIGIN + SLOT / 2);
+
+        assertTrue(calendar.covers(ORIGIN, ORIGIN + SLOT));
+        assertFalse(calendar.covers(ORIGIN - 1, ORIGIN + SLOT));
+    }
+
+    @Test
+    void reservationEndingOnASlotBoundaryLeavesTheNextSlotFree() {
+        SlotBitmapCalendar calendar = calendarWith(1, slot(10), slot(12));
+
+        assertEquals(List.of(), calendar.filterFree(List.of(1), slot(11), slot(12)));
+        assertEquals(List.of(1), calendar.filterFree(List.of(1), slot(12), slot(13)));
+        assertEquals(List.of(1), calendar.filterFree(List.of(1), slot(9), slot(10)));
+    }
+
+    @Test
+    void partialSlotsAreBusy() {
+        SlotBitmapCalendar calendar = calendarWith(1, slot(10) + 1, slot(11) - 1);
+
+        // The window and the reservation never overlap, but they share slot 10
+        assertEquals(List.of(), calendar.filterFree(List.of(1), slot(11) - 1, slot(11) + SLOT / 2));
+        assertEquals(List.of(), calendar.filterFree(List.of(1), slot(9), slot(10) + 1));
+        assertEquals(List.of(1), calendar.filterFree(List.of(1), slot(11), slot(12)));
+    }
+
+    @Test
+    void reservationsAreClippedToTheHorizon() {
+        VehicleIntervalTree tree = new VehicleIntervalTree();
+        tree.insert(1, ORIGIN - 5 * SLOT, ORIGIN + 1);
+        tree.insert(2, HORIZON_END - 1, HORIZON_END + 5 * SLOT);
+        SlotBitmapCalendar calendar = new SlotBitmapCalendar(SLOT, SLOTS, ORIGIN);
+        calendar.rebuild(7, tree);
+
+        assertEquals(List.of(), calendar.filterFree(List.of(7), ORIGIN, ORIGIN + SLOT));
+        assertEquals(List.of(7), calendar.filterFree(List.of(7), ORIGIN + SLOT, HORIZON_END - SLOT));
+        assertEquals(List.of(), calendar.filterFree(List.of(7), HORIZON_END - SLOT, HORIZON_END));
+    }
+
+    @Test
+    void reservationEntirelyOutsideTheHorizonSetsNoBits() {
+        VehicleIntervalTree tree = new VehicleIntervalTree();
+        tree.insert(1, ORIGIN - 5 * SLOT, ORIGIN);
+        tree.insert(2, HORIZON_END, HORIZON_END + 5 * SLOT);
+        SlotBitmapCalendar calendar = new SlotBitmapCalendar(SLOT, SLOTS, ORIGIN);
+        calendar.rebuild(7, tree);
+
+        assertEquals(List.of(7), calendar.filterFree(List.of(7), ORIGIN, HORIZON_END));
+    }
+
+    @Test
+    void windowsAcrossAWordBoundary() {
+        SlotBitmapCalendar calendar = calendarWith(1, slot(64), slot(65));
+
+        assertEquals(List.of(), calendar.filterFree(List.of(1), slot(63), slot(65)));
+        assertEquals(List.of(1), calendar.filterFree(List.of(1), slot(60), slot(64)));
+        assertEquals(List.of(1), calendar.filterFree(List.of(1), slot(65), HORIZON_END));
+        assertEquals(List.of(), calendar.filterFree(List.of(1), ORIGIN, HORIZON_END));
+    }
+
+    @Test
+    void emptiedTreeFreesTheVehicle() {
+        VehicleIntervalTree tree = new VehicleIntervalTree();
+        tree.insert(1, slot(3), slot(4));
+        SlotBitmapCalendar calendar = new SlotBitmapCalendar(SLOT, SLOTS, ORIGIN);
+        calendar.rebuild(7, tree);
+        assertEquals(List.of(8), calendar.filterFree(List.of(7, 8), slot(3), slot(4)));
+
+        tree.remove(1, slot(3));
+        calendar.rebuild(7, tree);
+
+        assertEquals(List.of(7, 8), calendar.filterFree(List.of(7, 8), slot(3), slot(4)));
+    }
+
+    @Test
+    void agreesWithTheIntervalTreesOnSlotAlignedWindows() {
+        Random random = new Random(20240815L);
+        List<VehicleIntervalTree> trees = randomFleet(random, true);
+        SlotBitmapCalendar calendar = calendarFor(trees);
+        List<Integer> vehicleIds = vehicleIds(trees);
+
+        for (int query = 0; query < 5_000; query++) {
+            int first = random.nextInt(SLOTS);
+            long start = slot(first);
+            long end = slot(first + 1 + random.nextInt(SLOTS - first));
+            assertEquals(treeFree(trees, start, end), calendar.filterFree(vehicleIds, start, end),
+                    "window [" + start + ", " + end + ")");
+        }
+    }
+
+    @Test
+    void neverReportsFreeWhatTheIntervalTreesReportBusy() {
+        Random random = new Random(20240816L);
+        List<VehicleIntervalTree> trees = randomFleet(random, false);
+        SlotBitmapCalendar calendar = calendarFor(trees);
+        List<Integer> vehicleIds = vehicleIds(trees);
+
+        int stricter = 0;
+        for (int query = 0; query < 5_000; query++) {
+            long start = ORIGIN + (long) (random.nextDouble() * (HORIZON_END - ORIGIN - 1));
+            long end = Math.min(HORIZON_END, start + 1 + (long) (random.nextDouble() * 8 * SLOT));
+            List<Integer> bitmapFree = calendar.filterFree(vehicleIds, start, end);
+            List<Integer> treeFree = treeFree(trees, start, end);
+            assertTrue(treeFree.containsAll(bitmapFree), "window [" + start + ", " + end + ")");
+            stricter += treeFree.size() - bitmapFree.size();
+        }
+        // Unaligned windows do hit the partial-slot case, so the check above is not vacuous
+        assertTrue(stricter > 0);
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private static long slot(int index) {
+        return ORIGIN + index * SLOT;
+    }
+
+    private static SlotBitmapCalendar calendarWith(int bookingId, long start, long end) {
+        VehicleIntervalTree tree = new VehicleIntervalTree();
+        tree.insert(bookingId, start, end);
+        SlotBitmapCalendar calendar = new SlotBitmapCalendar(SLOT, SLOTS, ORIGIN);
+        calendar.rebuild(1, tree);
+        return calendar;
+    }
+
+    // Vehicle i is trees.get(i); a few are left without reservations
+    private static List<VehicleIntervalTree> randomFleet(Random random, boolean slotAligned) {
+        List<VehicleIntervalTree> trees = new ArrayList<>();
+        int bookingId = 0;
+        for (int vehicle = 0; vehicle < 40; vehicle++) {
+            VehicleIntervalTree tree = new VehicleIntervalTree();
+            int reservations = vehicle % 8 == 0 ? 0 : 1 + random.nextInt(6);
+            for (int i = 0; i < reservations; i++) {
+                // Some reservations start before the origin or run past the horizon
+                long start;
+                long end;
+                if (slotAligned) {
+                    start = slot(random.nextInt(SLOTS + 20) - 10);
+                    end = start + (1 + random.nextInt(12)) * SLOT;
+                } else {
+                    start = ORIGIN - 10 * SLOT + (long) (random.nextDouble() * (SLOTS + 20) * SLOT);
+                    end = start + 1 + (long) (random.nextDouble() * 12 * SLOT);
+                }
+                tree.insert(bookingId++, start, end);
+            }
+            trees.add(tree);
+        }
+        return trees;
+    }
+
+    private static SlotBitmapCalendar calendarFor(List<VehicleIntervalTree> trees) {
+        SlotBitmapCalendar calendar = new SlotBitmapCalendar(SLOT, SLOTS, ORIGIN);
+        for (int vehicle = 0; vehicle < trees.size(); vehicle++) {
+            calendar.rebuild(vehicle, trees.get(vehicle));
+        }
+        return calendar;
+    }
+
+    private static List<Integer> vehicleIds(List<VehicleIntervalTree> trees) {
+        List<Integer> ids = new ArrayList<>();
+        for (int vehicle = 0; vehicle < trees.size(); vehicle++) {
+            ids.add(vehicle);
+        }
+        return ids;
+    }
+
+    private static List<Integer> treeFree(List<VehicleIntervalTree> trees, long start, long end) {
+        List<Integer> free = new ArrayList<>();
+        for (int vehicle = 0; vehicle < trees.size(); vehicle++) {
+            if (!trees.get(vehicle).overlaps(start, end)) {
+                free.add(vehicle);
+            }
+        }
+        return free;
+    }
+}
@@ -0,0 +1,127 @@
+package com.group7.evr.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelemetryCodecTest {
+
+    @Test
+    void roundTripsDeltasOfEitherSignUnknownsAndExtremes() {
+        long[][] samples = {
+                {1_700_000_000L, 8_000, 1_234_567},
+                {1_700_000_005L, 7_999, 1_234_600},
+                {1_700_000_010L, TelemetryCodec.UNKNOWN, 1_234_600},
+                {1_700_000_011L, 10_000, TelemetryCodec.UNKNOWN},
+                {1_700_086_400L, 0, 0},
+                {1_800_000_000L, 10_000, Long.MAX_VALUE / 4},
+                {1_800_000_001L, 1, -Long.MAX_VALUE / 4},
+        };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TelemetryCodec.writeHeader(out);
+        TelemetryCodec.State encoder = new TelemetryCodec.State();
+        for (long[] sample : samples) {
+            TelemetryCodec.encode(encoder, sample[0], sample[1], sample[2], out);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+        assertTrue(TelemetryCodec.hasValidHeader(buffer));
+        TelemetryCodec.State decoder = new TelemetryCodec.State();
+        List<long[]> decoded = new ArrayList<>();
+        int validEnd = TelemetryCodec.decode(buffer, decoder, (epochSecond, battery, mileage) ->
+                decoded.add(new long[]{epochSecond, battery, mileage}));
+
+        assertEquals(out.size(), validEnd);
+        assertArrayEquals(samples, decoded.toArray(new long[0][]));
+        assertEquals(encoder.getEpochSecond(), decoder.getEpochSecond());
+        assertEquals(encoder.getBattery(), decoder.getBattery());
+        assertEquals(encoder.getMileage(), decoder.getMileage());
+    }
+
+    @Test
+    void steadyFiveSecondCadenceTakesAboutThreeBytesPerSample() {
+        Random random = new Random(1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TelemetryCodec.State state = new TelemetryCodec.State();
+        TelemetryCodec.encode(state, 1_700_000_000L, 9_000, 500_000, out);
+        int headerSample = out.size();
+        long second = 1_700_000_000L;
+        long battery = 9_000;
+        long mileage = 500_000;
+        for (int i = 0; i < 10_000; i++) {
+            second += 5;
+            battery -= random.nextInt(3);
+            mileage += random.nextInt(20);
+            TelemetryCodec.encode(state, second, battery, mileage, out);
+        }
+
+        assertEquals(3.0, (out.size() - headerSample) / 10_000.0, 1e-9);
+    }
+
+    @Test
+    void decodeStopsBeforeATornLastSample() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TelemetryCodec.State state = new TelemetryCodec.State();
+        TelemetryCodec.encode(state, 1_700_000_000L, 5_000, 100_000, out);
+        TelemetryCodec.encode(state, 1_700_000_005L, 4_990, 100_050, out);
+        int intactEnd = out.size();
+        // Large deltas so the last sample spans several bytes per field
+        TelemetryCodec.encode(state, 1_800_000_000L, 10_000, 900_000_000, out);
+        byte[] bytes = out.toByteArray();
+
+        for (int length = intactEnd; length < bytes.length; length++) {
+            List<long[]> decoded = new ArrayList<>();
+            int validEnd = TelemetryCodec.decode(ByteBuffer.wrap(Arrays.copyOf(bytes, length)),
+                    new TelemetryCodec.State(), (epochSecond, battery, mileage) ->
+                            decoded.add(new long[]{epochSecond, battery, mileage}));
+
+            assertEquals(intactEnd, validEnd, "cut at " + length);
+            assertEquals(2, decoded.size(), "cut at " + length);
+        }
+    }
+
+    @Test
+    void decodeStopsAtAMalformedVarint() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TelemetryCodec.encode(new TelemetryCodec.State(), 1_700_000_000L, 5_000, 100_000, out);
+        int intactEnd = out.size();
+        for (int i = 0; i < 11; i++) {
+            out.write(0x80);
+        }
+        out.write(0);
+
+        int[] samples = {0};
+        int validEnd = TelemetryCodec.decode(ByteBuffer.wrap(out.toByteArray()), new TelemetryCodec.State(),
+                (epochSecond, battery, mileage) -> samples[0]++);
+
+        assertEquals(intactEnd, validEnd);
+        assertEquals(1, samples[0]);
+    }
+
+    @Test
+    void headerCheckRejectsShortForeignAndNewerFiles() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TelemetryCodec.writeHeader(out);
+        byte[] header = out.toByteArray();
+        byte[] otherVersion = header.clone();
+        otherVersion[4]++;
+        byte[] otherMagic = header.clone();
+        otherMagic[0] = 'X';
+
+        assertEquals(TelemetryCodec.HEADER_BYTES, header.length);
+        assertTrue(TelemetryCodec.hasValidHeader(ByteBuffer.wrap(header)));
+        assertFalse(TelemetryCodec.hasValidHeader(ByteBuffer.wrap(Arrays.copyOf(header, 4))));
+        assertFalse(TelemetryCodec.hasValidHeader(ByteBuffer.wrap(otherVersion)));
+        assertFalse(TelemetryCodec.hasValidHeader(ByteBuffer.wrap(otherMagic)));
+    }
+}
@@ -0,0 +1,183 @@
+package com.group7.evr.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UtilizationSweepTest {
+    private static final long HOUR = 3_600_000L;
+
+    private record Interval(int vehicleId, int stationId, int modelId, long start, long end) {
+    }
+
+    @Test
+    void overlappingAndTouchingIntervalsOfOneVehicleCountOnce() {
+        UtilizationSweep sweep = new UtilizationSweep(0, 10 * HOUR, HOUR);
+
+        sweep.accept(1, 1, 1, 1 * HOUR, 3 * HOUR);
+        sweep.accept(1, 1, 1, 2 * HOUR, 4 * HOUR);
+        sweep.accept(1, 1, 1, 4 * HOUR, 5 * HOUR);
+        sweep.accept(1, 1, 1, 7 * HOUR, 8 * HOUR);
+        sweep.finish();
+
+        assertEquals(5 * HOUR, sweep.getBookedMillis());
+        assertArrayEquals(new long[]{0, 1, 1, 1, 1, 0, 0, 1, 0, 0}, sweep.bookedVehiclesPerBucket());
+    }
+
+    @Test
+    void twoSeparateBookingsInOneHourCountTheVehicleOnceInThatBucket() {
+        UtilizationSweep sweep = new UtilizationSweep(0, 3 * HOUR, HOUR);
+
+        sweep.accept(1, 1, 1, HOUR / 6, HOUR / 3);
+        sweep.accept(1, 1, 1, HOUR / 2, HOUR + HOUR / 2);
+        sweep.accept(1, 1, 1, 2 * HOUR - HOUR / 6, 2 * HOUR);
+        sweep.finish();
+
+        assertEquals(HOUR / 6 + HOUR + HOUR / 6, sweep.getBookedMillis());
+        assertArrayEquals(new long[]{1, 1, 0}, sweep.bookedVehiclesPerBucket());
+    }
+
+    @Test
+    void differentVehiclesAtTheSameTimeBothCount() {
+        UtilizationSweep sweep = new UtilizationSweep(0, 4 * HOUR, HOUR);
+
+        sweep.accept(1, 1, 10, HOUR, 3 * HOUR);
+        sweep.accept(2, 2, 10, HOUR, 2 * HOUR);
+        sweep.finish();
+
+        assertEquals(3 * HOUR, sweep.getBookedMillis());
+        assertEquals(2 * HOUR, sweep.getBookedByStation().get(1));
+        assertEquals(HOUR, sweep.getBookedByStation().get(2));
+        assertEquals(3 * HOUR, sweep.getBookedByModel().get(10));
+        assertArrayEquals(new long[]{0, 2, 1, 0}, sweep.bookedVehiclesPerBucket());
+    }
+
+    @Test
+    void clipsIntervalsAtTheWindowEdges() {
+        UtilizationSweep sweep = new UtilizationSweep(10 * HOUR, 14 * HOUR, HOUR);
+
+        sweep.accept(1, 1, 1, 8 * HOUR, 11 * HOUR);
+        sweep.accept(2, 1, 1, 13 * HOUR + HOUR / 2, 20 * HOUR);
+        sweep.accept(3, 1, 1, 0, 5 * HOUR);
+        sweep.accept(4, 1, 1, 15 * HOUR, 16 * HOUR);
+        sweep.accept(5, 1, 1, 9 * HOUR, 30 * HOUR);
+        sweep.finish();
+
+        assertEquals(HOUR + HOUR / 2 + 4 * HOUR, sweep.getBookedMillis());
+        assertArrayEquals(new long[]{2, 1, 1, 2}, sweep.bookedVehiclesPerBucket());
+    }
+
+    @Test
+    void partialLastBucketAndEmptyIntervalsAreHandled() {
+        UtilizationSweep sweep = new UtilizationSweep(0, 2 * HOUR + 1, HOUR);
+
+        sweep.accept(1, 1, 1, 2 * HOUR, 3 * HOUR);
+        sweep.accept(2, 1, 1, HOUR, HOUR);
+        sweep.finish();
+
+        assertEquals(3, sweep.bucketCount());
+        assertEquals(1, sweep.getBookedMillis());
+        assertArrayEquals(new long[]{0, 0, 1}, sweep.bookedVehiclesPerBucket());
+    }
+
+    @Test
+    void mergingVehicleRangeSweepsMatchesOneFleetSweep() {
+        List<Interval> intervals = randomIntervals(new Random(11), 60, 400, 200);
+        UtilizationSweep fleet = sweep(intervals, new VehicleIdRange(0, 59));
+        UtilizationSweep merged = new UtilizationSweep(0, 200 * HOUR, HOUR);
+        for (VehicleIdRange range : VehicleIdRange.split(0, 59, 7)) {
+            merged.merge(sweep(intervals, range));
+        }
+
+        assertEquals(fleet.getBookedMillis(), merged.getBookedMillis());
+        assertEquals(fleet.getBookedByStation(), merged.getBookedByStation());
+        assertEquals(fleet.getBookedByModel(), merged.getBookedByModel());
+        assertArrayEquals(fleet.bookedVehiclesPerBucket(), merged.bookedVehiclesPerBucket());
+    }
+
+    @Test
+    void mergeRejectsOtherWindowsAndUnfinishedSweeps() {
+        UtilizationSweep sweep = new UtilizationSweep(0, 10 * HOUR, HOUR);
+        UtilizationSweep unfinished = new UtilizationSweep(0, 10 * HOUR, HOUR);
+        unfinished.accept(1, 1, 1, 0, HOUR);
+
+        assertThrows(IllegalArgumentException.class, () -> sweep.merge(new UtilizationSweep(0, 11 * HOUR, HOUR)));
+        assertThrows(IllegalStateException.class, () -> sweep.merge(unfinished));
+    }
+
+    @Test
+    void matchesBruteForceOverRandomIntervals() {
+        // Whole-minute intervals, so a per-minute occupancy grid is an exact oracle
+        long minute = 60_000L;
+        int minutes = 48 * 60;
+        Random random = new Random(42);
+        List<Interval> intervals = new ArrayList<>();
+        for (int i = 0; i < 1_500; i++) {
+            int vehicle = random.nextInt(50);
+            long start = (random.nextInt(minutes + 240) - 120) * minute;
+            intervals.add(new Interval(vehicle, vehicle % 5, vehicle % 3, start, start + (1 + random.nextInt(90)) * minute));
+        }
+        long windowStart = 0;
+        long windowEnd = minutes * minute;
+        intervals.sort(Comparator.comparingInt(Interval::vehicleId).thenComparingLong(Interval::start));
+
+        UtilizationSweep sweep = new UtilizationSweep(windowStart, windowEnd, HOUR);
+        intervals.forEach(i -> sweep.accept(i.vehicleId(), i.stationId(), i.modelId(), i.start(), i.end()));
+        sweep.finish();
+
+        boolean[][] booked = new boolean[50][minutes];
+        for (Interval interval : intervals) {
+            for (long m = Math.max(0, interval.start() / minute); m < Math.min(minutes, interval.end() / minute); m++) {
+                booked[interval.vehicleId()][(int) m] = true;
+            }
+        }
+        long bookedMinutes = 0;
+        long[] perHour = new long[48];
+        for (int vehicle = 0; vehicle < 50; vehicle++) {
+            boolean[] inHour = new boolean[48];
+            for (int m = 0; m < minutes; m++) {
+                if (booked[vehicle][m]) {
+                    bookedMinutes++;
+                    inHour[m / 60] = true;
+                }
+            }
+            for (int h = 0; h < 48; h++) {
+                perHour[h] += inHour[h] ? 1 : 0;
+            }
+        }
+
+        assertEquals(bookedMinutes * minute, sweep.getBookedMillis());
+        assertArrayEquals(perHour, sweep.bookedVehiclesPerBucket());
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    private static UtilizationSweep sweep(List<Interval> intervals, VehicleIdRange range) {
+        UtilizationSweep sweep = new UtilizationSweep(0, 200 * HOUR, HOUR);
+        intervals.stream()
+                .filter(i -> i.vehicleId() >= range.fromId() && i.vehicleId() <= range.toId())
+                .forEach(i -> sweep.accept(i.vehicleId(), i.stationId(), i.modelId(), i.start(), i.end()));
+        sweep.finish();
+        return sweep;
+    }
+
+    // Sorted by (vehicle, start), as the report query streams them
+    private static List<Interval> randomIntervals(Random random, int vehicles, int count, int hours) {
+        List<Interval> intervals = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int vehicle = random.nextInt(vehicles);
+            long start = (long) (random.nextDouble() * (hours + 20) * HOUR) - 10 * HOUR;
+            long end = start + (long) (random.nextDouble() * 30 * HOUR);
+            intervals.add(new Interval(vehicle, vehicle % 4, vehicle % 7, start, end));
+        }
+        intervals.sort(Comparator.comparingInt(Interval::vehicleId).thenComparingLong(Interval::start));
+        return intervals;
+    }
+}
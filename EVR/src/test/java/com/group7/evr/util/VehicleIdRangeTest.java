@@ -0,0 +1,65 @@
+package com.group7.evr.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VehicleIdRangeTest {
+
+    @Test
+    void rangesCoverTheIdsExactlyInNearlyEqualWidths() {
+        Random random = new Random(5);
+        for (int i = 0; i < 500; i++) {
+            int minId = random.nextInt(1_000);
+            int maxId = minId + random.nextInt(5_000);
+            int parts = 1 + random.nextInt(32);
+
+            List<VehicleIdRange> ranges = VehicleIdRange.split(minId, maxId, parts);
+
+            assertEquals(Math.min(parts, maxId - minId + 1), ranges.size());
+            assertEquals(minId, ranges.get(0).fromId());
+            assertEquals(maxId, ranges.get(ranges.size() - 1).toId());
+            int narrowest = Integer.MAX_VALUE;
+            int widest = 0;
+            for (int r = 0; r < ranges.size(); r++) {
+                VehicleIdRange range = ranges.get(r);
+                assertTrue(range.fromId() <= range.toId(), range.toString());
+                if (r > 0) {
+                    assertEquals(ranges.get(r - 1).toId() + 1, range.fromId());
+                }
+                narrowest = Math.min(narrowest, range.toId() - range.fromId() + 1);
+                widest = Math.max(widest, range.toId() - range.fromId() + 1);
+            }
+            assertTrue(widest - narrowest <= 1, ranges.toString());
+        }
+    }
+
+    @Test
+    void neverMoreRangesThanIdsAndAtLeastOne() {
+        assertEquals(List.of(new VehicleIdRange(7, 7)), VehicleIdRange.split(7, 7, 8));
+        assertEquals(List.of(new VehicleIdRange(1, 1), new VehicleIdRange(2, 2), new VehicleIdRange(3, 3)),
+                VehicleIdRange.split(1, 3, 10));
+        assertEquals(List.of(new VehicleIdRange(1, 100)), VehicleIdRange.split(1, 100, 0));
+    }
+
+    @Test
+    void idsAtTheEdgesOfTheIntRangeDoNotOverflow() {
+        List<VehicleIdRange> ranges = VehicleIdRange.split(Integer.MAX_VALUE - 9, Integer.MAX_VALUE, 4);
+
+        assertEquals(List.of(new VehicleIdRange(Integer.MAX_VALUE - 9, Integer.MAX_VALUE - 7),
+                new VehicleIdRange(Integer.MAX_VALUE - 6, Integer.MAX_VALUE - 4),
+                new VehicleIdRange(Integer.MAX_VALUE - 3, Integer.MAX_VALUE - 2),
+                new VehicleIdRange(Integer.MAX_VALUE - 1, Integer.MAX_VALUE)), ranges);
+        assertEquals(4, VehicleIdRange.split(0, Integer.MAX_VALUE, 4).size());
+    }
+
+    @Test
+    void reversedBoundsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> VehicleIdRange.split(5, 4, 2));
+    }
+}
@@ -0,0 +1,122 @@
+package com.group7.evr.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VehicleIntervalTreeTest {
+
+    private record Interval(int id, long start, long end) {
+    }
+
+    @Test
+    void overlapIsHalfOpen() {
+        VehicleIntervalTree tree = new VehicleIntervalTree();
+        tree.insert(1, 10, 20);
+
+        assertTrue(tree.overlaps(19, 30));
+        assertTrue(tree.overlaps(0, 11));
+        assertTrue(tree.overlaps(12, 15));
+        assertFalse(tree.overlaps(20, 30));
+        assertFalse(tree.overlaps(0, 10));
+        assertFalse(tree.overlaps(10, 20, 1));
+    }
+
+    @Test
+    void duplicateInsertAndUnknownRemoveAreNoOps() {
+        VehicleIntervalTree tree = new VehicleIntervalTree();
+        tree.insert(1, 10, 20);
+        tree.insert(1, 10, 20);
+
+        assertEquals(1, tree.size());
+        assertFalse(tree.remove(2, 10));
+        assertFalse(tree.remove(1, 11));
+        assertTrue(tree.remove(1, 10));
+        assertTrue(tree.isEmpty());
+    }
+
+    @Test
+    void removingTheLongestIntervalShrinksMaxEnd() {
+        VehicleIntervalTree tree = new VehicleIntervalTree();
+        tree.insert(1, 0, 1_000);
+        for (int i = 2; i < 50; i++) {
+            tree.insert(i, i * 10L, i * 10L + 5);
+        }
+        assertFalse(tree.overlaps(2_000, 3_000));
+        assertTrue(tree.overlaps(496, 499));
+
+        tree.remove(1, 0);
+
+        // [496, 499) only fell inside the removed interval
+        assertFalse(tree.overlaps(496, 499));
+        assertTrue(tree.overlaps(490, 492));
+    }
+
+    @Test
+    void staysBalancedUnderSortedInsertsAndDeletes() {
+        VehicleIntervalTree tree = new VehicleIntervalTree();
+        int n = 4096;
+        for (int i = 0; i < n; i++) {
+            tree.insert(i, i * 100L, i * 100L + 50);
+            assertTrue(tree.height() <= maxAvlHeight(tree.size()), "unbalanced after inserting " + i);
+        }
+        for (int i = 0; i < n; i += 2) {
+            assertTrue(tree.remove(i, i * 100L));
+            assertTrue(tree.height() <= maxAvlHeight(tree.size()), "unbalanced after removing " + i);
+        }
+        for (int i = n - 1; i > n / 2; i -= 2) {
+            assertTrue(tree.remove(i, i * 100L));
+            assertTrue(tree.height() <= maxAvlHeight(tree.size()), "unbalanced after removing " + i);
+        }
+
+        List<Long> starts = new ArrayList<>();
+        tree.forEach((id, start, end) -> starts.add(start));
+        assertEquals(tree.size(), starts.size());
+        for (int i = 1; i < starts.size(); i++) {
+            assertTrue(starts.get(i - 1) < starts.get(i));
+        }
+    }
+
+    @Test
+    void matchesBruteForceUnderRandomOperations() {
+        Random random = new Random(20240601L);
+        VehicleIntervalTree tree = new VehicleIntervalTree();
+        List<Interval> oracle = new ArrayList<>();
+        int nextId = 0;
+
+        for (int op = 0; op < 50_000; op++) {
+            int choice = random.nextInt(10);
+            if (choice < 4 || oracle.isEmpty()) {
+                long start = random.nextInt(10_000);
+                Interval interval = new Interval(nextId++, start, start + 1 + random.nextInt(random.nextBoolean() ? 50 : 2_000));
+                tree.insert(interval.id(), interval.start(), interval.end());
+                oracle.add(interval);
+            } else if (choice < 7) {
+                Interval interval = oracle.remove(random.nextInt(oracle.size()));
+                assertTrue(tree.remove(interval.id(), interval.start()));
+            } else {
+                long start = random.nextInt(11_000);
+                long end = start + 1 + random.nextInt(300);
+                Integer exclude = oracle.isEmpty() || random.nextBoolean() ? null : oracle.get(random.nextInt(oracle.size())).id();
+                boolean expected = oracle.stream()
+                        .anyMatch(i -> i.start() < end && i.end() > start && (exclude == null || i.id() != exclude));
+                assertEquals(expected, tree.overlaps(start, end, exclude), "overlaps(" + start + ", " + end + ", " + exclude + ")");
+            }
+            assertEquals(oracle.size(), tree.size());
+        }
+        assertTrue(tree.height() <= maxAvlHeight(tree.size()));
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    // Upper bound on the height of an AVL tree holding n nodes
+    private static int maxAvlHeight(int n) {
+        return (int) Math.floor(1.4405 * (Math.log(n + 2) / Math.log(2)) - 0.3277);
+    }
+}
@@ -0,0 +1,175 @@
+package com.group7.evr.util;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class XlsxStreamWriterTest {
+
+    @Test
+    void manyRowsRollOverToNewSheetsThatRepeatTheHeader() throws Exception {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        try (XlsxStreamWriter writer = new XlsxStreamWriter(target, "Revenue", 100, "ID", "Amount")) {
+            for (int i = 1; i <= 10_000; i++) {
+                writer.startRow();
+                writer.writeNumber(i);
+                writer.writeString("row " + i);
+            }
+        }
+
+        Map<String, Document> parts = unzip(target.toByteArray());
+        // Header plus 99 data rows per sheet
+        int sheets = (10_000 + 98) / 99;
+        assertEquals(4 + sheets, parts.size());
+        List<String> expected = new ArrayList<>(List.of(
+                "[Content_Types].xml", "_rels/.rels", "xl/workbook.xml", "xl/_rels/workbook.xml.rels"));
+        for (int i = 1; i <= sheets; i++) {
+            expected.add("xl/worksheets/sheet" + i + ".xml");
+        }
+        assertTrue(parts.keySet().containsAll(expected), () -> "entries " + parts.keySet());
+
+        int next = 1;
+        for (int sheet = 1; sheet <= sheets; sheet++) {
+            NodeList rows = parts.get("xl/worksheets/sheet" + sheet + ".xml").getElementsByTagName("row");
+            assertEquals(sheet < sheets ? 100 : 10_000 - 99 * (sheets - 1) + 1, rows.getLength());
+            assertEquals(List.of("ID", "Amount"), cellTexts((Element) rows.item(0)));
+            for (int r = 1; r < rows.getLength(); r++, next++) {
+                Element row = (Element) rows.item(r);
+                assertEquals(String.valueOf(r + 1), row.getAttribute("r"));
+                assertEquals(List.of(String.valueOf(next), "row " + next), cellTexts(row));
+            }
+        }
+        assertEquals(10_001, next);
+
+        NodeList sheetElements = parts.get("xl/workbook.xml").getElementsByTagName("sheet");
+        assertEquals(sheets, sheetElements.getLength());
+        assertEquals("Revenue 1", ((Element) sheetElements.item(0)).getAttribute("name"));
+        assertEquals("Revenue " + sheets, ((Element) sheetElements.item(sheets - 1)).getAttribute("name"));
+        assertEquals(sheets, parts.get("xl/_rels/workbook.xml.rels").getElementsByTagName("Relationship").getLength());
+        assertEquals(sheets + 1, parts.get("[Content_Types].xml").getElementsByTagName("Override").getLength());
+    }
+
+    @Test
+    void cellReferencesSkipNullsAndRunPastColumnZ() throws Exception {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        try (XlsxStreamWriter writer = new XlsxStreamWriter(target, "Wide")) {
+            writer.startRow();
+            for (int column = 1; column <= 60; column++) {
+                if (column % 10 == 0) {
+                    writer.writeString(null);
+                } else {
+                    writer.writeNumber(column);
+                }
+            }
+            writer.startRow();
+            writer.writeNumber(null);
+            writer.writeString("B2");
+        }
+
+        Document sheet = unzip(target.toByteArray()).get("xl/worksheets/sheet1.xml");
+        NodeList rows = sheet.getElementsByTagName("row");
+        assertEquals(2, rows.getLength());
+        Map<String, Element> cells = new LinkedHashMap<>();
+        NodeList cellList = sheet.getElementsByTagName("c");
+        for (int i = 0; i < cellList.getLength(); i++) {
+            Element cell = (Element) cellList.item(i);
+            cells.put(cell.getAttribute("r"), cell);
+        }
+        assertEquals(55, cells.size());
+        assertEquals("1", text(cells.get("A1")));
+        assertEquals("26", text(cells.get("Z1")));
+        assertEquals("27", text(cells.get("AA1")));
+        assertEquals("59", text(cells.get("BG1")));
+        assertFalse(cells.containsKey("J1"));
+        assertFalse(cells.containsKey("AD1"));
+        assertFalse(cells.containsKey("BH1"));
+        // Numbers are plain numeric cells, strings are inline strings
+        assertEquals("", cells.get("A1").getAttribute("t"));
+        assertEquals("inlineStr", cells.get("B2").getAttribute("t"));
+        assertFalse(cells.containsKey("A2"));
+    }
+
+    @Test
+    void escapesMarkupAndDropsControlCharacters() throws Exception {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        try (XlsxStreamWriter writer = new XlsxStreamWriter(target, "Q&A <1>", "Name")) {
+            writer.startRow();
+            writer.writeString("<b>\"Tom\" & 'Jerry'</b>\u0001\u0008");
+            writer.startRow();
+            writer.writeString("tab\tnew\nline  Trạm Quận 1");
+        }
+
+        Map<String, Document> parts = unzip(target.toByteArray());
+        NodeList rows = parts.get("xl/worksheets/sheet1.xml").getElementsByTagName("row");
+        assertEquals(List.of("<b>\"Tom\" & 'Jerry'</b>"), cellTexts((Element) rows.item(1)));
+        assertEquals(List.of("tab\tnew\nline  Trạm Quận 1"), cellTexts((Element) rows.item(2)));
+        Element sheet = (Element) parts.get("xl/workbook.xml").getElementsByTagName("sheet").item(0);
+        assertEquals("Q&A <1>", sheet.getAttribute("name"));
+    }
+
+    @Test
+    void closeFinishesTheWorkbookButLeavesTheTargetOpen() throws Exception {
+        boolean[] closed = {false};
+        ByteArrayOutputStream target = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+
+        new XlsxStreamWriter(target, "Empty", "A", "B").close();
+
+        assertFalse(closed[0]);
+        Map<String, Document> parts = unzip(target.toByteArray());
+        assertEquals(5, parts.size());
+        assertEquals(1, parts.get("xl/worksheets/sheet1.xml").getElementsByTagName("row").getLength());
+        assertEquals("Empty", ((Element) parts.get("xl/workbook.xml").getElementsByTagName("sheet").item(0))
+                .getAttribute("name"));
+        assertNull(parts.get("xl/worksheets/sheet2.xml"));
+    }
+
+    // ============ PRIVATE HELPER METHODS ============
+
+    // Every part must be well-formed XML; parsing them all checks the escaping as a side effect
+    private static Map<String, Document> unzip(byte[] workbook) throws Exception {
+        Map<String, Document> parts = new LinkedHashMap<>();
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(workbook))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                zip.transferTo(content);
+                parts.put(entry.getName(), factory.newDocumentBuilder().parse(new ByteArrayInputStream(content.toByteArray())));
+            }
+        }
+        return parts;
+    }
+
+    private static List<String> cellTexts(Element row) {
+        List<String> texts = new ArrayList<>();
+        NodeList cells = row.getElementsByTagName("c");
+        for (int i = 0; i < cells.getLength(); i++) {
+            texts.add(text((Element) cells.item(i)));
+        }
+        return texts;
+    }
+
+    private static String text(Element cell) {
+        return cell.getTextContent();
+    }
+}